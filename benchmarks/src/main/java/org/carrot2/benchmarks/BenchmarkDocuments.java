@@ -0,0 +1,88 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.SampleDocumentData;
+import org.carrot2.language.LanguageComponents;
+
+/**
+ * Synthetic benchmark inputs derived from {@link SampleDocumentData}. The number of documents and
+ * the length of each document can be scaled independently.
+ */
+public final class BenchmarkDocuments {
+  public static final String LANGUAGE = "English";
+
+  private static final List<Map<String, String>> SOURCE;
+
+  static {
+    SOURCE = new ArrayList<>();
+    for (Document doc : SampleDocumentData.DOCUMENTS_DATA_MINING) {
+      Map<String, String> fields = new LinkedHashMap<>();
+      doc.visitFields(fields::put);
+      SOURCE.add(fields);
+    }
+  }
+
+  private BenchmarkDocuments() {}
+
+  /**
+   * Creates a deterministic list of documents.
+   *
+   * @param documents The number of documents to return. If larger than the sample set, source
+   *     documents are recombined (with a different stride on each pass) to avoid exact duplicates.
+   * @param length The number of source snippets concatenated into each document's snippet field.
+   */
+  public static List<Document> create(int documents, int length) {
+    if (documents <= 0 || length <= 0) {
+      throw new IllegalArgumentException("Document count and length must be positive.");
+    }
+
+    final int sourceSize = SOURCE.size();
+    final List<Document> result = new ArrayList<>(documents);
+    for (int i = 0; i < documents; i++) {
+      final int base = i % sourceSize;
+      final int stride = 1 + i / sourceSize;
+
+      final String title = SOURCE.get(base).get("title");
+      final StringBuilder snippet = new StringBuilder();
+      for (int j = 0; j < length; j++) {
+        if (j > 0) {
+          snippet.append(' ');
+        }
+        snippet.append(SOURCE.get((base + j * stride) % sourceSize).get("snippet"));
+      }
+
+      final String content = snippet.toString();
+      result.add(
+          (fieldVisitor) -> {
+            fieldVisitor.accept("title", title);
+            fieldVisitor.accept("snippet", content);
+          });
+    }
+    return result;
+  }
+
+  /** Loads language components for the benchmark language. */
+  public static LanguageComponents languageComponents() {
+    try {
+      return LanguageComponents.loader().limitToLanguages(LANGUAGE).load().language(LANGUAGE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.carrot2.clustering.Cluster;
+import org.carrot2.clustering.ClusteringAlgorithm;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.kmeans.BisectingKMeansClusteringAlgorithm;
+import org.carrot2.clustering.lingo.LingoClusteringAlgorithm;
+import org.carrot2.clustering.stc.STCClusteringAlgorithm;
+import org.carrot2.language.LanguageComponents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** End-to-end clustering benchmarks of all the algorithms available in the core. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClusteringAlgorithmBenchmark {
+  public enum Algorithm {
+    LINGO(LingoClusteringAlgorithm::new),
+    STC(STCClusteringAlgorithm::new),
+    BISECTING_KMEANS(BisectingKMeansClusteringAlgorithm::new);
+
+    private final Supplier<ClusteringAlgorithm> supplier;
+
+    Algorithm(Supplier<ClusteringAlgorithm> supplier) {
+      this.supplier = supplier;
+    }
+  }
+
+  @Param({"LINGO", "STC", "BISECTING_KMEANS"})
+  public Algorithm algorithm;
+
+  @Param({"100", "500", "2000"})
+  public int documents;
+
+  @Param({"1", "4"})
+  public int length;
+
+  private List<Document> input;
+  private LanguageComponents languageComponents;
+
+  @Setup
+  public void setup() {
+    input = BenchmarkDocuments.create(documents, length);
+    languageComponents = BenchmarkDocuments.languageComponents();
+  }
+
+  @Benchmark
+  public List<Cluster<Document>> cluster() {
+    // Algorithm instances are cheap and not guaranteed to be reusable, create a fresh one.
+    return algorithm.supplier.get().cluster(input.stream(), languageComponents);
+  }
+}
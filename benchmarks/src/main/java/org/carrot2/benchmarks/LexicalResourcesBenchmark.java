@@ -0,0 +1,100 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.language.DefaultLexicalDataProvider;
+import org.carrot2.language.LexicalResourceSnapshot;
+import org.carrot2.util.ResourceLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold-start time of loading the word and label filters of all languages of {@link
+ * DefaultLexicalDataProvider}, from JSON or from precompiled {@link LexicalResourceSnapshot}s. Each
+ * measurement runs once in a fresh JVM.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class LexicalResourcesBenchmark {
+  @Param({"JSON", "SNAPSHOT"})
+  public String source;
+
+  private DefaultLexicalDataProvider provider;
+  private ResourceLookup resourceLookup;
+
+  @Setup
+  public void setup() {
+    provider = new DefaultLexicalDataProvider();
+    ResourceLookup defaultLookup = provider.defaultResourceLookup();
+    if (source.equals("SNAPSHOT")) {
+      if (!defaultLookup.exists(
+          LexicalResourceSnapshot.snapshotResource("english.word-filters.json"))) {
+        throw new RuntimeException("Lexical resource snapshots are not on the classpath.");
+      }
+      resourceLookup = defaultLookup;
+    } else {
+      resourceLookup = new JsonOnlyResourceLookup(defaultLookup);
+    }
+  }
+
+  @Benchmark
+  public List<Object> load() throws IOException {
+    List<Object> filters = new ArrayList<>();
+    for (String language : provider.languages()) {
+      filters.add(DefaultLexicalDataProvider.readDefaultWordFilters(language, resourceLookup));
+      filters.add(DefaultLexicalDataProvider.readDefaultLabelFilters(language, resourceLookup));
+    }
+    return filters;
+  }
+
+  /** Hides snapshots, so that JSON resources are parsed. */
+  private static final class JsonOnlyResourceLookup implements ResourceLookup {
+    private final ResourceLookup delegate;
+
+    JsonOnlyResourceLookup(ResourceLookup delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public InputStream open(String resource) throws IOException {
+      return delegate.open(resource);
+    }
+
+    @Override
+    public boolean exists(String resource) {
+      return !resource.endsWith(LexicalResourceSnapshot.SNAPSHOT_EXTENSION)
+          && delegate.exists(resource);
+    }
+
+    @Override
+    public String pathOf(String resource) {
+      return delegate.pathOf(resource);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.matrix.IterativeMatrixFactorizationFactory;
+import org.carrot2.math.matrix.KMeansMatrixFactorizationFactory;
+import org.carrot2.math.matrix.LanczosSingularValueDecompositionFactory;
+import org.carrot2.math.matrix.LocalNonnegativeMatrixFactorizationFactory;
+import org.carrot2.math.matrix.MatrixFactorization;
+import org.carrot2.math.matrix.MatrixFactorizationFactory;
+import org.carrot2.math.matrix.MatrixUtils;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationKLFactory;
+import org.carrot2.math.matrix.PartialSingularValueDecompositionFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
+import org.carrot2.text.preprocessing.CompletePreprocessingPipeline;
+import org.carrot2.text.vsm.TermDocumentMatrixBuilder;
+import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of each {@link MatrixFactorizationFactory} applied to a real term-document matrix,
+ * configured the same way Lingo's term-document matrix reducer configures them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixFactorizationBenchmark {
+  public enum Factory {
+    NMF_ED(NonnegativeMatrixFactorizationEDFactory::new),
+    NMF_KL(NonnegativeMatrixFactorizationKLFactory::new),
+    LOCAL_NMF(LocalNonnegativeMatrixFactorizationFactory::new),
+    KMEANS(KMeansMatrixFactorizationFactory::new),
+    PARTIAL_SVD(PartialSingularValueDecompositionFactory::new),
+    RANDOMIZED_SVD(RandomizedSingularValueDecompositionFactory::new),
+    LANCZOS_SVD(LanczosSingularValueDecompositionFactory::new);
+
+    private final Supplier<MatrixFactorizationFactory> supplier;
+
+    Factory(Supplier<MatrixFactorizationFactory> supplier) {
+      this.supplier = supplier;
+    }
+  }
+
+  @Param({
+    "NMF_ED",
+    "NMF_KL",
+    "LOCAL_NMF",
+    "KMEANS",
+    "PARTIAL_SVD",
+    "RANDOMIZED_SVD",
+    "LANCZOS_SVD"
+  })
+  public Factory factory;
+
+  @Param({"100", "500", "2000"})
+  public int documents;
+
+  @Param({"1", "4"})
+  public int length;
+
+  private DoubleMatrix2D termDocumentMatrix;
+  private MatrixFactorizationFactory factorizationFactory;
+
+  @Setup
+  public void setup() {
+    VectorSpaceModelContext vsmContext =
+        new VectorSpaceModelContext(
+            new CompletePreprocessingPipeline()
+                .preprocess(
+                    BenchmarkDocuments.create(documents, length).stream(),
+                    null,
+                    BenchmarkDocuments.languageComponents()));
+    new TermDocumentMatrixBuilder().buildTermDocumentMatrix(vsmContext);
+    termDocumentMatrix = vsmContext.termDocumentMatrix;
+
+    // Same base vector count as Lingo's defaults (30 desired clusters).
+    int dimensions = Math.min((int) (3 * Math.sqrt(documents)), documents);
+
+    factorizationFactory = factory.supplier.get();
+    if (factorizationFactory instanceof IterativeMatrixFactorizationFactory) {
+      ((IterativeMatrixFactorizationFactory) factorizationFactory)
+          .estimateIterationsNumber(dimensions, termDocumentMatrix);
+    } else if (factorizationFactory instanceof RandomizedSingularValueDecompositionFactory) {
+      ((RandomizedSingularValueDecompositionFactory) factorizationFactory).setK(dimensions);
+    } else if (factorizationFactory instanceof LanczosSingularValueDecompositionFactory) {
+      ((LanczosSingularValueDecompositionFactory) factorizationFactory).setK(dimensions);
+    }
+    MatrixUtils.normalizeColumnL2(termDocumentMatrix, null);
+  }
+
+  @Benchmark
+  public MatrixFactorization factorize() {
+    return factorizationFactory.factorize(termDocumentMatrix);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DoubleKernels;
+import org.carrot2.math.matrix.MatrixUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link DoubleKernels}, dense matrix products and column normalization. The kernels
+ * used by the matrix classes are fixed at startup; run with <code>
+ * -Pjmh.args="-jvmArgsAppend -Dcarrot2.math.kernels=unrolled"</code> to compare products and
+ * normalization.
+ *
+ * <p>The Vector API kernels need Java 17+ and the incubator module: <code>
+ * -Pjmh.args="-p kernels=scalar,vector -jvmArgsAppend --add-modules=jdk.incubator.vector"</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixKernelsBenchmark {
+  @Param({"scalar", "unrolled"})
+  public String kernels;
+
+  @Param({"64", "1024", "16384"})
+  public int length;
+
+  @Param({"1", "4"})
+  public int threads;
+
+  private DoubleKernels selected;
+  private double[] x;
+  private double[] y;
+
+  private DenseDoubleMatrix2D a;
+  private DoubleMatrix2D b;
+  private DoubleMatrix2D c;
+  private ForkJoinPool pool;
+  private DoubleMatrix2D columns;
+  private double[] work;
+
+  @Setup
+  public void setup() {
+    selected = DoubleKernels.forName(kernels);
+
+    Random rnd = new Random(0xdeadbeef);
+    x = new double[length];
+    y = new double[length];
+    for (int i = 0; i < length; i++) {
+      x[i] = rnd.nextDouble();
+      y[i] = rnd.nextDouble();
+    }
+
+    // Square matrices with side 4 * sqrt(length), so the largest product is tiled.
+    int size = (int) Math.max(8, Math.round(Math.sqrt(length) * 4));
+    a = (DenseDoubleMatrix2D) random(rnd, size, size);
+    b = random(rnd, size, size);
+    c = new DenseDoubleMatrix2D(size, size);
+
+    pool = new ForkJoinPool(threads);
+
+    // Normalized in place; normalizing again keeps the values in range.
+    columns = random(rnd, size, size);
+    work = new double[size];
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public double dot() {
+    return selected.dot(x, 0, y, 0, length);
+  }
+
+  @Benchmark
+  public double[] axpy() {
+    selected.axpy(1e-9, x, 0, y, 0, length);
+    return y;
+  }
+
+  @Benchmark
+  public DoubleMatrix2D denseProduct() {
+    return a.zMult(b, c, 1, 0, false, false, pool, threads);
+  }
+
+  @Benchmark
+  public DoubleMatrix2D normalizeColumns() {
+    return MatrixUtils.normalizeColumnL2(columns, work);
+  }
+
+  private static DoubleMatrix2D random(Random rnd, int rows, int columns) {
+    DoubleMatrix2D m = new DenseDoubleMatrix2D(rows, columns);
+    for (int r = 0; r < rows; r++) {
+      for (int col = 0; col < columns; col++) {
+        m.setQuick(r, col, rnd.nextDouble());
+      }
+    }
+    return m;
+  }
+}
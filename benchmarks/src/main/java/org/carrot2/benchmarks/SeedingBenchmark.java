@@ -0,0 +1,105 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.matrix.IterativeMatrixFactorization;
+import org.carrot2.math.matrix.MatrixUtils;
+import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
+import org.carrot2.math.matrix.SeedingMethod;
+import org.carrot2.text.preprocessing.CompletePreprocessingPipeline;
+import org.carrot2.text.vsm.TermDocumentMatrixBuilder;
+import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link SeedingMethod}s of NMF-ED run until the relative decrease of the approximation
+ * error drops below {@link #stopThreshold}, reporting wall time and the number of iterations needed
+ * (see {@link Statistics}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeedingBenchmark {
+  @Param({"RANDOM", "KMEANS", "NNDSVD", "NNDSVDA"})
+  public SeedingMethod seeding;
+
+  @Param({"100", "500", "2000"})
+  public int documents;
+
+  @Param({"0.001"})
+  public double stopThreshold;
+
+  private DoubleMatrix2D termDocumentMatrix;
+  private NonnegativeMatrixFactorizationEDFactory factorizationFactory;
+
+  /**
+   * Total number of factorizations and NMF iterations in each measurement iteration, reported as
+   * secondary results. Their ratio is the average number of iterations to reach the threshold.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Statistics {
+    public long factorizations;
+    public long iterations;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      factorizations = 0;
+      iterations = 0;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    VectorSpaceModelContext vsmContext =
+        new VectorSpaceModelContext(
+            new CompletePreprocessingPipeline()
+                .preprocess(
+                    BenchmarkDocuments.create(documents, 1).stream(),
+                    null,
+                    BenchmarkDocuments.languageComponents()));
+    new TermDocumentMatrixBuilder().buildTermDocumentMatrix(vsmContext);
+    termDocumentMatrix = vsmContext.termDocumentMatrix;
+    MatrixUtils.normalizeColumnL2(termDocumentMatrix, null);
+
+    factorizationFactory = new NonnegativeMatrixFactorizationEDFactory();
+    factorizationFactory.seeding.set(seeding);
+    factorizationFactory.setK(Math.min((int) (3 * Math.sqrt(documents)), documents));
+    factorizationFactory.setMaxIterations(500);
+    factorizationFactory.setStopThreshold(stopThreshold);
+  }
+
+  @Benchmark
+  public IterativeMatrixFactorization factorize(Statistics statistics) {
+    IterativeMatrixFactorization factorization =
+        (IterativeMatrixFactorization) factorizationFactory.factorize(termDocumentMatrix);
+    statistics.factorizations++;
+    statistics.iterations += factorization.getIterationsCompleted();
+    return factorization;
+  }
+}
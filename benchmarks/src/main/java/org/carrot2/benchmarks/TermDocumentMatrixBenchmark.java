@@ -0,0 +1,75 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.carrot2.language.LanguageComponents;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.text.preprocessing.CompletePreprocessingPipeline;
+import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.carrot2.text.vsm.TermDocumentMatrixBuilder;
+import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of {@link TermDocumentMatrixBuilder}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TermDocumentMatrixBenchmark {
+  @Param({"100", "500", "2000"})
+  public int documents;
+
+  @Param({"1", "4"})
+  public int length;
+
+  private PreprocessingContext preprocessingContext;
+  private VectorSpaceModelContext termDocumentContext;
+  private final TermDocumentMatrixBuilder builder = new TermDocumentMatrixBuilder();
+
+  @Setup
+  public void setup() {
+    LanguageComponents languageComponents = BenchmarkDocuments.languageComponents();
+    preprocessingContext =
+        new CompletePreprocessingPipeline()
+            .preprocess(
+                BenchmarkDocuments.create(documents, length).stream(), null, languageComponents);
+
+    termDocumentContext = new VectorSpaceModelContext(preprocessingContext);
+    builder.buildTermDocumentMatrix(termDocumentContext);
+  }
+
+  @Benchmark
+  public DoubleMatrix2D termDocumentMatrix() {
+    VectorSpaceModelContext vsmContext = new VectorSpaceModelContext(preprocessingContext);
+    builder.buildTermDocumentMatrix(vsmContext);
+    return vsmContext.termDocumentMatrix;
+  }
+
+  @Benchmark
+  public DoubleMatrix2D termPhraseMatrix() {
+    // The term-phrase matrix only depends on the stem-to-row mapping of the term-document matrix.
+    builder.buildTermPhraseMatrix(termDocumentContext);
+    return termDocumentContext.termPhraseMatrix;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.benchmarks.BenchmarkDocuments;
+import org.carrot2.clustering.Document;
+import org.carrot2.language.LanguageComponents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of individual preprocessing stages. The benchmark lives in the same package as the
+ * (package-private) stage classes so that each stage can be invoked in isolation.
+ *
+ * <p>Each benchmark re-runs a single stage on a context that has been fully preprocessed during
+ * setup. Stages overwrite their outputs in the context so repeated invocations see identical inputs
+ * (with the exception of the tokenizer, which needs a fresh context on each invocation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PreprocessingStagesBenchmark {
+  private static final String QUERY = "data mining";
+
+  @Param({"100", "500", "2000"})
+  public int documents;
+
+  @Param({"1", "4"})
+  public int length;
+
+  private List<Document> input;
+  private LanguageComponents languageComponents;
+  private PreprocessingContext context;
+
+  private final InputTokenizer tokenizer = new InputTokenizer();
+  private final CaseNormalizer caseNormalizer = new CaseNormalizer();
+  private final LanguageModelStemmer stemmer = new LanguageModelStemmer();
+  private final StopListMarker stopListMarker = new StopListMarker();
+  private final PhraseExtractor phraseExtractor = new PhraseExtractor(1);
+  private final SuffixSorter suffixSorter = new SuffixSorter();
+
+  @Setup
+  public void setup() {
+    input = BenchmarkDocuments.create(documents, length);
+    languageComponents = BenchmarkDocuments.languageComponents();
+
+    // Don't close the context, it is reused across invocations.
+    context = new PreprocessingContext(languageComponents);
+    tokenizer.tokenize(context, input.stream());
+    caseNormalizer.normalize(context, 1);
+    stemmer.stem(context, QUERY);
+    stopListMarker.mark(context);
+    phraseExtractor.extractPhrases(context);
+  }
+
+  @Benchmark
+  public PreprocessingContext.AllTokens tokenize() {
+    try (PreprocessingContext ctx = new PreprocessingContext(languageComponents)) {
+      tokenizer.tokenize(ctx, input.stream());
+      return ctx.allTokens;
+    }
+  }
+
+  @Benchmark
+  public PreprocessingContext.AllWords caseNormalize() {
+    caseNormalizer.normalize(context, 1);
+    return context.allWords;
+  }
+
+  @Benchmark
+  public PreprocessingContext.AllStems stem() {
+    stemmer.stem(context, QUERY);
+    return context.allStems;
+  }
+
+  @Benchmark
+  public PreprocessingContext.AllWords markStopWords() {
+    stopListMarker.mark(context);
+    return context.allWords;
+  }
+
+  @Benchmark
+  public int[] suffixSort() {
+    suffixSorter.suffixSort(context);
+    return context.allTokens.lcp;
+  }
+
+  @Benchmark
+  public PreprocessingContext.AllPhrases extractPhrases() {
+    phraseExtractor.extractPhrases(context);
+    return context.allPhrases;
+  }
+}
@@ -528,6 +528,39 @@ public final class ExtendedWhitespaceTokenizerImpl {
 		return zzStartRead;
 	}
 
+	/**
+	 * Reader signalling the end of input placed directly in the buffer.
+	 */
+	private final java.io.Reader zzNullReader = java.io.Reader.nullReader();
+
+	/**
+	 * Reusable buffer for input placed directly in the scanner.
+	 */
+	private char [] zzInputBuffer = new char [0];
+
+	/**
+	 * Return a buffer into which at least {@code length} input characters can be
+	 * copied before calling {@link #yyresetInput(int)}.
+	 */
+	final char [] yyinputBuffer(int length) {
+		// One spare slot so that a single token spanning the entire input
+		// does not force the buffer to grow when end of input is reached.
+		if (zzInputBuffer.length <= length) {
+			zzInputBuffer = new char [length + 1];
+		}
+		return zzInputBuffer;
+	}
+
+	/**
+	 * Reset the scanner to read the first {@code length} characters previously copied
+	 * into {@link #yyinputBuffer(int)}, bypassing a {@link java.io.Reader}.
+	 */
+	final void yyresetInput(int length) {
+		yyreset(zzNullReader);
+		zzBuffer = zzInputBuffer;
+		zzEndRead = length;
+	}
+
 
   /**
    * Creates a new scanner
@@ -21,10 +21,12 @@ import org.carrot2.clustering.stc.STCClusteringAlgorithm;
 import org.carrot2.language.DefaultDictionaryImpl;
 import org.carrot2.language.EphemeralDictionaries;
 import org.carrot2.math.matrix.KMeansMatrixFactorizationFactory;
+import org.carrot2.math.matrix.LanczosSingularValueDecompositionFactory;
 import org.carrot2.math.matrix.LocalNonnegativeMatrixFactorizationFactory;
 import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
 import org.carrot2.math.matrix.NonnegativeMatrixFactorizationKLFactory;
 import org.carrot2.math.matrix.PartialSingularValueDecompositionFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
 import org.carrot2.text.preprocessing.BasicPreprocessingPipeline;
 import org.carrot2.text.preprocessing.CompletePreprocessingPipeline;
 import org.carrot2.text.preprocessing.DocumentAssigner;
@@ -94,6 +96,10 @@ public class ClassNameAliases implements AliasMapperFactory {
             "KMeansMatrixFactorizationFactory",
             KMeansMatrixFactorizationFactory.class,
             KMeansMatrixFactorizationFactory::new)
+        .alias(
+            "LanczosSingularValueDecompositionFactory",
+            LanczosSingularValueDecompositionFactory.class,
+            LanczosSingularValueDecompositionFactory::new)
         .alias(
             "LocalNonnegativeMatrixFactorizationFactory",
             LocalNonnegativeMatrixFactorizationFactory.class,
@@ -110,6 +116,10 @@ public class ClassNameAliases implements AliasMapperFactory {
             "PartialSingularValueDecompositionFactory",
             PartialSingularValueDecompositionFactory.class,
             PartialSingularValueDecompositionFactory::new)
+        .alias(
+            "RandomizedSingularValueDecompositionFactory",
+            RandomizedSingularValueDecompositionFactory.class,
+            RandomizedSingularValueDecompositionFactory::new)
         .alias("EphemeralDictionaries", EphemeralDictionaries.class, EphemeralDictionaries::new)
         .alias("DefaultDictionaryImpl", DefaultDictionaryImpl.class, DefaultDictionaryImpl::new);
   }
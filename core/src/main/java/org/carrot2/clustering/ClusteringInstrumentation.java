@@ -0,0 +1,161 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.carrot2.util.SuppressForbidden;
+
+/**
+ * Optional, per-thread instrumentation of clustering stages. Algorithms wrap each of their
+ * processing stages in a {@link Stage}; if a {@link ClusteringStageListener} has been installed for
+ * the current thread with {@link #withListener}, the listener receives the stage's wall time,
+ * thread CPU time, allocated bytes and input sizes once the stage completes.
+ *
+ * <p>When no listener is installed, stages are no-ops and cost next to nothing.
+ *
+ * <p>CPU time and allocated bytes are read from the thread that opened and closed the stage. Work a
+ * stage hands off to other threads (parallel tokenization, row-block matrix factorization updates,
+ * multi-threaded matrix multiplication) is not included in these figures, only in the wall time.
+ *
+ * <pre>{@code
+ * List<Cluster<Document>> clusters =
+ *     ClusteringInstrumentation.withListener(
+ *         measurement -> System.out.println(measurement),
+ *         () -> algorithm.cluster(documents.stream(), languageComponents));
+ * }</pre>
+ *
+ * @since 4.5.1
+ */
+public final class ClusteringInstrumentation {
+  private static final ThreadLocal<ClusteringStageListener> listeners = new ThreadLocal<>();
+
+  private static final Stage NO_OP = new Stage(null, null);
+
+  private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+  private static final LongSupplier threadCpuTime = threadCpuTimeSupplier();
+  private static final LongSupplier threadAllocatedBytes = threadAllocatedBytesSupplier();
+
+  private ClusteringInstrumentation() {}
+
+  /**
+   * Runs the provided task with a stage listener installed for the current thread. Any listener
+   * installed previously is restored once the task completes.
+   */
+  public static <T> T withListener(ClusteringStageListener listener, Supplier<T> task) {
+    Objects.requireNonNull(listener);
+    ClusteringStageListener previous = listeners.get();
+    listeners.set(listener);
+    try {
+      return task.get();
+    } finally {
+      if (previous == null) {
+        listeners.remove();
+      } else {
+        listeners.set(previous);
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if a stage listener is installed for the current thread.
+   */
+  public static boolean isEnabled() {
+    return listeners.get() != null;
+  }
+
+  /**
+   * Starts measuring a stage. The returned object must be closed (preferably using
+   * try-with-resources) once the stage completes.
+   */
+  public static Stage stage(String name) {
+    ClusteringStageListener listener = listeners.get();
+    if (listener == null) {
+      return NO_OP;
+    } else {
+      return new Stage(name, listener);
+    }
+  }
+
+  /** A single stage being measured. */
+  public static final class Stage implements AutoCloseable {
+    private final String name;
+    private final ClusteringStageListener listener;
+    private final LinkedHashMap<String, Long> sizes;
+    private final long startWallTime;
+    private final long startCpuTime;
+    private final long startAllocatedBytes;
+
+    private Stage(String name, ClusteringStageListener listener) {
+      this.name = name;
+      this.listener = listener;
+      if (listener != null) {
+        this.sizes = new LinkedHashMap<>();
+        this.startAllocatedBytes = threadAllocatedBytes.getAsLong();
+        this.startCpuTime = threadCpuTime.getAsLong();
+        this.startWallTime = System.nanoTime();
+      } else {
+        this.sizes = null;
+        this.startAllocatedBytes = this.startCpuTime = this.startWallTime = 0;
+      }
+    }
+
+    /** Records the size of one of the stage's inputs or outputs. */
+    public Stage size(String key, long value) {
+      if (listener != null) {
+        sizes.put(key, value);
+      }
+      return this;
+    }
+
+    @Override
+    public void close() {
+      if (listener != null) {
+        long wallTime = System.nanoTime() - startWallTime;
+        long cpuTime = delta(startCpuTime, threadCpuTime.getAsLong());
+        long allocatedBytes = delta(startAllocatedBytes, threadAllocatedBytes.getAsLong());
+        listener.stageCompleted(
+            new StageMeasurement(name, wallTime, cpuTime, allocatedBytes, sizes));
+      }
+    }
+
+    private static long delta(long start, long end) {
+      return (start < 0 || end < 0) ? -1 : end - start;
+    }
+  }
+
+  private static LongSupplier threadCpuTimeSupplier() {
+    if (threadBean.isCurrentThreadCpuTimeSupported()) {
+      return threadBean::getCurrentThreadCpuTime;
+    } else {
+      return () -> -1L;
+    }
+  }
+
+  @SuppressForbidden("Per-thread allocation counters are only available via com.sun.management.")
+  private static LongSupplier threadAllocatedBytesSupplier() {
+    try {
+      if (threadBean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+          return () -> bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+      }
+    } catch (LinkageError e) {
+      // jdk.management module not available.
+    }
+    return () -> -1L;
+  }
+}
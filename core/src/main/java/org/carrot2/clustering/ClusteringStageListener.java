@@ -0,0 +1,29 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+/**
+ * A listener notified each time a clustering algorithm completes one of its processing stages
+ * (tokenization, stemming, matrix factorization and so on). Listeners are installed for the
+ * duration of a clustering call using {@link ClusteringInstrumentation#withListener}.
+ *
+ * <p>Listeners are invoked synchronously, on the thread that runs the clustering, so
+ * implementations should be fast.
+ *
+ * @since 4.5.1
+ */
+@FunctionalInterface
+public interface ClusteringStageListener {
+  /**
+   * @param measurement Measurements collected for the stage that just completed.
+   */
+  void stageCompleted(StageMeasurement measurement);
+}
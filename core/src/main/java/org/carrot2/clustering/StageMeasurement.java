@@ -0,0 +1,93 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.clustering;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measurements of a single clustering stage, passed to {@link ClusteringStageListener}.
+ *
+ * @since 4.5.1
+ */
+public final class StageMeasurement {
+  private final String stage;
+  private final long wallTimeNanos;
+  private final long cpuTimeNanos;
+  private final long allocatedBytes;
+  private final Map<String, Long> sizes;
+
+  public StageMeasurement(
+      String stage,
+      long wallTimeNanos,
+      long cpuTimeNanos,
+      long allocatedBytes,
+      Map<String, Long> sizes) {
+    this.stage = stage;
+    this.wallTimeNanos = wallTimeNanos;
+    this.cpuTimeNanos = cpuTimeNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.sizes = Collections.unmodifiableMap(sizes);
+  }
+
+  /**
+   * @return The name of the stage, for example {@code tokenize} or {@code reduce}.
+   */
+  public String getStage() {
+    return stage;
+  }
+
+  /**
+   * @return Elapsed wall time, in nanoseconds.
+   */
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  /**
+   * @return CPU time consumed by the calling thread, in nanoseconds, or {@code -1} if thread CPU
+   *     time measurement is not supported or not enabled in the JVM. CPU time of any worker threads
+   *     the stage used is not included.
+   */
+  public long getCpuTimeNanos() {
+    return cpuTimeNanos;
+  }
+
+  /**
+   * @return The number of bytes allocated by the calling thread, or {@code -1} if per-thread
+   *     allocation counters are not available in the JVM. Allocations made by any worker threads
+   *     the stage used are not included.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * @return Sizes of the stage's input and output data structures (number of documents, tokens,
+   *     words, stems, phrases, matrix dimensions), in the order they were reported.
+   */
+  public Map<String, Long> getSizes() {
+    return sizes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "%s [wall: %.2f ms, cpu: %.2f ms, allocated: %d bytes, sizes: %s]",
+        stage,
+        wallTimeNanos / 1e6,
+        cpuTimeNanos / 1e6,
+        allocatedBytes,
+        sizes);
+  }
+}
@@ -34,6 +34,8 @@ import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrString;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
+import org.carrot2.clustering.ClusteringInstrumentation;
+import org.carrot2.clustering.ClusteringInstrumentation.Stage;
 import org.carrot2.clustering.Document;
 import org.carrot2.clustering.SharedInfrastructure;
 import org.carrot2.internal.clustering.ClusteringAlgorithmUtilities;
@@ -55,6 +57,7 @@ import org.carrot2.text.vsm.ReducedVectorSpaceModelContext;
 import org.carrot2.text.vsm.TermDocumentMatrixBuilder;
 import org.carrot2.text.vsm.TermDocumentMatrixReducer;
 import org.carrot2.text.vsm.VectorSpaceModelContext;
+import org.carrot2.util.PackedCharArrays;
 
 /**
  * A very simple implementation of bisecting k-means clustering. Unlike other algorithms in Carrot2,
@@ -206,8 +209,13 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
       final ReducedVectorSpaceModelContext reducedVsmContext =
           new ReducedVectorSpaceModelContext(vsmContext);
 
-      matrixBuilder.buildTermDocumentMatrix(vsmContext);
-      matrixBuilder.buildTermPhraseMatrix(vsmContext);
+      try (Stage stage = ClusteringInstrumentation.stage("buildTermDocumentMatrix")) {
+        matrixBuilder.buildTermDocumentMatrix(vsmContext);
+        matrixBuilder.buildTermPhraseMatrix(vsmContext);
+        stage
+            .size("rows", vsmContext.termDocumentMatrix.rows())
+            .size("columns", vsmContext.termDocumentMatrix.columns());
+      }
 
       // Prepare rowIndex -> stemIndex mapping for labeling
       final IntIntHashMap rowToStemIndex = new IntIntHashMap();
@@ -218,42 +226,54 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
       final DoubleMatrix2D tdMatrix;
       if (useDimensionalityReduction.get()
           && clusterCount.get() * 2 < preprocessingContext.documentCount) {
-        matrixReducer.reduce(reducedVsmContext, clusterCount.get() * 2);
+        try (Stage stage = ClusteringInstrumentation.stage("reduce")) {
+          matrixReducer.reduce(reducedVsmContext, clusterCount.get() * 2);
+          stage
+              .size("rows", vsmContext.termDocumentMatrix.rows())
+              .size("columns", vsmContext.termDocumentMatrix.columns())
+              .size("dimensions", clusterCount.get() * 2);
+        }
         tdMatrix = reducedVsmContext.coefficientMatrix.viewDice();
       } else {
         tdMatrix = vsmContext.termDocumentMatrix;
       }
 
       // Initial selection containing all columns, initial clustering
-      final IntArrayList columns = new IntArrayList(tdMatrix.columns());
-      for (int c = 0; c < tdMatrix.columns(); c++) {
-        columns.add(c);
-      }
       final List<IntArrayList> rawClusters = new ArrayList<>();
-      rawClusters.addAll(split(partitionCount.get(), tdMatrix, columns, maxIterations.get()));
-      Collections.sort(rawClusters, BY_SIZE_DESCENDING);
-
-      int largestIndex = 0;
-      while (rawClusters.size() < clusterCount.get() && largestIndex < rawClusters.size()) {
-        // Find largest cluster to split
-        IntArrayList largest = rawClusters.get(largestIndex);
-        if (largest.size() <= partitionCount.get() * 2) {
-          // No cluster is large enough to produce a meaningful
-          // split (i.e. a split into subclusters with more than
-          // 1 member).
-          break;
+      try (Stage stage = ClusteringInstrumentation.stage("split")) {
+        final IntArrayList columns = new IntArrayList(tdMatrix.columns());
+        for (int c = 0; c < tdMatrix.columns(); c++) {
+          columns.add(c);
         }
+        rawClusters.addAll(split(partitionCount.get(), tdMatrix, columns, maxIterations.get()));
+        Collections.sort(rawClusters, BY_SIZE_DESCENDING);
+
+        int largestIndex = 0;
+        while (rawClusters.size() < clusterCount.get() && largestIndex < rawClusters.size()) {
+          // Find largest cluster to split
+          IntArrayList largest = rawClusters.get(largestIndex);
+          if (largest.size() <= partitionCount.get() * 2) {
+            // No cluster is large enough to produce a meaningful
+            // split (i.e. a split into subclusters with more than
+            // 1 member).
+            break;
+          }
 
-        final List<IntArrayList> split =
-            split(partitionCount.get(), tdMatrix, largest, maxIterations.get());
-        if (split.size() > 1) {
-          rawClusters.remove(largestIndex);
-          rawClusters.addAll(split);
-          Collections.sort(rawClusters, BY_SIZE_DESCENDING);
-          largestIndex = 0;
-        } else {
-          largestIndex++;
+          final List<IntArrayList> split =
+              split(partitionCount.get(), tdMatrix, largest, maxIterations.get());
+          if (split.size() > 1) {
+            rawClusters.remove(largestIndex);
+            rawClusters.addAll(split);
+            Collections.sort(rawClusters, BY_SIZE_DESCENDING);
+            largestIndex = 0;
+          } else {
+            largestIndex++;
+          }
         }
+        stage
+            .size("rows", tdMatrix.rows())
+            .size("columns", tdMatrix.columns())
+            .size("clusters", rawClusters.size());
       }
 
       LabelFormatter labelFormatter = languageComponents.get(LabelFormatter.class);
@@ -288,7 +308,7 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
       DoubleMatrix2D termDocumentMatrix,
       IntIntHashMap rowToStemIndex,
       int[] mostFrequentOriginalWordIndex,
-      char[][] wordImage,
+      PackedCharArrays wordImage,
       LabelFormatter labelFormatter) {
     // Prepare a centroid. If dimensionality reduction was used,
     // the centroid from k-means will not be based on real terms,
@@ -310,7 +330,8 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
       if (centroid.getQuick(i) >= minValueForLabel) {
         cluster.addLabel(
             labelFormatter.format(
-                new char[][] {wordImage[mostFrequentOriginalWordIndex[rowToStemIndex.get(i)]]},
+                wordImage,
+                new int[] {mostFrequentOriginalWordIndex[rowToStemIndex.get(i)]},
                 new boolean[] {false}));
       }
     }
@@ -344,18 +365,23 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
         new DenseDoubleMatrix2D(selected.rows(), partitions)
             .assign(selected.viewPart(0, 0, selected.rows(), partitions));
     final DoubleMatrix2D similarities = new DenseDoubleMatrix2D(partitions, selected.columns());
+    final DoubleMatrix2D membership = new DenseDoubleMatrix2D(selected.columns(), partitions);
 
     // Run a fixed number of K-means iterations
     for (int it = 0; it < iterations; it++) {
-      // Update centroids
+      // Update centroids: sum cluster members (centroids <- selected * membership), which
+      // touches only the non-zero cells of a sparse matrix, then divide by cluster sizes.
+      membership.assign(0);
       for (int i = 0; i < result.size(); i++) {
-        final IntArrayList cluster = result.get(i);
+        for (IntCursor c : result.get(i)) {
+          membership.setQuick(c.value, i, 1);
+        }
+      }
+      matrixReducer.multiply(selected, membership, centroids, false, false);
+      for (int i = 0; i < result.size(); i++) {
+        final int size = result.get(i).size();
         for (int k = 0; k < selected.rows(); k++) {
-          double sum = 0;
-          for (int j = 0; j < cluster.size(); j++) {
-            sum += selected.get(k, cluster.get(j));
-          }
-          centroids.setQuick(k, i, sum / cluster.size());
+          centroids.setQuick(k, i, centroids.getQuick(k, i) / size);
         }
       }
 
@@ -366,7 +392,7 @@ public class BisectingKMeansClusteringAlgorithm extends AttrComposite
       }
 
       // Calculate similarity to centroids
-      centroids.zMult(selected, similarities, 1, 0, true, false);
+      matrixReducer.multiply(centroids, selected, similarities, true, false);
 
       // Assign documents to the nearest centroid
       for (int c = 0; c < similarities.columns(); c++) {
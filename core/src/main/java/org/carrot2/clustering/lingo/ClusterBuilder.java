@@ -24,6 +24,7 @@ import org.carrot2.math.LinearApproximation;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.carrot2.text.vsm.TermDocumentMatrixReducer;
 import org.carrot2.text.vsm.TermWeighting;
 import org.carrot2.text.vsm.VectorSpaceModelContext;
 import org.carrot2.util.GraphUtils;
@@ -94,8 +95,14 @@ public class ClusterBuilder extends AttrComposite {
       new LinearApproximation(
           new double[] {1.0, 1.5, 1.3, 0.9, 0.7, 0.6, 0.3, 0.05, 0.05, 0.05, 0.05}, 0.0, 1.0);
 
-  /** Discovers labels for clusters. */
-  void buildLabels(LingoProcessingContext context, TermWeighting termWeighting) {
+  /**
+   * Discovers labels for clusters. Phrase scores are computed with {@link
+   * TermDocumentMatrixReducer#multiply}, on the reducer's factorization threads.
+   */
+  void buildLabels(
+      LingoProcessingContext context,
+      TermWeighting termWeighting,
+      TermDocumentMatrixReducer matrixReducer) {
     final PreprocessingContext preprocessingContext = context.preprocessingContext;
     final VectorSpaceModelContext vsmContext = context.vsmContext;
     final DoubleMatrix2D reducedTdMatrix = context.reducedVsmContext.baseMatrix;
@@ -105,7 +112,7 @@ public class ClusterBuilder extends AttrComposite {
         preprocessingContext.allStems.mostFrequentOriginalWordIndex;
     final int[][] phrasesWordIndices = preprocessingContext.allPhrases.wordIndices;
     final BitSet[] labelsDocumentIndices = preprocessingContext.allLabels.documentIndices;
-    final int wordCount = preprocessingContext.allWords.image.length;
+    final int wordCount = preprocessingContext.allWords.image.size();
     final int documentCount = preprocessingContext.documentCount;
 
     // tdMatrixStemIndex contains individual stems that appeared in AllLabels
@@ -167,7 +174,7 @@ public class ClusterBuilder extends AttrComposite {
     DoubleMatrix2D phraseCos = null;
     if (phraseMatrix != null) {
       // Build raw cosine similarities
-      phraseCos = phraseMatrix.zMult(reducedTdMatrix, null, 1, 0, false, false);
+      phraseCos = matrixReducer.multiply(phraseMatrix, reducedTdMatrix, null, false, false);
 
       // Apply phrase weighting
       int phraseLengthPenaltyStop = this.phraseLengthPenaltyStop.get();
@@ -25,6 +25,8 @@ import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrString;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
+import org.carrot2.clustering.ClusteringInstrumentation;
+import org.carrot2.clustering.ClusteringInstrumentation.Stage;
 import org.carrot2.clustering.Document;
 import org.carrot2.clustering.SharedInfrastructure;
 import org.carrot2.internal.clustering.ClusteringAlgorithmUtilities;
@@ -176,20 +178,51 @@ public class LingoClusteringAlgorithm extends AttrComposite implements Clusterin
       LingoProcessingContext lingoContext = new LingoProcessingContext(reducedVsmContext);
 
       TermDocumentMatrixBuilder matrixBuilder = this.matrixBuilder;
-      matrixBuilder.buildTermDocumentMatrix(vsmContext);
-      matrixBuilder.buildTermPhraseMatrix(vsmContext);
+      try (Stage stage = ClusteringInstrumentation.stage("buildTermDocumentMatrix")) {
+        matrixBuilder.buildTermDocumentMatrix(vsmContext);
+        stage
+            .size("rows", vsmContext.termDocumentMatrix.rows())
+            .size("columns", vsmContext.termDocumentMatrix.columns());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("buildTermPhraseMatrix")) {
+        matrixBuilder.buildTermPhraseMatrix(vsmContext);
+        if (vsmContext.termPhraseMatrix != null) {
+          stage
+              .size("rows", vsmContext.termPhraseMatrix.rows())
+              .size("columns", vsmContext.termPhraseMatrix.columns());
+        }
+      }
 
-      matrixReducer.reduce(
-          reducedVsmContext, computeClusterCount(desiredClusterCount.get(), documents.size()));
+      try (Stage stage = ClusteringInstrumentation.stage("reduce")) {
+        final int dimensions = computeClusterCount(desiredClusterCount.get(), documents.size());
+        matrixReducer.reduce(reducedVsmContext, dimensions);
+        stage
+            .size("rows", vsmContext.termDocumentMatrix.rows())
+            .size("columns", vsmContext.termDocumentMatrix.columns())
+            .size("dimensions", dimensions);
+      }
 
       // Cluster label building
-      clusterBuilder.buildLabels(lingoContext, matrixBuilder.termWeighting);
+      try (Stage stage = ClusteringInstrumentation.stage("buildLabels")) {
+        clusterBuilder.buildLabels(lingoContext, matrixBuilder.termWeighting, matrixReducer);
+        stage
+            .size("labels", context.allLabels.size())
+            .size("clusters", lingoContext.clusterLabelFeatureIndex.length);
+      }
 
       // Document assignment
-      clusterBuilder.assignDocuments(lingoContext);
+      try (Stage stage = ClusteringInstrumentation.stage("assignDocuments")) {
+        clusterBuilder.assignDocuments(lingoContext);
+        stage
+            .size("documents", context.documentCount)
+            .size("clusters", lingoContext.clusterLabelFeatureIndex.length);
+      }
 
       // Cluster merging
-      clusterBuilder.merge(lingoContext);
+      try (Stage stage = ClusteringInstrumentation.stage("mergeClusters")) {
+        clusterBuilder.merge(lingoContext);
+        stage.size("clusters", lingoContext.clusterLabelFeatureIndex.length);
+      }
 
       // Format final clusters
       final LabelFormatter labelFormatter =
@@ -35,6 +35,8 @@ import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrString;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
+import org.carrot2.clustering.ClusteringInstrumentation;
+import org.carrot2.clustering.ClusteringInstrumentation.Stage;
 import org.carrot2.clustering.Document;
 import org.carrot2.clustering.SharedInfrastructure;
 import org.carrot2.clustering.stc.GeneralizedSuffixTree.SequenceBuilder;
@@ -309,47 +311,61 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
     /*
      * Step 2: Create a generalized suffix tree from phrases in the input.
      */
-    sb = new GeneralizedSuffixTree.SequenceBuilder();
-
-    final int[] tokenIndex = context.allTokens.wordIndex;
-    final short[] tokenType = context.allTokens.type;
-    for (int i = 0; i < tokenIndex.length; i++) {
-      /* Advance until the first real token. */
-      if (tokenIndex[i] == -1) {
-        if ((tokenType[i] & (Tokenizer.TF_SEPARATOR_DOCUMENT | Tokenizer.TF_TERMINATOR)) != 0) {
-          sb.endDocument();
+    try (Stage stage = ClusteringInstrumentation.stage("buildSuffixTree")) {
+      sb = new GeneralizedSuffixTree.SequenceBuilder();
+
+      final int[] tokenIndex = context.allTokens.wordIndex;
+      final short[] tokenType = context.allTokens.type;
+      for (int i = 0; i < tokenIndex.length; i++) {
+        /* Advance until the first real token. */
+        if (tokenIndex[i] == -1) {
+          if ((tokenType[i] & (Tokenizer.TF_SEPARATOR_DOCUMENT | Tokenizer.TF_TERMINATOR)) != 0) {
+            sb.endDocument();
+          }
+          continue;
         }
-        continue;
-      }
 
-      /* We have the first token. Advance until non-token. */
-      final int s = i;
+        /* We have the first token. Advance until non-token. */
+        final int s = i;
 
-      while (tokenIndex[i + 1] != -1) i++;
-      final int phraseLength = 1 + i - s;
-      if (phraseLength >= 1) {
-        /* We have a phrase. */
-        sb.addPhrase(tokenIndex, s, phraseLength);
+        while (tokenIndex[i + 1] != -1) i++;
+        final int phraseLength = 1 + i - s;
+        if (phraseLength >= 1) {
+          /* We have a phrase. */
+          sb.addPhrase(tokenIndex, s, phraseLength);
+        }
       }
+      sb.buildSuffixTree();
+      stage.size("tokens", tokenIndex.length);
     }
-    sb.buildSuffixTree();
 
     /*
      * Step 3: Find "base" clusters by looking up frequently recurring phrases in the
      * generalized suffix tree.
      */
-    List<ClusterCandidate> baseClusters = createBaseClusters(sb);
+    List<ClusterCandidate> baseClusters;
+    try (Stage stage = ClusteringInstrumentation.stage("createBaseClusters")) {
+      baseClusters = createBaseClusters(sb);
+      stage.size("clusters", baseClusters.size());
+    }
 
     /*
      * Step 4: Merge base clusters that overlap too much to form final clusters.
      */
-    List<ClusterCandidate> mergedClusters = createMergedClusters(baseClusters);
+    List<ClusterCandidate> mergedClusters;
+    try (Stage stage = ClusteringInstrumentation.stage("mergeClusters")) {
+      mergedClusters = createMergedClusters(baseClusters);
+      stage.size("clusters", mergedClusters.size());
+    }
 
     /*
      * Step 5: Create the junk (unassigned documents) cluster and create the final
      * set of clusters in Carrot2 format.
      */
-    postProcessing(documents, mergedClusters, clusters);
+    try (Stage stage = ClusteringInstrumentation.stage("postProcess")) {
+      postProcessing(documents, mergedClusters, clusters);
+      stage.size("documents", documents.size()).size("clusters", clusters.size());
+    }
 
     return SharedInfrastructure.reorderByWeightedScoreAndSize(clusters, this.scoreWeight.get());
   }
@@ -909,19 +925,19 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
 
     // Extract terms info for the phrase and construct the label.
     final boolean[] stopwords = new boolean[termsCount];
-    final char[][] images = new char[termsCount][];
+    final int[] wordIndices = new int[termsCount];
     final short[] tokenTypes = context.allWords.type;
 
     int k = 0;
     for (int i = 0; i < phraseIndices.length; i += 2) {
       for (int j = phraseIndices[i]; j <= phraseIndices[i + 1]; j++, k++) {
         final int termIndex = sb.input.get(j);
-        images[k] = context.allWords.image[termIndex];
+        wordIndices[k] = termIndex;
         stopwords[k] = TokenTypeUtils.isCommon(tokenTypes[termIndex]);
       }
     }
 
-    return labelFormatter.format(images, stopwords);
+    return labelFormatter.format(context.allWords.image, wordIndices, stopwords);
   }
 
   @SuppressWarnings("unused")
@@ -952,7 +968,7 @@ public final class STCClusteringAlgorithm extends AttrComposite implements Clust
         b.append(sep);
 
         final int termIndex = sb.input.get(j);
-        b.append(context.allWords.image[termIndex]);
+        context.allWords.image.appendTo(b, termIndex);
 
         if (TokenTypeUtils.isCommon(tokenTypes[termIndex])) b.append("[S]");
         sep = " ";
@@ -0,0 +1,110 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import com.carrotsearch.hppc.BitMixer;
+import java.util.Collection;
+
+/**
+ * An immutable, open-addressing hash set of strings that can be tested with any {@link
+ * CharSequence} (such as {@link org.carrot2.util.MutableCharArray}) without converting it to a
+ * {@link String} first. Optionally, membership tests are case-insensitive; case is folded on the
+ * fly (with {@link Character#toLowerCase(char)}), so no lower-cased copy of the input is created.
+ */
+final class CharSequenceSet {
+  private final boolean caseFold;
+
+  /** Hash table slots with (case-folded) keys, {@code null} marks an empty slot. */
+  private final char[][] keys;
+
+  /** Hashes of keys, parallel to {@link #keys}. */
+  private final int[] hashes;
+
+  private final int mask;
+  private final int size;
+
+  CharSequenceSet(Collection<? extends CharSequence> values, boolean caseFold) {
+    this.caseFold = caseFold;
+
+    int capacity = 4;
+    while (capacity < values.size() * 2) {
+      capacity <<= 1;
+    }
+
+    this.keys = new char[capacity][];
+    this.hashes = new int[capacity];
+    this.mask = capacity - 1;
+
+    int size = 0;
+    for (CharSequence value : values) {
+      final int hash = hash(value);
+      int slot = hash & mask;
+      while (keys[slot] != null && !(hashes[slot] == hash && equals(keys[slot], value))) {
+        slot = (slot + 1) & mask;
+      }
+      if (keys[slot] == null) {
+        char[] key = new char[value.length()];
+        for (int i = 0; i < key.length; i++) {
+          key[i] = fold(value.charAt(i));
+        }
+        keys[slot] = key;
+        hashes[slot] = hash;
+        size++;
+      }
+    }
+    this.size = size;
+  }
+
+  /**
+   * @return {@code true} if the set contains the given character sequence.
+   */
+  boolean contains(CharSequence value) {
+    final int hash = hash(value);
+    for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && equals(keys[slot], value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  private boolean equals(char[] key, CharSequence value) {
+    if (key.length != value.length()) {
+      return false;
+    }
+    for (int i = 0; i < key.length; i++) {
+      if (key[i] != fold(value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int hash(CharSequence value) {
+    int h = 0;
+    for (int i = 0, max = value.length(); i < max; i++) {
+      h = 31 * h + fold(value.charAt(i));
+    }
+    return BitMixer.mix32(h);
+  }
+
+  private char fold(char chr) {
+    return caseFold ? Character.toLowerCase(chr) : chr;
+  }
+}
@@ -12,7 +12,6 @@ package org.carrot2.language;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,6 +27,9 @@ import org.carrot2.attrs.AttrStringArray;
  */
 public class DefaultDictionaryImpl extends AttrComposite
     implements StopwordFilterDictionary, LabelFilterDictionary {
+  /** Glob lists with at least this many entries use a trie index (more compact). */
+  static final int TRIE_INDEX_THRESHOLD = 1000;
+
   public AttrStringArray exact =
       attributes.register(
           "exact",
@@ -51,33 +53,54 @@ public class DefaultDictionaryImpl extends AttrComposite
 
   @Override
   public StopwordFilter compileStopwordFilter() {
-    Predicate<String> compiled = compile();
-    return (t) -> !compiled.test(t.toString());
+    Predicate<CharSequence> compiled = compile();
+    return (t) -> !compiled.test(t);
   }
 
   @Override
   public LabelFilter compileLabelFilter() {
-    Predicate<String> compiled = compile();
-    return (t) -> !compiled.test(t.toString());
+    Predicate<CharSequence> compiled = compile();
+    return (t) -> !compiled.test(t);
   }
 
-  private Predicate<String> compile() {
-    ArrayList<Predicate<String>> predicates = new ArrayList<>();
+  /**
+   * Compiles all entries into a single predicate. Exact entries are tested against the input
+   * character sequence directly, without converting it to a string.
+   */
+  private Predicate<CharSequence> compile() {
+    ArrayList<Predicate<CharSequence>> predicates = new ArrayList<>();
 
     if (!exact.isEmpty()) {
-      predicates.add(toSet(exact.get())::contains);
+      predicates.add(new CharSequenceSet(toSet(exact.get()), false)::contains);
     }
 
     if (!glob.isEmpty()) {
-      GlobDictionary glob = GlobDictionary.compilePatterns(toSet(this.glob.get()).stream());
+      Set<String> entries = toSet(this.glob.get());
+      GlobDictionary glob =
+          GlobDictionary.compilePatterns(entries.stream(), globIndexType(entries.size()));
       predicates.add(glob::test);
     }
 
     if (!regexp.isEmpty()) {
-      Pattern compiled = union(compile(toSet(regexp.get())));
-      predicates.add((label) -> compiled.matcher(label).find());
+      predicates.add(RegexpMatcher.compile(toSet(regexp.get())));
     }
 
+    return anyOf(predicates);
+  }
+
+  /**
+   * @return The glob index type for the given number of entries.
+   */
+  static GlobDictionary.IndexType globIndexType(int entries) {
+    return entries >= TRIE_INDEX_THRESHOLD
+        ? GlobDictionary.IndexType.TRIE
+        : GlobDictionary.IndexType.HASH;
+  }
+
+  /**
+   * @return A predicate matching if any of the predicates matches.
+   */
+  static Predicate<CharSequence> anyOf(List<Predicate<CharSequence>> predicates) {
     if (predicates.isEmpty()) {
       return (v) -> false;
     } else {
@@ -93,28 +116,4 @@ public class DefaultDictionaryImpl extends AttrComposite
   private Set<String> toSet(String[] strings) {
     return new LinkedHashSet<>(Arrays.asList(strings));
   }
-
-  /** Convert a list of string into patterns. */
-  private static List<Pattern> compile(Collection<String> patterns) {
-    ArrayList<Pattern> compiled = new ArrayList<>();
-    for (String p : patterns) {
-      compiled.add(Pattern.compile(p));
-    }
-    return compiled;
-  }
-
-  /**
-   * Combines a number of patterns into a single pattern with a union of all of them. With
-   * automata-based pattern engines, this should be faster and memory-friendly.
-   */
-  private static Pattern union(List<Pattern> patterns) {
-    final StringBuilder union = new StringBuilder();
-    union.append("(");
-    for (int i = 0; i < patterns.size(); i++) {
-      if (i > 0) union.append(")|(");
-      union.append(patterns.get(i).toString());
-    }
-    union.append(")");
-    return Pattern.compile(union.toString());
-  }
 }
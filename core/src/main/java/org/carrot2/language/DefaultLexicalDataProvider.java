@@ -10,19 +10,14 @@
  */
 package org.carrot2.language;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
-import org.carrot2.attrs.Attrs;
-import org.carrot2.internal.nanojson.JsonParser;
-import org.carrot2.internal.nanojson.JsonParserException;
+import org.carrot2.attrs.AcceptingVisitor;
 import org.carrot2.util.ClassRelativeResourceLookup;
 import org.carrot2.util.ResourceLookup;
 
@@ -66,26 +61,14 @@ public class DefaultLexicalDataProvider implements LanguageComponentsProvider {
     langPrefix = langPrefix.toLowerCase(Locale.ROOT);
 
     String filterDictionary = String.format(Locale.ROOT, "%s.label-filters.json", langPrefix);
-    try (InputStream is = resourceLookup.open(filterDictionary);
-        Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-      try {
-        LabelFilterDictionary dictionary =
-            Attrs.fromMap(
-                LabelFilterDictionary.class,
-                DefaultDictionaryImpl::new,
-                JsonParser.object().from(reader));
-        LabelFilter labelFilter = dictionary.compileLabelFilter();
-        return () -> labelFilter;
-      } catch (JsonParserException e) {
-        throw new IOException(
-            String.format(
-                Locale.ROOT,
-                "JSON syntax exception in dictionary %s: %s",
-                filterDictionary,
-                e.getMessage()),
-            e);
-      }
-    }
+    Predicate<CharSequence> precompiled =
+        LexicalResourceSnapshot.load(resourceLookup, filterDictionary);
+    LabelFilter labelFilter =
+        precompiled != null
+            ? (t) -> !precompiled.test(t)
+            : readDictionary(LabelFilterDictionary.class, filterDictionary, resourceLookup)
+                .compileLabelFilter();
+    return () -> labelFilter;
   }
 
   public static Supplier<StopwordFilter> readDefaultWordFilters(
@@ -93,25 +76,20 @@ public class DefaultLexicalDataProvider implements LanguageComponentsProvider {
     langPrefix = langPrefix.toLowerCase(Locale.ROOT);
 
     String filterDictionary = String.format(Locale.ROOT, "%s.word-filters.json", langPrefix);
-    try (InputStream is = resourceLookup.open(filterDictionary);
-        Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-      try {
-        StopwordFilterDictionary dictionary =
-            Attrs.fromMap(
-                StopwordFilterDictionary.class,
-                DefaultDictionaryImpl::new,
-                JsonParser.object().from(reader));
-        StopwordFilter labelFilter = dictionary.compileStopwordFilter();
-        return () -> labelFilter;
-      } catch (JsonParserException e) {
-        throw new IOException(
-            String.format(
-                Locale.ROOT,
-                "JSON syntax exception in dictionary %s: %s",
-                filterDictionary,
-                e.getMessage()),
-            e);
-      }
+    Predicate<CharSequence> precompiled =
+        LexicalResourceSnapshot.load(resourceLookup, filterDictionary);
+    StopwordFilter wordFilter =
+        precompiled != null
+            ? (t) -> !precompiled.test(t)
+            : readDictionary(StopwordFilterDictionary.class, filterDictionary, resourceLookup)
+                .compileStopwordFilter();
+    return () -> wordFilter;
+  }
+
+  private static <T extends AcceptingVisitor> T readDictionary(
+      Class<T> clazz, String filterDictionary, ResourceLookup resourceLookup) throws IOException {
+    try (InputStream is = resourceLookup.open(filterDictionary)) {
+      return LexicalResourceSnapshot.parseJson(clazz, is.readAllBytes(), filterDictionary);
     }
   }
 }
@@ -32,6 +32,27 @@ public final class ExtendedWhitespaceTokenizer implements Tokenizer {
     this.parser.yyreset(input);
   }
 
+  /**
+   * Reset this tokenizer to parse the given characters. The input is copied once, directly into the
+   * parser's reusable buffer, without an intermediate {@link Reader}.
+   */
+  @Override
+  public void reset(CharSequence input) {
+    final int length = input.length();
+    final char[] buffer = parser.yyinputBuffer(length);
+    if (input instanceof String) {
+      ((String) input).getChars(0, length, buffer, 0);
+    } else if (input instanceof MutableCharArray) {
+      MutableCharArray chars = (MutableCharArray) input;
+      System.arraycopy(chars.getBuffer(), chars.getStart(), buffer, 0, length);
+    } else {
+      for (int i = 0; i < length; i++) {
+        buffer[i] = input.charAt(i);
+      }
+    }
+    parser.yyresetInput(length);
+  }
+
   @Override
   public short nextToken() throws IOException {
     final short result = (short) parser.getNextToken();
@@ -18,6 +18,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,21 +54,63 @@ import org.carrot2.util.StringUtils;
  * </ul>
  *
  * <p>Token flags are an int bitfield.
+ *
+ * <p>Patterns are indexed according to the {@link IndexType} provided at construction time.
  */
 public class GlobDictionary implements Predicate<CharSequence> {
+  /**
+   * Pattern index implementations.
+   *
+   * @since 4.5.1
+   */
+  public static enum IndexType {
+    /**
+     * An inverted index from each token to the patterns it occurs in. Candidate patterns are
+     * verified one by one.
+     */
+    HASH,
+    /**
+     * Fixed-length patterns (without {@code *} or {@code +} wildcards) are stored in a compact
+     * token trie, traversed once per input. Remaining patterns are indexed as in {@link #HASH}.
+     * This index is more compact and faster for very large lists of phrases.
+     */
+    TRIE;
+  }
+
   private final Function<String, String> tokenNormalization;
   private final Function<CharSequence, String[]> termSplitter;
 
   private Map<String, List<WordPattern>> tokenToPatterns;
   private Map<Integer, List<WordPattern>> pureTypePatterns;
 
+  /** Trie of fixed-length patterns, {@code null} unless {@link IndexType#TRIE} is used. */
+  private GlobTokenTrie trie;
+
   public GlobDictionary(
       Stream<WordPattern> patterns,
       Function<String, String> tokenNormalization,
       Function<CharSequence, String[]> termSplitter) {
+    this(patterns, tokenNormalization, termSplitter, IndexType.HASH);
+  }
+
+  /**
+   * @since 4.5.1
+   */
+  public GlobDictionary(
+      Stream<WordPattern> patterns,
+      Function<String, String> tokenNormalization,
+      Function<CharSequence, String[]> termSplitter,
+      IndexType indexType) {
     this.tokenNormalization = tokenNormalization;
     this.termSplitter = termSplitter;
-    compile(patterns, tokenNormalization);
+    compile(patterns, tokenNormalization, indexType);
+  }
+
+  /**
+   * @since 4.5.1
+   */
+  public GlobDictionary(Stream<WordPattern> patterns, IndexType indexType) {
+    this(patterns, defaultTokenNormalization(), defaultTermSplitter(), indexType);
   }
 
   public GlobDictionary(Stream<WordPattern> patterns) {
@@ -118,6 +161,18 @@ public class GlobDictionary implements Predicate<CharSequence> {
       Predicate<WordPattern> earlyAbort) {
     // Already-checked terms and patterns, combined.
     boolean found = false;
+    if (trie != null) {
+      switch (trie.find(inputTerms, normalizedTerms, types, earlyAbort)) {
+        case GlobTokenTrie.ABORTED:
+          return true;
+        case GlobTokenTrie.FOUND:
+          found = true;
+          break;
+        default:
+          break;
+      }
+    }
+
     outer:
     for (String normalizedToken : normalizedTerms) {
       var patterns = tokenToPatterns.get(normalizedToken);
@@ -180,7 +235,10 @@ public class GlobDictionary implements Predicate<CharSequence> {
    *
    * <p>This is similar in nature to this: http://swtch.com/~rsc/regexp/regexp4.html
    */
-  private void compile(Stream<WordPattern> patterns, Function<String, String> tokenNormalization) {
+  private void compile(
+      Stream<WordPattern> patterns,
+      Function<String, String> tokenNormalization,
+      IndexType indexType) {
     HashMap<String, String> cache = new HashMap<>();
     Function<String, String> normalize =
         (s) -> {
@@ -215,8 +273,14 @@ public class GlobDictionary implements Predicate<CharSequence> {
     // Create a simple inverted index from tokens to the patterns they occur in.
     HashMap<String, List<WordPattern>> tokenToPatterns = new HashMap<>();
     HashMap<Integer, List<WordPattern>> pureTypePatterns = new HashMap<>();
+    GlobTokenTrie trie = indexType == IndexType.TRIE ? new GlobTokenTrie() : null;
     patterns.forEach(
         (pattern) -> {
+          if (trie != null && GlobTokenTrie.accepts(pattern)) {
+            trie.add(pattern);
+            return;
+          }
+
           Set<Object> useKey = new HashSet<>();
           boolean indexed = false;
           for (Token t : pattern.tokens) {
@@ -249,6 +313,85 @@ public class GlobDictionary implements Predicate<CharSequence> {
 
     this.tokenToPatterns = tokenToPatterns;
     this.pureTypePatterns = pureTypePatterns;
+    if (trie != null) {
+      trie.trim();
+      this.trie = trie;
+    }
+  }
+
+  /**
+   * Returns an estimate of this dictionary's heap footprint, broken down into patterns and index
+   * structures (patterns stored in a trie are accounted for in {@code trieBytes}). Keys of the
+   * returned map are: {@code patterns}, {@code tokens}, {@code patternBytes}, {@code
+   * hashIndexKeys}, {@code hashIndexBytes}, {@code trieNodes}, {@code trieEdges}, {@code trieBytes}
+   * and {@code totalBytes}. Sizes are in bytes, estimated for a 64-bit JVM with compressed object
+   * pointers.
+   *
+   * @since 4.5.1
+   */
+  public Map<String, Long> memoryReport() {
+    IdentityHashMap<Object, Boolean> seen = new IdentityHashMap<>();
+
+    // Distinct patterns and their tokens (the trie does not retain pattern objects).
+    Set<WordPattern> patterns = Collections.newSetFromMap(new IdentityHashMap<>());
+    tokenToPatterns.values().forEach(patterns::addAll);
+    pureTypePatterns.values().forEach(patterns::addAll);
+
+    long tokens = trie == null ? 0 : trie.tokens();
+    long patternBytes = 0;
+    for (WordPattern pattern : patterns) {
+      List<Token> patternTokens = pattern.tokens();
+      tokens += patternTokens.size();
+      patternBytes +=
+          MemoryEstimates.objectBytes(3 * MemoryEstimates.REFERENCE + Integer.BYTES)
+              + MemoryEstimates.objectBytes(MemoryEstimates.REFERENCE)
+              + MemoryEstimates.objectBytes(2 * Integer.BYTES + MemoryEstimates.REFERENCE)
+              + MemoryEstimates.arrayBytes(MemoryEstimates.REFERENCE, patternTokens.size());
+      for (Token t : patternTokens) {
+        if (seen.put(t, Boolean.TRUE) == null) {
+          patternBytes +=
+              MemoryEstimates.objectBytes(2 * MemoryEstimates.REFERENCE + Integer.BYTES)
+                  + MemoryEstimates.stringBytes(t.image, seen);
+        }
+      }
+    }
+
+    long hashIndexKeys = tokenToPatterns.size() + pureTypePatterns.size();
+    long hashIndexBytes = hashMapBytes(tokenToPatterns) + hashMapBytes(pureTypePatterns);
+    for (String key : tokenToPatterns.keySet()) {
+      hashIndexBytes += MemoryEstimates.stringBytes(key, seen);
+    }
+    hashIndexBytes += pureTypePatterns.size() * MemoryEstimates.objectBytes(Integer.BYTES);
+
+    long trieBytes = trie == null ? 0 : trie.estimatedBytes();
+
+    Map<String, Long> report = new LinkedHashMap<>();
+    report.put("patterns", (long) patterns.size() + (trie == null ? 0 : trie.patterns()));
+    report.put("tokens", tokens);
+    report.put("patternBytes", patternBytes);
+    report.put("hashIndexKeys", hashIndexKeys);
+    report.put("hashIndexBytes", hashIndexBytes);
+    report.put("trieNodes", trie == null ? 0L : trie.nodes());
+    report.put("trieEdges", trie == null ? 0L : trie.nodes() - 1);
+    report.put("trieBytes", trieBytes);
+    report.put("totalBytes", patternBytes + hashIndexBytes + trieBytes);
+    return report;
+  }
+
+  /** Estimated size of a hash map with list values (excluding keys and list elements). */
+  private static long hashMapBytes(Map<?, ? extends List<?>> map) {
+    int tableSize = Integer.highestOneBit(Math.max(1, (int) (map.size() / 0.75f)) * 2 - 1);
+    long bytes =
+        MemoryEstimates.objectBytes(4 * Integer.BYTES + 4 * MemoryEstimates.REFERENCE)
+            + MemoryEstimates.arrayBytes(MemoryEstimates.REFERENCE, tableSize);
+    for (List<?> values : map.values()) {
+      bytes +=
+          MemoryEstimates.objectBytes(Integer.BYTES + 3 * MemoryEstimates.REFERENCE)
+              + MemoryEstimates.objectBytes(2 * Integer.BYTES + MemoryEstimates.REFERENCE)
+              + MemoryEstimates.arrayBytes(
+                  MemoryEstimates.REFERENCE, Math.max(10, values.size() + values.size() / 2));
+    }
+    return bytes;
   }
 
   private boolean noDuplicateRules(Collection<List<WordPattern>> values) {
@@ -872,6 +1015,13 @@ public class GlobDictionary implements Predicate<CharSequence> {
   }
 
   public static GlobDictionary compilePatterns(Stream<String> entries) {
+    return compilePatterns(entries, IndexType.HASH);
+  }
+
+  /**
+   * @since 4.5.1
+   */
+  public static GlobDictionary compilePatterns(Stream<String> entries, IndexType indexType) {
     GlobDictionary.PatternParser parser = new GlobDictionary.PatternParser();
     ArrayList<String> errors = new ArrayList<>();
     AtomicInteger warningsEmitted = new AtomicInteger();
@@ -914,6 +1064,6 @@ public class GlobDictionary implements Predicate<CharSequence> {
               + errors.stream().map(e -> "  - " + e + ",\n").collect(Collectors.joining()));
     }
 
-    return new GlobDictionary(compiled);
+    return new GlobDictionary(compiled, indexType);
   }
 }
@@ -0,0 +1,384 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import org.carrot2.language.GlobDictionary.MatchType;
+import org.carrot2.language.GlobDictionary.Token;
+import org.carrot2.language.GlobDictionary.WordPattern;
+
+/**
+ * A compact token trie of fixed-length {@link WordPattern}s (patterns without multi-token
+ * wildcards). Token images are interned into integer labels and trie edges are kept in a single
+ * primitive hash map, so a single pass over the input's tokens enumerates all matching patterns.
+ *
+ * <p>Patterns are not retained: each one is reduced to the trie node it ends at (and its payload).
+ * {@link WordPattern} instances are recreated from the trie path when a match is reported.
+ */
+final class GlobTokenTrie {
+  /** {@link #find} result: no pattern matched. */
+  static final int NONE = 0;
+
+  /** {@link #find} result: at least one pattern matched. */
+  static final int FOUND = 1;
+
+  /** {@link #find} result: the early abort predicate returned {@code true}. */
+  static final int ABORTED = 2;
+
+  private static final int ROOT = 0;
+
+  /** Token images to integer labels and back. */
+  private final ObjectIntHashMap<String> labels = new ObjectIntHashMap<>();
+
+  private final ArrayList<String> labelImages = new ArrayList<>();
+
+  /** Image edges, keyed by {@link #edgeKey(int, int, boolean)}. */
+  private final LongIntHashMap edges = new LongIntHashMap();
+
+  /**
+   * Node to a flat array of {@code label, typeBits, child} triples of {@link MatchType#ANY_OF_TYPE}
+   * edges.
+   */
+  private final IntObjectHashMap<int[]> typeEdges = new IntObjectHashMap<>();
+
+  /** Per-node child for {@link MatchType#ANY}, {@code -1} if none. */
+  private int[] anyChild = {-1};
+
+  /** Per-node parent, incoming edge's match type (ordinal) and label. */
+  private int[] parent = {-1};
+
+  private byte[] edgeType = {-1};
+  private int[] edgeLabel = {-1};
+
+  /** Per-node first pattern ending at the node, {@code -1} if none. */
+  private int[] firstPattern = {-1};
+
+  /** Per-pattern next pattern ending at the same node, {@code -1} if none. */
+  private int[] nextPattern = new int[0];
+
+  /** Per-pattern payloads, {@code null} if no pattern has a payload. */
+  private Object[] payloads;
+
+  private int patternCount;
+  private int nodeCount = 1;
+
+  /**
+   * @return {@code true} if the pattern can be stored in the trie.
+   */
+  static boolean accepts(WordPattern pattern) {
+    boolean hasImage = false;
+    for (Token t : pattern.tokens()) {
+      switch (t.matchType) {
+        case NORMALIZED:
+        case VERBATIM:
+          hasImage = true;
+          break;
+        case ANY:
+        case ANY_OF_TYPE:
+          break;
+        default:
+          return false;
+      }
+    }
+    return hasImage;
+  }
+
+  /** Adds a pattern. {@link Token#image} of normalized tokens must already be normalized. */
+  void add(WordPattern pattern) {
+    assert accepts(pattern);
+
+    int node = ROOT;
+    for (Token t : pattern.tokens()) {
+      switch (t.matchType) {
+        case NORMALIZED:
+        case VERBATIM:
+          {
+            int label = label(t.image);
+            long key = edgeKey(node, label, t.matchType == MatchType.VERBATIM);
+            int child = edges.getOrDefault(key, -1);
+            if (child < 0) {
+              child = newNode(node, t.matchType, label);
+              edges.put(key, child);
+            }
+            node = child;
+            break;
+          }
+        case ANY:
+          if (anyChild[node] < 0) {
+            int child = newNode(node, t.matchType, -1);
+            anyChild[node] = child;
+          }
+          node = anyChild[node];
+          break;
+        case ANY_OF_TYPE:
+          node = typeChild(node, label(t.image), t.typeBits);
+          break;
+        default:
+          throw new RuntimeException("Unexpected token: " + t);
+      }
+    }
+
+    if (patternCount == nextPattern.length) {
+      int newSize = Math.max(16, patternCount * 2);
+      nextPattern = Arrays.copyOf(nextPattern, newSize);
+      if (payloads != null) {
+        payloads = Arrays.copyOf(payloads, newSize);
+      }
+    }
+    if (pattern.getPayload() != null && payloads == null) {
+      payloads = new Object[nextPattern.length];
+    }
+    if (payloads != null) {
+      payloads[patternCount] = pattern.getPayload();
+    }
+    nextPattern[patternCount] = firstPattern[node];
+    firstPattern[node] = patternCount;
+    patternCount++;
+  }
+
+  /** Trims internal buffers once all patterns have been added. */
+  void trim() {
+    anyChild = Arrays.copyOf(anyChild, nodeCount);
+    parent = Arrays.copyOf(parent, nodeCount);
+    edgeType = Arrays.copyOf(edgeType, nodeCount);
+    edgeLabel = Arrays.copyOf(edgeLabel, nodeCount);
+    firstPattern = Arrays.copyOf(firstPattern, nodeCount);
+    nextPattern = Arrays.copyOf(nextPattern, patternCount);
+    if (payloads != null) {
+      payloads = Arrays.copyOf(payloads, patternCount);
+    }
+    labelImages.trimToSize();
+  }
+
+  /**
+   * Enumerates patterns matching the entire input.
+   *
+   * @return {@link #NONE}, {@link #FOUND} or {@link #ABORTED}.
+   */
+  int find(
+      String[] inputTerms,
+      String[] normalizedTerms,
+      int[] types,
+      Predicate<WordPattern> earlyAbort) {
+    int[] active = {ROOT};
+    int activeCount = 1;
+    int[] next = new int[4];
+
+    for (int i = 0; i < inputTerms.length && activeCount > 0; i++) {
+      final int normalizedLabel = labels.getOrDefault(normalizedTerms[i], -1);
+      final int verbatimLabel = labels.getOrDefault(inputTerms[i], -1);
+      final int type = types == null ? 0 : types[i];
+
+      int nextCount = 0;
+      for (int a = 0; a < activeCount; a++) {
+        final int node = active[a];
+        // Children are distinct nodes (this is a tree), no need to deduplicate.
+        if (next.length < nextCount + 3) {
+          next = Arrays.copyOf(next, next.length * 2 + 3);
+        }
+        if (normalizedLabel >= 0) {
+          int child = edges.getOrDefault(edgeKey(node, normalizedLabel, false), -1);
+          if (child >= 0) {
+            next[nextCount++] = child;
+          }
+        }
+        if (verbatimLabel >= 0) {
+          int child = edges.getOrDefault(edgeKey(node, verbatimLabel, true), -1);
+          if (child >= 0) {
+            next[nextCount++] = child;
+          }
+        }
+        if (anyChild[node] >= 0) {
+          next[nextCount++] = anyChild[node];
+        }
+        int[] triples = typeEdges.get(node);
+        if (triples != null) {
+          for (int p = 0; p < triples.length; p += 3) {
+            int typeBits = triples[p + 1];
+            if ((type & typeBits) == typeBits) {
+              if (next.length == nextCount) {
+                next = Arrays.copyOf(next, next.length * 2);
+              }
+              next[nextCount++] = triples[p + 2];
+            }
+          }
+        }
+      }
+
+      int[] tmp = active;
+      active = next;
+      activeCount = nextCount;
+      next = tmp;
+    }
+
+    int result = NONE;
+    for (int a = 0; a < activeCount; a++) {
+      final int node = active[a];
+      for (int p = firstPattern[node]; p >= 0; p = nextPattern[p]) {
+        result = FOUND;
+        if (earlyAbort.test(pattern(node, p))) {
+          return ABORTED;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return The number of patterns in the trie.
+   */
+  int patterns() {
+    return patternCount;
+  }
+
+  /**
+   * @return The total number of tokens of all patterns in the trie.
+   */
+  long tokens() {
+    long tokens = 0;
+    for (int node = 0; node < nodeCount; node++) {
+      if (firstPattern[node] >= 0) {
+        int depth = 0;
+        for (int n = node; n != ROOT; n = parent[n]) {
+          depth++;
+        }
+        for (int p = firstPattern[node]; p >= 0; p = nextPattern[p]) {
+          tokens += depth;
+        }
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * @return The number of trie nodes.
+   */
+  int nodes() {
+    return nodeCount;
+  }
+
+  /**
+   * @return Estimated heap size of the trie, including pattern payload references.
+   */
+  long estimatedBytes() {
+    long bytes = 0;
+    bytes += MemoryEstimates.arrayBytes(MemoryEstimates.REFERENCE, labels.keys.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, labels.values.length);
+    bytes += MemoryEstimates.arrayBytes(MemoryEstimates.REFERENCE, labelImages.size());
+    for (String image : labelImages) {
+      bytes += MemoryEstimates.stringBytes(image);
+    }
+    bytes += MemoryEstimates.arrayBytes(Long.BYTES, edges.keys.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, edges.values.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, typeEdges.keys.length);
+    bytes += MemoryEstimates.arrayBytes(MemoryEstimates.REFERENCE, typeEdges.values.length);
+    for (var c : typeEdges) {
+      bytes += MemoryEstimates.arrayBytes(Integer.BYTES, c.value.length);
+    }
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, anyChild.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, parent.length);
+    bytes += MemoryEstimates.arrayBytes(Byte.BYTES, edgeType.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, edgeLabel.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, firstPattern.length);
+    bytes += MemoryEstimates.arrayBytes(Integer.BYTES, nextPattern.length);
+    if (payloads != null) {
+      bytes += MemoryEstimates.arrayBytes(MemoryEstimates.REFERENCE, payloads.length);
+    }
+    return bytes;
+  }
+
+  /** Recreates the pattern ending at the given node from the trie path. */
+  private WordPattern pattern(int node, int patternIndex) {
+    List<Token> tokens = new ArrayList<>();
+    for (int n = node; n != ROOT; n = parent[n]) {
+      MatchType matchType = MatchType.values()[edgeType[n]];
+      switch (matchType) {
+        case ANY:
+          tokens.add(GlobDictionary.PatternParser.ANY);
+          break;
+        case ANY_OF_TYPE:
+          tokens.add(new Token(labelImages.get(edgeLabel[n]), matchType, typeBits(n)));
+          break;
+        default:
+          tokens.add(new Token(labelImages.get(edgeLabel[n]), matchType, 0));
+          break;
+      }
+    }
+    Collections.reverse(tokens);
+    return new WordPattern(tokens, payloads == null ? null : payloads[patternIndex]);
+  }
+
+  private int typeBits(int node) {
+    int[] triples = typeEdges.get(parent[node]);
+    for (int p = 0; p < triples.length; p += 3) {
+      if (triples[p + 2] == node) {
+        return triples[p + 1];
+      }
+    }
+    throw new RuntimeException("Type edge not found: " + node);
+  }
+
+  private int label(String image) {
+    int label = labels.getOrDefault(image, -1);
+    if (label < 0) {
+      label = labelImages.size();
+      labels.put(image, label);
+      labelImages.add(image);
+    }
+    return label;
+  }
+
+  private int typeChild(int node, int label, int typeBits) {
+    int[] triples = typeEdges.get(node);
+    if (triples != null) {
+      for (int p = 0; p < triples.length; p += 3) {
+        if (triples[p] == label) {
+          return triples[p + 2];
+        }
+      }
+    }
+    int child = newNode(node, MatchType.ANY_OF_TYPE, label);
+    triples = triples == null ? new int[3] : Arrays.copyOf(triples, triples.length + 3);
+    triples[triples.length - 3] = label;
+    triples[triples.length - 2] = typeBits;
+    triples[triples.length - 1] = child;
+    typeEdges.put(node, triples);
+    return child;
+  }
+
+  private int newNode(int parentNode, MatchType matchType, int label) {
+    if (nodeCount == anyChild.length) {
+      int newSize = nodeCount * 2;
+      anyChild = Arrays.copyOf(anyChild, newSize);
+      parent = Arrays.copyOf(parent, newSize);
+      edgeType = Arrays.copyOf(edgeType, newSize);
+      edgeLabel = Arrays.copyOf(edgeLabel, newSize);
+      firstPattern = Arrays.copyOf(firstPattern, newSize);
+      Arrays.fill(anyChild, nodeCount, newSize, -1);
+      Arrays.fill(firstPattern, nodeCount, newSize, -1);
+    }
+    parent[nodeCount] = parentNode;
+    edgeType[nodeCount] = (byte) matchType.ordinal();
+    edgeLabel[nodeCount] = label;
+    return nodeCount++;
+  }
+
+  private static long edgeKey(int node, int label, boolean verbatim) {
+    return ((long) node << 32) | ((long) label << 1) | (verbatim ? 1 : 0);
+  }
+}
@@ -64,6 +64,31 @@ public final class LanguageComponents {
     return override(clazz, modifier.apply(existingSupplier));
   }
 
+  /**
+   * Returns components that hand each thread a single, reused instance of each of the given
+   * component types instead of calling their supplier on every {@link #get(Class)}. This avoids
+   * constructing stateful components, like {@link Tokenizer} or {@link Stemmer}, over and over
+   * again.
+   *
+   * <p>Pooled instances are shared by all callers on the same thread, so they must not be used
+   * re-entrantly: a thread must be done with an instance before it requests another one of the same
+   * type. Component types not present in this instance are ignored.
+   *
+   * @return Returns the modified, immutable {@link LanguageComponents} instance.
+   * @since 4.5.1
+   */
+  public LanguageComponents pooled(Class<?>... componentTypes) {
+    Map<Class<?>, Supplier<?>> clonedSuppliers = new LinkedHashMap<>(components);
+    for (Class<?> clazz : componentTypes) {
+      Supplier<?> supplier = components.get(clazz);
+      if (supplier != null) {
+        ThreadLocal<?> perThread = ThreadLocal.withInitial(supplier);
+        clonedSuppliers.put(clazz, perThread::get);
+      }
+    }
+    return new LanguageComponents(language, clonedSuppliers);
+  }
+
   public Set<Class<?>> components() {
     return components.keySet();
   }
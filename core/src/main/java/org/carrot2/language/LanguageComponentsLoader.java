@@ -11,6 +11,7 @@
 package org.carrot2.language;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -23,18 +24,24 @@ import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.carrot2.clustering.ClusteringAlgorithm;
+import org.carrot2.util.ExecutorServiceUtils;
 import org.carrot2.util.ResourceLookup;
 
 public final class LanguageComponentsLoader {
   private Set<String> languageRestrictions;
   private Function<LanguageComponentsProvider, ResourceLookup> resourceLookupModifier;
   private ClusteringAlgorithm[] algorithmRestriction;
+  private Set<String> preloadLanguages;
+  private int threads;
 
   public LoadedLanguages load() throws IOException {
     return load(loadProvidersFromSpi(defaultSpiClassloader()));
@@ -67,10 +74,10 @@ public final class LanguageComponentsLoader {
           };
     }
 
-    // Preload components.
-    Map<String, Map<Class<?>, Supplier<?>>> preloadedSuppliers = new LinkedHashMap<>();
+    // Collect the components each language should load from its providers.
+    Map<String, LanguageLoader> loaders = new LinkedHashMap<>();
     for (String language : languageProviders.keySet()) {
-      LinkedHashMap<Class<?>, Supplier<?>> componentSuppliers = new LinkedHashMap<>();
+      LanguageLoader loader = new LanguageLoader(language);
       for (LanguageComponentsProvider provider : languageProviders.get(language)) {
         ResourceLookup rl;
         if (resourceLookupModifier != null) {
@@ -81,12 +88,27 @@ public final class LanguageComponentsLoader {
 
         Set<Class<?>> requiredTypes = componentFilters.apply(provider.componentTypes());
         if (!requiredTypes.isEmpty()) {
-          componentSuppliers.putAll(provider.load(language, rl, requiredTypes));
+          loader.sources.add(new ComponentSource(provider, rl, requiredTypes));
         }
       }
 
+      if (!loader.sources.isEmpty()) {
+        loaders.put(language, loader);
+      }
+    }
+
+    // Preload components (all of them, unless lazy loading is enabled).
+    preload(
+        loaders.values().stream()
+            .filter(
+                loader -> preloadLanguages == null || preloadLanguages.contains(loader.language))
+            .collect(Collectors.toList()));
+
+    Map<String, Map<Class<?>, Supplier<?>>> preloadedSuppliers = new LinkedHashMap<>();
+    for (LanguageLoader loader : loaders.values()) {
+      Map<Class<?>, Supplier<?>> componentSuppliers = loader.suppliers();
       if (!componentSuppliers.isEmpty()) {
-        preloadedSuppliers.put(language, componentSuppliers);
+        preloadedSuppliers.put(loader.language, componentSuppliers);
       }
     }
 
@@ -106,6 +128,47 @@ public final class LanguageComponentsLoader {
     return new LoadedLanguages(preloadedSuppliers);
   }
 
+  private void preload(List<LanguageLoader> loaders) throws IOException {
+    if (threads <= 1 || loaders.size() <= 1) {
+      for (LanguageLoader loader : loaders) {
+        loader.load();
+      }
+      return;
+    }
+
+    ExecutorService executor =
+        ExecutorServiceUtils.createExecutorService(
+            Math.min(threads, loaders.size()), LanguageComponentsLoader.class);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (LanguageLoader loader : loaders) {
+        futures.add(executor.submit(loader::load));
+      }
+
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while loading language components.", e);
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          } else {
+            throw new RuntimeException(cause);
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /** Limits the loaded components to just those required by the given list of languages. */
   public LanguageComponentsLoader limitToLanguages(String... languages) {
     if (this.languageRestrictions != null) {
@@ -132,6 +195,42 @@ public final class LanguageComponentsLoader {
     return this;
   }
 
+  /**
+   * Loads languages in parallel, using at most the given number of threads. By default languages
+   * are loaded sequentially, on the calling thread.
+   *
+   * @since 4.5.1
+   */
+  public LanguageComponentsLoader withThreads(int threads) {
+    if (this.threads != 0) {
+      throw new RuntimeException("Method can be set once.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("The number of threads must be at least 1: " + threads);
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Defers loading of each language until any of its components is first requested from {@link
+   * LanguageComponents#get(Class)}. Languages passed as {@code preloadLanguages} are still loaded
+   * upfront (see {@link #withThreads(int)}).
+   *
+   * <p>With lazy loading, {@link LanguageComponents#components()} of languages not yet loaded
+   * returns component types declared by their providers. Errors loading such languages are thrown
+   * on first use, as an {@link UncheckedIOException}.
+   *
+   * @since 4.5.1
+   */
+  public LanguageComponentsLoader withLazyLoading(String... preloadLanguages) {
+    if (this.preloadLanguages != null) {
+      throw new RuntimeException("Method can be set once.");
+    }
+    this.preloadLanguages = new HashSet<>(Arrays.asList(preloadLanguages));
+    return this;
+  }
+
   public LanguageComponentsLoader withResourceLookup(
       Function<LanguageComponentsProvider, ResourceLookup> resourceLookupModifier) {
     if (this.resourceLookupModifier != null) {
@@ -165,6 +264,90 @@ public final class LanguageComponentsLoader {
         });
   }
 
+  private static final class ComponentSource {
+    final LanguageComponentsProvider provider;
+    final ResourceLookup resourceLookup;
+    final Set<Class<?>> componentTypes;
+
+    ComponentSource(
+        LanguageComponentsProvider provider,
+        ResourceLookup resourceLookup,
+        Set<Class<?>> componentTypes) {
+      this.provider = provider;
+      this.resourceLookup = resourceLookup;
+      this.componentTypes = componentTypes;
+    }
+  }
+
+  /** Loads (once) the components of a single language from all of its providers. */
+  private static final class LanguageLoader {
+    final String language;
+    final List<ComponentSource> sources = new ArrayList<>();
+    private volatile Map<Class<?>, Supplier<?>> loaded;
+
+    LanguageLoader(String language) {
+      this.language = language;
+    }
+
+    Map<Class<?>, Supplier<?>> load() throws IOException {
+      Map<Class<?>, Supplier<?>> suppliers = loaded;
+      if (suppliers == null) {
+        synchronized (this) {
+          suppliers = loaded;
+          if (suppliers == null) {
+            suppliers = new LinkedHashMap<>();
+            for (ComponentSource source : sources) {
+              suppliers.putAll(
+                  source.provider.load(language, source.resourceLookup, source.componentTypes));
+            }
+            loaded = suppliers;
+          }
+        }
+      }
+      return suppliers;
+    }
+
+    /**
+     * @return Loaded component suppliers or, if the language has not been loaded yet, suppliers
+     *     that load it on first use.
+     */
+    Map<Class<?>, Supplier<?>> suppliers() {
+      Map<Class<?>, Supplier<?>> suppliers = loaded;
+      if (suppliers != null) {
+        return suppliers;
+      }
+
+      suppliers = new LinkedHashMap<>();
+      for (ComponentSource source : sources) {
+        for (Class<?> componentType : source.componentTypes) {
+          suppliers.put(componentType, () -> loadedSupplier(componentType).get());
+        }
+      }
+      return suppliers;
+    }
+
+    private Supplier<?> loadedSupplier(Class<?> componentType) {
+      Map<Class<?>, Supplier<?>> suppliers;
+      try {
+        suppliers = load();
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format(Locale.ROOT, "Could not load components of language '%s'.", language), e);
+      }
+
+      Supplier<?> supplier = suppliers.get(componentType);
+      if (supplier == null) {
+        throw new RuntimeException(
+            String.format(
+                Locale.ROOT,
+                "Providers of language '%s' did not load component '%s'.",
+                language,
+                componentType.getSimpleName()));
+      }
+      return supplier;
+    }
+  }
+
   private ClassLoader defaultSpiClassloader() {
     return getClass().getClassLoader();
   }
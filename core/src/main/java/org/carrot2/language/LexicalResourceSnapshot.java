@@ -0,0 +1,403 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.carrot2.attrs.AcceptingVisitor;
+import org.carrot2.attrs.Attrs;
+import org.carrot2.internal.nanojson.JsonParser;
+import org.carrot2.internal.nanojson.JsonParserException;
+import org.carrot2.util.ResourceLookup;
+import org.carrot2.util.StringUtils;
+import org.carrot2.util.SuppressForbidden;
+
+/**
+ * A precompiled binary snapshot of a lexical resource ({@code *.word-filters.json} or {@code
+ * *.label-filters.json}). Snapshots are created at build time and stored next to the JSON source,
+ * with the {@value #SNAPSHOT_EXTENSION} extension instead of {@code .json}. They are memory-mapped
+ * when the resource resolves to a local file.
+ *
+ * <p>A snapshot holds the parsed glob patterns and the compiled regular expression automaton, so
+ * loading it skips JSON parsing, glob pattern parsing and regular expression compilation. {@link
+ * DefaultLexicalDataProvider} uses a snapshot only if it is in the current format and resolves from
+ * the same location as the JSON resource (if there is one), so a JSON resource overriding the
+ * default one is always parsed. Local files are also checked against the length of the JSON they
+ * were created from and must not be older than the JSON. Invalid snapshots fall back to parsing
+ * JSON.
+ *
+ * <p>Snapshots can be created with the {@link #main(String[])} command-line tool.
+ *
+ * @since 4.5.1
+ */
+public final class LexicalResourceSnapshot {
+  public static final String SNAPSHOT_EXTENSION = ".bin";
+
+  /** The source length value that disables the source consistency check. */
+  static final long ANY_SOURCE_LENGTH = -1L;
+
+  private static final String JSON_EXTENSION = ".json";
+  private static final int MAGIC = 0x43324c58; // "C2LX"
+
+  /** Incremented whenever the snapshot format or any of the precompiled structures change. */
+  private static final int FORMAT_VERSION = 2;
+
+  private LexicalResourceSnapshot() {}
+
+  /**
+   * @return The snapshot resource name for a given JSON resource name.
+   */
+  public static String snapshotResource(String jsonResource) {
+    if (!jsonResource.endsWith(JSON_EXTENSION)) {
+      throw new IllegalArgumentException("Not a JSON resource: " + jsonResource);
+    }
+    return jsonResource.substring(0, jsonResource.length() - JSON_EXTENSION.length())
+        + SNAPSHOT_EXTENSION;
+  }
+
+  /** Parses a JSON lexical resource into a dictionary of the given type. */
+  static <T extends AcceptingVisitor> T parseJson(
+      Class<T> clazz, byte[] source, String resourceName) throws IOException {
+    try (Reader reader =
+        new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8)) {
+      return Attrs.fromMap(
+          clazz, () -> clazz.cast(new DefaultDictionaryImpl()), JsonParser.object().from(reader));
+    } catch (JsonParserException e) {
+      throw new IOException(
+          String.format(
+              Locale.ROOT,
+              "JSON syntax exception in dictionary %s: %s",
+              resourceName,
+              e.getMessage()),
+          e);
+    }
+  }
+
+  /**
+   * Compiles the dictionary and writes its snapshot.
+   *
+   * @param sourceLength The length (in bytes) of the JSON source of the dictionary.
+   * @throws IOException If any of the dictionary's glob patterns is invalid.
+   * @throws java.util.regex.PatternSyntaxException If any of the dictionary's regular expressions
+   *     is invalid.
+   */
+  public static void write(DefaultDictionaryImpl dictionary, long sourceLength, OutputStream os)
+      throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeLong(sourceLength);
+
+    writeStrings(out, unique(dictionary.exact.get()));
+    writeGlob(out, unique(dictionary.glob.get()));
+
+    List<String> regexp = unique(dictionary.regexp.get());
+    out.writeBoolean(!regexp.isEmpty());
+    if (!regexp.isEmpty()) {
+      RegexpMatcher.compile(regexp).write(out);
+    }
+    out.flush();
+  }
+
+  private static void writeGlob(DataOutputStream out, List<String> entries) throws IOException {
+    GlobDictionary.PatternParser parser = new GlobDictionary.PatternParser();
+    List<GlobDictionary.WordPattern> patterns = new ArrayList<>();
+    for (String entry : entries) {
+      if (!StringUtils.isNullOrEmpty(entry.trim())) {
+        try {
+          patterns.add(parser.parse(entry));
+        } catch (ParseException e) {
+          throw new IOException(
+              "Could not parse pattern: " + entry + ", reason: " + e.getMessage());
+        }
+      }
+    }
+
+    out.writeByte(DefaultDictionaryImpl.globIndexType(entries.size()).ordinal());
+    out.writeInt(patterns.size());
+    for (GlobDictionary.WordPattern pattern : patterns) {
+      out.writeInt(pattern.tokens().size());
+      for (GlobDictionary.Token token : pattern.tokens()) {
+        out.writeByte(token.matchType.ordinal());
+        out.writeInt(token.typeBits);
+        writeString(out, token.image);
+      }
+    }
+  }
+
+  /**
+   * Reads a snapshot from the buffer.
+   *
+   * @param expectedSourceLength The length of the JSON source the snapshot must have been created
+   *     from or {@link #ANY_SOURCE_LENGTH} to accept any snapshot.
+   * @return A predicate matching the dictionary's entries or {@code null} if the buffer does not
+   *     contain a snapshot in the current format or the snapshot is stale.
+   */
+  static Predicate<CharSequence> read(ByteBuffer buffer, long expectedSourceLength) {
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+        return null;
+      }
+      long sourceLength = buffer.getLong();
+      if (expectedSourceLength != ANY_SOURCE_LENGTH && sourceLength != expectedSourceLength) {
+        return null;
+      }
+
+      List<Predicate<CharSequence>> predicates = new ArrayList<>();
+      List<String> exact = readStrings(buffer);
+      if (!exact.isEmpty()) {
+        predicates.add(new CharSequenceSet(exact, false)::contains);
+      }
+
+      GlobDictionary glob = readGlob(buffer);
+      if (glob != null) {
+        predicates.add(glob::test);
+      }
+
+      if (buffer.get() != 0) {
+        predicates.add(RegexpMatcher.read(buffer));
+      }
+
+      return buffer.hasRemaining() ? null : DefaultDictionaryImpl.anyOf(predicates);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static GlobDictionary readGlob(ByteBuffer buffer) {
+    GlobDictionary.IndexType indexType = ordinal(GlobDictionary.IndexType.values(), buffer.get());
+    int count = readCount(buffer);
+    if (count == 0) {
+      return null;
+    }
+
+    GlobDictionary.MatchType[] matchTypes = GlobDictionary.MatchType.values();
+    List<GlobDictionary.WordPattern> patterns = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int tokenCount = readCount(buffer);
+      List<GlobDictionary.Token> tokens = new ArrayList<>(tokenCount);
+      for (int j = 0; j < tokenCount; j++) {
+        GlobDictionary.MatchType matchType = ordinal(matchTypes, buffer.get());
+        int typeBits = buffer.getInt();
+        tokens.add(new GlobDictionary.Token(readString(buffer), matchType, typeBits));
+      }
+      patterns.add(new GlobDictionary.WordPattern(tokens));
+    }
+    return new GlobDictionary(patterns.stream(), indexType);
+  }
+
+  private static <T> T ordinal(T[] values, int ordinal) {
+    if (ordinal < 0 || ordinal >= values.length) {
+      throw new IllegalArgumentException("Invalid ordinal: " + ordinal);
+    }
+    return values[ordinal];
+  }
+
+  static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeInt(value.length());
+    out.writeChars(value);
+  }
+
+  static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining() / Character.BYTES) {
+      throw new IllegalArgumentException("Invalid string length: " + length);
+    }
+    char[] chars = new char[length];
+    buffer.asCharBuffer().get(chars);
+    buffer.position(buffer.position() + length * Character.BYTES);
+    return new String(chars);
+  }
+
+  static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+    out.writeInt(values.size());
+    for (String value : values) {
+      writeString(out, value);
+    }
+  }
+
+  static List<String> readStrings(ByteBuffer buffer) {
+    int count = readCount(buffer);
+    List<String> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add(readString(buffer));
+    }
+    return values;
+  }
+
+  static void writeInts(DataOutputStream out, int[] values) throws IOException {
+    out.writeInt(values.length);
+    for (int value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  static int[] readInts(ByteBuffer buffer) {
+    int[] values = new int[readCount(buffer)];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + values.length * Integer.BYTES);
+    return values;
+  }
+
+  /** Reads the number of elements that follow, each taking at least four bytes. */
+  private static int readCount(ByteBuffer buffer) {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+      throw new IllegalArgumentException("Invalid element count: " + count);
+    }
+    return count;
+  }
+
+  private static List<String> unique(String[] values) {
+    return values == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(Arrays.asList(values)));
+  }
+
+  /**
+   * Loads the snapshot of a JSON lexical resource, if it is valid. The JSON resource itself is not
+   * read.
+   *
+   * @return A predicate matching the dictionary's entries or {@code null} if there is no valid
+   *     snapshot and the JSON resource should be parsed.
+   */
+  static Predicate<CharSequence> load(ResourceLookup resourceLookup, String jsonResource)
+      throws IOException {
+    String snapshot = snapshotResource(jsonResource);
+    if (!resourceLookup.exists(snapshot)) {
+      return null;
+    }
+
+    long expectedSourceLength = ANY_SOURCE_LENGTH;
+    if (resourceLookup.exists(jsonResource)) {
+      // A JSON resource from a different location overrides the one the snapshot was created from.
+      String jsonLocation = resourceLookup.pathOf(jsonResource);
+      String snapshotLocation = resourceLookup.pathOf(snapshot);
+      if (!jsonLocation.endsWith(JSON_EXTENSION)
+          || !snapshotResource(jsonLocation).equals(snapshotLocation)) {
+        return null;
+      }
+
+      // Local files may have been edited after the snapshot was created.
+      Path jsonPath = localPath(jsonLocation);
+      if (jsonPath != null) {
+        Path snapshotPath = localPath(snapshotLocation);
+        if (snapshotPath == null
+            || Files.getLastModifiedTime(jsonPath)
+                    .compareTo(Files.getLastModifiedTime(snapshotPath))
+                > 0) {
+          return null;
+        }
+        expectedSourceLength = Files.size(jsonPath);
+      }
+    }
+
+    return read(open(resourceLookup, snapshot), expectedSourceLength);
+  }
+
+  /**
+   * Opens a snapshot resource. Resources that resolve to local files are memory-mapped, others are
+   * read onto the heap.
+   */
+  static ByteBuffer open(ResourceLookup resourceLookup, String resource) throws IOException {
+    Path path = localPath(resourceLookup.pathOf(resource));
+    if (path != null) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+    }
+
+    try (InputStream is = resourceLookup.open(resource)) {
+      return ByteBuffer.wrap(is.readAllBytes());
+    }
+  }
+
+  private static Path localPath(String location) {
+    if (location == null || !location.startsWith("file:")) {
+      return null;
+    }
+    try {
+      Path path = Paths.get(new URI(location));
+      return Files.isRegularFile(path) ? path : null;
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /** Creates the snapshot of a JSON file. */
+  public static void createSnapshot(Path jsonFile, Path target) throws IOException {
+    byte[] source = Files.readAllBytes(jsonFile);
+    DefaultDictionaryImpl dictionary =
+        parseJson(DefaultDictionaryImpl.class, source, jsonFile.toString());
+    try (OutputStream os = Files.newOutputStream(target)) {
+      write(dictionary, source.length, os);
+    }
+  }
+
+  /**
+   * Creates snapshots of all lexical resources in the source directory (scanned recursively) at the
+   * same relative paths under the target directory.
+   */
+  @SuppressForbidden("Command-line tool.")
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println(
+          "Usage: " + LexicalResourceSnapshot.class.getName() + " source-dir target-dir");
+      System.exit(1);
+    }
+
+    Path sourceDir = Paths.get(args[0]);
+    Path targetDir = Paths.get(args[1]);
+    List<Path> sources;
+    try (Stream<Path> s = Files.walk(sourceDir)) {
+      sources =
+          s.filter(p -> Files.isRegularFile(p) && isLexicalResource(p))
+              .sorted()
+              .collect(Collectors.toList());
+    }
+
+    for (Path source : sources) {
+      Path target = targetDir.resolve(snapshotResource(sourceDir.relativize(source).toString()));
+      Files.createDirectories(target.getParent());
+      createSnapshot(source, target);
+      System.out.println(
+          String.format(Locale.ROOT, "%s -> %s (%,d bytes)", source, target, Files.size(target)));
+    }
+  }
+
+  private static boolean isLexicalResource(Path p) {
+    String name = p.getFileName().toString();
+    return name.endsWith(".word-filters.json") || name.endsWith(".label-filters.json");
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Rough heap size estimates of dictionary structures, assuming a 64-bit JVM with compressed object
+ * pointers. These are meant for capacity planning reports, not exact accounting.
+ */
+final class MemoryEstimates {
+  static final int REFERENCE = 4;
+  static final int OBJECT_HEADER = 12;
+  static final int ARRAY_HEADER = 16;
+
+  private MemoryEstimates() {}
+
+  static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+
+  static long objectBytes(int fieldBytes) {
+    return align(OBJECT_HEADER + fieldBytes);
+  }
+
+  static long arrayBytes(int elementBytes, int length) {
+    return align(ARRAY_HEADER + (long) elementBytes * length);
+  }
+
+  /** Estimated size of a string, zero if it has already been {@code seen}. */
+  static long stringBytes(String s, IdentityHashMap<Object, Boolean> seen) {
+    if (s == null || seen.put(s, Boolean.TRUE) != null) {
+      return 0;
+    }
+    return stringBytes(s);
+  }
+
+  /** Estimated size of a string (with compact strings enabled). */
+  static long stringBytes(String s) {
+    boolean latin1 = s.chars().allMatch(c -> c < 256);
+    return objectBytes(REFERENCE + Integer.BYTES + 2)
+        + arrayBytes(latin1 ? Byte.BYTES : Character.BYTES, s.length());
+  }
+}
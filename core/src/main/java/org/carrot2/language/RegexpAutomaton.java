@@ -0,0 +1,953 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A multi-pattern regular expression matcher equivalent to {@link java.util.regex.Matcher#find()}
+ * on the union of all patterns, for a subset of the {@link java.util.regex.Pattern} syntax. All
+ * patterns are compiled into a single Thompson NFA, which is then determinized lazily, as inputs
+ * are scanned. The time of each test is linear in the length of the input and (once the DFA states
+ * it needs have been cached) independent of the number of patterns.
+ *
+ * <p>The supported syntax includes literals, escaped characters, {@code .}, character classes
+ * (ranges, negation, {@code \d \w \s} and their complements), groups (capturing and {@code (?:)}),
+ * alternation, greedy and reluctant quantifiers ({@code * + ? {n} {n,} {n,m}}), {@code ^} at the
+ * start and {@code $} at the end of a top-level alternative. Anything else (back references,
+ * look-around, boundaries, possessive quantifiers, inline flags, Unicode properties, class
+ * intersections) makes {@link #parse(String)} return {@code null}.
+ *
+ * <p>Inputs containing line terminators or surrogate characters are not decided by the automaton
+ * (the semantics of {@code .}, {@code $} and code point matching differ), {@link #find} returns
+ * {@link #UNDECIDED} for such inputs.
+ *
+ * <p>Instances are thread-safe.
+ */
+final class RegexpAutomaton {
+  /** {@link #find} result: no match. */
+  static final int NOT_FOUND = 0;
+
+  /** {@link #find} result: a match was found. */
+  static final int FOUND = 1;
+
+  /** {@link #find} result: the input must be checked with {@link java.util.regex.Pattern}. */
+  static final int UNDECIDED = -1;
+
+  /** Maximum bounded repetition count. Larger counts are not supported. */
+  static final int MAX_REPEAT = 1000;
+
+  /**
+   * Maximum number of NFA states of a pattern (or all patterns of an automaton). Bounded repeats
+   * are expanded by copying, so nested repeats can multiply the state count; such patterns are not
+   * supported.
+   */
+  static final int MAX_NFA_STATES = 1 << 16;
+
+  /**
+   * Maximum number of integers held by the cached DFA states (their NFA state identifiers and
+   * transition table entries).
+   */
+  private static final long MAX_CACHED_STATE_INTS = 1 << 22;
+
+  private static final int RANGE = 0;
+  private static final int SPLIT = 1;
+  private static final int MATCH = 2;
+  private static final int MATCH_END = 3;
+
+  private static final int MAX_CHAR = Character.MAX_VALUE;
+
+  private static final int[] DIGIT = {'0', '9'};
+  private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+  private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+  private static final int[] DOT =
+      complement(normalize(new int[] {'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029}));
+
+  /** A single top-level alternative of a pattern. */
+  static final class Branch {
+    final Node node;
+    final boolean anchorStart;
+    final boolean anchorEnd;
+
+    Branch(Node node, boolean anchorStart, boolean anchorEnd) {
+      this.node = node;
+      this.anchorStart = anchorStart;
+      this.anchorEnd = anchorEnd;
+    }
+
+    /**
+     * @return The number of NFA states this branch compiles to (saturated at {@link
+     *     Integer#MAX_VALUE}).
+     */
+    int states() {
+      return node.states;
+    }
+  }
+
+  private abstract static class Node {
+    /** The number of NFA states this node compiles to, saturated at {@link Integer#MAX_VALUE}. */
+    final int states;
+
+    Node(long states) {
+      this.states = (int) Math.min(states, Integer.MAX_VALUE);
+    }
+  }
+
+  private static final class CharsNode extends Node {
+    /** Sorted, disjoint, inclusive ranges: {@code lo0, hi0, lo1, hi1, ...}. */
+    final int[] ranges;
+
+    CharsNode(int[] ranges) {
+      super(1);
+      this.ranges = ranges;
+    }
+  }
+
+  private static final class ConcatNode extends Node {
+    final List<Node> nodes;
+
+    ConcatNode(List<Node> nodes) {
+      super(nodes.stream().mapToLong(n -> n.states).sum());
+      this.nodes = nodes;
+    }
+  }
+
+  private static final class AltNode extends Node {
+    final List<Node> nodes;
+
+    AltNode(List<Node> nodes) {
+      // One split state for each alternative but the last one.
+      super(nodes.stream().mapToLong(n -> n.states).sum() + nodes.size() - 1);
+      this.nodes = nodes;
+    }
+  }
+
+  private static final class RepeatNode extends Node {
+    final Node node;
+    final int min;
+    /** Maximum repetition count, {@code -1} for no limit. */
+    final int max;
+
+    RepeatNode(Node node, int min, int max) {
+      super(
+          max < 0
+              ? (min + 1L) * node.states + 1
+              : (long) min * node.states + (max - min) * (node.states + 1L));
+      this.node = node;
+      this.min = min;
+      this.max = max;
+    }
+  }
+
+  /** A DFA state: a set of NFA states with a (lazily filled) transition table. */
+  private static final class State {
+    final int[] nfaStates;
+    final boolean match;
+    final boolean matchAtEnd;
+
+    /** Transitions per character class, {@code null} for states that are not cached. */
+    final State[] next;
+
+    State(int[] nfaStates, boolean match, boolean matchAtEnd, State[] next) {
+      this.nfaStates = nfaStates;
+      this.match = match;
+      this.matchAtEnd = matchAtEnd;
+      this.next = next;
+    }
+  }
+
+  private static final class StateKey {
+    final int[] states;
+    final int hash;
+
+    StateKey(int[] states) {
+      this.states = states;
+      this.hash = Arrays.hashCode(states);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof StateKey && Arrays.equals(states, ((StateKey) other).states);
+    }
+  }
+
+  /** Per-thread scratch space for computing epsilon closures. */
+  private static final class Workspace {
+    final int[] stamps;
+    final int[] stack;
+    final int[] result;
+    int generation;
+    int stackSize;
+    int resultSize;
+
+    Workspace(int nfaStates) {
+      stamps = new int[nfaStates];
+      stack = new int[nfaStates];
+      result = new int[nfaStates];
+    }
+
+    void begin() {
+      if (++generation == 0) {
+        Arrays.fill(stamps, 0);
+        generation = 1;
+      }
+      stackSize = 0;
+      resultSize = 0;
+    }
+  }
+
+  /** NFA states: kind, character ranges (for {@link #RANGE}) and epsilon or range targets. */
+  private final int[] kind;
+
+  private final int[][] ranges;
+  private final int[] out;
+  private final int[] out1;
+
+  private final int[] anchoredStarts;
+  private final int[] unanchoredStarts;
+
+  /** Character class boundaries (the first character of each class) and an ASCII lookup table. */
+  private final int[] classStarts;
+
+  private final int[] asciiClasses;
+
+  private final State initial;
+  private final ConcurrentHashMap<StateKey, State> states = new ConcurrentHashMap<>();
+  private final AtomicLong cachedStateInts = new AtomicLong();
+  private final ThreadLocal<Workspace> workspace;
+
+  /**
+   * Creates an automaton from branches of patterns previously {@linkplain #parse(String) parsed}.
+   */
+  RegexpAutomaton(List<Branch> branches) {
+    this(NfaBuilder.compile(branches));
+  }
+
+  private RegexpAutomaton(NfaBuilder builder) {
+    this.kind = Arrays.copyOf(builder.kind, builder.size);
+    this.ranges = Arrays.copyOf(builder.ranges, builder.size);
+    this.out = Arrays.copyOf(builder.out, builder.size);
+    this.out1 = Arrays.copyOf(builder.out1, builder.size);
+    this.anchoredStarts = builder.anchoredStarts;
+    this.unanchoredStarts = builder.unanchoredStarts;
+
+    TreeSet<Integer> boundaries = new TreeSet<>();
+    boundaries.add(0);
+    for (int[] r : ranges) {
+      if (r != null) {
+        for (int i = 0; i < r.length; i += 2) {
+          boundaries.add(r[i]);
+          if (r[i + 1] < MAX_CHAR) {
+            boundaries.add(r[i + 1] + 1);
+          }
+        }
+      }
+    }
+    this.classStarts = boundaries.stream().mapToInt(Integer::intValue).toArray();
+    this.asciiClasses = new int[128];
+    for (int c = 0; c < asciiClasses.length; c++) {
+      asciiClasses[c] = classOf((char) c);
+    }
+
+    final int nfaStates = kind.length;
+    this.workspace = ThreadLocal.withInitial(() -> new Workspace(nfaStates));
+
+    Workspace w = workspace.get();
+    w.begin();
+    for (int s : anchoredStarts) {
+      push(w, s);
+    }
+    this.initial = closure(w);
+  }
+
+  /**
+   * Checks if any of the patterns matches a substring of the input.
+   *
+   * @return {@link #FOUND}, {@link #NOT_FOUND} or {@link #UNDECIDED} if the input contains
+   *     characters the automaton cannot handle.
+   */
+  int find(CharSequence input) {
+    State state = initial;
+    if (state.match) {
+      return FOUND;
+    }
+
+    for (int i = 0, max = input.length(); i < max; i++) {
+      final char chr = input.charAt(i);
+      if (isUnsupported(chr)) {
+        return UNDECIDED;
+      }
+
+      final int cls = chr < 128 ? asciiClasses[chr] : classOf(chr);
+      State next = state.next != null ? state.next[cls] : null;
+      if (next == null) {
+        next = step(state, cls);
+      }
+      state = next;
+      if (state.match) {
+        return FOUND;
+      }
+    }
+
+    return state.matchAtEnd ? FOUND : NOT_FOUND;
+  }
+
+  /**
+   * @return The number of NFA states.
+   */
+  int nfaStates() {
+    return kind.length;
+  }
+
+  /**
+   * @return The number of DFA states cached so far.
+   */
+  int cachedDfaStates() {
+    return states.size();
+  }
+
+  /**
+   * Writes the NFA of this automaton, so that it can be restored with {@link #read(ByteBuffer)}
+   * without parsing and compiling the patterns again.
+   */
+  void write(DataOutputStream out) throws IOException {
+    out.writeInt(kind.length);
+    for (int s = 0; s < kind.length; s++) {
+      out.writeByte(kind[s]);
+      out.writeInt(this.out[s]);
+      out.writeInt(out1[s]);
+      if (kind[s] == RANGE) {
+        LexicalResourceSnapshot.writeInts(out, ranges[s]);
+      }
+    }
+    LexicalResourceSnapshot.writeInts(out, anchoredStarts);
+    LexicalResourceSnapshot.writeInts(out, unanchoredStarts);
+  }
+
+  /**
+   * Restores an automaton {@linkplain #write written} previously.
+   *
+   * @throws IllegalArgumentException If the buffer does not contain a valid NFA.
+   * @throws java.nio.BufferUnderflowException If the buffer is truncated.
+   */
+  static RegexpAutomaton read(ByteBuffer buffer) {
+    int size = buffer.getInt();
+    if (size < 2 || size > 2 + MAX_NFA_STATES) {
+      throw new IllegalArgumentException("Invalid NFA size: " + size);
+    }
+
+    NfaBuilder builder = new NfaBuilder();
+    for (int s = 0; s < size; s++) {
+      int kind = buffer.get();
+      int out = buffer.getInt();
+      int out1 = buffer.getInt();
+      int[] ranges = null;
+      switch (kind) {
+        case RANGE:
+          ranges = LexicalResourceSnapshot.readInts(buffer);
+          checkRanges(ranges);
+          checkState(out, size);
+          break;
+        case SPLIT:
+          checkState(out, size);
+          checkState(out1, size);
+          break;
+        case MATCH:
+        case MATCH_END:
+          break;
+        default:
+          throw new IllegalArgumentException("Invalid NFA state kind: " + kind);
+      }
+      builder.add(kind, ranges, out, out1);
+    }
+
+    builder.anchoredStarts = LexicalResourceSnapshot.readInts(buffer);
+    builder.unanchoredStarts = LexicalResourceSnapshot.readInts(buffer);
+    for (int s : builder.anchoredStarts) {
+      checkState(s, size);
+    }
+    for (int s : builder.unanchoredStarts) {
+      checkState(s, size);
+    }
+    return new RegexpAutomaton(builder);
+  }
+
+  private static void checkState(int state, int size) {
+    if (state < 0 || state >= size) {
+      throw new IllegalArgumentException("Invalid NFA state: " + state);
+    }
+  }
+
+  private static void checkRanges(int[] ranges) {
+    if ((ranges.length & 1) != 0) {
+      throw new IllegalArgumentException("Invalid character ranges.");
+    }
+    for (int i = 0, prev = -1; i < ranges.length; i += 2) {
+      if (ranges[i] <= prev || ranges[i] > ranges[i + 1] || ranges[i + 1] > MAX_CHAR) {
+        throw new IllegalArgumentException("Invalid character ranges.");
+      }
+      prev = ranges[i + 1];
+    }
+  }
+
+  private static boolean isUnsupported(char chr) {
+    return chr == '\n'
+        || chr == '\r'
+        || chr == 0x85
+        || chr == 0x2028
+        || chr == 0x2029
+        || Character.isSurrogate(chr);
+  }
+
+  private int classOf(char chr) {
+    int index = Arrays.binarySearch(classStarts, chr);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  private State step(State state, int cls) {
+    final char representative = (char) classStarts[cls];
+    Workspace w = workspace.get();
+    w.begin();
+    for (int s : state.nfaStates) {
+      if (kind[s] == RANGE && contains(ranges[s], representative)) {
+        push(w, out[s]);
+      }
+    }
+    State next = closure(w);
+    if (state.next != null && next.next != null) {
+      // A benign race: concurrent threads compute and store the same canonical state.
+      state.next[cls] = next;
+    }
+    return next;
+  }
+
+  private void push(Workspace w, int s) {
+    if (s >= 0 && w.stamps[s] != w.generation) {
+      w.stamps[s] = w.generation;
+      w.stack[w.stackSize++] = s;
+    }
+  }
+
+  /** Computes the epsilon closure of the pushed states, adding unanchored pattern starts. */
+  private State closure(Workspace w) {
+    for (int s : unanchoredStarts) {
+      push(w, s);
+    }
+
+    boolean match = false;
+    boolean matchAtEnd = false;
+    while (w.stackSize > 0) {
+      int s = w.stack[--w.stackSize];
+      switch (kind[s]) {
+        case SPLIT:
+          push(w, out[s]);
+          push(w, out1[s]);
+          break;
+        case MATCH:
+          match = true;
+          break;
+        case MATCH_END:
+          matchAtEnd = true;
+          w.result[w.resultSize++] = s;
+          break;
+        default:
+          w.result[w.resultSize++] = s;
+          break;
+      }
+    }
+
+    int[] nfaStates = Arrays.copyOf(w.result, w.resultSize);
+    Arrays.sort(nfaStates);
+    if (match) {
+      // No need to track anything else, the input matches.
+      return new State(nfaStates, true, true, null);
+    }
+
+    StateKey key = new StateKey(nfaStates);
+    State existing = states.get(key);
+    if (existing != null) {
+      return existing;
+    }
+
+    final int stateInts = nfaStates.length + classStarts.length;
+    if (cachedStateInts.get() + stateInts > MAX_CACHED_STATE_INTS) {
+      // The cache is full, keep going without caching.
+      return new State(nfaStates, false, matchAtEnd, null);
+    }
+
+    State state = new State(nfaStates, false, matchAtEnd, new State[classStarts.length]);
+    existing = states.putIfAbsent(key, state);
+    if (existing != null) {
+      return existing;
+    }
+    cachedStateInts.addAndGet(stateInts);
+    return state;
+  }
+
+  private static boolean contains(int[] ranges, char chr) {
+    int lo = 0;
+    int hi = ranges.length / 2 - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (chr < ranges[2 * mid]) {
+        hi = mid - 1;
+      } else if (chr > ranges[2 * mid + 1]) {
+        lo = mid + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Thompson construction of an NFA from pattern nodes. */
+  private static final class NfaBuilder {
+    int[] kind = new int[16];
+    int[][] ranges = new int[16][];
+    int[] out = new int[16];
+    int[] out1 = new int[16];
+    int size;
+
+    int[] anchoredStarts;
+    int[] unanchoredStarts;
+
+    static NfaBuilder compile(List<Branch> branches) {
+      NfaBuilder builder = new NfaBuilder();
+      int match = builder.add(MATCH, null, -1, -1);
+      int matchEnd = builder.add(MATCH_END, null, -1, -1);
+
+      int[] anchored = new int[branches.size()];
+      int[] unanchored = new int[branches.size()];
+      int anchoredCount = 0;
+      int unanchoredCount = 0;
+      for (Branch branch : branches) {
+        int start = builder.compile(branch.node, branch.anchorEnd ? matchEnd : match);
+        if (branch.anchorStart) {
+          anchored[anchoredCount++] = start;
+        } else {
+          unanchored[unanchoredCount++] = start;
+        }
+      }
+
+      assert builder.size == 2 + states(branches) : "NFA state count mismatch";
+
+      builder.anchoredStarts = Arrays.copyOf(anchored, anchoredCount);
+      builder.unanchoredStarts = Arrays.copyOf(unanchored, unanchoredCount);
+      return builder;
+    }
+
+    int add(int kind, int[] ranges, int out, int out1) {
+      if (size == this.kind.length) {
+        int newSize = size * 2;
+        this.kind = Arrays.copyOf(this.kind, newSize);
+        this.ranges = Arrays.copyOf(this.ranges, newSize);
+        this.out = Arrays.copyOf(this.out, newSize);
+        this.out1 = Arrays.copyOf(this.out1, newSize);
+      }
+      this.kind[size] = kind;
+      this.ranges[size] = ranges;
+      this.out[size] = out;
+      this.out1[size] = out1;
+      return size++;
+    }
+
+    /** Compiles the node so that it continues to state {@code next}, returns the start state. */
+    int compile(Node node, int next) {
+      if (node instanceof CharsNode) {
+        return add(RANGE, ((CharsNode) node).ranges, next, -1);
+      } else if (node instanceof ConcatNode) {
+        List<Node> nodes = ((ConcatNode) node).nodes;
+        for (int i = nodes.size(); --i >= 0; ) {
+          next = compile(nodes.get(i), next);
+        }
+        return next;
+      } else if (node instanceof AltNode) {
+        List<Node> nodes = ((AltNode) node).nodes;
+        int start = compile(nodes.get(nodes.size() - 1), next);
+        for (int i = nodes.size() - 1; --i >= 0; ) {
+          start = add(SPLIT, null, compile(nodes.get(i), next), start);
+        }
+        return start;
+      } else if (node instanceof RepeatNode) {
+        RepeatNode repeat = (RepeatNode) node;
+        int tail;
+        if (repeat.max < 0) {
+          tail = add(SPLIT, null, -1, next);
+          // Compile first, the arrays may be reallocated.
+          int body = compile(repeat.node, tail);
+          out[tail] = body;
+        } else {
+          tail = next;
+          for (int i = repeat.min; i < repeat.max; i++) {
+            tail = add(SPLIT, null, compile(repeat.node, tail), next);
+          }
+        }
+        for (int i = 0; i < repeat.min; i++) {
+          tail = compile(repeat.node, tail);
+        }
+        return tail;
+      } else {
+        throw new RuntimeException("Unexpected node: " + node);
+      }
+    }
+  }
+
+  /**
+   * Parses a pattern into its top-level alternatives.
+   *
+   * @return The parsed branches or {@code null} if the pattern uses constructs the automaton does
+   *     not support or would compile to more than {@link #MAX_NFA_STATES} NFA states.
+   */
+  static List<Branch> parse(String pattern) {
+    try {
+      return new Parser(pattern).parse();
+    } catch (UnsupportedSyntax e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return The total number of NFA states of the provided branches (saturated at {@link
+   *     Integer#MAX_VALUE}).
+   */
+  static int states(List<Branch> branches) {
+    return (int) Math.min(branches.stream().mapToLong(Branch::states).sum(), Integer.MAX_VALUE);
+  }
+
+  private static final class UnsupportedSyntax extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    static final UnsupportedSyntax INSTANCE = new UnsupportedSyntax();
+
+    private UnsupportedSyntax() {
+      super(null, null, false, false);
+    }
+  }
+
+  private static final class Parser {
+    private final String pattern;
+    private int pos;
+
+    Parser(String pattern) {
+      this.pattern = pattern;
+    }
+
+    List<Branch> parse() throws UnsupportedSyntax {
+      List<Branch> branches = new ArrayList<>();
+      do {
+        boolean anchorStart = consume('^');
+        boolean anchorEnd = false;
+        List<Node> nodes = new ArrayList<>();
+        while (more() && peek() != '|') {
+          if (consume('$')) {
+            anchorEnd = true;
+            if (more() && peek() != '|') {
+              throw UnsupportedSyntax.INSTANCE;
+            }
+            break;
+          }
+          nodes.add(parseRepeat());
+        }
+        branches.add(new Branch(new ConcatNode(nodes), anchorStart, anchorEnd));
+      } while (consume('|'));
+
+      if (more() || states(branches) > MAX_NFA_STATES) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      return branches;
+    }
+
+    private Node parseAlternation() throws UnsupportedSyntax {
+      List<Node> alternatives = new ArrayList<>();
+      do {
+        List<Node> nodes = new ArrayList<>();
+        while (more() && peek() != '|' && peek() != ')') {
+          nodes.add(parseRepeat());
+        }
+        alternatives.add(new ConcatNode(nodes));
+      } while (consume('|'));
+      return alternatives.size() == 1 ? alternatives.get(0) : new AltNode(alternatives);
+    }
+
+    private Node parseRepeat() throws UnsupportedSyntax {
+      Node atom = parseAtom();
+      if (!more()) {
+        return atom;
+      }
+
+      int min;
+      int max;
+      switch (peek()) {
+        case '*':
+          min = 0;
+          max = -1;
+          break;
+        case '+':
+          min = 1;
+          max = -1;
+          break;
+        case '?':
+          min = 0;
+          max = 1;
+          break;
+        case '{':
+          pos++;
+          min = parseNumber();
+          max = min;
+          if (consume(',')) {
+            max = more() && peek() == '}' ? -1 : parseNumber();
+          }
+          if (!more() || peek() != '}' || (max >= 0 && max < min)) {
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          break;
+        default:
+          return atom;
+      }
+      pos++;
+
+      // Reluctant quantifiers accept the same inputs, possessive ones do not.
+      if (!consume('?') && more() && peek() == '+') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      if (more() && "*+?{".indexOf(peek()) >= 0) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      return new RepeatNode(atom, min, max);
+    }
+
+    private int parseNumber() throws UnsupportedSyntax {
+      int start = pos;
+      while (more() && peek() >= '0' && peek() <= '9' && pos - start < 5) {
+        pos++;
+      }
+      if (start == pos || (more() && peek() >= '0' && peek() <= '9')) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      int value = Integer.parseInt(pattern.substring(start, pos));
+      if (value > MAX_REPEAT) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      return value;
+    }
+
+    private Node parseAtom() throws UnsupportedSyntax {
+      char chr = next();
+      switch (chr) {
+        case '(':
+          if (consume('?') && !consume(':')) {
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          Node group = parseAlternation();
+          if (!consume(')')) {
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          return group;
+        case '[':
+          return new CharsNode(parseClass());
+        case '.':
+          return new CharsNode(DOT);
+        case '\\':
+          return new CharsNode(parseEscape());
+        case ')':
+        case '|':
+        case '*':
+        case '+':
+        case '?':
+        case '{':
+        case '^':
+        case '$':
+          throw UnsupportedSyntax.INSTANCE;
+        default:
+          return new CharsNode(single(chr));
+      }
+    }
+
+    private int[] parseEscape() throws UnsupportedSyntax {
+      char chr = next();
+      switch (chr) {
+        case 'd':
+          return DIGIT;
+        case 'D':
+          return complement(DIGIT);
+        case 'w':
+          return WORD;
+        case 'W':
+          return complement(WORD);
+        case 's':
+          return SPACE;
+        case 'S':
+          return complement(SPACE);
+        case 't':
+          return single('\t');
+        case 'n':
+          return single('\n');
+        case 'r':
+          return single('\r');
+        case 'f':
+          return single('\f');
+        case 'a':
+          return single('\u0007');
+        case 'e':
+          return single('\u001B');
+        case 'x':
+          return single((char) parseHex(2));
+        case 'u':
+          return single((char) parseHex(4));
+        default:
+          if (Character.isLetterOrDigit(chr)) {
+            // Boundaries, back references, properties, quotations, octal escapes.
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          return single(chr);
+      }
+    }
+
+    private int parseHex(int digits) throws UnsupportedSyntax {
+      int value = 0;
+      for (int i = 0; i < digits; i++) {
+        int digit = Character.digit(next(), 16);
+        if (digit < 0) {
+          throw UnsupportedSyntax.INSTANCE;
+        }
+        value = value * 16 + digit;
+      }
+      return value;
+    }
+
+    private int[] parseClass() throws UnsupportedSyntax {
+      boolean negate = consume('^');
+      if (more() && peek() == ']') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+
+      List<int[]> parts = new ArrayList<>();
+      while (true) {
+        char chr = next();
+        if (chr == ']') {
+          break;
+        }
+        if (chr == '[' || (chr == '&' && more() && peek() == '&')) {
+          throw UnsupportedSyntax.INSTANCE;
+        }
+
+        int[] item = chr == '\\' ? parseEscape() : single(chr);
+        if (more() && peek() == '-' && pos + 1 < pattern.length() && at(pos + 1) != ']') {
+          pos++;
+          char end = next();
+          int[] endItem = end == '\\' ? parseEscape() : single(end);
+          if (end == '[' || !isSingle(item) || !isSingle(endItem) || endItem[0] < item[0]) {
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          item = new int[] {item[0], endItem[0]};
+        }
+        parts.add(item);
+      }
+
+      int[] merged = normalize(parts.stream().flatMapToInt(Arrays::stream).toArray());
+      return negate ? complement(merged) : merged;
+    }
+
+    private int[] single(char chr) throws UnsupportedSyntax {
+      if (Character.isSurrogate(chr)) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      return new int[] {chr, chr};
+    }
+
+    private static boolean isSingle(int[] ranges) {
+      return ranges.length == 2 && ranges[0] == ranges[1];
+    }
+
+    private boolean more() {
+      return pos < pattern.length();
+    }
+
+    private char peek() {
+      return pattern.charAt(pos);
+    }
+
+    private char at(int index) {
+      return pattern.charAt(index);
+    }
+
+    private char next() throws UnsupportedSyntax {
+      if (!more()) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      return pattern.charAt(pos++);
+    }
+
+    private boolean consume(char chr) {
+      if (more() && peek() == chr) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /** Sorts and merges overlapping or adjacent ranges. */
+  private static int[] normalize(int[] ranges) {
+    int count = ranges.length / 2;
+    long[] packed = new long[count];
+    for (int i = 0; i < count; i++) {
+      packed[i] = ((long) ranges[2 * i] << 32) | ranges[2 * i + 1];
+    }
+    Arrays.sort(packed);
+
+    int[] merged = new int[ranges.length];
+    int size = 0;
+    for (long p : packed) {
+      int lo = (int) (p >>> 32);
+      int hi = (int) p;
+      if (size > 0 && lo <= merged[size - 1] + 1) {
+        merged[size - 1] = Math.max(merged[size - 1], hi);
+      } else {
+        merged[size++] = lo;
+        merged[size++] = hi;
+      }
+    }
+    return Arrays.copyOf(merged, size);
+  }
+
+  /** Complements normalized ranges over all {@code char} values. */
+  private static int[] complement(int[] ranges) {
+    int[] result = new int[ranges.length + 2];
+    int size = 0;
+    int next = 0;
+    for (int i = 0; i < ranges.length; i += 2) {
+      if (ranges[i] > next) {
+        result[size++] = next;
+        result[size++] = ranges[i] - 1;
+      }
+      next = ranges[i + 1] + 1;
+    }
+    if (next <= MAX_CHAR) {
+      result[size++] = next;
+      result[size++] = MAX_CHAR;
+    }
+    return Arrays.copyOf(result, size);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A predicate equivalent to {@link java.util.regex.Matcher#find()} on the union of a number of
+ * regular expressions. Patterns supported by {@link RegexpAutomaton} are matched in time linear in
+ * the length of the input, regardless of their number; the remaining patterns (and inputs the
+ * automaton cannot decide) are matched with {@link Pattern}.
+ */
+final class RegexpMatcher implements Predicate<CharSequence> {
+  /** All patterns, in order. */
+  private final List<String> patterns;
+
+  /**
+   * Union of all patterns, for inputs the automaton cannot decide. Compiled on first use, so that
+   * matchers restored from a snapshot do not compile all patterns upfront.
+   */
+  private volatile Pattern union;
+
+  /** Automaton for supported patterns, {@code null} if there are none. */
+  private final RegexpAutomaton automaton;
+
+  /** Patterns the automaton does not support. */
+  private final List<String> unsupportedPatterns;
+
+  /** Union of patterns the automaton does not support, {@code null} if there are none. */
+  private final Pattern unsupported;
+
+  private RegexpMatcher(
+      List<String> patterns, RegexpAutomaton automaton, List<String> unsupportedPatterns) {
+    this.patterns = patterns;
+    this.automaton = automaton;
+    this.unsupportedPatterns = unsupportedPatterns;
+    this.unsupported = unsupportedPatterns.isEmpty() ? null : union(unsupportedPatterns);
+  }
+
+  /**
+   * Compiles the patterns.
+   *
+   * @throws java.util.regex.PatternSyntaxException If any of the patterns is invalid.
+   */
+  static RegexpMatcher compile(Collection<String> patterns) {
+    List<String> all = new ArrayList<>();
+    List<String> unsupported = new ArrayList<>();
+    List<RegexpAutomaton.Branch> branches = new ArrayList<>();
+    int states = 0;
+    for (String p : patterns) {
+      // Validate the syntax, the union is compiled lazily.
+      Pattern.compile(p);
+      all.add(p);
+
+      // Patterns the automaton can't handle, and any that would grow it beyond
+      // the state limit, are matched with the Pattern union.
+      List<RegexpAutomaton.Branch> parsed = RegexpAutomaton.parse(p);
+      if (parsed == null
+          || states + RegexpAutomaton.states(parsed) > RegexpAutomaton.MAX_NFA_STATES) {
+        unsupported.add(p);
+      } else {
+        branches.addAll(parsed);
+        states += RegexpAutomaton.states(parsed);
+      }
+    }
+
+    return new RegexpMatcher(
+        all, branches.isEmpty() ? null : new RegexpAutomaton(branches), unsupported);
+  }
+
+  /**
+   * Writes the patterns and the compiled automaton, so that the matcher can be restored with {@link
+   * #read(ByteBuffer)}.
+   */
+  void write(DataOutputStream out) throws IOException {
+    LexicalResourceSnapshot.writeStrings(out, patterns);
+    LexicalResourceSnapshot.writeStrings(out, unsupportedPatterns);
+    out.writeBoolean(automaton != null);
+    if (automaton != null) {
+      automaton.write(out);
+    }
+  }
+
+  /**
+   * Restores a matcher {@linkplain #write written} previously. Patterns are not validated again.
+   *
+   * @throws IllegalArgumentException If the buffer does not contain a valid matcher.
+   * @throws java.nio.BufferUnderflowException If the buffer is truncated.
+   */
+  static RegexpMatcher read(ByteBuffer buffer) {
+    List<String> patterns = LexicalResourceSnapshot.readStrings(buffer);
+    List<String> unsupported = LexicalResourceSnapshot.readStrings(buffer);
+    RegexpAutomaton automaton = buffer.get() != 0 ? RegexpAutomaton.read(buffer) : null;
+    return new RegexpMatcher(patterns, automaton, unsupported);
+  }
+
+  @Override
+  public boolean test(CharSequence input) {
+    if (automaton != null) {
+      switch (automaton.find(input)) {
+        case RegexpAutomaton.FOUND:
+          return true;
+        case RegexpAutomaton.UNDECIDED:
+          return union().matcher(input).find();
+        default:
+          break;
+      }
+    }
+
+    return unsupported != null && unsupported.matcher(input).find();
+  }
+
+  private Pattern union() {
+    Pattern union = this.union;
+    if (union == null) {
+      this.union = union = union(patterns);
+    }
+    return union;
+  }
+
+  /**
+   * Combines a number of patterns into a single pattern with a union of all of them. With
+   * automata-based pattern engines, this should be faster and memory-friendly.
+   */
+  private static Pattern union(List<String> patterns) {
+    final StringBuilder union = new StringBuilder();
+    union.append("(");
+    for (int i = 0; i < patterns.size(); i++) {
+      if (i > 0) union.append(")|(");
+      union.append(patterns.get(i));
+    }
+    union.append(")");
+    return Pattern.compile(union.toString());
+  }
+}
@@ -23,6 +23,25 @@ public final class SnowballStemmerAdapter implements Stemmer {
   }
 
   public CharSequence stem(CharSequence word) {
+    if (stemToCurrent(word)) {
+      return new MutableCharArray(Arrays.copyOf(s.getCurrentBuffer(), s.getCurrentBufferLength()));
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public int stem(CharSequence word, MutableCharArray result) {
+    if (stemToCurrent(word)) {
+      result.reset(s.getCurrentBuffer(), 0, s.getCurrentBufferLength());
+      return s.getCurrentBufferLength();
+    } else {
+      return -1;
+    }
+  }
+
+  /** Stems the word, leaving the result in the program's current buffer. */
+  private boolean stemToCurrent(CharSequence word) {
     final int len = word.length();
     char[] buffer = s.getCurrentBuffer();
     if (buffer.length < len) buffer = new char[len];
@@ -30,10 +49,6 @@ public final class SnowballStemmerAdapter implements Stemmer {
     for (int i = word.length(); --i >= 0; ) buffer[i] = word.charAt(i);
     s.setCurrent(buffer, len);
 
-    if (s.stem()) {
-      return new MutableCharArray(Arrays.copyOf(s.getCurrentBuffer(), s.getCurrentBufferLength()));
-    } else {
-      return null;
-    }
+    return s.stem();
   }
 }
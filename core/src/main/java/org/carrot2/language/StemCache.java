@@ -0,0 +1,212 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.carrot2.util.MutableCharArray;
+
+/**
+ * A bounded, thread-safe cache of word-to-stem mappings. A single cache is meant to be shared by
+ * all threads (and clustering requests) using the same {@link LanguageComponents}, see {@link
+ * #attach(LanguageComponents)}.
+ *
+ * <p>The cache is split into a number of independently locked segments, each evicting its least
+ * recently used entries once the segment is full.
+ *
+ * @since 4.5.1
+ */
+public final class StemCache {
+  /** Marks words for which the stemmer returned <code>null</code>. */
+  private static final MutableCharArray NO_STEM = new MutableCharArray();
+
+  private static final int DEFAULT_SEGMENTS = 16;
+
+  private final Segment[] segments;
+  private final int maxSize;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @SuppressWarnings("serial")
+  private final class Segment extends LinkedHashMap<MutableCharArray, MutableCharArray> {
+    private final int maxSize;
+
+    Segment(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<MutableCharArray, MutableCharArray> eldest) {
+      if (size() > maxSize) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * @param maxSize The maximum number of cached words.
+   */
+  public StemCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Cache size must be a positive integer: " + maxSize);
+    }
+
+    this.maxSize = maxSize;
+    final int segmentCount = Math.min(DEFAULT_SEGMENTS, maxSize);
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      // Distribute the remainder over the first segments.
+      segments[i] = new Segment(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+    }
+  }
+
+  /**
+   * Returns the stem of a word, as returned by the provided stemmer, using the cached value if
+   * available. Returned stems are shared and must not be modified.
+   */
+  public CharSequence stem(CharSequence word, Stemmer stemmer) {
+    final MutableCharArray stem = lookup(word, stemmer);
+    return stem == NO_STEM ? null : stem;
+  }
+
+  /**
+   * Same as {@link #stem(CharSequence, Stemmer)}, but resets <code>result</code> to point at the
+   * cached stem instead of returning it, see {@link Stemmer#stem(CharSequence, MutableCharArray)}.
+   */
+  public int stem(CharSequence word, Stemmer stemmer, MutableCharArray result) {
+    final MutableCharArray stem = lookup(word, stemmer);
+    if (stem == NO_STEM) {
+      return -1;
+    }
+    result.reset(stem.getBuffer(), stem.getStart(), stem.length());
+    return stem.length();
+  }
+
+  private MutableCharArray lookup(CharSequence word, Stemmer stemmer) {
+    final MutableCharArray key =
+        word instanceof MutableCharArray ? (MutableCharArray) word : new MutableCharArray(word);
+    final Segment segment = segments[(key.hashCode() & 0x7fffffff) % segments.length];
+
+    MutableCharArray stem;
+    synchronized (segment) {
+      stem = segment.get(key);
+    }
+
+    if (stem != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+      final MutableCharArray stemmed = new MutableCharArray();
+      stem = (stemmer.stem(key, stemmed) < 0 ? NO_STEM : stemmed.clone());
+      synchronized (segment) {
+        segment.put(key.clone(), stem);
+      }
+    }
+
+    return stem;
+  }
+
+  /** Returns a {@link Stemmer} that delegates to the provided stemmer via this cache. */
+  public Stemmer wrap(Stemmer stemmer) {
+    return new Stemmer() {
+      @Override
+      public CharSequence stem(CharSequence word) {
+        return StemCache.this.stem(word, stemmer);
+      }
+
+      @Override
+      public int stem(CharSequence word, MutableCharArray result) {
+        return StemCache.this.stem(word, stemmer, result);
+      }
+    };
+  }
+
+  /**
+   * Returns a copy of the provided {@link LanguageComponents} with {@link Stemmer} instances
+   * delegating to this cache. The cache itself is also available as a component of the returned
+   * object.
+   */
+  public LanguageComponents attach(LanguageComponents languageComponents) {
+    return languageComponents
+        .override(Stemmer.class, (Supplier<Stemmer> supplier) -> () -> this.wrap(supplier.get()))
+        .override(StemCache.class, () -> this);
+  }
+
+  /**
+   * @return The maximum number of cached words.
+   */
+  public int maxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @return The current number of cached words.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return The number of lookups that found a cached stem.
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of lookups that required stemming.
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of evicted entries.
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /** Removes all cached entries (counters are not reset). */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "StemCache[size: %d/%d, hits: %d, misses: %d, evictions: %d]",
+        size(),
+        maxSize,
+        hits(),
+        misses(),
+        evictions());
+  }
+}
@@ -10,6 +10,8 @@
  */
 package org.carrot2.language;
 
+import org.carrot2.util.MutableCharArray;
+
 /**
  * Simple lemmatization engine transforming an inflected form of a word to its base form or some
  * other unique token.
@@ -21,4 +23,32 @@ public interface Stemmer {
    * word.
    */
   CharSequence stem(CharSequence word);
+
+  /**
+   * Determines the base form of the provided word, like {@link #stem(CharSequence)}, but instead of
+   * returning a new object, resets <code>result</code> to point at the characters of the base form.
+   * Implementations should avoid allocating objects for each word, for example by pointing <code>
+   * result</code> at a buffer owned by the stemmer.
+   *
+   * <p>The content of <code>result</code> is only valid until the next invocation of this stemmer.
+   * Implementations must not write into the buffer previously used by <code>result</code>, only
+   * reset it.
+   *
+   * @return The length of the base form or <code>-1</code> if the base form cannot be determined (
+   *     <code>result</code> is left unchanged then).
+   * @since 4.5.1
+   */
+  default int stem(CharSequence word, MutableCharArray result) {
+    CharSequence stem = stem(word);
+    if (stem == null) {
+      return -1;
+    }
+
+    if (!(stem instanceof MutableCharArray)) {
+      stem = new MutableCharArray(stem);
+    }
+    final MutableCharArray chars = (MutableCharArray) stem;
+    result.reset(chars.getBuffer(), chars.getStart(), chars.length());
+    return chars.length();
+  }
 }
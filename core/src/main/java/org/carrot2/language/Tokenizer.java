@@ -12,6 +12,7 @@ package org.carrot2.language;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllWords;
 import org.carrot2.util.MutableCharArray;
 
@@ -93,6 +94,20 @@ public interface Tokenizer {
    */
   void reset(Reader reader) throws IOException;
 
+  /**
+   * Resets the tokenizer to process the given characters. Tokenizers may read the characters
+   * directly instead of going through a {@link Reader}; the default implementation wraps the input
+   * in a {@link StringReader}.
+   *
+   * <p>The input must not be modified until tokenization is complete.
+   *
+   * @param input the characters to tokenize.
+   * @since 4.5.1
+   */
+  default void reset(CharSequence input) throws IOException {
+    reset(new StringReader(input.toString()));
+  }
+
   /**
    * Returns the next token from the input stream.
    *
@@ -0,0 +1,658 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import org.carrot2.math.mahout.function.DoubleDoubleFunction;
+import org.carrot2.math.mahout.function.DoubleFunction;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.function.IntIntDoubleFunction;
+import org.carrot2.math.mahout.function.PlusMult;
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.util.ExecutorServiceUtils;
+
+/**
+ * A sparse matrix stored in a compressed row (CSR) or compressed column (CSC) layout. The non-zero
+ * cells of each major line (a row in CSR, a column in CSC) occupy a contiguous slice of the
+ * storage, sorted by the minor index. Random access is a binary search within the slice, bulk
+ * operations (products with dense factors, normalization, {@link
+ * #forEachNonZero(IntIntDoubleFunction)}) touch only the stored cells.
+ *
+ * <p>Cells are cheapest to set in the major order (row by row for CSR); inserting a cell in an
+ * earlier line shifts the tail of the storage. {@link #viewDice()} shares the storage with the
+ * opposite layout, other views delegate to {@link #getQuick(int, int)} and {@link #setQuick(int,
+ * int, double)}.
+ *
+ * @since 4.5.1
+ */
+public final class CompressedSparseDoubleMatrix2D extends DoubleMatrix2D {
+  /** Cells of the matrix, shared with the transposed view. */
+  private static final class Storage {
+    final int majors;
+    final int minors;
+
+    /**
+     * Slice boundaries of major lines <code>0..open</code>. Lines past <code>open</code> are empty
+     * and start at {@link #size}, so appending in the major order does not touch this array.
+     */
+    int[] starts;
+
+    int open;
+    int[] indexes;
+    double[] values;
+    int size;
+
+    Storage(int majors, int minors) {
+      this.majors = majors;
+      this.minors = minors;
+      this.starts = new int[majors + 1];
+      this.indexes = new int[0];
+      this.values = new double[0];
+    }
+
+    int start(int major) {
+      return major <= open ? starts[major] : size;
+    }
+
+    int find(int major, int minor) {
+      return Arrays.binarySearch(indexes, start(major), start(major + 1), minor);
+    }
+
+    void insert(int major, int pos, int minor, double value) {
+      ensureCapacity(size + 1);
+      if (major > open) {
+        Arrays.fill(starts, open + 1, major + 1, size);
+        open = major;
+      }
+      System.arraycopy(indexes, pos, indexes, pos + 1, size - pos);
+      System.arraycopy(values, pos, values, pos + 1, size - pos);
+      indexes[pos] = minor;
+      values[pos] = value;
+      size++;
+      for (int k = major + 1; k <= open; k++) {
+        starts[k]++;
+      }
+    }
+
+    void ensureCapacity(int capacity) {
+      if (capacity > indexes.length) {
+        int newCapacity =
+            (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, indexes.length * 3L / 2 + 8));
+        indexes = Arrays.copyOf(indexes, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+      }
+    }
+
+    void clear() {
+      open = 0;
+      size = 0;
+    }
+
+    void replace(int[] starts, int[] indexes, double[] values, int size) {
+      this.starts = starts;
+      this.indexes = indexes;
+      this.values = values;
+      this.size = size;
+      this.open = majors;
+    }
+  }
+
+  /** Blocks of rows or columns per thread in parallel products, to balance uneven lines. */
+  private static final int BLOCKS_PER_THREAD = 4;
+
+  private final Storage storage;
+
+  /** If <code>true</code>, rows of this matrix are the major lines of {@link #storage}. */
+  private final boolean rowCompressed;
+
+  /** Creates an empty matrix in the compressed row (CSR) layout. */
+  public CompressedSparseDoubleMatrix2D(int rows, int columns) {
+    this(rows, columns, true);
+  }
+
+  /**
+   * Creates an empty matrix.
+   *
+   * @param rowCompressed if <code>true</code>, the matrix is stored row by row (CSR), otherwise
+   *     column by column (CSC).
+   */
+  public CompressedSparseDoubleMatrix2D(int rows, int columns, boolean rowCompressed) {
+    this(rowCompressed ? new Storage(rows, columns) : new Storage(columns, rows), rowCompressed);
+  }
+
+  public CompressedSparseDoubleMatrix2D(double[][] values) {
+    this(values.length, values.length == 0 ? 0 : values[0].length);
+    assign(values);
+  }
+
+  private CompressedSparseDoubleMatrix2D(Storage storage, boolean rowCompressed) {
+    if (rowCompressed) {
+      setUp(storage.majors, storage.minors);
+    } else {
+      setUp(storage.minors, storage.majors);
+    }
+    this.storage = storage;
+    this.rowCompressed = rowCompressed;
+  }
+
+  /**
+   * @return <code>true</code> if this matrix is stored row by row (CSR).
+   */
+  public boolean isRowCompressed() {
+    return rowCompressed;
+  }
+
+  @Override
+  public double getQuick(int row, int column) {
+    final Storage s = storage;
+    final int pos = rowCompressed ? s.find(row, column) : s.find(column, row);
+    return pos >= 0 ? s.values[pos] : 0;
+  }
+
+  @Override
+  public void setQuick(int row, int column, double value) {
+    final Storage s = storage;
+    final int major = rowCompressed ? row : column;
+    final int minor = rowCompressed ? column : row;
+    final int pos = s.find(major, minor);
+    if (pos >= 0) {
+      s.values[pos] = value;
+    } else if (value != 0) {
+      s.insert(major, -pos - 1, minor, value);
+    }
+  }
+
+  @Override
+  public void assign(double[][] values) {
+    if (values.length != rows) {
+      throw new IllegalArgumentException(
+          "Must have same number of rows: rows=" + values.length + "rows()=" + rows());
+    }
+    for (double[] currentRow : values) {
+      if (currentRow.length != columns) {
+        throw new IllegalArgumentException(
+            "Must have same number of columns in every row: columns="
+                + currentRow.length
+                + "columns()="
+                + columns());
+      }
+    }
+    rebuild((row, column, value) -> values[row][column]);
+  }
+
+  @Override
+  public DoubleMatrix2D assign(double value) {
+    if (value == 0) {
+      storage.clear();
+    } else {
+      rebuild((row, column, current) -> value);
+    }
+    return this;
+  }
+
+  @Override
+  public void assign(DoubleFunction function) {
+    if (function.apply(0) == 0) {
+      // Zero cells stay zero, transform the stored ones only.
+      final Storage s = storage;
+      for (int i = 0; i < s.size; i++) {
+        s.values[i] = function.apply(s.values[i]);
+      }
+    } else {
+      rebuild((row, column, value) -> function.apply(value));
+    }
+  }
+
+  @Override
+  public DoubleMatrix2D assign(DoubleMatrix2D source) {
+    if (source == this) {
+      return this;
+    }
+    checkShape(source);
+
+    if (source instanceof CompressedSparseDoubleMatrix2D) {
+      CompressedSparseDoubleMatrix2D other = (CompressedSparseDoubleMatrix2D) source;
+      if (other.rowCompressed == rowCompressed) {
+        if (other.storage != storage) {
+          copyFrom(other.storage);
+        }
+      } else {
+        transposeFrom(other.storage);
+      }
+      return this;
+    }
+
+    // The old cells stay in place until the rebuild completes, so views of this matrix are safe.
+    rebuild((row, column, value) -> source.getQuick(row, column));
+    return this;
+  }
+
+  @Override
+  public DoubleMatrix2D assign(DoubleMatrix2D y, DoubleDoubleFunction function) {
+    checkShape(y);
+    if (haveSharedCells(y)) {
+      y = y.copy();
+    }
+
+    final DoubleMatrix2D other = y;
+    if (function == Functions.MULT) {
+      forEachNonZero((row, column, value) -> value * other.getQuick(row, column));
+    } else if (function instanceof PlusMult && other instanceof CompressedSparseDoubleMatrix2D) {
+      final double alpha = ((PlusMult) function).getMultiplicator();
+      if (alpha != 0) {
+        other.forEachNonZero(
+            (row, column, value) -> {
+              setQuick(row, column, getQuick(row, column) + alpha * value);
+              return value;
+            });
+      }
+    } else {
+      rebuild((row, column, value) -> function.apply(value, other.getQuick(row, column)));
+    }
+    return this;
+  }
+
+  @Override
+  public int cardinality() {
+    final Storage s = storage;
+    int cardinality = 0;
+    for (int i = 0; i < s.size; i++) {
+      if (s.values[i] != 0) {
+        cardinality++;
+      }
+    }
+    return cardinality;
+  }
+
+  @Override
+  public void ensureCapacity(int minNonZeros) {
+    storage.ensureCapacity(minNonZeros);
+  }
+
+  @Override
+  public void forEachNonZero(IntIntDoubleFunction function) {
+    final Storage s = storage;
+    for (int major = 0; major < s.majors && major <= s.open; major++) {
+      for (int i = s.start(major), end = s.start(major + 1); i < end; i++) {
+        final double value = s.values[i];
+        if (value != 0) {
+          final int minor = s.indexes[i];
+          final double r =
+              rowCompressed
+                  ? function.apply(major, minor, value)
+                  : function.apply(minor, major, value);
+          if (r != value) {
+            s.values[i] = r;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  protected boolean haveSharedCellsRaw(DoubleMatrix2D other) {
+    return other instanceof CompressedSparseDoubleMatrix2D
+        && ((CompressedSparseDoubleMatrix2D) other).storage == storage;
+  }
+
+  @Override
+  public DoubleMatrix2D like(int rows, int columns) {
+    return new CompressedSparseDoubleMatrix2D(rows, columns, rowCompressed);
+  }
+
+  @Override
+  public DoubleMatrix1D like1D(int size) {
+    return new SparseDoubleMatrix1D(size);
+  }
+
+  @Override
+  protected DoubleMatrix1D like1D(int size, int zero, int stride) {
+    throw new UnsupportedOperationException(); // should never get called
+  }
+
+  @Override
+  public double[][] toArray() {
+    final double[][] values = new double[rows][columns];
+    forEachNonZero(
+        (row, column, value) -> {
+          values[row][column] = value;
+          return value;
+        });
+    return values;
+  }
+
+  @Override
+  public DoubleMatrix1D viewColumn(int column) {
+    checkColumn(column);
+    return viewDice().viewRow(column);
+  }
+
+  @Override
+  public DoubleMatrix2D viewColumnFlip() {
+    return new WrapperDoubleMatrix2D(this).viewColumnFlip();
+  }
+
+  @Override
+  public DoubleMatrix2D viewDice() {
+    return new CompressedSparseDoubleMatrix2D(storage, !rowCompressed);
+  }
+
+  @Override
+  public DoubleMatrix2D viewPart(int row, int column, int height, int width) {
+    return new WrapperDoubleMatrix2D(this).viewPart(row, column, height, width);
+  }
+
+  @Override
+  public DoubleMatrix1D viewRow(int row) {
+    checkRow(row);
+    return new DelegateDoubleMatrix1D(this, row);
+  }
+
+  @Override
+  public DoubleMatrix2D viewRowFlip() {
+    return new WrapperDoubleMatrix2D(this).viewRowFlip();
+  }
+
+  @Override
+  public DoubleMatrix2D viewSelection(int[] rowIndexes, int[] columnIndexes) {
+    return new WrapperDoubleMatrix2D(this).viewSelection(rowIndexes, columnIndexes);
+  }
+
+  @Override
+  protected DoubleMatrix2D viewSelectionLike(int[] rowOffsets, int[] columnOffsets) {
+    throw new UnsupportedOperationException(); // should never be called
+  }
+
+  @Override
+  public DoubleMatrix1D zMult(
+      DoubleMatrix1D y, DoubleMatrix1D z, double alpha, double beta, boolean transposeA) {
+    final int m = transposeA ? columns : rows;
+    final int n = transposeA ? rows : columns;
+    final boolean ignore = z == null;
+    if (ignore) {
+      z = new DenseDoubleMatrix1D(m);
+    }
+    if (n != y.size() || m > z.size()) {
+      throw new IllegalArgumentException("Incompatible args");
+    }
+    if (!ignore) {
+      for (int i = 0; i < m; i++) {
+        z.setQuick(i, beta == 0 ? 0 : beta * z.getQuick(i));
+      }
+    }
+
+    final Storage s = storage;
+    final boolean byRows = rowCompressed != transposeA;
+    for (int major = 0; major < s.majors && major <= s.open; major++) {
+      final int end = s.start(major + 1);
+      if (byRows) {
+        double sum = 0;
+        for (int i = s.start(major); i < end; i++) {
+          sum += s.values[i] * y.getQuick(s.indexes[i]);
+        }
+        z.setQuick(major, z.getQuick(major) + alpha * sum);
+      } else {
+        final double yValue = alpha * y.getQuick(major);
+        for (int i = s.start(major); i < end; i++) {
+          final int minor = s.indexes[i];
+          z.setQuick(minor, z.getQuick(minor) + s.values[i] * yValue);
+        }
+      }
+    }
+    return z;
+  }
+
+  @Override
+  public DoubleMatrix2D zMult(
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      boolean transposeA,
+      boolean transposeB) {
+    return zMult(B, C, alpha, beta, transposeA, transposeB, null, 1);
+  }
+
+  /**
+   * Like {@link #zMult(DoubleMatrix2D, DoubleMatrix2D, double, double, boolean, boolean)}, but
+   * large products with dense <code>B</code> and <code>C</code> are computed on up to <code>threads
+   * </code> threads: the calling thread and helpers submitted to <code>executor</code>. When the
+   * rows of <code>op(A)</code> are the stored lines, threads compute blocks of rows of <code>C
+   * </code>, otherwise blocks of its columns. Every cell of <code>C</code> is summed by one thread
+   * in the same order as in the single-threaded product, so the result does not depend on the
+   * number of threads or on scheduling.
+   *
+   * @param executor The executor to run helper tasks on, the executor is not shut down. If <code>
+   *     null</code>, {@link java.util.concurrent.ForkJoinPool#commonPool()} is used.
+   * @param threads The maximum number of threads computing the product, including the calling
+   *     thread.
+   * @since 4.5.1
+   */
+  public DoubleMatrix2D zMult(
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      boolean transposeA,
+      boolean transposeB,
+      ExecutorService executor,
+      int threads) {
+    if (transposeB) {
+      B = B.viewDice();
+    }
+    final int m = transposeA ? columns : rows;
+    final int n = transposeA ? rows : columns;
+    final int p = B.columns;
+    final boolean ignore = C == null;
+    if (ignore) {
+      C = new DenseDoubleMatrix2D(m, p);
+    }
+
+    if (B.rows != n) {
+      throw new IllegalArgumentException("Matrix2D inner dimensions must agree");
+    }
+    if (C.rows != m || C.columns != p) {
+      throw new IllegalArgumentException("Incompatible result matrix");
+    }
+    if (this == C || B == C) {
+      throw new IllegalArgumentException("Matrices must not be identical");
+    }
+
+    if (!ignore) {
+      if (beta == 0) {
+        C.assign(0);
+      } else if (beta != 1) {
+        C.assign(Functions.mult(beta));
+      }
+    }
+
+    // Each stored cell a[i][j] of op(A) adds a[i][j] * B[j][:] to C[i][:].
+    final Storage s = storage;
+    final boolean byRows = rowCompressed != transposeA;
+    if (B instanceof DenseDoubleMatrix2D && C instanceof DenseDoubleMatrix2D) {
+      final DenseDoubleMatrix2D BB = (DenseDoubleMatrix2D) B;
+      final DenseDoubleMatrix2D CC = (DenseDoubleMatrix2D) C;
+      final int majors = Math.min(s.majors, s.open + 1);
+      if (threads > 1 && (long) s.size * p >= DenseDoubleMatrix2D.TILED_MULTIPLICATION_THRESHOLD) {
+        // Rows of C are independent when they are the stored lines, columns are otherwise.
+        final int lines = byRows ? majors : p;
+        final int blocks = Math.max(1, Math.min(lines, threads * BLOCKS_PER_THREAD));
+        ExecutorServiceUtils.forEachIndex(
+            executor,
+            threads,
+            blocks,
+            (b) -> {
+              final int from = (int) ((long) lines * b / blocks);
+              final int to = (int) ((long) lines * (b + 1) / blocks);
+              if (byRows) {
+                addProducts(BB, CC, alpha, byRows, from, to, 0, p);
+              } else {
+                addProducts(BB, CC, alpha, byRows, 0, majors, from, to);
+              }
+            });
+      } else {
+        addProducts(BB, CC, alpha, byRows, 0, majors, 0, p);
+      }
+    } else {
+      for (int major = 0; major < s.majors && major <= s.open; major++) {
+        for (int i = s.start(major), end = s.start(major + 1); i < end; i++) {
+          final double a = alpha * s.values[i];
+          if (a != 0) {
+            final int row = byRows ? major : s.indexes[i];
+            final int inner = byRows ? s.indexes[i] : major;
+            for (int k = 0; k < p; k++) {
+              C.setQuick(row, k, C.getQuick(row, k) + a * B.getQuick(inner, k));
+            }
+          }
+        }
+      }
+    }
+    return C;
+  }
+
+  /**
+   * For every stored cell <code>a[i][j]</code> of <code>op(A)</code> in major lines <code>
+   * [fromMajor, toMajor)</code>, adds <code>alpha * a[i][j] * B[j][k]</code> to <code>C[i][k]
+   * </code> for columns <code>k</code> in <code>[fromColumn, toColumn)</code>.
+   */
+  private void addProducts(
+      DenseDoubleMatrix2D B,
+      DenseDoubleMatrix2D C,
+      double alpha,
+      boolean byRows,
+      int fromMajor,
+      int toMajor,
+      int fromColumn,
+      int toColumn) {
+    final Storage s = storage;
+    final double[] BElems = B.elements;
+    final double[] CElems = C.elements;
+    final int cB = B.columnStride;
+    final int cC = C.columnStride;
+    final int length = toColumn - fromColumn;
+    final DoubleKernels kernels = DoubleKernels.get();
+    for (int major = fromMajor; major < toMajor; major++) {
+      for (int i = s.start(major), end = s.start(major + 1); i < end; i++) {
+        final double a = alpha * s.values[i];
+        if (a != 0) {
+          final int minor = s.indexes[i];
+          int iB = byRows ? B.index(minor, fromColumn) : B.index(major, fromColumn);
+          int iC = byRows ? C.index(major, fromColumn) : C.index(minor, fromColumn);
+          if (cB == 1 && cC == 1) {
+            kernels.axpy(a, BElems, iB, CElems, iC, length);
+            continue;
+          }
+          for (int k = length; --k >= 0; ) {
+            CElems[iC] += a * BElems[iB];
+            iB += cB;
+            iC += cC;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public double zSum() {
+    final Storage s = storage;
+    double sum = 0;
+    for (int i = 0; i < s.size; i++) {
+      sum += s.values[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Replaces all cells with <code>function(row, column, currentValue)</code>, evaluated for every
+   * cell of the matrix in the storage order. Zero results are not stored.
+   */
+  private void rebuild(IntIntDoubleFunction function) {
+    final Storage s = storage;
+    final int[] starts = new int[s.majors + 1];
+    int[] indexes = new int[Math.max(s.size, 8)];
+    double[] values = new double[indexes.length];
+    int size = 0;
+    for (int major = 0; major < s.majors; major++) {
+      starts[major] = size;
+      int i = s.start(major);
+      final int end = s.start(major + 1);
+      for (int minor = 0; minor < s.minors; minor++) {
+        double current = 0;
+        if (i < end && s.indexes[i] == minor) {
+          current = s.values[i++];
+        }
+        final double value =
+            rowCompressed
+                ? function.apply(major, minor, current)
+                : function.apply(minor, major, current);
+        if (value != 0) {
+          if (size == indexes.length) {
+            final int newCapacity =
+                (int) Math.min(Integer.MAX_VALUE - 8, indexes.length * 3L / 2 + 8);
+            indexes = Arrays.copyOf(indexes, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+          }
+          indexes[size] = minor;
+          values[size] = value;
+          size++;
+        }
+      }
+    }
+    starts[s.majors] = size;
+    s.replace(starts, indexes, values, size);
+  }
+
+  /** Copies the cells of another storage with the same layout. */
+  private void copyFrom(Storage other) {
+    final int[] starts = new int[other.majors + 1];
+    for (int major = 0; major <= other.majors; major++) {
+      starts[major] = other.start(major);
+    }
+    storage.replace(
+        starts,
+        Arrays.copyOf(other.indexes, other.size),
+        Arrays.copyOf(other.values, other.size),
+        other.size);
+  }
+
+  /**
+   * Copies the cells of a storage with the opposite layout (a counting sort by the other storage's
+   * minor index). May be called with this matrix's own storage.
+   */
+  private void transposeFrom(Storage other) {
+    final int[] starts = new int[other.minors + 1];
+    for (int i = 0; i < other.size; i++) {
+      if (other.values[i] != 0) {
+        starts[other.indexes[i] + 1]++;
+      }
+    }
+    for (int major = 0; major < other.minors; major++) {
+      starts[major + 1] += starts[major];
+    }
+
+    final int size = starts[other.minors];
+    final int[] indexes = new int[size];
+    final double[] values = new double[size];
+    final int[] next = Arrays.copyOf(starts, other.minors);
+    for (int major = 0; major < other.majors && major <= other.open; major++) {
+      for (int i = other.start(major), end = other.start(major + 1); i < end; i++) {
+        if (other.values[i] != 0) {
+          final int pos = next[other.indexes[i]]++;
+          indexes[pos] = major;
+          values[pos] = other.values[i];
+        }
+      }
+    }
+    storage.replace(starts, indexes, values, size);
+  }
+}
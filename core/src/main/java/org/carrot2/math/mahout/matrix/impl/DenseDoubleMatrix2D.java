@@ -10,6 +10,7 @@
  */
 package org.carrot2.math.mahout.matrix.impl;
 
+import java.util.concurrent.ExecutorService;
 import org.carrot2.math.mahout.function.DoubleDoubleFunction;
 import org.carrot2.math.mahout.function.DoubleFunction;
 import org.carrot2.math.mahout.function.Functions;
@@ -17,8 +18,21 @@ import org.carrot2.math.mahout.function.Mult;
 import org.carrot2.math.mahout.function.PlusMult;
 import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.util.ExecutorServiceUtils;
 
 public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
+  /**
+   * Multi-threaded products with at least this many multiply-adds are computed in cache-sized tiles
+   * of the result, see {@link #zMult(DoubleMatrix2D, DoubleMatrix2D, double, double, boolean,
+   * boolean, ExecutorService, int)}.
+   */
+  static final long TILED_MULTIPLICATION_THRESHOLD = 1L << 20;
+
+  /** The maximum number of result rows in a tile. */
+  private static final int TILE_ROWS = 32;
+
+  /** The number of doubles of the packed right-hand operand in a tile (256kB). */
+  private static final int TILE_PACKED_DOUBLES = 32 * 1024;
 
   final double[] elements;
 
@@ -101,6 +115,10 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
         assign(0);
         return;
       }
+      if (isContiguous()) {
+        DoubleKernels.get().scale(multiplicator, elems, index, rows * columns);
+        return;
+      }
       for (int row = rows; --row >= 0; ) { // the general case
         for (int i = index, column = columns; --column >= 0; ) {
           elems[i] *= multiplicator;
@@ -122,6 +140,16 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
   @Override
   public DoubleMatrix2D assign(DoubleMatrix2D source) {
     // overriden for performance only
+    if (source instanceof CompressedSparseDoubleMatrix2D) {
+      checkShape(source);
+      assign(0);
+      source.forEachNonZero(
+          (row, column, value) -> {
+            setQuick(row, column, value);
+            return value;
+          });
+      return this;
+    }
     if (!(source instanceof DenseDoubleMatrix2D)) {
       return super.assign(source);
     }
@@ -135,6 +163,10 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
       System.arraycopy(other.elements, 0, this.elements, 0, this.elements.length);
       return this;
     }
+    if (isContiguous() && other.isContiguous()) { // row blocks, arraycopy handles overlaps
+      System.arraycopy(other.elements, other.index(0, 0), elements, index(0, 0), rows * columns);
+      return this;
+    }
 
     if (haveSharedCells(other)) {
       DoubleMatrix2D c = other.copy();
@@ -171,6 +203,22 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
   @Override
   public DoubleMatrix2D assign(DoubleMatrix2D y, DoubleDoubleFunction function) {
     // overriden for performance only
+    if (y instanceof CompressedSparseDoubleMatrix2D) {
+      checkShape(y);
+      if (!(function instanceof PlusMult)) {
+        return assign(new DenseDoubleMatrix2D(rows, columns).assign(y), function);
+      }
+      // x[i] = x[i] + mult*y[i] only changes cells where y[i] is non-zero
+      final double multiplicator = ((PlusMult) function).getMultiplicator();
+      if (multiplicator != 0) {
+        y.forEachNonZero(
+            (row, column, value) -> {
+              elements[index(row, column)] += multiplicator * value;
+              return value;
+            });
+      }
+      return this;
+    }
     if (!(y instanceof DenseDoubleMatrix2D)) {
       return super.assign(y, function);
     }
@@ -191,6 +239,12 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     int index = index(0, 0);
 
     // specialized for speed
+    if (isContiguous()
+        && other.isContiguous()
+        && (elems != otherElems || index == otherIndex)
+        && assignContiguous(other, function)) {
+      return this;
+    }
     if (function == Functions.MULT) { // x[i] = x[i] * y[i]
       for (int row = rows; --row >= 0; ) {
         for (int i = index, j = otherIndex, column = columns; --column >= 0; ) {
@@ -260,6 +314,104 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     return this;
   }
 
+  /**
+   * @return <code>true</code> if the cells of this matrix (or view) are stored row after row,
+   *     without gaps, in a single range of the element array. This holds for matrices that are not
+   *     views and for views of whole rows (see {@link #viewPart(int, int, int, int)}); whole-matrix
+   *     operations on such matrices run through {@link DoubleKernels}.
+   * @since 4.5.1
+   */
+  public boolean isContiguous() {
+    return columnStride == 1 && (rowStride == columns || rows <= 1);
+  }
+
+  /**
+   * Applies the specialized element-wise functions to the contiguous element ranges of both
+   * matrices.
+   *
+   * @return <code>false</code> if the function is not specialized.
+   */
+  private boolean assignContiguous(DenseDoubleMatrix2D other, DoubleDoubleFunction function) {
+    final DoubleKernels kernels = DoubleKernels.get();
+    final int size = rows * columns;
+    final int index = index(0, 0);
+    final int otherIndex = other.index(0, 0);
+    if (function == Functions.MULT) { // x[i] = x[i] * y[i]
+      kernels.multiply(other.elements, otherIndex, elements, index, size);
+    } else if (function == Functions.DIV) { // x[i] = x[i] / y[i]
+      kernels.divide(other.elements, otherIndex, elements, index, size);
+    } else if (function instanceof PlusMult) { // x[i] = x[i] + mult*y[i]
+      double multiplicator = ((PlusMult) function).getMultiplicator();
+      if (multiplicator != 0) {
+        kernels.axpy(multiplicator, other.elements, otherIndex, elements, index, size);
+      }
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Adds the values of every column (or their squares) to the corresponding element of <code>sums
+   * </code>, going through the rows in ascending order: <code>sums[column] += f(get(row, column))
+   * </code>.
+   *
+   * @param sums An array of <code>columns()</code> sums.
+   * @param squares Add squares of the values if <code>true</code>.
+   * @since 4.5.1
+   */
+  public void addColumnSums(double[] sums, boolean squares) {
+    checkColumnArray(sums);
+    final DoubleKernels kernels = DoubleKernels.get();
+    int index = index(0, 0);
+    for (int row = 0; row < rows; row++) {
+      if (columnStride == 1) {
+        if (squares) {
+          kernels.addSquares(elements, index, sums, 0, columns);
+        } else {
+          kernels.axpy(1, elements, index, sums, 0, columns);
+        }
+      } else {
+        for (int i = index, column = 0; column < columns; column++, i += columnStride) {
+          sums[column] += squares ? elements[i] * elements[i] : elements[i];
+        }
+      }
+      index += rowStride;
+    }
+  }
+
+  /**
+   * Divides every column by the corresponding element of <code>divisors</code>, leaving columns
+   * with a zero divisor unchanged.
+   *
+   * @param divisors An array of <code>columns()</code> divisors.
+   * @since 4.5.1
+   */
+  public void divideColumns(double[] divisors) {
+    checkColumnArray(divisors);
+    final DoubleKernels kernels = DoubleKernels.get();
+    int index = index(0, 0);
+    for (int row = 0; row < rows; row++) {
+      if (columnStride == 1) {
+        kernels.divideNonZero(divisors, 0, elements, index, columns);
+      } else {
+        for (int i = index, column = 0; column < columns; column++, i += columnStride) {
+          if (divisors[column] != 0) {
+            elements[i] /= divisors[column];
+          }
+        }
+      }
+      index += rowStride;
+    }
+  }
+
+  private void checkColumnArray(double[] values) {
+    if (values.length != columns) {
+      throw new IllegalArgumentException(
+          "Expected an array of " + columns + " elements: " + values.length);
+    }
+  }
+
   @Override
   public double getQuick(int row, int column) {
     // if (debug) if (column<0 || column>=columns || row<0 || row>=rows)
@@ -352,6 +504,17 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     int indexZ = zz.index(0);
 
     int cols = columns;
+    if (As == 1 && ys == 1) {
+      final DoubleKernels kernels = DoubleKernels.get();
+      for (int row = rows; --row >= 0; ) {
+        final double sum = kernels.dot(AElems, indexA, yElems, indexY, cols);
+        zElems[indexZ] = alpha * sum + beta * zElems[indexZ];
+        indexA += this.rowStride;
+        indexZ += zs;
+      }
+      return z;
+    }
+
     for (int row = rows; --row >= 0; ) {
       double sum = 0;
       // loop unrolled
@@ -384,9 +547,46 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
       double beta,
       boolean transposeA,
       boolean transposeB) {
+    return zMult(B, C, alpha, beta, transposeA, transposeB, null, 1);
+  }
+
+  /**
+   * Like {@link #zMult(DoubleMatrix2D, DoubleMatrix2D, double, double, boolean, boolean)}, but
+   * large dense products are split into cache-sized tiles of the result, computed on up to <code>
+   * threads</code> threads: the calling thread and helpers submitted to <code>executor</code>.
+   * Tiled and single-threaded products compute every cell with the same {@link DoubleKernels#dot}
+   * call, so the result does not depend on the number of threads or on scheduling.
+   *
+   * @param executor The executor to run helper tasks on, the executor is not shut down. If <code>
+   *     null</code>, {@link java.util.concurrent.ForkJoinPool#commonPool()} is used.
+   * @param threads The maximum number of threads computing the product, including the calling
+   *     thread. One computes the product in the calling thread, exactly as {@link
+   *     #zMult(DoubleMatrix2D, DoubleMatrix2D, double, double, boolean, boolean)}.
+   * @since 4.5.1
+   */
+  public DoubleMatrix2D zMult(
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      double alpha,
+      double beta,
+      boolean transposeA,
+      boolean transposeB,
+      ExecutorService executor,
+      int threads) {
     // overriden for performance only
     if (transposeA) {
-      return viewDice().zMult(B, C, alpha, beta, false, transposeB);
+      return ((DenseDoubleMatrix2D) viewDice())
+          .zMult(B, C, alpha, beta, false, transposeB, executor, threads);
+    }
+    if (B instanceof CompressedSparseDoubleMatrix2D) {
+      // A*B = (B' * A')', split across threads like the dense product
+      final CompressedSparseDoubleMatrix2D BB = (CompressedSparseDoubleMatrix2D) B;
+      if (C == null) {
+        return BB.zMult(this, null, alpha, beta, !transposeB, true, executor, threads).viewDice();
+      } else {
+        BB.zMult(this, C.viewDice(), alpha, beta, !transposeB, true, executor, threads);
+        return C;
+      }
     }
     if (B instanceof SparseDoubleMatrix2D) {
       // exploit quick sparse mult
@@ -399,7 +599,7 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
       }
     }
     if (transposeB) {
-      return this.zMult(B.viewDice(), C, alpha, beta, transposeA, false);
+      return this.zMult(B.viewDice(), C, alpha, beta, transposeA, false, executor, threads);
     }
 
     int m = rows;
@@ -430,6 +630,11 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
       throw new IllegalStateException();
     }
 
+    if (threads > 1 && (long) m * n * p >= TILED_MULTIPLICATION_THRESHOLD) {
+      zMultTiled(this, BB, CC, alpha, beta, m, n, p, executor, threads);
+      return C;
+    }
+
     int cA = this.columnStride;
     int cB = BB.columnStride;
     int cC = CC.columnStride;
@@ -463,6 +668,13 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     if (m % mOptimal != 0) {
       blocks++;
     }
+
+    // Rows of A and columns of B are packed into contiguous arrays, unless they already
+    // are contiguous, so that the dot products run through the same kernels as tiled products.
+    final DoubleKernels kernels = DoubleKernels.get();
+    final double[] blockA = cA == 1 ? null : new double[Math.min(m, mOptimal) * n];
+    final double[] columnB = rB == 1 ? null : new double[n];
+
     int rr = 0;
     while (--blocks >= 0) {
       int jB = BB.index(0, 0);
@@ -473,41 +685,34 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
         mOptimal += m - rr;
       }
 
+      final double[] rowsA;
+      final int rowStrideA;
+      if (blockA == null) {
+        rowsA = AElems;
+        rowStrideA = rA;
+      } else {
+        rowsA = blockA;
+        rowStrideA = n;
+        indexA = pack(AElems, indexA, rA, cA, mOptimal, n, blockA);
+      }
+
       for (int j = p; --j >= 0; ) {
+        final double[] columnsB;
+        final int kB;
+        if (columnB == null) {
+          columnsB = BElems;
+          kB = jB;
+        } else {
+          columnsB = columnB;
+          kB = pack(BElems, jB, 0, rB, 1, n, columnB);
+        }
+
         int iA = indexA;
         int iC = jC;
         for (int i = mOptimal; --i >= 0; ) {
-          int kA = iA;
-          int kB = jB;
-
-          /*
-          // not unrolled:
-          for (int k = n; --k >= 0; ) {
-            //s += getQuick(i,k) * B.getQuick(k,j);
-            s += AElems[kA] * BElems[kB];
-            kB += rB;
-            kA += cA;
-          }
-          */
-
-          // loop unrolled
-          kA -= cA;
-          kB -= rB;
-
-          double s = 0;
-          for (int k = n % 4; --k >= 0; ) {
-            s += AElems[kA += cA] * BElems[kB += rB];
-          }
-          for (int k = n / 4; --k >= 0; ) {
-            s +=
-                AElems[kA += cA] * BElems[kB += rB]
-                    + AElems[kA += cA] * BElems[kB += rB]
-                    + AElems[kA += cA] * BElems[kB += rB]
-                    + AElems[kA += cA] * BElems[kB += rB];
-          }
-
+          final double s = kernels.dot(rowsA, iA, columnsB, kB, n);
           CElems[iC] = alpha * s + beta * CElems[iC];
-          iA += rA;
+          iA += rowStrideA;
           iC += rC;
         }
         jB += cB;
@@ -517,6 +722,102 @@ public final class DenseDoubleMatrix2D extends DoubleMatrix2D {
     return C;
   }
 
+  /**
+   * Copies <code>rows</code> rows of <code>columns</code> elements, starting at <code>index</code>
+   * and separated by the given strides, to consecutive rows of <code>target</code>.
+   *
+   * @return The offset of the first packed element, always zero.
+   */
+  private static int pack(
+      double[] elements,
+      int index,
+      int rowStride,
+      int columnStride,
+      int rows,
+      int columns,
+      double[] target) {
+    for (int row = 0, o = 0; row < rows; row++, index += rowStride) {
+      for (int column = 0, i = index; column < columns; column++, i += columnStride) {
+        target[o++] = elements[i];
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Computes <code>C = alpha * A * B + beta * C</code> in independent tiles of <code>C</code>. The
+   * columns of <code>B</code> (and rows of <code>A</code>) are packed once into contiguous arrays,
+   * unless they already are contiguous, and shared by all tiles.
+   */
+  private static void zMultTiled(
+      DenseDoubleMatrix2D A,
+      DenseDoubleMatrix2D B,
+      DenseDoubleMatrix2D C,
+      double alpha,
+      double beta,
+      int m,
+      int n,
+      int p,
+      ExecutorService executor,
+      int threads) {
+    final double[] columnsB;
+    final int[] columnOffsets = new int[p];
+    if (B.rowStride == 1) {
+      columnsB = B.elements;
+      for (int j = 0; j < p; j++) {
+        columnOffsets[j] = B.index(0, j);
+      }
+    } else {
+      columnsB = new double[n * p];
+      pack(B.elements, B.index(0, 0), B.columnStride, B.rowStride, p, n, columnsB);
+      for (int j = 0; j < p; j++) {
+        columnOffsets[j] = j * n;
+      }
+    }
+
+    final double[] rowsA;
+    final int[] rowOffsets = new int[m];
+    if (A.columnStride == 1) {
+      rowsA = A.elements;
+      for (int i = 0; i < m; i++) {
+        rowOffsets[i] = A.index(i, 0);
+      }
+    } else {
+      rowsA = new double[m * n];
+      pack(A.elements, A.index(0, 0), A.rowStride, A.columnStride, m, n, rowsA);
+      for (int i = 0; i < m; i++) {
+        rowOffsets[i] = i * n;
+      }
+    }
+
+    final int tileRows = Math.min(m, TILE_ROWS);
+    final int tileColumns = Math.max(1, Math.min(p, TILE_PACKED_DOUBLES / Math.max(1, n)));
+    final int rowTiles = (m + tileRows - 1) / tileRows;
+    final int columnTiles = (p + tileColumns - 1) / tileColumns;
+    final DoubleKernels kernels = DoubleKernels.get();
+    final double[] CElems = C.elements;
+
+    ExecutorServiceUtils.forEachIndex(
+        executor,
+        threads,
+        rowTiles * columnTiles,
+        (tile) -> {
+          final int fromRow = (tile / columnTiles) * tileRows;
+          final int toRow = Math.min(m, fromRow + tileRows);
+          final int fromColumn = (tile % columnTiles) * tileColumns;
+          final int toColumn = Math.min(p, fromColumn + tileColumns);
+          for (int i = fromRow; i < toRow; i++) {
+            final int rowA = rowOffsets[i];
+            int iC = C.index(i, fromColumn);
+            for (int j = fromColumn; j < toColumn; j++) {
+              final double s = kernels.dot(rowsA, rowA, columnsB, columnOffsets[j], n);
+              CElems[iC] = alpha * s + beta * CElems[iC];
+              iC += C.columnStride;
+            }
+          }
+        });
+  }
+
   @Override
   public double zSum() {
     double[] elems = this.elements;
@@ -0,0 +1,213 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import java.lang.reflect.Constructor;
+import java.util.Locale;
+
+/**
+ * Inner loops of dense matrix operations over contiguous ranges of arrays. Element-wise kernels are
+ * exact, the same regardless of the implementation; they are plain counted loops the JIT compiler
+ * can vectorize. Reductions ({@link #dot}) differ in the order of summation:
+ *
+ * <ul>
+ *   <li>{@link #SCALAR} sums in the same order as the original Colt kernels, so results are bitwise
+ *       identical to the previous releases,
+ *   <li>{@link #UNROLLED} keeps several independent partial sums, which is considerably faster for
+ *       long vectors but may differ from {@link #SCALAR} in the last bits,
+ *   <li><code>vector</code> uses the incubating Vector API (<code>jdk.incubator.vector</code>) for
+ *       all kernels; its {@link #dot} sums per lane, like {@link #UNROLLED}. These kernels are
+ *       compiled separately for Java 17 (the multi-release part of the JAR) and are only available
+ *       when the JVM runs with <code>--add-modules jdk.incubator.vector</code>.
+ * </ul>
+ *
+ * <p>The kernels used by the matrix classes are selected with the {@value #PROPERTY} system
+ * property (<code>scalar</code>, the default, <code>unrolled</code> or <code>vector</code>). An
+ * unknown or unavailable selection falls back to {@link #SCALAR} with a warning.
+ *
+ * @since 4.5.1
+ */
+public abstract class DoubleKernels {
+  /** The system property selecting the kernels returned from {@link #get()}. */
+  public static final String PROPERTY = "carrot2.math.kernels";
+
+  /** Kernels summing in the original order. */
+  public static final DoubleKernels SCALAR =
+      new DoubleKernels("scalar") {
+        @Override
+        public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+          int i = aOffset - 1;
+          int j = bOffset - 1;
+          double s = 0;
+          for (int k = length % 4; --k >= 0; ) {
+            s += a[++i] * b[++j];
+          }
+          for (int k = length / 4; --k >= 0; ) {
+            s += a[++i] * b[++j] + a[++i] * b[++j] + a[++i] * b[++j] + a[++i] * b[++j];
+          }
+          return s;
+        }
+      };
+
+  /** Kernels with independent partial sums. */
+  public static final DoubleKernels UNROLLED =
+      new DoubleKernels("unrolled") {
+        @Override
+        public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+          double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+          int i = aOffset;
+          int j = bOffset;
+          final int end = aOffset + (length & ~3);
+          for (; i < end; i += 4, j += 4) {
+            s0 += a[i] * b[j];
+            s1 += a[i + 1] * b[j + 1];
+            s2 += a[i + 2] * b[j + 2];
+            s3 += a[i + 3] * b[j + 3];
+          }
+          for (final int tail = aOffset + length; i < tail; i++, j++) {
+            s0 += a[i] * b[j];
+          }
+          return (s0 + s1) + (s2 + s3);
+        }
+      };
+
+  private static final String VECTOR_CLASS =
+      "org.carrot2.math.mahout.matrix.impl.VectorDoubleKernels";
+
+  private static final DoubleKernels ACTIVE = select(System.getProperty(PROPERTY, SCALAR.name()));
+
+  private final String name;
+
+  DoubleKernels(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return The kernels selected with the {@value #PROPERTY} system property.
+   */
+  public static DoubleKernels get() {
+    return ACTIVE;
+  }
+
+  /**
+   * @return Kernels of the given name: <code>scalar</code>, <code>unrolled</code> or <code>vector
+   *     </code>.
+   * @throws IllegalArgumentException If the name is unknown or the kernels are not available in
+   *     this JVM.
+   */
+  public static DoubleKernels forName(String name) {
+    switch (name.trim().toLowerCase(Locale.ROOT)) {
+      case "scalar":
+        return SCALAR;
+      case "unrolled":
+        return UNROLLED;
+      case "vector":
+        return loadVector();
+      default:
+        throw new IllegalArgumentException(
+            "Unknown kernels ("
+                + PROPERTY
+                + "): "
+                + name
+                + ", expected scalar, unrolled or vector.");
+    }
+  }
+
+  /**
+   * @return Kernels of the given name, like {@link #forName(String)}, or {@link #SCALAR} (with a
+   *     warning logged) if the name is unknown or the kernels are not available.
+   */
+  public static DoubleKernels select(String name) {
+    try {
+      return forName(name);
+    } catch (IllegalArgumentException e) {
+      System.getLogger(DoubleKernels.class.getName())
+          .log(
+              System.Logger.Level.WARNING,
+              e.getMessage() + " Falling back to " + SCALAR.name() + " kernels.");
+      return SCALAR;
+    }
+  }
+
+  private static DoubleKernels loadVector() {
+    try {
+      Constructor<?> constructor = Class.forName(VECTOR_CLASS).getDeclaredConstructor();
+      return (DoubleKernels) constructor.newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      throw new IllegalArgumentException(
+          "Vector kernels ("
+              + PROPERTY
+              + ") require Java 17+ and --add-modules jdk.incubator.vector: "
+              + e,
+          e);
+    }
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return The sum of <code>a[aOffset + k] * b[bOffset + k]</code> over k.
+   */
+  public abstract double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+  /** <code>y[yOffset + k] += alpha * x[xOffset + k]</code> */
+  public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      y[yOffset + k] += alpha * x[xOffset + k];
+    }
+  }
+
+  /** <code>y[yOffset + k] *= x[xOffset + k]</code> */
+  public void multiply(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      y[yOffset + k] *= x[xOffset + k];
+    }
+  }
+
+  /** <code>y[yOffset + k] /= x[xOffset + k]</code> */
+  public void divide(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      y[yOffset + k] /= x[xOffset + k];
+    }
+  }
+
+  /** <code>y[yOffset + k] *= alpha</code> */
+  public void scale(double alpha, double[] y, int yOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      y[yOffset + k] *= alpha;
+    }
+  }
+
+  /** <code>y[yOffset + k] += x[xOffset + k] * x[xOffset + k]</code> */
+  public void addSquares(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      final double v = x[xOffset + k];
+      y[yOffset + k] += v * v;
+    }
+  }
+
+  /** <code>y[yOffset + k] /= x[xOffset + k]</code>, skipping elements where x is zero. */
+  public void divideNonZero(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      final double v = x[xOffset + k];
+      if (v != 0) {
+        y[yOffset + k] /= v;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -10,9 +10,13 @@
  */
 package org.carrot2.math.matrix;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.IntBinaryOperator;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.util.ExecutorServiceUtils;
 
 /** Base functionality for {@link IterativeMatrixFactorization}s. */
 abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
@@ -29,14 +33,24 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
 
   /**
    * If the percentage decrease in approximation error becomes smaller than <code>stopThreshold
-   * </code>, the algorithm will stop. Note: calculation of approximation error is quite costly.
-   * Setting the threshold to -1 turns off approximation error calculation and hence makes the
-   * algorithm do the maximum number of iterations.
+   * </code>, the algorithm will stop. Setting the threshold to -1 turns off approximation error
+   * calculation and hence makes the algorithm do the maximum number of iterations.
    */
   protected double stopThreshold;
 
   protected static double DEFAULT_STOP_THRESHOLD = -1.0;
 
+  /**
+   * Wall-clock time budget of {@link #compute()} in milliseconds. When exceeded, the algorithm
+   * stops after the current iteration. Zero or less means no limit.
+   */
+  protected long timeBudget;
+
+  protected static final long DEFAULT_TIME_BUDGET = 0;
+
+  /** The time ({@link System#nanoTime()}) at which the time budget runs out */
+  private long deadline;
+
   /** Seeding strategy */
   protected SeedingStrategy seedingStrategy;
 
@@ -47,6 +61,26 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
 
   protected static final boolean DEFAULT_ORDERED = false;
 
+  /**
+   * The number of threads updating row blocks of U and V. The partitioning into row blocks depends
+   * only on this value, so results are identical whether blocks run sequentially or concurrently.
+   */
+  protected int threads;
+
+  protected static final int DEFAULT_THREADS = 1;
+
+  /** The number of row blocks per thread, to balance uneven progress of threads. */
+  private static final int ROW_BLOCKS_PER_THREAD = 4;
+
+  /**
+   * Executor running row block updates and tiled products; if <code>null</code>, the shared {@link
+   * ForkJoinPool#commonPool()} is used.
+   */
+  protected ExecutorService executor;
+
+  /** Squared Frobenius norm of A, computed on first use */
+  private double squaredNormA = -1;
+
   /** Current approximation error */
   protected double approximationError;
 
@@ -68,6 +102,8 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
     this.stopThreshold = DEFAULT_STOP_THRESHOLD;
     this.seedingStrategy = DEFAULT_SEEDING_STRATEGY;
     this.ordered = DEFAULT_ORDERED;
+    this.threads = DEFAULT_THREADS;
+    this.timeBudget = DEFAULT_TIME_BUDGET;
     this.approximationErrors = null;
     this.approximationError = -1;
     this.iterationsCompleted = 0;
@@ -88,17 +124,47 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
   }
 
   /**
+   * Updates the approximation error <code>||A - UV'||</code>. The error is computed from the
+   * identity <code>||A - UV'||^2 = ||A||^2 - 2 tr(V'A'U) + tr((U'U)(V'V))</code>, so the m x n
+   * product <code>UV'</code> is never materialized.
+   *
    * @return true if the decrease in the approximation error is smaller than the <code>stopThreshold
    *     </code>
    */
   protected boolean updateApproximationError() {
+    final DoubleMatrix2D AtU = multiply(A, U, null, true, false);
+    final DoubleMatrix2D VtV = multiply(V, V, null, true, false);
+    return updateApproximationError(innerProduct(AtU, V), VtV);
+  }
+
+  /**
+   * Updates the approximation error using products already computed by the caller.
+   *
+   * @param crossTerm <code>tr(V'A'U)</code>, the inner product of <code>AV</code> and <code>U
+   *     </code> (or, equivalently, of <code>A'U</code> and <code>V</code>) for the current U and V
+   * @param VtV <code>V'V</code> for the current V
+   * @return true if the decrease in the approximation error is smaller than the <code>stopThreshold
+   *     </code>
+   */
+  protected boolean updateApproximationError(double crossTerm, DoubleMatrix2D VtV) {
     if (approximationErrors == null) {
       approximationErrors = new double[maxIterations + 1];
     }
 
-    // Approximation error
+    if (squaredNormA < 0) {
+      final double[] sum = new double[1];
+      A.forEachNonZero(
+          (row, column, value) -> {
+            sum[0] += value * value;
+            return value;
+          });
+      squaredNormA = sum[0];
+    }
+
+    // Approximation error; cancellation may leave a tiny negative residue for exact factorizations.
+    final DoubleMatrix2D UtU = multiply(U, U, null, true, false);
     double newApproximationError =
-        MatrixUtils.frobeniusNorm(U.zMult(V, null, 1, 0, false, true).assign(A, Functions.MINUS));
+        Math.sqrt(Math.max(0, squaredNormA - 2 * crossTerm + innerProduct(UtU, VtV)));
     approximationErrors[iterationsCompleted] = newApproximationError;
 
     if ((approximationError - newApproximationError) / approximationError < stopThreshold) {
@@ -110,6 +176,61 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
     }
   }
 
+  /** Returns the sum of element-wise products of two matrices of the same shape. */
+  protected static double innerProduct(DoubleMatrix2D a, DoubleMatrix2D b) {
+    return a.aggregate(b, Functions.PLUS, Functions.MULT);
+  }
+
+  /**
+   * Computes <code>C = op(a) * op(b)</code> on up to {@link #getThreads()} threads, see {@link
+   * MatrixUtils#multiply(DoubleMatrix2D, DoubleMatrix2D, DoubleMatrix2D, boolean, boolean,
+   * ExecutorService, int)}; the result does not depend on the number of threads.
+   */
+  protected DoubleMatrix2D multiply(
+      DoubleMatrix2D a,
+      DoubleMatrix2D b,
+      DoubleMatrix2D c,
+      boolean transposeA,
+      boolean transposeB) {
+    return MatrixUtils.multiply(a, b, c, transposeA, transposeB, executor, threads);
+  }
+
+  /** Starts counting the time budget; to be called at the start of {@link #compute()}. */
+  protected void startTimeBudget() {
+    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeBudget));
+  }
+
+  /** Returns <code>true</code> if the time budget is set and has been exceeded. */
+  protected boolean isTimeBudgetExceeded() {
+    return timeBudget > 0 && System.nanoTime() - deadline >= 0;
+  }
+
+  /** An update of rows <code>[from, to)</code> of a matrix. */
+  @FunctionalInterface
+  protected interface RowBlockUpdate {
+    void update(int from, int to);
+  }
+
+  /**
+   * Splits <code>rows</code> into a fixed number of contiguous blocks and applies <code>update
+   * </code> to each. With one thread, the whole range is a single block updated on the calling
+   * thread; otherwise blocks run concurrently on up to {@link #getThreads()} threads (the calling
+   * thread and the executor's). Blocks must only write to their own rows.
+   */
+  protected void forEachRowBlock(int rows, RowBlockUpdate update) {
+    final int blocks =
+        threads <= 1 ? 1 : Math.max(1, Math.min(rows, threads * ROW_BLOCKS_PER_THREAD));
+    ExecutorServiceUtils.forEachIndex(
+        executor,
+        threads,
+        blocks,
+        (b) -> update.update(blockStart(rows, blocks, b), blockStart(rows, blocks, b + 1)));
+  }
+
+  private static int blockStart(int rows, int blocks, int block) {
+    return (int) ((long) rows * block / blocks);
+  }
+
   /** Orders U and V matrices according to the 'activity' of base vectors. */
   protected void order() {
     DoubleMatrix2D VT = V.viewDice();
@@ -157,9 +278,9 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
    * Sets the algorithms <code>stopThreshold</code>. If the percentage decrease in approximation
    * error becomes smaller than <code>stopThreshold</code>, the algorithm will stop.
    *
-   * <p>Note: calculation of approximation error is quite costly. Setting the threshold to -1 turns
-   * off calculation of the approximation error and hence makes the algorithm do the maximum allowed
-   * number of iterations.
+   * <p>Setting the threshold to -1 turns off calculation of the approximation error and hence makes
+   * the algorithm do the maximum allowed number of iterations. The error is computed from k x k and
+   * m x k products, so its cost is small compared to a single update.
    */
   public void setStopThreshold(double stopThreshold) {
     this.stopThreshold = stopThreshold;
@@ -179,6 +300,43 @@ abstract class IterativeMatrixFactorizationBase extends MatrixFactorizationBase
     return iterationsCompleted;
   }
 
+  /** Returns the wall-clock time budget of the factorization in milliseconds. */
+  public long getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Sets the wall-clock time budget of the factorization in milliseconds. When exceeded, the
+   * algorithm stops after the current iteration; {@link #getIterationsCompleted()} reports the
+   * number of iterations actually run. Zero or less means no limit.
+   */
+  public void setTimeBudget(long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  /** Returns the number of threads updating row blocks of U and V. */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Sets the number of threads updating row blocks of U and V, including the calling thread. With
+   * more than one thread, each update is split into a fixed number of row blocks (dependent on the
+   * thread count only) and the blocks run concurrently.
+   */
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Sets the executor running row block updates and tiled products when {@link #getThreads()} is
+   * larger than one. If <code>null</code> (the default), the shared {@link
+   * ForkJoinPool#commonPool()} is used. The executor is not shut down.
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
   /** Returns <code>true</code> when the factorization is set to generate an ordered basis. */
   public boolean isOrdered() {
     return ordered;
@@ -14,8 +14,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import org.carrot2.attrs.AttrBoolean;
 import org.carrot2.attrs.AttrComposite;
+import org.carrot2.attrs.AttrDouble;
 import org.carrot2.attrs.AttrEnum;
+import org.carrot2.attrs.AttrInteger;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 
 /** A factory for {@link MatrixFactorization}s. */
@@ -32,6 +37,68 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
               .label("Factorization quality")
               .defaultValue(FactorizationQuality.HIGH));
 
+  /**
+   * Initial values of the factorization. Seeding based on the singular value decomposition (NNDSVD)
+   * usually converges in fewer iterations than random seeding.
+   */
+  public final AttrEnum<SeedingMethod> seeding =
+      attributes.register(
+          "seeding",
+          AttrEnum.builder(SeedingMethod.class)
+              .label("Factorization seeding")
+              .defaultValue(SeedingMethod.RANDOM));
+
+  /**
+   * The number of threads used to update the factorization. Results do not depend on this setting
+   * when it is larger than one; k-means factorization ignores it. Lingo's label scoring and the
+   * bisecting k-means similarity products use the same number of threads, see {@link
+   * org.carrot2.text.vsm.TermDocumentMatrixReducer#multiply}.
+   */
+  public final AttrInteger threads =
+      attributes.register(
+          "threads",
+          AttrInteger.builder().min(1).max(64).label("Factorization threads").defaultValue(1));
+
+  /**
+   * Adaptive iteration control. If enabled, the number of iterations is not estimated from the
+   * matrix size and {@link #factorizationQuality}; instead, the factorization monitors the relative
+   * decrease of its approximation error and stops once it drops below {@link
+   * #convergenceThreshold}, after {@link #maxAdaptiveIterations} iterations or when {@link
+   * #timeBudget} is exceeded, whichever comes first.
+   */
+  public final AttrBoolean adaptive =
+      attributes.register(
+          "adaptive", AttrBoolean.builder().label("Adaptive iteration count").defaultValue(false));
+
+  /** Relative decrease of the approximation error below which adaptive factorization stops. */
+  public final AttrDouble convergenceThreshold =
+      attributes.register(
+          "convergenceThreshold",
+          AttrDouble.builder()
+              .min(0)
+              .max(1)
+              .label("Convergence threshold")
+              .defaultValue(DEFAULT_CONVERGENCE_THRESHOLD));
+
+  /** The maximum number of iterations of adaptive factorization. */
+  public final AttrInteger maxAdaptiveIterations =
+      attributes.register(
+          "maxAdaptiveIterations",
+          AttrInteger.builder()
+              .min(1)
+              .max(10000)
+              .label("Maximum adaptive iterations")
+              .defaultValue(DEFAULT_MAX_ADAPTIVE_ITERATIONS));
+
+  /**
+   * Wall-clock time budget of a single factorization in milliseconds; zero means no limit. When
+   * exceeded, the factorization stops after the current iteration.
+   */
+  public final AttrInteger timeBudget =
+      attributes.register(
+          "timeBudget",
+          AttrInteger.builder().min(0).max(3_600_000).label("Time budget (ms)").defaultValue(0));
+
   /** The number of base vectors */
   protected int k;
 
@@ -50,13 +117,28 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
   /** The default stop threshold */
   protected static final double DEFAULT_STOP_THRESHOLD = -1;
 
-  /** Matrix seeding strategy factory */
+  /** The default convergence threshold of adaptive factorization */
+  protected static final double DEFAULT_CONVERGENCE_THRESHOLD = 0.001;
+
+  /** The default maximum number of iterations of adaptive factorization */
+  protected static final int DEFAULT_MAX_ADAPTIVE_ITERATIONS = 100;
+
+  /**
+   * Matrix seeding strategy factory. If <code>null</code>, the factory is created from the {@link
+   * #seeding} attribute.
+   */
   protected SeedingStrategyFactory seedingFactory;
 
   /** Default matrix seeding strategy factory */
   protected static final SeedingStrategyFactory DEFAULT_SEEDING_FACTORY =
       new RandomSeedingStrategyFactory(0);
 
+  /**
+   * The executor running parallel updates when {@link #threads} is larger than one. If <code>null
+   * </code>, the shared {@link ForkJoinPool#commonPool()} is used.
+   */
+  protected ExecutorService executor;
+
   /** Order base vectors according to their 'activity' */
   protected boolean ordered;
 
@@ -66,7 +148,7 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
     this.k = DEFAULT_K;
     this.maxIterations = DEFAULT_MAX_ITERATIONS;
     this.stopThreshold = DEFAULT_STOP_THRESHOLD;
-    this.seedingFactory = DEFAULT_SEEDING_FACTORY;
+    this.seedingFactory = null;
     this.ordered = DEFAULT_ORDERED;
   }
 
@@ -86,7 +168,7 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
 
   /** */
   protected SeedingStrategy createSeedingStrategy() {
-    return seedingFactory.createSeedingStrategy();
+    return getSeedingFactory().createSeedingStrategy();
   }
 
   /** Returns the maximum number of iterations used by this factory. */
@@ -109,16 +191,50 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
     this.stopThreshold = stopThreshold;
   }
 
-  /** Returns the {@link SeedingStrategyFactory} used by this factory. */
+  /**
+   * Returns the {@link SeedingStrategyFactory} used by this factory: the one set explicitly with
+   * {@link #setSeedingFactory(SeedingStrategyFactory)} or, if none, one matching the {@link
+   * #seeding} attribute.
+   */
   public SeedingStrategyFactory getSeedingFactory() {
-    return seedingFactory;
+    if (seedingFactory != null) {
+      return seedingFactory;
+    }
+    if (seeding.get() == SeedingMethod.RANDOM) {
+      return DEFAULT_SEEDING_FACTORY;
+    }
+    return seeding.get().createFactory();
   }
 
-  /** Sets the {@link SeedingStrategyFactory} to be used by this factory. */
+  /**
+   * Sets the {@link SeedingStrategyFactory} to be used by this factory. Overrides the {@link
+   * #seeding} attribute unless set to <code>null</code>.
+   */
   public void setSeedingFactory(SeedingStrategyFactory seedingFactory) {
     this.seedingFactory = seedingFactory;
   }
 
+  /**
+   * Returns the executor running parallel updates of the factorizations, <code>null</code> for the
+   * shared {@link ForkJoinPool#commonPool()}.
+   *
+   * @since 4.5.1
+   */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor running parallel updates of the factorizations when {@link #threads} is
+   * larger than one. The executor is not shut down. If <code>null</code> (the default), the shared
+   * {@link ForkJoinPool#commonPool()} is used.
+   *
+   * @since 4.5.1
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
   /** Returns <code>true</code> when the factorization is set to generate an ordered basis. */
   public boolean isOrdered() {
     return ordered;
@@ -129,8 +245,28 @@ public abstract class IterativeMatrixFactorizationFactory extends AttrComposite
     this.ordered = ordered;
   }
 
+  /**
+   * Applies the iteration limits of this factory to a factorization: either the fixed number of
+   * iterations and stop threshold or, in {@link #adaptive} mode, the convergence-driven ones. The
+   * time budget applies in both modes.
+   */
+  void configureIterations(IterativeMatrixFactorizationBase factorization) {
+    if (adaptive.get()) {
+      factorization.setMaxIterations(maxAdaptiveIterations.get());
+      factorization.setStopThreshold(convergenceThreshold.get());
+    } else {
+      factorization.setMaxIterations(maxIterations);
+      factorization.setStopThreshold(stopThreshold);
+    }
+    factorization.setTimeBudget(timeBudget.get());
+  }
+
   public void estimateIterationsNumber(int dimensions, DoubleMatrix2D termDocumentMatrix) {
     setK(dimensions);
+    if (adaptive.get()) {
+      // The number of iterations is determined by convergence.
+      return;
+    }
 
     double[] coefficients =
         allKnownCoefficients.get(
@@ -10,7 +10,7 @@
  */
 package org.carrot2.math.matrix;
 
-import org.carrot2.math.mahout.function.Functions;
+import java.util.Arrays;
 import org.carrot2.math.mahout.function.Mult;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
@@ -31,6 +31,8 @@ public class KMeansMatrixFactorization extends IterativeMatrixFactorizationBase
   }
 
   public void compute() {
+    startTimeBudget();
+
     int n = A.columns();
 
     // Distances to centroids
@@ -45,30 +47,27 @@ public class KMeansMatrixFactorization extends IterativeMatrixFactorizationBase
 
     int[] minIndices = new int[D.columns()];
     double[] minValues = new double[D.columns()];
+    int[] previousIndices = null;
 
     for (iterationsCompleted = 0; iterationsCompleted < maxIterations; iterationsCompleted++) {
       // Calculate cosine distances
       U.zMult(A, D, 1, 0, true, false);
 
       V.assign(0);
-      U.assign(0);
 
       // For each object
       MatrixUtils.maxInColumns(D, minIndices, minValues);
+      int[] counts = new int[k];
       for (int i = 0; i < minIndices.length; i++) {
         V.setQuick(i, minIndices[i], 1);
+        counts[minIndices[i]]++;
       }
 
-      // Update centroids
+      // Update centroids: sum the assigned document vectors (U <- A * V), which
+      // touches only the non-zero cells of a sparse A.
+      A.zMult(V, U, 1, 0, false, false);
       for (int c = 0; c < V.columns(); c++) {
-        // Sum
-        int count = 0;
-        for (int d = 0; d < V.rows(); d++) {
-          if (V.getQuick(d, c) != 0) {
-            count++;
-            U.viewColumn(c).assign(A.viewColumn(d), Functions.PLUS);
-          }
-        }
+        int count = counts[c];
 
         // Divide
         if (count > 0) {
@@ -78,6 +77,14 @@ public class KMeansMatrixFactorization extends IterativeMatrixFactorizationBase
         }
       }
       MatrixUtils.normalizeColumnL2(U, null);
+
+      // Unchanged assignments are a fixed point, further iterations would not change U and V.
+      boolean converged = stopThreshold >= 0 && Arrays.equals(previousIndices, minIndices);
+      if (converged || isTimeBudgetExceeded()) {
+        iterationsCompleted++;
+        break;
+      }
+      previousIndices = minIndices.clone();
     }
   }
 
@@ -20,8 +20,7 @@ public class KMeansMatrixFactorizationFactory extends IterativeMatrixFactorizati
   public MatrixFactorization factorize(DoubleMatrix2D A) {
     KMeansMatrixFactorization factorization = new KMeansMatrixFactorization(A);
     factorization.setK(k);
-    factorization.setMaxIterations(maxIterations);
-    factorization.setStopThreshold(stopThreshold);
+    configureIterations(factorization);
 
     factorization.compute();
 
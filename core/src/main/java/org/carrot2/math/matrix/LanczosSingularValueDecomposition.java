@@ -0,0 +1,268 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.carrot2.math.mahout.DenseMatrix;
+import org.carrot2.math.mahout.Matrix;
+import org.carrot2.math.mahout.SingularValueDecomposition;
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+
+/**
+ * Computes the leading singular triplets of a matrix using Golub-Kahan-Lanczos bidiagonalization
+ * with full reorthogonalization. The input matrix is only accessed through matrix-vector products,
+ * so sparse matrices are never densified. The Krylov subspace is extended until the top <code>k
+ * </code> Ritz triplets converge or the subspace spans the whole range of the matrix.
+ *
+ * @since 4.5.1
+ */
+public class LanczosSingularValueDecomposition extends MatrixFactorizationBase
+    implements MatrixFactorization {
+  /** The desired number of base vectors */
+  protected int k;
+
+  /** The default number of desired base vectors */
+  protected static final int DEFAULT_K = -1;
+
+  /** Relative residual below which a singular triplet is considered converged */
+  protected double tolerance;
+
+  /** The default convergence tolerance */
+  protected static final double DEFAULT_TOLERANCE = 1e-10;
+
+  /** Seed of the random starting vector */
+  protected long seed;
+
+  /** Singular values */
+  private double[] S;
+
+  /** The number of bidiagonalization steps performed */
+  private int steps;
+
+  /**
+   * Computes a partial SVD of a matrix. Before accessing results, perform computations by calling
+   * the {@link #compute()} method.
+   *
+   * @param A matrix to be factorized
+   */
+  public LanczosSingularValueDecomposition(DoubleMatrix2D A) {
+    super(A);
+
+    this.k = DEFAULT_K;
+    this.tolerance = DEFAULT_TOLERANCE;
+  }
+
+  public void compute() {
+    final int m = A.rows();
+    final int n = A.columns();
+    final int rank = Math.min(m, n);
+    final int targetRank = (k > 0 ? Math.min(k, rank) : rank);
+
+    final Random random = new Random(seed);
+    final double[][] left = new double[rank][];
+    final double[][] right = new double[rank + 1][];
+    final double[] alpha = new double[rank];
+    final double[] beta = new double[rank];
+
+    final DoubleMatrix1D x = new DenseDoubleMatrix1D(n);
+    final DoubleMatrix1D y = new DenseDoubleMatrix1D(m);
+
+    right[0] = randomUnitVector(random, n, right, 0);
+
+    int limit = Math.min(rank, Math.max(2 * targetRank, targetRank + 10));
+    SingularValueDecomposition svd;
+    int j = 0;
+    while (true) {
+      for (; j < limit; j++) {
+        // u_j = A v_j - beta_{j-1} u_{j-1}
+        x.assign(right[j]);
+        A.zMult(x, y, 1, 0, false);
+        double[] u = y.toArray();
+        if (j > 0) {
+          axpy(-beta[j - 1], left[j - 1], u);
+        }
+        alpha[j] = reorthogonalize(u, left, j);
+        if (alpha[j] == 0) {
+          u = randomUnitVector(random, m, left, j);
+        }
+        left[j] = u;
+
+        // v_{j+1} = A' u_j - alpha_j v_j
+        y.assign(u);
+        A.zMult(y, x, 1, 0, true);
+        double[] v = x.toArray();
+        axpy(-alpha[j], right[j], v);
+        beta[j] = reorthogonalize(v, right, j + 1);
+        if (beta[j] == 0 && j + 1 < n) {
+          v = randomUnitVector(random, n, right, j + 1);
+        }
+        right[j + 1] = v;
+      }
+
+      // A * V_j = U_j * B_j, where B_j is upper bidiagonal.
+      final double[][] bidiagonal = new double[j][j];
+      for (int i = 0; i < j; i++) {
+        bidiagonal[i][i] = alpha[i];
+        if (i + 1 < j) {
+          bidiagonal[i][i + 1] = beta[i];
+        }
+      }
+      svd = new SingularValueDecomposition(new DenseMatrix(bidiagonal));
+
+      if (j == rank || converged(svd, beta[j - 1], targetRank)) {
+        break;
+      }
+      limit = Math.min(rank, j + Math.max(targetRank, 10));
+    }
+    steps = j;
+
+    final Matrix P = svd.getU();
+    final Matrix Q = svd.getV();
+    U = combine(left, P, m, targetRank);
+    V = combine(right, Q, n, targetRank);
+    S = Arrays.copyOf(svd.getSingularValues(), targetRank);
+  }
+
+  /**
+   * The residual of the i-th Ritz triplet is <code>beta_j * |P[j - 1, i]|</code>, where <code>P
+   * </code> are the left singular vectors of the bidiagonal matrix.
+   */
+  private boolean converged(SingularValueDecomposition svd, double lastBeta, int targetRank) {
+    final double[] singularValues = svd.getSingularValues();
+    final Matrix P = svd.getU();
+    final int last = P.rowSize() - 1;
+    final double threshold = tolerance * Math.max(singularValues[0], Double.MIN_NORMAL);
+    for (int i = 0; i < targetRank; i++) {
+      if (Math.abs(lastBeta * P.getQuick(last, i)) > threshold) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the <code>rows x columns</code> matrix <code>[basis] * coefficients</code>. */
+  private static DenseDoubleMatrix2D combine(
+      double[][] basis, Matrix coefficients, int rows, int columns) {
+    final DenseDoubleMatrix2D result = new DenseDoubleMatrix2D(rows, columns);
+    final double[] column = new double[rows];
+    for (int c = 0; c < columns; c++) {
+      Arrays.fill(column, 0);
+      for (int i = 0; i < coefficients.rowSize(); i++) {
+        axpy(coefficients.getQuick(i, c), basis[i], column);
+      }
+      for (int r = 0; r < rows; r++) {
+        result.setQuick(r, c, column[r]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Orthogonalizes <code>v</code> against the first <code>count</code> vectors of <code>basis
+   * </code> (twice, for numerical stability), normalizes it and returns its norm before
+   * normalization. Returns zero if <code>v</code> lies (numerically) in the span of the basis.
+   */
+  private static double reorthogonalize(double[] v, double[][] basis, int count) {
+    final double initialNorm = norm(v);
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < count; i++) {
+        axpy(-dot(basis[i], v), basis[i], v);
+      }
+    }
+
+    final double norm = norm(v);
+    if (norm <= initialNorm * 1e-12) {
+      return 0;
+    }
+    for (int i = 0; i < v.length; i++) {
+      v[i] /= norm;
+    }
+    return norm;
+  }
+
+  /** Returns a random unit vector orthogonal to the first <code>count</code> basis vectors. */
+  private static double[] randomUnitVector(Random random, int size, double[][] basis, int count) {
+    while (true) {
+      final double[] v = new double[size];
+      for (int i = 0; i < size; i++) {
+        v[i] = random.nextGaussian();
+      }
+      if (reorthogonalize(v, basis, count) > 0) {
+        return v;
+      }
+    }
+  }
+
+  private static void axpy(double alpha, double[] x, double[] y) {
+    for (int i = 0; i < y.length; i++) {
+      y[i] += alpha * x[i];
+    }
+  }
+
+  private static double dot(double[] x, double[] y) {
+    double sum = 0;
+    for (int i = 0; i < x.length; i++) {
+      sum += x[i] * y[i];
+    }
+    return sum;
+  }
+
+  private static double norm(double[] v) {
+    return Math.sqrt(dot(v, v));
+  }
+
+  public String toString() {
+    return "Lanczos SVD";
+  }
+
+  /** Returns singular values of the matrix. */
+  public double[] getSingularValues() {
+    return S;
+  }
+
+  /** Returns the number of bidiagonalization steps (matrix-vector product pairs) performed. */
+  public int getSteps() {
+    return steps;
+  }
+
+  /**
+   * Sets the number of base vectors <i>k </i>.
+   *
+   * @param k the number of base vectors
+   */
+  public void setK(int k) {
+    this.k = k;
+  }
+
+  /** Returns the number of base vectors <i>k </i>. */
+  public int getK() {
+    return k;
+  }
+
+  /** Sets the relative residual below which singular triplets are considered converged. */
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  /** Returns the relative residual below which singular triplets are considered converged. */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /** Sets the seed of the random starting vector. */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+}
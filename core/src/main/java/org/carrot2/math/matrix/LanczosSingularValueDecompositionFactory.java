@@ -0,0 +1,85 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import org.carrot2.attrs.AttrComposite;
+import org.carrot2.attrs.AttrDouble;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * Performs matrix factorization using a truncated Singular Value Decomposition computed with
+ * Golub-Kahan-Lanczos bidiagonalization. The input matrix is only used in matrix-vector products,
+ * so large sparse term-document matrices can be factorized without converting them to dense form.
+ *
+ * @since 4.5.1
+ */
+public class LanczosSingularValueDecompositionFactory extends AttrComposite
+    implements MatrixFactorizationFactory {
+  /**
+   * Relative residual below which a singular triplet is considered converged. Smaller values
+   * require more matrix-vector products.
+   */
+  public final AttrDouble tolerance =
+      attributes.register(
+          "tolerance",
+          AttrDouble.builder()
+              .min(0)
+              .max(1)
+              .label("Convergence tolerance")
+              .defaultValue(LanczosSingularValueDecomposition.DEFAULT_TOLERANCE));
+
+  /** The desired number of base vectors */
+  protected int k;
+
+  /** The default desired number of base vectors */
+  protected static final int DEFAULT_K = -1;
+
+  /** Seed of the random starting vector */
+  protected long seed;
+
+  /**
+   * Creates the factory that creates factorizations that compute the maximum number of base
+   * vectors, unless {@link #setK(int)} is called.
+   */
+  public LanczosSingularValueDecompositionFactory() {
+    this.k = DEFAULT_K;
+  }
+
+  public MatrixFactorization factorize(DoubleMatrix2D A) {
+    LanczosSingularValueDecomposition factorization = new LanczosSingularValueDecomposition(A);
+
+    factorization.setK(k);
+    factorization.setTolerance(tolerance.get());
+    factorization.setSeed(seed);
+    factorization.compute();
+
+    return factorization;
+  }
+
+  /**
+   * Sets the number of base vectors <i>k </i>.
+   *
+   * @param k the number of base vectors
+   */
+  public void setK(int k) {
+    this.k = k;
+  }
+
+  /** Returns the number of base vectors <i>k </i>. */
+  public int getK() {
+    return k;
+  }
+
+  /** Sets the seed of the random starting vector. */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+}
@@ -54,13 +54,18 @@ public class LocalNonnegativeMatrixFactorization extends IterativeMatrixFactoriz
 
     double eps = 1e-9;
 
+    final int m = A.rows();
+    final int n = A.columns();
+
+    startTimeBudget();
+
     // Seed U and V with initial values
     U = new DenseDoubleMatrix2D(A.rows(), k);
     V = new DenseDoubleMatrix2D(A.columns(), k);
     seedingStrategy.seed(A, U, V);
 
-    // Temporary matrices
-    DoubleMatrix2D Aeps = A.copy();
+    // Temporary matrices (A + eps is dense even if A is sparse)
+    DoubleMatrix2D Aeps = new DenseDoubleMatrix2D(A.rows(), A.columns()).assign(A);
     Aeps.assign(Functions.plus(eps));
     DoubleMatrix2D UV = new DenseDoubleMatrix2D(A.rows(), A.columns());
     DoubleMatrix2D VT = new DenseDoubleMatrix2D(A.columns(), k);
@@ -77,19 +82,33 @@ public class LocalNonnegativeMatrixFactorization extends IterativeMatrixFactoriz
     }
 
     for (int i = 0; i < maxIterations; i++) {
-      // Update V
-      U.zMult(V, UV, 1, 0, false, true); // UV <- U*V'
-      UV.assign(plusEps); // UV <- UV + eps
-      UV.assign(Aeps, invDiv); // UV <- Aeps ./ UV
-      UV.zMult(U, VT, 1, 0, true, false); // VT <- UV' * U
-      V.assign(VT, sqrtMult); // V <- sqrt(V .* VT)
-
-      // Update U
-      U.zMult(V, UV, 1, 0, false, true); // UV <- U*V'
-      UV.assign(plusEps); // UV <- UV + eps
-      UV.assign(Aeps, invDiv); // UV <- Aeps ./ UV
-      UV.zMult(V, UT, 1, 0, false, false); // UT <- UV * V
-      U.assign(UT, Functions.MULT); // U <- U .* UT
+      // Update V, on row blocks of V and column blocks of UV
+      forEachRowBlock(
+          n,
+          (from, to) -> {
+            final DoubleMatrix2D v = V.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D vt = VT.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D uv = UV.viewPart(0, from, m, to - from);
+            U.zMult(v, uv, 1, 0, false, true); // UV <- U*V'
+            uv.assign(plusEps); // UV <- UV + eps
+            uv.assign(Aeps.viewPart(0, from, m, to - from), invDiv); // UV <- Aeps ./ UV
+            uv.zMult(U, vt, 1, 0, true, false); // VT <- UV' * U
+            v.assign(vt, sqrtMult); // V <- sqrt(V .* VT)
+          });
+
+      // Update U, on row blocks of U and UV
+      forEachRowBlock(
+          m,
+          (from, to) -> {
+            final DoubleMatrix2D u = U.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D ut = UT.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D uv = UV.viewPart(from, 0, to - from, n);
+            u.zMult(V, uv, 1, 0, false, true); // UV <- U*V'
+            uv.assign(plusEps); // UV <- UV + eps
+            uv.assign(Aeps.viewPart(from, 0, to - from, n), invDiv); // UV <- Aeps ./ UV
+            uv.zMult(V, ut, 1, 0, false, false); // UT <- UV * V
+            u.assign(ut, Functions.MULT); // U <- U .* UT
+          });
 
       MatrixUtils.normalizeColumnL1(U, work);
 
@@ -99,6 +118,9 @@ public class LocalNonnegativeMatrixFactorization extends IterativeMatrixFactoriz
           break;
         }
       }
+      if (isTimeBudgetExceeded()) {
+        break;
+      }
     }
 
     if (ordered) {
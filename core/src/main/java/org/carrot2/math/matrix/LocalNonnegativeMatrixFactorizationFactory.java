@@ -21,10 +21,11 @@ public class LocalNonnegativeMatrixFactorizationFactory
   public MatrixFactorization factorize(DoubleMatrix2D A) {
     LocalNonnegativeMatrixFactorization factorization = new LocalNonnegativeMatrixFactorization(A);
     factorization.setK(k);
-    factorization.setMaxIterations(maxIterations);
-    factorization.setStopThreshold(stopThreshold);
+    configureIterations(factorization);
     factorization.setSeedingStrategy(createSeedingStrategy());
     factorization.setOrdered(ordered);
+    factorization.setThreads(threads.get());
+    factorization.setExecutor(executor);
     factorization.compute();
     return factorization;
   }
@@ -12,11 +12,14 @@ package org.carrot2.math.matrix;
 
 import com.carrotsearch.hppc.sorting.IndirectSort;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 import java.util.function.IntBinaryOperator;
 import org.carrot2.math.mahout.function.DoubleFunction;
 import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.function.IntIntDoubleFunction;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.CompressedSparseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
 
 /** A set of <code>DoubleMatrix2D</code> shorthands and utility methods. */
 public class MatrixUtils {
@@ -34,10 +37,29 @@ public class MatrixUtils {
   public static DoubleMatrix2D normalizeColumnL2(DoubleMatrix2D A, double[] work) {
     work = prepareWork(A, work);
 
-    // Calculate the L2 norm for each column
-    for (int r = 0; r < A.rows(); r++) {
+    if (A instanceof CompressedSparseDoubleMatrix2D) {
+      // Only visit the stored cells
+      final double[] w = work;
+      A.forEachNonZero(
+          (row, column, value) -> {
+            w[column] += value * value;
+            return value;
+          });
       for (int c = 0; c < A.columns(); c++) {
-        work[c] += A.getQuick(r, c) * A.getQuick(r, c);
+        w[c] = Math.sqrt(w[c]);
+      }
+      A.forEachNonZero((row, column, value) -> value / w[column]);
+      return A;
+    }
+
+    // Calculate the L2 norm for each column
+    if (A instanceof DenseDoubleMatrix2D) {
+      ((DenseDoubleMatrix2D) A).addColumnSums(work, true);
+    } else {
+      for (int r = 0; r < A.rows(); r++) {
+        for (int c = 0; c < A.columns(); c++) {
+          work[c] += A.getQuick(r, c) * A.getQuick(r, c);
+        }
       }
     }
 
@@ -108,9 +130,13 @@ public class MatrixUtils {
     work = prepareWork(A, work);
 
     // Calculate the L1 norm for each column
-    for (int r = 0; r < A.rows(); r++) {
-      for (int c = 0; c < A.columns(); c++) {
-        work[c] += A.getQuick(r, c);
+    if (A instanceof DenseDoubleMatrix2D) {
+      ((DenseDoubleMatrix2D) A).addColumnSums(work, false);
+    } else {
+      for (int r = 0; r < A.rows(); r++) {
+        for (int c = 0; c < A.columns(); c++) {
+          work[c] += A.getQuick(r, c);
+        }
       }
     }
 
@@ -135,6 +161,10 @@ public class MatrixUtils {
 
   /** A common routine for normalizing columns of a matrix. */
   private static void normalizeColumns(DoubleMatrix2D A, double[] work) {
+    if (A instanceof DenseDoubleMatrix2D) {
+      ((DenseDoubleMatrix2D) A).divideColumns(work);
+      return;
+    }
     for (int r = A.rows() - 1; r >= 0; r--) {
       for (int c = 0; c < A.columns(); c++) {
         if (work[c] != 0) {
@@ -345,6 +375,36 @@ public class MatrixUtils {
     return Math.sqrt(matrix.aggregate(Functions.PLUS, Functions.SQUARE));
   }
 
+  /**
+   * Computes <code>C = op(A) * op(B)</code>. Large products of a dense or compressed sparse <code>A
+   * </code> are computed on up to <code>threads</code> threads, see {@link
+   * DenseDoubleMatrix2D#zMult(DoubleMatrix2D, DoubleMatrix2D, double, double, boolean, boolean,
+   * ExecutorService, int)} and {@link CompressedSparseDoubleMatrix2D#zMult(DoubleMatrix2D,
+   * DoubleMatrix2D, double, double, boolean, boolean, ExecutorService, int)}; the result does not
+   * depend on the number of threads. Other matrices are multiplied on the calling thread.
+   *
+   * @param executor The executor to run helper tasks on, or <code>null</code> to use the shared
+   *     {@link java.util.concurrent.ForkJoinPool#commonPool()}. The executor is not shut down.
+   * @since 4.5.1
+   */
+  public static DoubleMatrix2D multiply(
+      DoubleMatrix2D A,
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      boolean transposeA,
+      boolean transposeB,
+      ExecutorService executor,
+      int threads) {
+    if (A instanceof DenseDoubleMatrix2D) {
+      return ((DenseDoubleMatrix2D) A).zMult(B, C, 1, 0, transposeA, transposeB, executor, threads);
+    }
+    if (A instanceof CompressedSparseDoubleMatrix2D) {
+      return ((CompressedSparseDoubleMatrix2D) A)
+          .zMult(B, C, 1, 0, transposeA, transposeB, executor, threads);
+    }
+    return A.zMult(B, C, 1, 0, transposeA, transposeB);
+  }
+
   /**
    * Returns view of the provided matrix with rows permuted according to the order defined by the
    * provided comparator.
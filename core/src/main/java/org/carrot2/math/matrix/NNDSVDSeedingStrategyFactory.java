@@ -0,0 +1,53 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+/**
+ * Creates {@link NNDSVDSeedingStrategy} seeding strategies.
+ *
+ * @since 4.5.1
+ */
+public class NNDSVDSeedingStrategyFactory implements SeedingStrategyFactory {
+  /** If <code>true</code>, zeros are replaced with the average of the input matrix (NNDSVDa) */
+  private boolean fillZeros;
+
+  /** Creates the factory of the basic NNDSVD seeding. */
+  public NNDSVDSeedingStrategyFactory() {
+    this(false);
+  }
+
+  /**
+   * Creates the factory.
+   *
+   * @param fillZeros if <code>true</code>, creates the NNDSVDa variant of the seeding.
+   */
+  public NNDSVDSeedingStrategyFactory(boolean fillZeros) {
+    this.fillZeros = fillZeros;
+  }
+
+  public SeedingStrategy createSeedingStrategy() {
+    return new NNDSVDSeedingStrategy(fillZeros);
+  }
+
+  /** Returns <code>true</code> if zeros are replaced with the average of the input matrix. */
+  public boolean getFillZeros() {
+    return fillZeros;
+  }
+
+  /** Set to <code>true</code> to replace zeros with the average of the input matrix (NNDSVDa). */
+  public void setFillZeros(boolean fillZeros) {
+    this.fillZeros = fillZeros;
+  }
+
+  public String toString() {
+    return fillZeros ? "NNDSVDa" : "NNDSVD";
+  }
+}
@@ -50,6 +50,11 @@ public class NonnegativeMatrixFactorizationED extends IterativeMatrixFactorizati
 
     double eps = 1e-9;
 
+    final int m = A.rows();
+    final int n = A.columns();
+
+    startTimeBudget();
+
     // Seed U and V with initial values
     U = new DenseDoubleMatrix2D(A.rows(), k);
     V = new DenseDoubleMatrix2D(A.columns(), k);
@@ -63,35 +68,72 @@ public class NonnegativeMatrixFactorizationED extends IterativeMatrixFactorizati
     DoubleMatrix2D VT2 = new DenseDoubleMatrix2D(A.columns(), k);
     DoubleFunction plusEps = Functions.plus(eps);
 
+    // A copy of AV is kept to compute the approximation error without another product with A.
+    DoubleMatrix2D AV = stopThreshold >= 0 ? new DenseDoubleMatrix2D(A.rows(), k) : null;
+
     if (stopThreshold >= 0) {
       updateApproximationError();
     }
 
+    // Updates run on row blocks of V and U. Products with a sparse A are computed as a whole
+    // (split into blocks by multiply()), blocks of a dense A are multiplied separately.
+    final boolean denseA = A instanceof DenseDoubleMatrix2D;
     for (int i = 0; i < maxIterations; i++) {
       // Update V
-      U.zMult(U, T, 1, 0, true, false); // T <- U'U
-      A.zMult(U, VT1, 1, 0, true, false); // VT1 <- A'U
-      V.zMult(T, VT2, 1, 0, false, false); // VT2 <- VT
-      VT1.assign(plusEps);
-      VT2.assign(plusEps);
-      VT1.assign(VT2, Functions.DIV); // VT1 <- VT1 ./ VT2
-      V.assign(VT1, Functions.MULT); // V <- V .* VT1
+      multiply(U, U, T, true, false); // T <- U'U
+      if (!denseA) {
+        multiply(A, U, VT1, true, false); // VT1 <- A'U
+      }
+      forEachRowBlock(
+          n,
+          (from, to) -> {
+            final DoubleMatrix2D v = V.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D vt1 = VT1.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D vt2 = VT2.viewPart(from, 0, to - from, k);
+            if (denseA) {
+              A.viewPart(0, from, m, to - from).zMult(U, vt1, 1, 0, true, false); // VT1 <- A'U
+            }
+            v.zMult(T, vt2, 1, 0, false, false); // VT2 <- VT
+            vt1.assign(plusEps);
+            vt2.assign(plusEps);
+            vt1.assign(vt2, Functions.DIV); // VT1 <- VT1 ./ VT2
+            v.assign(vt1, Functions.MULT); // V <- V .* VT1
+          });
 
       // Update U
-      V.zMult(V, T, 1, 0, true, false); // T <- V'V
-      A.zMult(V, UT1, 1, 0, false, false); // UT1 <- AV
-      U.zMult(T, UT2, 1, 0, false, false); // UT2 <- UT
-      UT1.assign(plusEps);
-      UT2.assign(plusEps);
-      UT1.assign(UT2, Functions.DIV); // UT1 <- UT1 ./ UT2
-      U.assign(UT1, Functions.MULT); // U <- U .* UT1
+      multiply(V, V, T, true, false); // T <- V'V
+      if (!denseA) {
+        multiply(A, V, UT1, false, false); // UT1 <- AV
+      }
+      forEachRowBlock(
+          m,
+          (from, to) -> {
+            final DoubleMatrix2D u = U.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D ut1 = UT1.viewPart(from, 0, to - from, k);
+            final DoubleMatrix2D ut2 = UT2.viewPart(from, 0, to - from, k);
+            if (denseA) {
+              A.viewPart(from, 0, to - from, n).zMult(V, ut1, 1, 0, false, false); // UT1 <- AV
+            }
+            if (AV != null) {
+              AV.viewPart(from, 0, to - from, k).assign(ut1);
+            }
+            u.zMult(T, ut2, 1, 0, false, false); // UT2 <- UT
+            ut1.assign(plusEps);
+            ut2.assign(plusEps);
+            ut1.assign(ut2, Functions.DIV); // UT1 <- UT1 ./ UT2
+            u.assign(ut1, Functions.MULT); // U <- U .* UT1
+          });
 
       iterationsCompleted++;
       if (stopThreshold >= 0) {
-        if (updateApproximationError()) {
+        // T still holds V'V for the current V.
+        if (updateApproximationError(innerProduct(AV, U), T)) {
           break;
         }
       }
+      if (isTimeBudgetExceeded()) {
+        break;
+      }
     }
 
     if (ordered) {
@@ -20,10 +20,11 @@ public class NonnegativeMatrixFactorizationEDFactory extends IterativeMatrixFact
   public MatrixFactorization factorize(DoubleMatrix2D A) {
     NonnegativeMatrixFactorizationED factorization = new NonnegativeMatrixFactorizationED(A);
     factorization.setK(k);
-    factorization.setMaxIterations(maxIterations);
-    factorization.setStopThreshold(stopThreshold);
+    configureIterations(factorization);
     factorization.setSeedingStrategy(createSeedingStrategy());
     factorization.setOrdered(ordered);
+    factorization.setThreads(threads.get());
+    factorization.setExecutor(executor);
 
     factorization.compute();
 
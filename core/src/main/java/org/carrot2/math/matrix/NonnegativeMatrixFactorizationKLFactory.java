@@ -20,10 +20,11 @@ public class NonnegativeMatrixFactorizationKLFactory extends IterativeMatrixFact
   public MatrixFactorization factorize(DoubleMatrix2D A) {
     NonnegativeMatrixFactorizationKL factorization = new NonnegativeMatrixFactorizationKL(A);
     factorization.setK(k);
-    factorization.setMaxIterations(maxIterations);
-    factorization.setStopThreshold(stopThreshold);
+    configureIterations(factorization);
     factorization.setSeedingStrategy(createSeedingStrategy());
     factorization.setOrdered(ordered);
+    factorization.setThreads(threads.get());
+    factorization.setExecutor(executor);
 
     factorization.compute();
 
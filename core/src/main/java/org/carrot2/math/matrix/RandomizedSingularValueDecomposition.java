@@ -0,0 +1,228 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.carrot2.math.mahout.DenseMatrix;
+import org.carrot2.math.mahout.Matrix;
+import org.carrot2.math.mahout.SingularValueDecomposition;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+
+/**
+ * Computes a truncated Singular Value Decomposition using a randomized range finder (Halko,
+ * Martinsson, Tropp, <i>Finding structure with randomness</i>, 2011). Only a dense SVD of a small
+ * <code>n x (k + oversampling)</code> matrix is computed, so the cost is dominated by a few
+ * products of <code>A</code> with thin matrices.
+ *
+ * @since 4.5.1
+ */
+public class RandomizedSingularValueDecomposition extends MatrixFactorizationBase
+    implements MatrixFactorization {
+  /** The desired number of base vectors */
+  protected int k;
+
+  /** The default number of desired base vectors */
+  protected static final int DEFAULT_K = -1;
+
+  /** The number of additional random samples taken above <code>k</code> */
+  protected int oversampling;
+
+  /** The default oversampling */
+  protected static final int DEFAULT_OVERSAMPLING = 10;
+
+  /** The number of power (subspace) iterations */
+  protected int powerIterations;
+
+  /** The default number of power iterations */
+  protected static final int DEFAULT_POWER_ITERATIONS = 2;
+
+  /** Seed of the random test matrix */
+  protected long seed;
+
+  /** Singular values */
+  private double[] S;
+
+  /**
+   * Computes a randomized partial SVD of a matrix. Before accessing results, perform computations
+   * by calling the {@link #compute()} method.
+   *
+   * @param A matrix to be factorized
+   */
+  public RandomizedSingularValueDecomposition(DoubleMatrix2D A) {
+    super(A);
+
+    this.k = DEFAULT_K;
+    this.oversampling = DEFAULT_OVERSAMPLING;
+    this.powerIterations = DEFAULT_POWER_ITERATIONS;
+  }
+
+  public void compute() {
+    final int m = A.rows();
+    final int n = A.columns();
+    final int rank = Math.min(m, n);
+    final int targetRank = (k > 0 ? Math.min(k, rank) : rank);
+    final int l = Math.min(targetRank + Math.max(0, oversampling), rank);
+
+    // Sample the range of A with a Gaussian test matrix.
+    final Random random = new Random(seed);
+    final DoubleMatrix2D omega = new DenseDoubleMatrix2D(n, l);
+    for (int r = 0; r < n; r++) {
+      for (int c = 0; c < l; c++) {
+        omega.setQuick(r, c, random.nextGaussian());
+      }
+    }
+
+    DoubleMatrix2D Q = orthonormalize(A.zMult(omega, null, 1, 0, false, false));
+
+    // Power iterations sharpen the spectrum decay; re-orthonormalize after each product.
+    for (int i = 0; i < powerIterations; i++) {
+      final DoubleMatrix2D Z = orthonormalize(A.zMult(Q, null, 1, 0, true, false));
+      Q = orthonormalize(A.zMult(Z, null, 1, 0, false, false));
+    }
+
+    // B' = A' * Q is n x l (n >= l), the orientation the dense SVD expects.
+    final DoubleMatrix2D Bt = A.zMult(Q, null, 1, 0, true, false);
+    final SingularValueDecomposition svd =
+        new SingularValueDecomposition(new DenseMatrix(Bt.toArray()));
+
+    // B = Q' * A = W * S * P', hence A ~ (Q * W) * S * P'.
+    final DoubleMatrix2D P = toColtMatrix(svd.getU());
+    final DoubleMatrix2D W = toColtMatrix(svd.getV());
+    U = Q.zMult(W, null, 1, 0, false, false);
+    V = P;
+    S = svd.getSingularValues();
+
+    if (targetRank < S.length) {
+      U = U.viewPart(0, 0, U.rows(), targetRank);
+      V = V.viewPart(0, 0, V.rows(), targetRank);
+      S = Arrays.copyOf(S, targetRank);
+    }
+  }
+
+  /**
+   * Returns a matrix with orthonormal columns spanning the columns of <code>Y</code>, computed with
+   * two passes of the modified Gram-Schmidt process. Columns that are (numerically) linearly
+   * dependent on the preceding ones are set to zero.
+   */
+  static DenseDoubleMatrix2D orthonormalize(DoubleMatrix2D Y) {
+    final int rows = Y.rows();
+    final int columns = Y.columns();
+
+    final double[][] q = new double[columns][rows];
+    for (int c = 0; c < columns; c++) {
+      for (int r = 0; r < rows; r++) {
+        q[c][r] = Y.getQuick(r, c);
+      }
+    }
+
+    for (int c = 0; c < columns; c++) {
+      final double[] v = q[c];
+      final double initialNorm = norm(v);
+      for (int pass = 0; pass < 2; pass++) {
+        for (int p = 0; p < c; p++) {
+          final double[] u = q[p];
+          double dot = 0;
+          for (int r = 0; r < rows; r++) {
+            dot += u[r] * v[r];
+          }
+          for (int r = 0; r < rows; r++) {
+            v[r] -= dot * u[r];
+          }
+        }
+      }
+
+      final double norm = norm(v);
+      if (norm <= initialNorm * 1e-12) {
+        Arrays.fill(v, 0);
+      } else {
+        for (int r = 0; r < rows; r++) {
+          v[r] /= norm;
+        }
+      }
+    }
+
+    final DenseDoubleMatrix2D result = new DenseDoubleMatrix2D(rows, columns);
+    for (int c = 0; c < columns; c++) {
+      for (int r = 0; r < rows; r++) {
+        result.setQuick(r, c, q[c][r]);
+      }
+    }
+    return result;
+  }
+
+  private static double norm(double[] v) {
+    double sum = 0;
+    for (double d : v) {
+      sum += d * d;
+    }
+    return Math.sqrt(sum);
+  }
+
+  private static DenseDoubleMatrix2D toColtMatrix(Matrix m) {
+    DenseDoubleMatrix2D result = new DenseDoubleMatrix2D(m.rowSize(), m.columnSize());
+    for (int r = 0; r < result.rows(); r++) {
+      for (int c = 0; c < result.columns(); c++) {
+        result.setQuick(r, c, m.getQuick(r, c));
+      }
+    }
+    return result;
+  }
+
+  public String toString() {
+    return "Randomized SVD";
+  }
+
+  /** Returns singular values of the matrix. */
+  public double[] getSingularValues() {
+    return S;
+  }
+
+  /**
+   * Sets the number of base vectors <i>k </i>.
+   *
+   * @param k the number of base vectors
+   */
+  public void setK(int k) {
+    this.k = k;
+  }
+
+  /** Returns the number of base vectors <i>k </i>. */
+  public int getK() {
+    return k;
+  }
+
+  /** Sets the number of random samples taken in addition to <i>k </i>. */
+  public void setOversampling(int oversampling) {
+    this.oversampling = oversampling;
+  }
+
+  /** Returns the number of random samples taken in addition to <i>k </i>. */
+  public int getOversampling() {
+    return oversampling;
+  }
+
+  /** Sets the number of power iterations. */
+  public void setPowerIterations(int powerIterations) {
+    this.powerIterations = powerIterations;
+  }
+
+  /** Returns the number of power iterations. */
+  public int getPowerIterations() {
+    return powerIterations;
+  }
+
+  /** Sets the seed of the random test matrix. */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import org.carrot2.attrs.AttrComposite;
+import org.carrot2.attrs.AttrInteger;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+
+/**
+ * Performs matrix factorization using a randomized truncated Singular Value Decomposition. Much
+ * faster than {@link PartialSingularValueDecompositionFactory} for large matrices when only a few
+ * base vectors are needed.
+ *
+ * @since 4.5.1
+ */
+public class RandomizedSingularValueDecompositionFactory extends AttrComposite
+    implements MatrixFactorizationFactory {
+  /**
+   * The number of random samples taken in addition to the number of requested base vectors. Larger
+   * values increase accuracy at the cost of larger intermediate matrices.
+   */
+  public final AttrInteger oversampling =
+      attributes.register(
+          "oversampling",
+          AttrInteger.builder()
+              .min(0)
+              .max(100)
+              .label("Oversampling")
+              .defaultValue(RandomizedSingularValueDecomposition.DEFAULT_OVERSAMPLING));
+
+  /**
+   * The number of power iterations. Each iteration costs two products with the input matrix and
+   * improves accuracy for matrices with slowly decaying singular values.
+   */
+  public final AttrInteger powerIterations =
+      attributes.register(
+          "powerIterations",
+          AttrInteger.builder()
+              .min(0)
+              .max(20)
+              .label("Power iterations")
+              .defaultValue(RandomizedSingularValueDecomposition.DEFAULT_POWER_ITERATIONS));
+
+  /** The desired number of base vectors */
+  protected int k;
+
+  /** The default desired number of base vectors */
+  protected static final int DEFAULT_K = -1;
+
+  /** Seed of the random test matrix */
+  protected long seed;
+
+  /**
+   * Creates the factory that creates factorizations that compute the maximum number of base
+   * vectors, unless {@link #setK(int)} is called.
+   */
+  public RandomizedSingularValueDecompositionFactory() {
+    this.k = DEFAULT_K;
+  }
+
+  public MatrixFactorization factorize(DoubleMatrix2D A) {
+    RandomizedSingularValueDecomposition factorization =
+        new RandomizedSingularValueDecomposition(A);
+
+    factorization.setK(k);
+    factorization.setOversampling(oversampling.get());
+    factorization.setPowerIterations(powerIterations.get());
+    factorization.setSeed(seed);
+    factorization.compute();
+
+    return factorization;
+  }
+
+  /**
+   * Sets the number of base vectors <i>k </i>.
+   *
+   * @param k the number of base vectors
+   */
+  public void setK(int k) {
+    this.k = k;
+  }
+
+  /** Returns the number of base vectors <i>k </i>. */
+  public int getK() {
+    return k;
+  }
+
+  /** Sets the seed of the random test matrix. */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import java.util.function.Supplier;
+
+/**
+ * Initial values of iterative matrix factorizations.
+ *
+ * @since 4.5.1
+ */
+public enum SeedingMethod {
+  /** Random values with a fixed seed */
+  RANDOM(() -> new RandomSeedingStrategyFactory(0)),
+
+  /** Values derived from a short k-means clustering */
+  KMEANS(KMeansSeedingStrategyFactory::new),
+
+  /** Non-negative parts of the leading singular vectors */
+  NNDSVD(() -> new NNDSVDSeedingStrategyFactory(false)),
+
+  /** Non-negative parts of the leading singular vectors, zeros replaced with the average */
+  NNDSVDA(() -> new NNDSVDSeedingStrategyFactory(true));
+
+  private final Supplier<SeedingStrategyFactory> supplier;
+
+  SeedingMethod(Supplier<SeedingStrategyFactory> supplier) {
+    this.supplier = supplier;
+  }
+
+  /** Creates a new {@link SeedingStrategyFactory} for this method. */
+  public SeedingStrategyFactory createFactory() {
+    return supplier.get();
+  }
+}
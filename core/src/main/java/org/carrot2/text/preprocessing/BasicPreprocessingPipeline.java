@@ -13,6 +13,8 @@ package org.carrot2.text.preprocessing;
 import java.util.stream.Stream;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrInteger;
+import org.carrot2.clustering.ClusteringInstrumentation;
+import org.carrot2.clustering.ClusteringInstrumentation.Stage;
 import org.carrot2.clustering.Document;
 import org.carrot2.language.LanguageComponents;
 
@@ -41,6 +43,13 @@ public class BasicPreprocessingPipeline extends AttrComposite implements Context
               .label("Word document frequency threshold")
               .defaultValue(1));
 
+  /**
+   * The number of threads used to tokenize input documents. If larger than one, documents are split
+   * into chunks and tokenized in parallel. The result is the same regardless of this setting.
+   */
+  public final AttrInteger tokenizerThreads =
+      attributes.register("tokenizerThreads", InputTokenizer.threadsAttribute());
+
   /** Case normalizer used by the algorithm. */
   protected final CaseNormalizer caseNormalizer = new CaseNormalizer();
 
@@ -60,10 +69,28 @@ public class BasicPreprocessingPipeline extends AttrComposite implements Context
   public PreprocessingContext preprocess(
       Stream<? extends Document> documents, String query, LanguageComponents langModel) {
     try (PreprocessingContext context = new PreprocessingContext(langModel)) {
-      tokenizer.tokenize(context, documents);
-      caseNormalizer.normalize(context, wordDfThreshold.get());
-      stemming.stem(context, query);
-      stopListMarker.mark(context);
+      try (Stage stage = ClusteringInstrumentation.stage("tokenize")) {
+        tokenizer.tokenize(context, documents, tokenizerThreads.get());
+        stage
+            .size("documents", context.documentCount)
+            .size("tokens", context.allTokens.image.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("normalizeCase")) {
+        caseNormalizer.normalize(context, wordDfThreshold.get());
+        stage
+            .size("tokens", context.allTokens.image.size())
+            .size("words", context.allWords.image.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("stem")) {
+        stemming.stem(context, query);
+        stage
+            .size("words", context.allWords.image.size())
+            .size("stems", context.allStems.image.length);
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("markStopWords")) {
+        stopListMarker.mark(context);
+        stage.size("words", context.allWords.image.size());
+      }
       return context;
     }
   }
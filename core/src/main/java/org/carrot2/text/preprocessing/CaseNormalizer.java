@@ -19,6 +19,7 @@ import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllTokens;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllWords;
 import org.carrot2.util.CharArrayComparators;
+import org.carrot2.util.PackedCharArrays;
 
 /**
  * Performs case normalization and calculates a number of frequency statistics for words. The aim of
@@ -39,25 +40,75 @@ import org.carrot2.util.CharArrayComparators;
  * <p>This class requires that {@link InputTokenizer} be invoked first.
  */
 final class CaseNormalizer {
+  /** Determines how token images are grouped into words. Both modes produce identical results. */
+  enum Grouping {
+    /**
+     * Sorts all token images using {@link CharArrayComparators#NORMALIZING_CHAR_ARRAY_COMPARATOR}.
+     */
+    SORT,
+
+    /**
+     * Groups token images in a single pass over a hash table keyed on the lower-cased image. Only
+     * distinct images are sorted, which is much faster when there are many repeated tokens.
+     */
+    HASH;
+  }
+
+  private final Grouping grouping;
+
+  CaseNormalizer() {
+    this(Grouping.HASH);
+  }
+
+  CaseNormalizer(Grouping grouping) {
+    this.grouping = grouping;
+  }
+
   /** Performs normalization and saves the results to the <code>context</code>. */
   public void normalize(PreprocessingContext context, int dfThreshold) {
     // Local references to already existing arrays
-    final char[][] tokenImages = context.allTokens.image;
+    final PackedCharArrays tokenImages = context.allTokens.image;
     final short[] tokenTypesArray = context.allTokens.type;
     final int[] documentIndexesArray = context.allTokens.documentIndex;
     final byte[] tokensFieldIndex = context.allTokens.fieldIndex;
-    final int tokenCount = tokenImages.length;
+    final int tokenCount = tokenImages.size();
 
-    // Sort token images
-    final int[] tokenImagesOrder =
-        IndirectSort.mergesort(
-            tokenImages,
-            0,
-            tokenImages.length,
-            CharArrayComparators.NORMALIZING_CHAR_ARRAY_COMPARATOR);
+    // Sort token images. In hash mode, we also know the (exact and case-insensitive)
+    // group of each token so we don't have to compare images when scanning the order.
+    final int[] tokenImagesOrder;
+    final int[] tokenVariants;
+    final int[] tokenGroups;
+    if (grouping == Grouping.HASH) {
+      final TokenImageGroups groups = new TokenImageGroups(tokenImages, context.allTokens.imageId);
+      tokenImagesOrder = groups.order;
+      tokenVariants = groups.variantOfToken;
+      tokenGroups = groups.groupOfToken;
+    } else {
+      final char[] buffer = tokenImages.buffer();
+      tokenImagesOrder =
+          IndirectSort.mergesort(
+              0,
+              tokenCount,
+              (a, b) -> {
+                if (tokenImages.isNull(a)) {
+                  return tokenImages.isNull(b) ? 0 : 1;
+                } else if (tokenImages.isNull(b)) {
+                  return -1;
+                }
+                return CharArrayComparators.compareNormalizing(
+                    buffer,
+                    tokenImages.offset(a),
+                    tokenImages.length(a),
+                    buffer,
+                    tokenImages.offset(b),
+                    tokenImages.length(b));
+              });
+      tokenVariants = null;
+      tokenGroups = null;
+    }
 
     // Create holders for new arrays
-    final List<char[]> normalizedWordImages = new ArrayList<>();
+    final IntArrayList normalizedWordTokens = new IntArrayList();
     final IntArrayList normalizedWordTf = new IntArrayList();
     final List<int[]> wordTfByDocumentList = new ArrayList<>();
     final ByteArrayList fieldIndexList = new ByteArrayList();
@@ -85,13 +136,13 @@ final class CaseNormalizer {
 
     // Go through the ordered token images
     for (int i = 0; i < tokenImagesOrder.length - 1; i++) {
-      final char[] image = tokenImages[tokenImagesOrder[i]];
-      final char[] nextImage = tokenImages[tokenImagesOrder[i + 1]];
-      final int tokenType = tokenTypesArray[tokenImagesOrder[i]];
+      final int token = tokenImagesOrder[i];
+      final int nextToken = tokenImagesOrder[i + 1];
+      final int tokenType = tokenTypesArray[token];
       final int documentIndex = documentIndexesArray[tokenImagesOrder[i + 1]];
 
       // Reached the end of non-null tokens?
-      if (image == null) {
+      if (tokenImages.isNull(token)) {
         break;
       }
 
@@ -105,11 +156,15 @@ final class CaseNormalizer {
         continue;
       }
 
-      fieldIndices.set(tokensFieldIndex[tokenImagesOrder[i]]);
+      fieldIndices.set(tokensFieldIndex[token]);
 
       // Now check if image case is changing
-      final boolean sameCase =
-          CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(image, nextImage) == 0;
+      final boolean sameCase;
+      if (tokenVariants != null) {
+        sameCase = tokenVariants[token] == tokenVariants[nextToken];
+      } else {
+        sameCase = tokenImages.equals(token, nextToken);
+      }
       if (sameCase) {
         // Case has not changed, just increase counters
         tf++;
@@ -122,13 +177,16 @@ final class CaseNormalizer {
       // variant
       if (maxTf < tf) {
         maxTf = tf;
-        maxTfVariantIndex = tokenImagesOrder[i];
+        maxTfVariantIndex = token;
         tf = 1;
       }
 
-      final boolean sameImage =
-          CharArrayComparators.CASE_INSENSITIVE_CHAR_ARRAY_COMPARATOR.compare(image, nextImage)
-              == 0;
+      final boolean sameImage;
+      if (tokenGroups != null) {
+        sameImage = tokenGroups[token] == tokenGroups[nextToken];
+      } else {
+        sameImage = equalsIgnoreCase(tokenImages, token, nextToken);
+      }
 
       // Check if token image has changed
       if (sameImage) {
@@ -150,7 +208,7 @@ final class CaseNormalizer {
             wordTfByDocumentList.add(sparseEncoding);
 
             // Add the word to the word list
-            normalizedWordImages.add(tokenImages[maxTfVariantIndex]);
+            normalizedWordTokens.add(maxTfVariantIndex);
             types.add(tokenTypesArray[maxTfVariantIndex]);
             normalizedWordTf.add(totalTf);
             fieldIndexList.add((byte) fieldIndices.bits[0]);
@@ -158,7 +216,7 @@ final class CaseNormalizer {
             // Add this word's index in AllWords to all its instances
             // in the AllTokens multiarray
             for (int j = variantStartIndex; j < i + 1; j++) {
-              wordIndexes[tokenImagesOrder[j]] = normalizedWordImages.size() - 1;
+              wordIndexes[tokenImagesOrder[j]] = normalizedWordTokens.size() - 1;
             }
           }
         }
@@ -179,7 +237,7 @@ final class CaseNormalizer {
     // Mapping from allTokens
     context.allTokens.wordIndex = wordIndexes;
 
-    context.allWords.image = normalizedWordImages.toArray(new char[normalizedWordImages.size()][]);
+    context.allWords.image = tokenImages.select(normalizedWordTokens.toArray());
     context.allWords.tf = normalizedWordTf.toArray();
     context.allWords.tfByDocument =
         wordTfByDocumentList.toArray(new int[wordTfByDocumentList.size()][]);
@@ -201,6 +259,189 @@ final class CaseNormalizer {
     }
   }
 
+  /**
+   * Groups token images by their lower-cased image (case-insensitive groups) and, within each
+   * group, by their exact image (case variants). Grouping is done in a single pass over an
+   * open-addressing hash table, then distinct case variants are sorted with {@link
+   * CharArrayComparators#NORMALIZING_CHAR_ARRAY_COMPARATOR} and expanded into a token order
+   * identical to the one obtained by (stable) sorting of all token images.
+   *
+   * <p>If interned image identifiers are available, each distinct image is hashed and looked up
+   * only once.
+   */
+  private static final class TokenImageGroups {
+    /** Token indices, ordered by their image. */
+    final int[] order;
+
+    /** Case variant of each token, -1 for tokens with no image. */
+    final int[] variantOfToken;
+
+    /** Case-insensitive group of each token, -1 for tokens with no image. */
+    final int[] groupOfToken;
+
+    TokenImageGroups(PackedCharArrays images, int[] imageIds) {
+      final int tokenCount = images.size();
+      variantOfToken = new int[tokenCount];
+      groupOfToken = new int[tokenCount];
+
+      // Case variant of each interned image identifier, -1 if not seen yet.
+      if (imageIds != null && imageIds.length != tokenCount) {
+        imageIds = null;
+      }
+      final int[] variantOfImageId;
+      if (imageIds != null) {
+        int maxImageId = -1;
+        for (int imageId : imageIds) {
+          maxImageId = Math.max(maxImageId, imageId);
+        }
+        variantOfImageId = new int[maxImageId + 1];
+        Arrays.fill(variantOfImageId, -1);
+      } else {
+        variantOfImageId = null;
+      }
+
+      // Slots hold (group index + 1), zero marks an empty slot. At most 50% load.
+      final int[] slots = new int[Integer.highestOneBit(Math.max(1, 2 * tokenCount - 1)) << 1];
+      final int mask = slots.length - 1;
+
+      final IntArrayList groupHash = new IntArrayList();
+      final IntArrayList groupToken = new IntArrayList();
+      final IntArrayList groupFirstVariant = new IntArrayList();
+
+      final IntArrayList variantToken = new IntArrayList();
+      final IntArrayList variantNext = new IntArrayList();
+      final IntArrayList variantGroup = new IntArrayList();
+      final IntArrayList variantTokenCount = new IntArrayList();
+
+      int nullCount = 0;
+      for (int i = 0; i < tokenCount; i++) {
+        if (images.isNull(i)) {
+          variantOfToken[i] = groupOfToken[i] = -1;
+          nullCount++;
+          continue;
+        }
+
+        final int imageId = imageIds != null ? imageIds[i] : -1;
+        if (imageId >= 0 && variantOfImageId[imageId] >= 0) {
+          final int variant = variantOfImageId[imageId];
+          variantTokenCount.buffer[variant]++;
+          variantOfToken[i] = variant;
+          groupOfToken[i] = variantGroup.get(variant);
+          continue;
+        }
+
+        // Locate or add the case-insensitive group.
+        final int hash = lowerCaseHash(images, i);
+        int slot = BitMixer.mix32(hash) & mask;
+        int group;
+        while ((group = slots[slot] - 1) >= 0) {
+          if (groupHash.get(group) == hash && equalsIgnoreCase(images, groupToken.get(group), i)) {
+            break;
+          }
+          slot = (slot + 1) & mask;
+        }
+        if (group < 0) {
+          group = groupToken.size();
+          slots[slot] = group + 1;
+          groupHash.add(hash);
+          groupToken.add(i);
+          groupFirstVariant.add(-1);
+        }
+
+        // Locate or add the exact case variant within the group. Images are packed
+        // once, so comparing offsets is usually enough.
+        int variant = groupFirstVariant.get(group);
+        while (variant >= 0) {
+          if (images.equals(variantToken.get(variant), i)) {
+            break;
+          }
+          variant = variantNext.get(variant);
+        }
+        if (variant < 0) {
+          variant = variantToken.size();
+          variantToken.add(i);
+          variantNext.add(groupFirstVariant.get(group));
+          variantGroup.add(group);
+          variantTokenCount.add(0);
+          groupFirstVariant.set(group, variant);
+        }
+
+        variantTokenCount.buffer[variant]++;
+        variantOfToken[i] = variant;
+        groupOfToken[i] = group;
+        if (imageId >= 0) {
+          variantOfImageId[imageId] = variant;
+        }
+      }
+
+      // Sort distinct variants and compute the first position of each variant in the order.
+      final int[] variants = variantToken.toArray();
+      final char[] buffer = images.buffer();
+      final int[] variantOrder =
+          IndirectSort.mergesort(
+              0,
+              variants.length,
+              (a, b) ->
+                  CharArrayComparators.compareNormalizing(
+                      buffer,
+                      images.offset(variants[a]),
+                      images.length(variants[a]),
+                      buffer,
+                      images.offset(variants[b]),
+                      images.length(variants[b])));
+      final int[] variantPosition = new int[variants.length];
+      int position = 0;
+      for (int variant : variantOrder) {
+        variantPosition[variant] = position;
+        position += variantTokenCount.get(variant);
+      }
+      assert position + nullCount == tokenCount;
+
+      // Tokens of the same variant (and null tokens, at the end) are kept in their original order.
+      order = new int[tokenCount];
+      for (int i = 0; i < tokenCount; i++) {
+        final int variant = variantOfToken[i];
+        if (variant < 0) {
+          order[position++] = i;
+        } else {
+          order[variantPosition[variant]++] = i;
+        }
+      }
+    }
+
+    /** A hash of the image's lower-cased code points. */
+    private static int lowerCaseHash(PackedCharArrays images, int index) {
+      final char[] buffer = images.buffer();
+      final int start = images.offset(index);
+      final int end = start + images.length(index);
+      int hash = end - start;
+      for (int i = start; i < end; ) {
+        final int codePoint = Character.codePointAt(buffer, i, end);
+        hash = 31 * hash + Character.toLowerCase(codePoint);
+        i += Character.charCount(codePoint);
+      }
+      return hash;
+    }
+  }
+
+  /**
+   * Case-insensitive equality of two images, consistent with {@link
+   * CharArrayComparators#NORMALIZING_CHAR_ARRAY_COMPARATOR}.
+   */
+  private static boolean equalsIgnoreCase(PackedCharArrays images, int a, int b) {
+    if (images.isNull(a) || images.isNull(b)) {
+      return images.isNull(a) && images.isNull(b);
+    }
+    final int length = images.length(a);
+    if (length != images.length(b)) {
+      return false;
+    }
+    final char[] buffer = images.buffer();
+    return CharArrayComparators.compareCaseInsensitive(
+            buffer, images.offset(a), length, buffer, images.offset(b), length)
+        == 0;
+  }
+
   /** Determines whether we should include the token in AllWords. */
   private boolean isNotIndexed(final int tokenType) {
     return tokenType == Tokenizer.TT_PUNCTUATION
@@ -14,6 +14,8 @@ import java.util.stream.Stream;
 import org.carrot2.attrs.AttrComposite;
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.attrs.AttrObject;
+import org.carrot2.clustering.ClusteringInstrumentation;
+import org.carrot2.clustering.ClusteringInstrumentation.Stage;
 import org.carrot2.clustering.Document;
 import org.carrot2.language.LanguageComponents;
 
@@ -45,6 +47,13 @@ public class CompletePreprocessingPipeline extends AttrComposite implements Cont
               .label("Word document frequency threshold")
               .defaultValue(1));
 
+  /**
+   * The number of threads used to tokenize input documents. If larger than one, documents are split
+   * into chunks and tokenized in parallel. The result is the same regardless of this setting.
+   */
+  public final AttrInteger tokenizerThreads =
+      attributes.register("tokenizerThreads", InputTokenizer.threadsAttribute());
+
   /**
    * Phrase Document Frequency cut-off threshold. Phrases appearing in fewer than <code>
    * phraseDfThreshold</code> documents will be ignored.
@@ -97,13 +106,45 @@ public class CompletePreprocessingPipeline extends AttrComposite implements Cont
   public PreprocessingContext preprocess(
       Stream<? extends Document> documents, String query, LanguageComponents langModel) {
     try (PreprocessingContext context = new PreprocessingContext(langModel)) {
-      tokenizer.tokenize(context, documents);
-      caseNormalizer.normalize(context, wordDfThreshold.get());
-      stemming.stem(context, query);
-      stopListMarker.mark(context);
-      new PhraseExtractor(phraseDfThreshold.get()).extractPhrases(context);
-      labelFilters.process(context);
-      documentAssigner.assign(context);
+      try (Stage stage = ClusteringInstrumentation.stage("tokenize")) {
+        tokenizer.tokenize(context, documents, tokenizerThreads.get());
+        stage
+            .size("documents", context.documentCount)
+            .size("tokens", context.allTokens.image.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("normalizeCase")) {
+        caseNormalizer.normalize(context, wordDfThreshold.get());
+        stage
+            .size("tokens", context.allTokens.image.size())
+            .size("words", context.allWords.image.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("stem")) {
+        stemming.stem(context, query);
+        stage
+            .size("words", context.allWords.image.size())
+            .size("stems", context.allStems.image.length);
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("markStopWords")) {
+        stopListMarker.mark(context);
+        stage.size("words", context.allWords.image.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("extractPhrases")) {
+        new PhraseExtractor(phraseDfThreshold.get()).extractPhrases(context);
+        stage
+            .size("tokens", context.allTokens.image.size())
+            .size("phrases", context.allPhrases.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("filterLabels")) {
+        labelFilters.process(context);
+        stage
+            .size("words", context.allWords.image.size())
+            .size("phrases", context.allPhrases.size())
+            .size("labels", context.allLabels.size());
+      }
+      try (Stage stage = ClusteringInstrumentation.stage("assignLabelDocuments")) {
+        documentAssigner.assign(context);
+        stage.size("documents", context.documentCount).size("labels", context.allLabels.size());
+      }
       return context;
     }
   }
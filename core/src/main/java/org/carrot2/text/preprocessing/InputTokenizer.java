@@ -15,15 +15,20 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.ShortArrayList;
 import com.carrotsearch.hppc.cursors.IntCursor;
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
+import org.carrot2.attrs.AttrInteger;
 import org.carrot2.clustering.Document;
 import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllFields;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllTokens;
 import org.carrot2.util.CharArrayUtils;
+import org.carrot2.util.ExecutorServiceUtils;
 import org.carrot2.util.MutableCharArray;
 import org.carrot2.util.StringUtils;
 
@@ -34,138 +39,259 @@ import org.carrot2.util.StringUtils;
  *
  * <ul>
  *   <li>{@link AllTokens#image}
+ *   <li>{@link AllTokens#imageId}
  *   <li>{@link AllTokens#documentIndex}
  *   <li>{@link AllTokens#fieldIndex}
  *   <li>{@link AllTokens#type}
  * </ul>
+ *
+ * <p>Documents can be optionally tokenized in parallel (see {@link #tokenize(PreprocessingContext,
+ * Stream, int)}). The results are identical to those of sequential tokenization.
  */
 final class InputTokenizer {
-  /** Token images. */
-  private ArrayList<char[]> images;
-
-  /** An array of token types. */
-  private ShortArrayList tokenTypes;
+  /** The number of document chunks per thread in parallel mode. */
+  private static final int CHUNKS_PER_THREAD = 4;
 
-  /** An array of document indexes. */
-  private IntArrayList documentIndices;
-
-  /**
-   * An array of field indexes.
-   *
-   * @see AllFields
-   */
-  private ByteArrayList fieldIndices;
+  /** The minimum number of documents in a chunk in parallel mode. */
+  private static final int MIN_CHUNK_DOCUMENTS = 16;
 
   private static class FieldValue {
-    String field;
+    int fieldIndex;
     String value;
 
-    public FieldValue(String fieldName, String fieldValue) {
-      this.field = fieldName;
+    public FieldValue(int fieldIndex, String fieldValue) {
+      this.fieldIndex = fieldIndex;
       this.value = fieldValue;
     }
   }
 
+  /** Token arrays for all documents or a contiguous chunk of documents. */
+  private static final class Tokens {
+    /** Interned token image identifiers, -1 for tokens without an image. */
+    final IntArrayList imageIds = new IntArrayList();
+
+    /** An array of token types. */
+    final ShortArrayList tokenTypes = new ShortArrayList();
+
+    /** An array of document indexes. */
+    final IntArrayList documentIndices = new IntArrayList();
+
+    /**
+     * An array of field indexes.
+     *
+     * @see AllFields
+     */
+    final ByteArrayList fieldIndices = new ByteArrayList();
+
+    /** Adds a special terminating token required at the very end of all documents. */
+    void addTerminator() {
+      add(-1, (byte) -1, -1, Tokenizer.TF_TERMINATOR);
+    }
+
+    /** Adds a document separator to the lists. */
+    void addDocumentSeparator() {
+      add(-1, (byte) -1, -1, Tokenizer.TF_SEPARATOR_DOCUMENT);
+    }
+
+    /** Adds a field separator to the lists. */
+    void addFieldSeparator(int documentIndex) {
+      add(documentIndex, (byte) -1, -1, Tokenizer.TF_SEPARATOR_FIELD);
+    }
+
+    /** Adds custom token code to the sequence. May be used to add separator constants. */
+    void add(int documentIndex, byte fieldIndex, int imageId, short tokenTypeCode) {
+      documentIndices.add(documentIndex);
+      fieldIndices.add(fieldIndex);
+      imageIds.add(imageId);
+      tokenTypes.add(tokenTypeCode);
+    }
+
+    /** Appends another sequence of tokens, remapping their image identifiers. */
+    void addAll(Tokens other, int[] imageIdMapping) {
+      documentIndices.addAll(other.documentIndices);
+      fieldIndices.addAll(other.fieldIndices);
+      tokenTypes.addAll(other.tokenTypes);
+
+      final int[] otherImageIds = other.imageIds.buffer;
+      for (int i = 0, max = other.imageIds.size(); i < max; i++) {
+        final int imageId = otherImageIds[i];
+        imageIds.add(imageId < 0 ? imageId : imageIdMapping[imageId]);
+      }
+    }
+  }
+
+  /**
+   * @return A new attribute for the number of tokenizer threads, shared by preprocessing pipelines.
+   */
+  static AttrInteger threadsAttribute() {
+    return AttrInteger.builder().min(1).max(64).label("Tokenizer threads").defaultValue(1);
+  }
+
   /** Performs tokenization and saves the results to the <code>context</code>. */
   public void tokenize(PreprocessingContext context, Stream<? extends Document> docStream) {
-    images = new ArrayList<>();
-    tokenTypes = new ShortArrayList();
-    documentIndices = new IntArrayList();
-    fieldIndices = new ByteArrayList();
+    tokenize(context, docStream, 1);
+  }
 
-    final Tokenizer ts = context.languageComponents.get(Tokenizer.class);
-    final MutableCharArray wrapper = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+  /**
+   * Performs tokenization and saves the results to the <code>context</code>, using the shared
+   * {@link ForkJoinPool#commonPool()} if <code>threads</code> is larger than one.
+   */
+  public void tokenize(
+      PreprocessingContext context, Stream<? extends Document> docStream, int threads) {
+    tokenize(context, docStream, threads, null);
+  }
 
+  /**
+   * Performs tokenization and saves the results to the <code>context</code>.
+   *
+   * @param threads The maximum number of threads to use, including the calling thread. If larger
+   *     than one, documents are split into chunks and tokenized in parallel, each thread with its
+   *     own {@link Tokenizer}.
+   * @param executor The executor to run parallel chunks on, or <code>null</code> to use the shared
+   *     {@link ForkJoinPool#commonPool()}. The executor is not shut down.
+   */
+  public void tokenize(
+      PreprocessingContext context,
+      Stream<? extends Document> docStream,
+      int threads,
+      ExecutorService executor) {
     HashMap<String, Integer> fieldIndexes = new HashMap<>();
-    ArrayList<FieldValue> fields = new ArrayList<>();
+    final Tokens tokens;
+    final int documentCount;
+    if (threads > 1) {
+      List<FieldValue[]> documents = new ArrayList<>();
+      docStream.forEachOrdered((doc) -> documents.add(collectFields(doc, fieldIndexes)));
+      documentCount = documents.size();
+      tokens = tokenizeParallel(context, documents, threads, executor);
+    } else {
+      tokens = new Tokens();
+      final Tokenizer ts = context.languageComponents.get(Tokenizer.class);
+      final MutableCharArray wrapper = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+      IntCursor docCount = new IntCursor();
+      docStream.forEachOrdered(
+          (doc) -> {
+            tokenizeDocument(
+                ts,
+                wrapper,
+                context::internId,
+                tokens,
+                docCount.value,
+                collectFields(doc, fieldIndexes));
+            docCount.value++;
+          });
+      documentCount = docCount.value;
+    }
 
-    IntCursor docCount = new IntCursor();
-    docStream.forEachOrdered(
-        (doc) -> {
-          int documentIndex = docCount.value;
-          if (documentIndex > 0) {
-            addDocumentSeparator();
-          }
+    tokens.addTerminator();
+
+    String[] fieldNames = new String[fieldIndexes.size()];
+    fieldIndexes.forEach((field, index) -> fieldNames[index] = field);
 
-          fields.clear();
-          doc.visitFields(
-              (fieldName, fieldValue) -> {
-                if (!StringUtils.isNullOrEmpty(fieldValue)) {
-                  fields.add(new FieldValue(fieldName, fieldValue));
-                }
-              });
+    // Save results in the PreprocessingContext
+    context.documentCount = documentCount;
+    context.allTokens.documentIndex = tokens.documentIndices.toArray();
+    context.allTokens.fieldIndex = tokens.fieldIndices.toArray();
+    context.allTokens.imageId = tokens.imageIds.toArray();
+    context.allTokens.image = context.packInterned(context.allTokens.imageId);
+    context.allTokens.type = tokens.tokenTypes.toArray();
+    context.allFields.name = fieldNames;
+  }
 
-          boolean hadTokens = false;
-          for (FieldValue fv : fields) {
+  /** Collects non-empty fields of a document, assigning field indexes in order of appearance. */
+  private static FieldValue[] collectFields(Document doc, HashMap<String, Integer> fieldIndexes) {
+    ArrayList<FieldValue> fields = new ArrayList<>();
+    doc.visitFields(
+        (fieldName, fieldValue) -> {
+          if (!StringUtils.isNullOrEmpty(fieldValue)) {
             final int fieldIndex =
-                fieldIndexes.computeIfAbsent(fv.field, (k) -> fieldIndexes.size());
+                fieldIndexes.computeIfAbsent(fieldName, (k) -> fieldIndexes.size());
             if (fieldIndex > Byte.MAX_VALUE) {
               throw new RuntimeException("Too many fields (>" + fieldIndex + ")");
             }
-            final String fieldValue = fv.value;
-
-            if (!StringUtils.isNullOrEmpty(fieldValue)) {
-              try {
-                short tokenType;
-
-                ts.reset(new StringReader(fieldValue));
-                if ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF) {
-                  if (hadTokens) addFieldSeparator(documentIndex);
-                  do {
-                    ts.setTermBuffer(wrapper);
-                    add(documentIndex, (byte) fieldIndex, context.intern(wrapper), tokenType);
-                  } while ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF);
-                  hadTokens = true;
-                }
-              } catch (IOException e) {
-                throw new RuntimeException(e);
-              }
-            }
+            fields.add(new FieldValue(fieldIndex, fieldValue));
           }
-
-          docCount.value++;
         });
+    return fields.toArray(new FieldValue[fields.size()]);
+  }
 
-    addTerminator();
-
-    String[] fieldNames = new String[fieldIndexes.size()];
-    fieldIndexes.forEach((field, index) -> fieldNames[index] = field);
-
-    // Save results in the PreprocessingContext
-    context.documentCount = docCount.value;
-    context.allTokens.documentIndex = documentIndices.toArray();
-    context.allTokens.fieldIndex = fieldIndices.toArray();
-    context.allTokens.image = images.toArray(new char[images.size()][]);
-    context.allTokens.type = tokenTypes.toArray();
-    context.allFields.name = fieldNames;
+  /** Tokenizes a single document, appending its tokens to <code>tokens</code>. */
+  private static void tokenizeDocument(
+      Tokenizer ts,
+      MutableCharArray wrapper,
+      ToIntFunction<MutableCharArray> interner,
+      Tokens tokens,
+      int documentIndex,
+      FieldValue[] fields) {
+    if (documentIndex > 0) {
+      tokens.addDocumentSeparator();
+    }
 
-    // Clean up
-    images = null;
-    fieldIndices = null;
-    tokenTypes = null;
-    documentIndices = null;
-  }
+    boolean hadTokens = false;
+    for (FieldValue fv : fields) {
+      try {
+        short tokenType;
 
-  /** Adds a special terminating token required at the very end of all documents. */
-  void addTerminator() {
-    add(-1, (byte) -1, null, Tokenizer.TF_TERMINATOR);
+        ts.reset(fv.value);
+        if ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF) {
+          if (hadTokens) tokens.addFieldSeparator(documentIndex);
+          do {
+            ts.setTermBuffer(wrapper);
+            tokens.add(
+                documentIndex, (byte) fv.fieldIndex, interner.applyAsInt(wrapper), tokenType);
+          } while ((tokenType = ts.nextToken()) != Tokenizer.TT_EOF);
+          hadTokens = true;
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
   }
 
-  /** Adds a document separator to the lists. */
-  void addDocumentSeparator() {
-    add(-1, (byte) -1, null, Tokenizer.TF_SEPARATOR_DOCUMENT);
-  }
+  /**
+   * Tokenizes contiguous chunks of documents in parallel, each chunk with its own interner. Chunk
+   * results are then concatenated in document order and chunk-local image identifiers are mapped to
+   * the context's identifiers in order of their first appearance, so the result is identical to
+   * sequential tokenization.
+   */
+  private static Tokens tokenizeParallel(
+      PreprocessingContext context,
+      List<FieldValue[]> documents,
+      int threads,
+      ExecutorService executor) {
+    final int documentCount = documents.size();
+    final int chunkCount =
+        Math.max(1, Math.min(threads * CHUNKS_PER_THREAD, documentCount / MIN_CHUNK_DOCUMENTS));
+    final int chunkSize = (documentCount + chunkCount - 1) / chunkCount;
 
-  /** Adds a field separator to the lists. */
-  void addFieldSeparator(int documentIndex) {
-    add(documentIndex, (byte) -1, null, Tokenizer.TF_SEPARATOR_FIELD);
-  }
+    final Tokens[] chunks = new Tokens[chunkCount];
+    final TokenInterner[] interners = new TokenInterner[chunkCount];
+    ExecutorServiceUtils.forEachIndex(
+        executor,
+        threads,
+        chunkCount,
+        (chunkIndex) -> {
+          final Tokens chunk = new Tokens();
+          final TokenInterner interner = new TokenInterner();
+          final Tokenizer ts = context.languageComponents.get(Tokenizer.class);
+          final MutableCharArray wrapper = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+          final int to = Math.min(documentCount, (chunkIndex + 1) * chunkSize);
+          for (int i = chunkIndex * chunkSize; i < to; i++) {
+            tokenizeDocument(ts, wrapper, interner::intern, chunk, i, documents.get(i));
+          }
+          chunks[chunkIndex] = chunk;
+          interners[chunkIndex] = interner;
+        });
 
-  /** Adds custom token code to the sequence. May be used to add separator constants. */
-  void add(int documentIndex, byte fieldIndex, char[] image, short tokenTypeCode) {
-    documentIndices.add(documentIndex);
-    fieldIndices.add(fieldIndex);
-    images.add(image);
-    tokenTypes.add(tokenTypeCode);
+    final Tokens tokens = new Tokens();
+    final MutableCharArray image = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+    for (int i = 0; i < chunkCount; i++) {
+      final TokenInterner interner = interners[i];
+      final int[] imageIdMapping = new int[interner.size()];
+      for (int id = 0; id < imageIdMapping.length; id++) {
+        imageIdMapping[id] = context.internId(interner.view(id, image));
+      }
+      tokens.addAll(chunks[i], imageIdMapping);
+    }
+    return tokens;
   }
 }
@@ -137,7 +137,7 @@ public class LabelFilterProcessor extends AttrComposite {
 
   /** Processes all filters declared as fields of this class. */
   public void process(PreprocessingContext context) {
-    final int wordCount = context.allWords.image.length;
+    final int wordCount = context.allWords.image.size();
     final boolean[] acceptedStems = new boolean[context.allStems.image.length];
     final boolean[] acceptedPhrases = new boolean[context.allPhrases.tf.length];
     Arrays.fill(acceptedStems, true);
@@ -179,7 +179,7 @@ public class LabelFilterProcessor extends AttrComposite {
   }
 
   static void updateFirstPhraseIndex(PreprocessingContext context) {
-    final int wordCount = context.allWords.image.length;
+    final int wordCount = context.allWords.image.size();
     final int[] labelsFeatureIndex = context.allLabels.featureIndex;
 
     // In theory we could do a binary search here, but the effort of writing
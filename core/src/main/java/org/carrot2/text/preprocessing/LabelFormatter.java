@@ -10,6 +10,8 @@
  */
 package org.carrot2.text.preprocessing;
 
+import org.carrot2.util.PackedCharArrays;
+
 /** Formats cluster labels for final rendering. */
 public interface LabelFormatter {
   /**
@@ -17,4 +19,17 @@ public interface LabelFormatter {
    * @param stopWord determines whether the corresponding word of the label is a stop word
    */
   String format(char[][] image, boolean[] stopWord);
+
+  /**
+   * @param images packed word images.
+   * @param wordIndices indices of the words (in <code>images</code>) making the label.
+   * @param stopWord determines whether the corresponding word of the label is a stop word
+   */
+  default String format(PackedCharArrays images, int[] wordIndices, boolean[] stopWord) {
+    final char[][] image = new char[wordIndices.length][];
+    for (int i = 0; i < wordIndices.length; i++) {
+      image[i] = images.get(wordIndices[i]);
+    }
+    return format(image, stopWord);
+  }
 }
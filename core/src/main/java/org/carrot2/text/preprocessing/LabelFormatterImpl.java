@@ -11,6 +11,7 @@
 package org.carrot2.text.preprocessing;
 
 import org.carrot2.util.CharArrayUtils;
+import org.carrot2.util.PackedCharArrays;
 
 public class LabelFormatterImpl implements LabelFormatter {
   private final String delimiter;
@@ -28,6 +29,37 @@ public class LabelFormatterImpl implements LabelFormatter {
     return label.toString();
   }
 
+  @Override
+  public String format(PackedCharArrays images, int[] wordIndices, boolean[] stopWord) {
+    final StringBuilder label = new StringBuilder();
+    final char[] buffer = images.buffer();
+    for (int i = 0; i < wordIndices.length; i++) {
+      if (i > 0) label.append(delimiter);
+
+      final int offset = images.offset(wordIndices[i]);
+      final int length = images.length(wordIndices[i]);
+      final boolean capitalized = hasCapitalizedLetters(buffer, offset, length);
+      final int start = label.length();
+      label.append(buffer, offset, length);
+      if (!capitalized) {
+        for (int j = start; j < label.length(); j++) {
+          label.setCharAt(j, Character.toLowerCase(label.charAt(j)));
+        }
+        if (length > 0 && (start == 0 || !stopWord[i])) {
+          label.setCharAt(start, Character.toUpperCase(label.charAt(start)));
+        }
+      }
+    }
+    return label.toString();
+  }
+
+  private static boolean hasCapitalizedLetters(char[] buffer, int offset, int length) {
+    for (int i = offset + length; --i >= offset; ) {
+      if (Character.isUpperCase(buffer[i])) return true;
+    }
+    return false;
+  }
+
   private static void append(final StringBuilder label, final char[] image, boolean stopword) {
     if (CharArrayUtils.hasCapitalizedLetters(image)) {
       label.append(image);
@@ -21,9 +21,9 @@ import org.carrot2.language.Stemmer;
 import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllStems;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllWords;
-import org.carrot2.util.CharArrayComparators;
 import org.carrot2.util.CharArrayUtils;
 import org.carrot2.util.MutableCharArray;
+import org.carrot2.util.PackedCharArrays;
 
 /**
  * Applies stemming to words and calculates a number of frequency statistics for stems.
@@ -46,43 +46,45 @@ final class LanguageModelStemmer {
   public void stem(PreprocessingContext context, String queryHint) {
     final Stemmer stemmer = context.languageComponents.get(Stemmer.class);
 
-    final char[][] wordImages = context.allWords.image;
-    final char[][] stemImages = new char[wordImages.length][];
+    final PackedCharArrays wordImages = context.allWords.image;
+    final char[] wordBuffer = wordImages.buffer();
+    final int[] stemIds = new int[wordImages.size()];
 
     final MutableCharArray mutableCharArray = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
+    final MutableCharArray stemmed = new MutableCharArray(CharArrayUtils.EMPTY_ARRAY);
     char[] buffer = new char[128];
 
-    for (int i = 0; i < wordImages.length; i++) {
-      final char[] word = wordImages[i];
-      if (buffer.length < word.length) buffer = new char[word.length];
+    for (int i = 0; i < wordImages.size(); i++) {
+      final int wordLength = wordImages.length(i);
+      if (buffer.length < wordLength) buffer = new char[wordLength];
 
-      final boolean different = CharArrayUtils.toLowerCase(word, buffer);
+      CharArrayUtils.toLowerCase(wordBuffer, buffer, wordImages.offset(i), wordLength);
 
-      mutableCharArray.reset(buffer, 0, word.length);
-      final CharSequence stemmed = stemmer.stem(mutableCharArray);
-      if (stemmed != null) {
-        mutableCharArray.reset(stemmed);
-        stemImages[i] = context.intern(mutableCharArray);
+      mutableCharArray.reset(buffer, 0, wordLength);
+      if (stemmer.stem(mutableCharArray, stemmed) >= 0) {
+        stemIds[i] = context.internId(stemmed);
       } else {
-        // We need to put the original word here, otherwise, we wouldn't be able
-        // to compute frequencies for stems.
-        if (different) stemImages[i] = context.intern(mutableCharArray);
-        else stemImages[i] = word;
+        // We need to put the original (lower-cased) word here, otherwise, we wouldn't
+        // be able to compute frequencies for stems.
+        stemIds[i] = context.internId(mutableCharArray);
       }
     }
 
-    addStemStatistics(context, stemImages, prepareQueryWords(queryHint, stemmer));
+    addStemStatistics(context, stemIds, prepareQueryWords(queryHint, stemmer));
   }
 
-  /** Adds frequency statistics to the stems. */
+  /**
+   * Adds frequency statistics to the stems. Stems are identified by their interned identifiers, a
+   * <code>char[]</code> image is only created for each distinct stem stored in {@link
+   * AllStems#image}.
+   */
   private void addStemStatistics(
-      PreprocessingContext context, char[][] wordStemImages, Set<MutableCharArray> queryStems) {
+      PreprocessingContext context, int[] wordStemIds, Set<MutableCharArray> queryStems) {
     final int[] stemImagesOrder =
         IndirectSort.mergesort(
-            wordStemImages,
             0,
-            wordStemImages.length,
-            CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR);
+            wordStemIds.length,
+            (a, b) -> context.compareInterned(wordStemIds[a], wordStemIds[b]));
 
     // Local array references
     final int[] wordTfArray = context.allWords.tf;
@@ -102,12 +104,12 @@ final class LanguageModelStemmer {
       context.allStems.tfByDocument = new int[0][];
       context.allStems.fieldIndices = new byte[0];
 
-      context.allWords.stemIndex = new int[context.allWords.image.length];
+      context.allWords.stemIndex = new int[context.allWords.image.size()];
       return;
     }
 
     // Lists to accommodate the results
-    final ArrayList<char[]> stemImages = new ArrayList<>(allWordsCount);
+    final IntArrayList stemIds = new IntArrayList(allWordsCount);
     final IntArrayList stemTf = new IntArrayList(allWordsCount);
     final IntArrayList stemMostFrequentWordIndexes = new IntArrayList(allWordsCount);
     final ArrayList<int[]> stemTfByDocumentList = new ArrayList<>(allWordsCount);
@@ -127,15 +129,16 @@ final class LanguageModelStemmer {
     fieldIndices |= wordsFieldIndices[0];
 
     // For locating query words
-    final MutableCharArray buffer = new MutableCharArray(wordStemImages[stemImagesOrder[0]]);
+    final MutableCharArray buffer =
+        context.internedView(wordStemIds[stemImagesOrder[0]], new MutableCharArray(""));
     boolean inQuery = queryStems.contains(buffer);
 
     // Go through all words in the order of stem images
     for (int i = 0; i < stemImagesOrder.length - 1; i++) {
       final int orderIndex = stemImagesOrder[i];
-      final char[] stem = wordStemImages[orderIndex];
+      final int stem = wordStemIds[orderIndex];
       final int nextInOrderIndex = stemImagesOrder[i + 1];
-      final char[] nextStem = wordStemImages[nextInOrderIndex];
+      final int nextStem = wordStemIds[nextInOrderIndex];
 
       stemIndexesArray[orderIndex] = stemIndex;
       if (inQuery) {
@@ -143,10 +146,7 @@ final class LanguageModelStemmer {
       }
 
       // Now check if token image is changing
-      final boolean sameStem =
-          CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(stem, nextStem) == 0;
-
-      if (sameStem) {
+      if (stem == nextStem) {
         totalTf += wordTfArray[nextInOrderIndex];
         stemTfsByDocument.add(wordTfByDocumentArray[nextInOrderIndex]);
         fieldIndices |= wordsFieldIndices[nextInOrderIndex];
@@ -155,7 +155,7 @@ final class LanguageModelStemmer {
           mostFrequentWordIndex = nextInOrderIndex;
         }
       } else {
-        stemImages.add(stem);
+        stemIds.add(stem);
         stemTf.add(totalTf);
         stemMostFrequentWordIndexes.add(mostFrequentWordIndex);
         storeTfByDocument(stemTfByDocumentList, stemTfsByDocument);
@@ -171,13 +171,13 @@ final class LanguageModelStemmer {
         stemTfsByDocument.clear();
         stemTfsByDocument.add(wordTfByDocumentArray[nextInOrderIndex]);
 
-        buffer.reset(wordStemImages[nextInOrderIndex]);
+        context.internedView(nextStem, buffer);
         inQuery = queryStems.contains(buffer);
       }
     }
 
     // Store tf for the last stem in the array
-    stemImages.add(wordStemImages[stemImagesOrder[stemImagesOrder.length - 1]]);
+    stemIds.add(wordStemIds[stemImagesOrder[stemImagesOrder.length - 1]]);
     stemTf.add(totalTf);
     stemMostFrequentWordIndexes.add(mostFrequentWordIndex);
     stemIndexesArray[stemImagesOrder[stemImagesOrder.length - 1]] = stemIndex;
@@ -188,7 +188,11 @@ final class LanguageModelStemmer {
     }
 
     // Convert lists to arrays and store them in allStems
-    context.allStems.image = stemImages.toArray(new char[stemImages.size()][]);
+    final char[][] stemImages = new char[stemIds.size()][];
+    for (int i = 0; i < stemImages.length; i++) {
+      stemImages[i] = context.copyInterned(stemIds.get(i));
+    }
+    context.allStems.image = stemImages;
     context.allStems.mostFrequentOriginalWordIndex = stemMostFrequentWordIndexes.toArray();
     context.allStems.tf = stemTf.toArray();
     context.allStems.tfByDocument =
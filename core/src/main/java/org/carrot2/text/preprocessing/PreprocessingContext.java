@@ -19,6 +19,7 @@ import org.carrot2.language.Stemmer;
 import org.carrot2.language.TokenTypeUtils;
 import org.carrot2.language.Tokenizer;
 import org.carrot2.util.MutableCharArray;
+import org.carrot2.util.PackedCharArrays;
 import org.carrot2.util.TabularOutput;
 
 /**
@@ -41,7 +42,7 @@ public final class PreprocessingContext implements Closeable {
    * Token interning cache. Token images are interned to save memory and allow reference
    * comparisons.
    */
-  private ObjectHashSet<MutableCharArray> tokenCache = new ObjectHashSet<>();
+  private TokenInterner tokenCache = new TokenInterner();
 
   /**
    * Creates a preprocessing context for the provided <code>documents</code> and with the provided
@@ -65,9 +66,35 @@ public final class PreprocessingContext implements Closeable {
      * {@link Tokenizer#TF_TERMINATOR}, {@link Tokenizer#TF_SEPARATOR_DOCUMENT} or {@link
      * Tokenizer#TF_SEPARATOR_FIELD} , image is <code>null</code>.
      *
+     * <p>Images are packed into a single buffer, each distinct image is stored only once, with one
+     * offset and length. Elements refer to distinct images by {@link #imageId} (the array is
+     * shared, see {@link PackedCharArrays#id(int)}), so the packed form adds no per-token arrays.
+     * The type of this field changed from <code>char[][]</code> in 4.5.1: an array of references
+     * per token is exactly the overhead the packed form removes, see {@link #imageArrays()} for the
+     * old form.
+     *
      * <p>This array is produced by {@link InputTokenizer}.
      */
-    public char[][] image;
+    public PackedCharArrays image;
+
+    /**
+     * @return Token images as separate <code>char[]</code> arrays, the type of {@link #image}
+     *     before 4.5.1. Every invocation copies all images.
+     * @deprecated Use {@link #image} directly.
+     */
+    @Deprecated
+    public char[][] imageArrays() {
+      return image == null ? null : image.toArrays();
+    }
+
+    /**
+     * Interned identifier of the token's image (see {@link PreprocessingContext#internId}), equal
+     * to <code>-1</code> on positions where {@link #image} is <code>null</code>. Tokens with equal
+     * images have equal identifiers.
+     *
+     * <p>This array is produced by {@link InputTokenizer}.
+     */
+    public int[] imageId;
 
     /**
      * Token's {@link Tokenizer} bit flags.
@@ -147,16 +174,16 @@ public final class PreprocessingContext implements Closeable {
                 .addColumn("=>word", (spec) -> spec.alignLeft())
                 .build();
 
-        for (int i = 0; i < image.length; i++, t.nextRow()) {
+        for (int i = 0; i < image.size(); i++, t.nextRow()) {
           t.append(
               i,
-              image[i] == null ? "<null>" : new String(image[i]),
+              image.isNull(i) ? "<null>" : image.toString(i),
               type[i],
               fieldIndex[i],
               fieldIndex[i] >= 0 ? allFields.name[fieldIndex[i]] : null,
               documentIndex[i],
               wordIndex[i],
-              wordIndex[i] >= 0 ? new String(allWords.image[wordIndex[i]]) : null);
+              wordIndex[i] >= 0 ? allWords.image.toString(wordIndex[i]) : null);
           t.nextRow();
         }
         t.flush();
@@ -182,7 +209,7 @@ public final class PreprocessingContext implements Closeable {
                   max = Math.min(suffixOrder[i] + windowLength, wordIndex.length);
               j < max; ) {
             suffixImage
-                .append(wordIndex[j] >= 0 ? new String(allWords.image[wordIndex[j]]) : "|")
+                .append(wordIndex[j] >= 0 ? allWords.image.toString(wordIndex[j]) : "|")
                 .append(" ");
             if (++j == max && j != wordIndex.length) suffixImage.append(" [...]");
           }
@@ -260,9 +287,23 @@ public final class PreprocessingContext implements Closeable {
      * <em>MacOS</em> appeared 12 times in the input and <em>macos</em> appeared 3 times, the image
      * will be equal to <em>MacOS</em>.
      *
+     * <p>Word images share the packed buffer and distinct images of {@link AllTokens#image}, with
+     * one identifier per word. The type of this field changed from <code>char[][]</code> in 4.5.1,
+     * see {@link #imageArrays()} for the old form.
+     *
      * <p>This array is produced by {@link CaseNormalizer}.
      */
-    public char[][] image;
+    public PackedCharArrays image;
+
+    /**
+     * @return Word images as separate <code>char[]</code> arrays, the type of {@link #image} before
+     *     4.5.1. Every invocation copies all images.
+     * @deprecated Use {@link #image} directly.
+     */
+    @Deprecated
+    public char[][] imageArrays() {
+      return image == null ? null : image.toArrays();
+    }
 
     /**
      * Token type of this word copied from {@link AllTokens#type}. Additional flags are set for each
@@ -338,10 +379,10 @@ public final class PreprocessingContext implements Closeable {
 
       TabularOutput t = builder.build();
 
-      for (int i = 0; i < image.length; i++, t.nextRow()) {
+      for (int i = 0; i < image.size(); i++, t.nextRow()) {
         t.append(
             i,
-            image[i] == null ? "<null>" : new String(image[i]),
+            image.isNull(i) ? "<null>" : image.toString(i),
             type[i],
             tf[i],
             SparseArray.sparseToString(tfByDocument[i]));
@@ -440,7 +481,7 @@ public final class PreprocessingContext implements Closeable {
             i,
             image[i] == null ? "<null>" : new String(image[i]),
             mostFrequentOriginalWordIndex[i],
-            new String(allWords.image[mostFrequentOriginalWordIndex[i]]),
+            allWords.image.toString(mostFrequentOriginalWordIndex[i]),
             tf[i],
             SparseArray.sparseToString(tfByDocument[i]),
             Arrays.toString(toFieldIndexes(fieldIndices[i])).replace(" ", ""));
@@ -525,7 +566,7 @@ public final class PreprocessingContext implements Closeable {
       StringBuilder sb = new StringBuilder();
       for (int i = 0; i < wordIndices[index].length; i++) {
         if (i > 0) sb.append(" ");
-        sb.append(new String(allWords.image[wordIndices[index][i]]));
+        allWords.image.appendTo(sb, wordIndices[index][i]);
       }
       return sb;
     }
@@ -604,8 +645,8 @@ public final class PreprocessingContext implements Closeable {
     }
 
     public CharSequence getLabel(int index) {
-      final int wordsSize = allWords.image.length;
-      if (featureIndex[index] < wordsSize) return new String(allWords.image[featureIndex[index]]);
+      final int wordsSize = allWords.image.size();
+      if (featureIndex[index] < wordsSize) return allWords.image.toString(featureIndex[index]);
       else return allPhrases.getPhrase(featureIndex[index] - wordsSize);
     }
 
@@ -619,7 +660,7 @@ public final class PreprocessingContext implements Closeable {
 
   /** Returns <code>true</code> if this context contains any words. */
   public boolean hasWords() {
-    return allWords.image.length > 0;
+    return allWords.image.size() > 0;
   }
 
   /** Returns <code>true</code> if this context contains any label candidates. */
@@ -631,23 +672,20 @@ public final class PreprocessingContext implements Closeable {
    * Applies label formatter to a given word or phrase (depending on the feature index provided).
    */
   public String format(LabelFormatter formatter, int featureIndex) {
-    final char[][] wordsImage = allWords.image;
+    final PackedCharArrays wordsImage = allWords.image;
 
-    if (featureIndex < wordsImage.length) {
-      return formatter.format(new char[][] {wordsImage[featureIndex]}, new boolean[] {false});
+    if (featureIndex < wordsImage.size()) {
+      return formatter.format(wordsImage, new int[] {featureIndex}, new boolean[] {false});
     } else {
-      final int[] wordIndices = allPhrases.wordIndices[featureIndex - wordsImage.length];
+      final int[] wordIndices = allPhrases.wordIndices[featureIndex - wordsImage.size()];
       final short[] termTypes = allWords.type;
 
-      char[][] wordImages = new char[wordIndices.length][];
       boolean[] stopwordFlags = new boolean[wordIndices.length];
       for (int i = 0; i < wordIndices.length; i++) {
-        final int wordIndex = wordIndices[i];
-        wordImages[i] = wordsImage[wordIndex];
-        stopwordFlags[i] = TokenTypeUtils.isCommon(termTypes[wordIndex]);
+        stopwordFlags[i] = TokenTypeUtils.isCommon(termTypes[wordIndices[i]]);
       }
 
-      return formatter.format(wordImages, stopwordFlags);
+      return formatter.format(wordsImage, wordIndices, stopwordFlags);
     }
   }
 
@@ -701,16 +739,55 @@ public final class PreprocessingContext implements Closeable {
     this.tokenCache = null;
   }
 
-  /** Return a unique char buffer representing a given character sequence. */
+  /**
+   * Return a unique char buffer representing a given character sequence. This materializes a
+   * separate <code>char[]</code> for each distinct sequence, preprocessing stages use {@link
+   * #internId(MutableCharArray)} instead.
+   */
   public char[] intern(MutableCharArray chs) {
-    int index = tokenCache.indexOf(chs);
-    if (tokenCache.indexExists(index)) {
-      return tokenCache.indexGet(index).getBuffer();
-    } else {
-      final char[] tokenImage = new char[chs.length()];
-      System.arraycopy(chs.getBuffer(), chs.getStart(), tokenImage, 0, chs.length());
-      tokenCache.add(new MutableCharArray(tokenImage));
-      return tokenImage;
+    return tokenCache.image(tokenCache.intern(chs));
+  }
+
+  /**
+   * Return a unique identifier of a given character sequence. Identifiers are dense (starting at
+   * zero) and equal for equal character sequences.
+   */
+  public int internId(MutableCharArray chs) {
+    return tokenCache.intern(chs);
+  }
+
+  /** Resets the provided {@link MutableCharArray} to a view of an interned character sequence. */
+  MutableCharArray internedView(int id, MutableCharArray target) {
+    return tokenCache.view(id, target);
+  }
+
+  /**
+   * Compares two interned character sequences in the order of {@link
+   * org.carrot2.util.CharArrayComparators#FAST_CHAR_ARRAY_COMPARATOR}.
+   */
+  int compareInterned(int a, int b) {
+    return tokenCache.compare(a, b);
+  }
+
+  /** Copies an interned character sequence into a new array. */
+  char[] copyInterned(int id) {
+    return tokenCache.copy(id);
+  }
+
+  /**
+   * Packs the images of the provided interned identifiers (or <code>null</code> images for negative
+   * identifiers). The interned images are compacted into a single buffer with one offset and length
+   * per distinct image; the <code>ids</code> array is shared, not copied.
+   */
+  PackedCharArrays packInterned(int[] ids) {
+    final int distinct = tokenCache.size();
+    final char[] buffer = tokenCache.compact();
+    final int[] offsets = new int[distinct];
+    final int[] lengths = new int[distinct];
+    for (int id = 0; id < distinct; id++) {
+      offsets[id] = tokenCache.start(id);
+      lengths[id] = tokenCache.length(id);
     }
+    return new PackedCharArrays(buffer, offsets, lengths, ids);
   }
 }
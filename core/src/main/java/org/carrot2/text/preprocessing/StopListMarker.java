@@ -15,6 +15,7 @@ import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllWords;
 import org.carrot2.util.CharArrayUtils;
 import org.carrot2.util.MutableCharArray;
+import org.carrot2.util.PackedCharArrays;
 
 /**
  * Marks stop words based on the current language model.
@@ -30,19 +31,20 @@ import org.carrot2.util.MutableCharArray;
 final class StopListMarker {
   /** Marks stop words and saves the results to the <code>context</code>. */
   public void mark(PreprocessingContext context) {
-    final char[][] wordImages = context.allWords.image;
+    final PackedCharArrays wordImages = context.allWords.image;
+    final char[] wordBuffer = wordImages.buffer();
     final short[] types = context.allWords.type;
 
     final MutableCharArray mutableCharArray = new MutableCharArray("");
     char[] buffer = new char[128];
     final StopwordFilter lexData = context.languageComponents.get(StopwordFilter.class);
 
-    for (int i = 0; i < wordImages.length; i++) {
-      final char[] word = wordImages[i];
-      if (buffer.length < word.length) buffer = new char[word.length];
+    for (int i = 0; i < wordImages.size(); i++) {
+      final int wordLength = wordImages.length(i);
+      if (buffer.length < wordLength) buffer = new char[wordLength];
 
-      CharArrayUtils.toLowerCase(word, buffer);
-      mutableCharArray.reset(buffer, 0, word.length);
+      CharArrayUtils.toLowerCase(wordBuffer, buffer, wordImages.offset(i), wordLength);
+      mutableCharArray.reset(buffer, 0, wordLength);
       if (!lexData.test(mutableCharArray)) {
         types[i] |= Tokenizer.TF_COMMON_WORD;
       }
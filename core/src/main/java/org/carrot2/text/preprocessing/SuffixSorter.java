@@ -11,79 +11,246 @@
 package org.carrot2.text.preprocessing;
 
 import com.carrotsearch.hppc.sorting.IndirectSort;
-import java.util.function.IntBinaryOperator;
+import java.util.Arrays;
 
 /**
- * A simple suffix sorting utility based on the generic sorting routines from {@link IndirectSort}.
+ * Suffix array and longest common prefix (LCP) array construction for the token sequence. The
+ * suffix array is built in linear time with the SA-IS algorithm (Nong, Zhang, Chan: <i>Two
+ * Efficient Algorithms for Linear Time Suffix Array Construction</i>), the LCP array with Kasai's
+ * algorithm (Kasai et al.: <i>Linear-Time Longest-Common-Prefix Computation in Suffix Arrays and
+ * Its Applications</i>).
  */
 final class SuffixSorter {
-  /** An int comparator that enables suffix sorting. */
-  private static class SuffixComparator implements IntBinaryOperator {
-    private int[] suffixData;
-
-    public SuffixComparator(int[] suffixData) {
-      this.suffixData = suffixData;
-    }
-
-    public int applyAsInt(int suffixA, int suffixB) {
-      if (suffixA == suffixB) {
-        return 0;
-      }
-
-      /*
-       * Suffix data ends with a unique negative value, so we don't need to do extra
-       * range checks and we still won't run into array index out of bounds
-       * exceptions.
-       */
-      while (suffixData[suffixA] == suffixData[suffixB]) {
-        suffixA++;
-        suffixB++;
-      }
-
-      return suffixData[suffixB] - suffixData[suffixA];
-    }
-  }
+  /** Inputs shorter than this are sorted with a simple comparison sort. */
+  private static final int NAIVE_SORT_THRESHOLD = 10;
 
   /** Performs suffix sorting and saves the results to the <code>context</code>. */
   void suffixSort(PreprocessingContext context) {
     /*
      * Create a temporary array based on word indices with -1 values replaced with
-     * unique negative values. This will ensure that the phrases discovered based on
+     * unique separator values. This will ensure that the phrases discovered based on
      * the sorted/lcp array will not cross sentence/field boundaries. At some point we
      * may want to make it an option. In this case, we'll need to review Substring and
      * SubstringComparator for possible array index out of bounds.
+     *
+     * Suffixes are ordered by descending word index, followed by separators in the order of
+     * their appearance (so the terminating token comes last). We map word indices and
+     * separators to an integer alphabet in which this order is ascending: word index
+     * w becomes (maxWordIndex - w), the n-th separator becomes (maxWordIndex + n).
      */
-    final int[] intCodes = new int[context.allTokens.wordIndex.length];
-    System.arraycopy(context.allTokens.wordIndex, 0, intCodes, 0, intCodes.length);
-    int currentSeparatorCode = -1;
+    final int[] wordIndex = context.allTokens.wordIndex;
+    int maxWordIndex = -1;
+    for (int w : wordIndex) {
+      maxWordIndex = Math.max(maxWordIndex, w);
+    }
+
+    final int[] intCodes = new int[wordIndex.length];
+    int currentSeparatorCode = maxWordIndex;
     for (int i = 0; i < intCodes.length; i++) {
-      if (intCodes[i] < 0) {
-        intCodes[i] = currentSeparatorCode--;
+      if (wordIndex[i] < 0) {
+        intCodes[i] = ++currentSeparatorCode;
+      } else {
+        intCodes[i] = maxWordIndex - wordIndex[i];
       }
     }
 
     // Create suffix order
-    int[] suffixOrder = IndirectSort.mergesort(0, intCodes.length, new SuffixComparator(intCodes));
+    int[] suffixOrder = suffixArray(intCodes, Math.max(0, currentSeparatorCode));
     context.allTokens.suffixOrder = suffixOrder;
 
     // Add LCPs
     context.allTokens.lcp = calculateLcp(intCodes, suffixOrder);
   }
 
-  /** Calculates the Longest Common Prefix values for each token. */
-  private int[] calculateLcp(int[] intCodes, int[] suffixOrder) {
-    // LCP array
-    int[] lcpArray = new int[intCodes.length];
+  /**
+   * Calculates the Longest Common Prefix values for each token (Kasai's algorithm). The LCP at
+   * index <code>i</code> is the length of the common prefix of suffixes at <code>i - 1</code> and
+   * <code>i</code> in the suffix order, the first element is always zero.
+   */
+  static int[] calculateLcp(int[] intCodes, int[] suffixOrder) {
+    final int n = intCodes.length;
+    final int[] lcpArray = new int[n];
 
-    lcpArray[0] = 0;
-    for (int i = 1; i < lcpArray.length - 1; i++) {
-      int lcp = 0;
-      while (intCodes[suffixOrder[i - 1] + lcp] == intCodes[suffixOrder[i] + lcp]) {
-        lcp++;
+    final int[] rank = new int[n];
+    for (int i = 0; i < n; i++) {
+      rank[suffixOrder[i]] = i;
+    }
+
+    int h = 0;
+    for (int i = 0; i < n; i++) {
+      if (h > 0) {
+        h--;
+      }
+      if (rank[i] == 0) {
+        continue;
       }
-      lcpArray[i] = lcp;
+      final int j = suffixOrder[rank[i] - 1];
+      while (j + h < n && i + h < n && intCodes[j + h] == intCodes[i + h]) {
+        h++;
+      }
+      lcpArray[rank[i]] = h;
     }
 
     return lcpArray;
   }
+
+  /**
+   * Computes the suffix array of <code>s</code> using the SA-IS algorithm.
+   *
+   * @param s Input symbols, each in the range <code>[0, upper]</code>.
+   * @param upper The largest symbol value.
+   */
+  static int[] suffixArray(int[] s, int upper) {
+    final int n = s.length;
+    if (n == 0) {
+      return new int[0];
+    }
+    if (n == 1) {
+      return new int[] {0};
+    }
+    if (n < NAIVE_SORT_THRESHOLD) {
+      return suffixArrayNaive(s);
+    }
+
+    final int[] sa = new int[n];
+
+    // Suffix types: true for S-type, false for L-type.
+    final boolean[] ls = new boolean[n];
+    for (int i = n - 2; i >= 0; i--) {
+      ls[i] = (s[i] == s[i + 1]) ? ls[i + 1] : (s[i] < s[i + 1]);
+    }
+
+    // Bucket boundaries (start of L-type and S-type sections of each symbol's bucket).
+    final int[] sumL = new int[upper + 1];
+    final int[] sumS = new int[upper + 1];
+    for (int i = 0; i < n; i++) {
+      if (!ls[i]) {
+        sumS[s[i]]++;
+      } else {
+        // S-type symbols are always smaller than upper.
+        sumL[s[i] + 1]++;
+      }
+    }
+    for (int i = 0; i <= upper; i++) {
+      sumS[i] += sumL[i];
+      if (i < upper) {
+        sumL[i + 1] += sumS[i];
+      }
+    }
+
+    // Leftmost S-type positions.
+    final int[] lmsMap = new int[n + 1];
+    Arrays.fill(lmsMap, -1);
+    int m = 0;
+    for (int i = 1; i < n; i++) {
+      if (!ls[i - 1] && ls[i]) {
+        lmsMap[i] = m++;
+      }
+    }
+    final int[] lms = new int[m];
+    for (int i = 1, j = 0; i < n; i++) {
+      if (!ls[i - 1] && ls[i]) {
+        lms[j++] = i;
+      }
+    }
+
+    final int[] buf = new int[upper + 1];
+    induce(s, sa, ls, sumL, sumS, buf, lms, m);
+
+    if (m > 0) {
+      final int[] sortedLms = new int[m];
+      for (int i = 0, j = 0; i < n; i++) {
+        if (lmsMap[sa[i]] != -1) {
+          sortedLms[j++] = sa[i];
+        }
+      }
+
+      // Name LMS substrings and sort them recursively.
+      final int[] recS = new int[m];
+      int recUpper = 0;
+      recS[lmsMap[sortedLms[0]]] = 0;
+      for (int i = 1; i < m; i++) {
+        int l = sortedLms[i - 1];
+        int r = sortedLms[i];
+        final int endL = (lmsMap[l] + 1 < m) ? lms[lmsMap[l] + 1] : n;
+        final int endR = (lmsMap[r] + 1 < m) ? lms[lmsMap[r] + 1] : n;
+        boolean same = true;
+        if (endL - l != endR - r) {
+          same = false;
+        } else {
+          while (l < endL && s[l] == s[r]) {
+            l++;
+            r++;
+          }
+          if (l == n || s[l] != s[r]) {
+            same = false;
+          }
+        }
+        if (!same) {
+          recUpper++;
+        }
+        recS[lmsMap[sortedLms[i]]] = recUpper;
+      }
+
+      final int[] recSa = suffixArray(recS, recUpper);
+      for (int i = 0; i < m; i++) {
+        sortedLms[i] = lms[recSa[i]];
+      }
+      induce(s, sa, ls, sumL, sumS, buf, sortedLms, m);
+    }
+
+    return sa;
+  }
+
+  /** Induced sorting of L-type and S-type suffixes from the (sorted) LMS suffixes. */
+  private static void induce(
+      int[] s, int[] sa, boolean[] ls, int[] sumL, int[] sumS, int[] buf, int[] lms, int m) {
+    final int n = s.length;
+    Arrays.fill(sa, -1);
+
+    System.arraycopy(sumS, 0, buf, 0, buf.length);
+    for (int i = 0; i < m; i++) {
+      final int d = lms[i];
+      if (d != n) {
+        sa[buf[s[d]]++] = d;
+      }
+    }
+
+    System.arraycopy(sumL, 0, buf, 0, buf.length);
+    sa[buf[s[n - 1]]++] = n - 1;
+    for (int i = 0; i < n; i++) {
+      final int v = sa[i];
+      if (v >= 1 && !ls[v - 1]) {
+        sa[buf[s[v - 1]]++] = v - 1;
+      }
+    }
+
+    System.arraycopy(sumL, 0, buf, 0, buf.length);
+    for (int i = n - 1; i >= 0; i--) {
+      final int v = sa[i];
+      if (v >= 1 && ls[v - 1]) {
+        sa[--buf[s[v - 1] + 1]] = v - 1;
+      }
+    }
+  }
+
+  /** Comparison-based suffix sorting, for very short inputs. */
+  private static int[] suffixArrayNaive(int[] s) {
+    return IndirectSort.mergesort(
+        0,
+        s.length,
+        (a, b) -> {
+          if (a == b) {
+            return 0;
+          }
+          while (a < s.length && b < s.length) {
+            if (s[a] != s[b]) {
+              return Integer.compare(s[a], s[b]);
+            }
+            a++;
+            b++;
+          }
+          return a == s.length ? -1 : 1;
+        });
+  }
 }
@@ -0,0 +1,273 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import com.carrotsearch.hppc.BitMixer;
+import java.util.Arrays;
+import org.carrot2.util.MutableCharArray;
+
+/**
+ * An arena-style interner of token images. Distinct images are appended to large, shared character
+ * slabs and indexed by an open-addressing hash table of integer identifiers, so interning an image
+ * that has already been seen allocates nothing.
+ *
+ * <p>Identifiers are dense, starting at zero, in the order of first appearance.
+ */
+final class TokenInterner {
+  /** Default slab size, in characters. */
+  static final int SLAB_SIZE = 1 << 15;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final int slabSize;
+
+  /** Character slabs, the last one is the current (append) slab. */
+  private char[][] slabs = new char[0][];
+
+  private int slabCount;
+
+  /** Next free position in the current slab. */
+  private int slabPosition;
+
+  /** Per-identifier slab index, start offset within the slab, length and hash. */
+  private int[] idSlab = EMPTY;
+
+  private int[] idStart = EMPTY;
+  private int[] idLength = EMPTY;
+  private int[] idHash = EMPTY;
+
+  /**
+   * Lazily materialized (canonical) images, by identifier. Allocated only if {@link #image(int)} is
+   * used.
+   */
+  private char[][] idImage;
+
+  private int size;
+
+  /** Hash table slots, each holds (identifier + 1), zero marks an empty slot. */
+  private int[] table = new int[16];
+
+  TokenInterner() {
+    this(SLAB_SIZE);
+  }
+
+  TokenInterner(int slabSize) {
+    this.slabSize = slabSize;
+  }
+
+  /**
+   * @return The identifier of the provided sequence, adding it to the interner if necessary.
+   */
+  int intern(MutableCharArray chs) {
+    return intern(chs.getBuffer(), chs.getStart(), chs.length());
+  }
+
+  /**
+   * @return The identifier of the provided sequence, adding it to the interner if necessary.
+   */
+  int intern(char[] buffer, int start, int length) {
+    final int hash = MutableCharArray.hashCode(buffer, start, length);
+    final int mask = table.length - 1;
+    int slot = BitMixer.mix32(hash) & mask;
+    int id;
+    while ((id = table[slot] - 1) >= 0) {
+      if (idHash[id] == hash && equals(id, buffer, start, length)) {
+        return id;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    id = add(buffer, start, length, hash);
+    table[slot] = id + 1;
+    if (size * 2 > table.length) {
+      rehash(table.length * 2);
+    }
+    return id;
+  }
+
+  /**
+   * @return The number of distinct images.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return The length of an image.
+   */
+  int length(int id) {
+    return idLength[id];
+  }
+
+  /**
+   * @return A character of an image.
+   */
+  char charAt(int id, int index) {
+    return slabs[idSlab[id]][idStart[id] + index];
+  }
+
+  /** Resets the provided {@link MutableCharArray} to a view of an image (no copying). */
+  MutableCharArray view(int id, MutableCharArray target) {
+    target.reset(slabs[idSlab[id]], idStart[id], idLength[id]);
+    return target;
+  }
+
+  /**
+   * @return A canonical <code>char[]</code> with the image's characters. The same array is returned
+   *     for each invocation with the same identifier, so images can be compared by reference.
+   */
+  char[] image(int id) {
+    if (idImage == null || idImage.length < size) {
+      idImage = idImage == null ? new char[idSlab.length][] : Arrays.copyOf(idImage, idSlab.length);
+    }
+    char[] image = idImage[id];
+    if (image == null) {
+      image = copy(id);
+      idImage[id] = image;
+    }
+    return image;
+  }
+
+  /**
+   * @return A new <code>char[]</code> with the image's characters.
+   */
+  char[] copy(int id) {
+    final int start = idStart[id];
+    return Arrays.copyOfRange(slabs[idSlab[id]], start, start + idLength[id]);
+  }
+
+  /**
+   * Compares two images lexicographically, by character values and then by length (the same order
+   * as {@link org.carrot2.util.CharArrayComparators#FAST_CHAR_ARRAY_COMPARATOR}), without copying
+   * them out of the slabs.
+   */
+  int compare(int a, int b) {
+    if (a == b) {
+      return 0;
+    }
+    final char[] slabA = slabs[idSlab[a]];
+    final char[] slabB = slabs[idSlab[b]];
+    final int startA = idStart[a];
+    final int startB = idStart[b];
+    final int lengthA = idLength[a];
+    final int lengthB = idLength[b];
+    final int n = Math.min(lengthA, lengthB);
+    for (int i = 0; i < n; i++) {
+      final char chA = slabA[startA + i];
+      final char chB = slabB[startB + i];
+      if (chA != chB) {
+        return chA - chB;
+      }
+    }
+    return lengthA - lengthB;
+  }
+
+  /**
+   * Moves all distinct images into a single buffer, in identifier order, which then replaces the
+   * slabs: each slab is released as soon as its images are copied, so the images are never held
+   * twice. Images interned afterwards go to new slabs and do not modify the returned buffer.
+   *
+   * @return The buffer; {@link #start(int)} and {@link #length(int)} locate images in it.
+   */
+  char[] compact() {
+    int total = 0;
+    for (int id = 0; id < size; id++) {
+      total += idLength[id];
+    }
+
+    // Images are appended in identifier order, so each slab holds a contiguous range of them.
+    final char[] buffer = new char[total];
+    int offset = 0;
+    for (int id = 0; id < size; id++) {
+      final int slab = idSlab[id];
+      final int length = idLength[id];
+      System.arraycopy(slabs[slab], idStart[id], buffer, offset, length);
+      if (id + 1 == size || idSlab[id + 1] != slab) {
+        slabs[slab] = null;
+      }
+      idSlab[id] = 0;
+      idStart[id] = offset;
+      offset += length;
+    }
+
+    if (slabs.length == 0) {
+      slabs = new char[4][];
+    }
+    Arrays.fill(slabs, null);
+    slabs[0] = buffer;
+    slabCount = 1;
+    slabPosition = buffer.length;
+    return buffer;
+  }
+
+  /**
+   * @return The start of an image in its slab (or in the buffer returned from {@link #compact()}).
+   */
+  int start(int id) {
+    return idStart[id];
+  }
+
+  private boolean equals(int id, char[] buffer, int start, int length) {
+    if (idLength[id] != length) {
+      return false;
+    }
+    final char[] slab = slabs[idSlab[id]];
+    final int slabStart = idStart[id];
+    for (int i = 0; i < length; i++) {
+      if (slab[slabStart + i] != buffer[start + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int add(char[] buffer, int start, int length, int hash) {
+    // Allocate a new slab if the image doesn't fit in the current one. Images longer than
+    // the slab size get a dedicated slab of their own.
+    if (slabCount == 0 || slabPosition + length > slabs[slabCount - 1].length) {
+      if (slabCount == slabs.length) {
+        slabs = Arrays.copyOf(slabs, Math.max(4, slabCount * 2));
+      }
+      slabs[slabCount++] = new char[Math.max(slabSize, length)];
+      slabPosition = 0;
+    }
+
+    final int id = size++;
+    if (id == idSlab.length) {
+      final int newLength = Math.max(16, id * 2);
+      idSlab = Arrays.copyOf(idSlab, newLength);
+      idStart = Arrays.copyOf(idStart, newLength);
+      idLength = Arrays.copyOf(idLength, newLength);
+      idHash = Arrays.copyOf(idHash, newLength);
+    }
+
+    System.arraycopy(buffer, start, slabs[slabCount - 1], slabPosition, length);
+    idSlab[id] = slabCount - 1;
+    idStart[id] = slabPosition;
+    idLength[id] = length;
+    idHash[id] = hash;
+    slabPosition += length;
+    return id;
+  }
+
+  private void rehash(int newCapacity) {
+    final int[] newTable = new int[newCapacity];
+    final int mask = newCapacity - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = BitMixer.mix32(idHash[id]) & mask;
+      while (newTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      newTable[slot] = id + 1;
+    }
+    table = newTable;
+  }
+}
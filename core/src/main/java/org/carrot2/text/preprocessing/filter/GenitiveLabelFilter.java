@@ -12,6 +12,7 @@ package org.carrot2.text.preprocessing.filter;
 
 import java.util.stream.Stream;
 import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.carrot2.util.PackedCharArrays;
 
 /**
  * Removes labels that end in words in the Saxon Genitive form, for example <em>Threatening the
@@ -36,14 +37,14 @@ public class GenitiveLabelFilter extends SingleLabelFilterBase {
     return isGenitive(context.allWords.image, wordIndex);
   }
 
-  private boolean isGenitive(char[][] wordImage, final int wordIndex) {
-    char[] image = wordImage[wordIndex];
+  private boolean isGenitive(PackedCharArrays wordImage, final int wordIndex) {
+    final int length = wordImage.length(wordIndex);
 
     outer:
     for (char[] ending : ENDINGS) {
-      if (image.length >= ending.length) {
+      if (length >= ending.length) {
         for (int i = 0; i < ending.length; i++) {
-          if (image[image.length - ending.length + i] != ending[i]) {
+          if (wordImage.charAt(wordIndex, length - ending.length + i) != ending[i]) {
             continue outer;
           }
         }
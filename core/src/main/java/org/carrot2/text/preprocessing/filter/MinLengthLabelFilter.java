@@ -12,6 +12,7 @@ package org.carrot2.text.preprocessing.filter;
 
 import org.carrot2.attrs.AttrInteger;
 import org.carrot2.text.preprocessing.PreprocessingContext;
+import org.carrot2.util.PackedCharArrays;
 
 /** Removes labels whose length in characters is smaller than the provided value. */
 public class MinLengthLabelFilter extends SingleLabelFilterBase {
@@ -28,13 +29,13 @@ public class MinLengthLabelFilter extends SingleLabelFilterBase {
   @Override
   public boolean acceptPhrase(PreprocessingContext context, int phraseIndex) {
     final int[] wordIndices = context.allPhrases.wordIndices[phraseIndex];
-    char[][] wordImage = context.allWords.image;
+    PackedCharArrays wordImage = context.allWords.image;
     int minLength = this.minLength.get();
 
     int wordIndex = 0;
-    int length = wordImage[wordIndices[wordIndex++]].length;
+    int length = wordImage.length(wordIndices[wordIndex++]);
     while (length < minLength && wordIndex < wordIndices.length) {
-      length += wordImage[wordIndices[wordIndex]].length + 1 /* space */;
+      length += wordImage.length(wordIndices[wordIndex]) + 1 /* space */;
       wordIndex++;
     }
 
@@ -43,6 +44,6 @@ public class MinLengthLabelFilter extends SingleLabelFilterBase {
 
   @Override
   public boolean acceptWord(PreprocessingContext context, int wordIndex) {
-    return context.allWords.image[wordIndex].length >= minLength.get();
+    return context.allWords.image.length(wordIndex) >= minLength.get();
   }
 }
@@ -37,7 +37,7 @@ public class StopLabelFilter extends SingleLabelFilterBase {
   @Override
   public boolean acceptPhrase(PreprocessingContext context, int phraseIndex) {
     final String formatedLabel =
-        context.format(labelFormatter, phraseIndex + context.allWords.image.length);
+        context.format(labelFormatter, phraseIndex + context.allWords.image.size());
     return labelFilter.test(formatedLabel);
   }
 
@@ -22,8 +22,8 @@ import org.carrot2.attrs.AttrObject;
 import org.carrot2.attrs.AttrStringArray;
 import org.carrot2.language.TokenTypeUtils;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.CompressedSparseDoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
-import org.carrot2.math.mahout.matrix.impl.SparseDoubleMatrix2D;
 import org.carrot2.math.matrix.MatrixUtils;
 import org.carrot2.text.preprocessing.PreprocessingContext;
 import org.carrot2.text.preprocessing.PreprocessingContext.AllFields;
@@ -156,10 +156,12 @@ public class TermDocumentMatrixBuilder extends AttrComposite {
         IndirectSort.mergesort(
             0, stemsWeight.length, (a, b) -> Double.compare(stemsWeight[b], stemsWeight[a]));
 
-    // Calculate the number of terms we can include to fulfill the max matrix size
+    // Calculate the number of terms we can include to fulfill the max matrix size. The matrix
+    // is filled row by row and each row only holds the documents the stem occurs in.
     final int maxRows = maximumMatrixSize.get() / documentCount;
     final DoubleMatrix2D tdMatrix =
-        new DenseDoubleMatrix2D(Math.min(maxRows, stemsToInclude.length), documentCount);
+        new CompressedSparseDoubleMatrix2D(
+            Math.min(maxRows, stemsToInclude.length), documentCount, true);
 
     for (int i = 0; i < stemWeightOrder.length && i < maxRows; i++) {
       final int stemIndex = stemsToInclude[stemWeightOrder[i]];
@@ -295,7 +297,7 @@ public class TermDocumentMatrixBuilder extends AttrComposite {
     }
 
     final DoubleMatrix2D phraseMatrix =
-        new SparseDoubleMatrix2D(stemToRowIndex.size(), featureIndex.length);
+        new CompressedSparseDoubleMatrix2D(stemToRowIndex.size(), featureIndex.length, false);
 
     final PreprocessingContext preprocessingContext = vsmContext.preprocessingContext;
     final int[] wordsStemIndex = preprocessingContext.allWords.stemIndex;
@@ -15,10 +15,12 @@ import org.carrot2.attrs.AttrObject;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
 import org.carrot2.math.matrix.IterativeMatrixFactorizationFactory;
+import org.carrot2.math.matrix.LanczosSingularValueDecompositionFactory;
 import org.carrot2.math.matrix.MatrixFactorization;
 import org.carrot2.math.matrix.MatrixFactorizationFactory;
 import org.carrot2.math.matrix.MatrixUtils;
 import org.carrot2.math.matrix.NonnegativeMatrixFactorizationEDFactory;
+import org.carrot2.math.matrix.RandomizedSingularValueDecompositionFactory;
 
 /** Reduces the dimensionality of a term-document matrix using a matrix factorization algorithm. */
 public class TermDocumentMatrixReducer extends AttrComposite {
@@ -50,6 +52,11 @@ public class TermDocumentMatrixReducer extends AttrComposite {
     if (factorizationFactory instanceof IterativeMatrixFactorizationFactory) {
       ((IterativeMatrixFactorizationFactory) factorizationFactory)
           .estimateIterationsNumber(dimensions, vsmContext.termDocumentMatrix);
+    } else if (factorizationFactory instanceof RandomizedSingularValueDecompositionFactory) {
+      // Truncated decompositions only compute the leading singular vectors.
+      ((RandomizedSingularValueDecompositionFactory) factorizationFactory).setK(dimensions);
+    } else if (factorizationFactory instanceof LanczosSingularValueDecompositionFactory) {
+      ((LanczosSingularValueDecompositionFactory) factorizationFactory).setK(dimensions);
     }
 
     MatrixUtils.normalizeColumnL2(vsmContext.termDocumentMatrix, null);
@@ -61,6 +68,30 @@ public class TermDocumentMatrixReducer extends AttrComposite {
     context.coefficientMatrix = trim(factorizationFactory, factorization.getV(), dimensions);
   }
 
+  /**
+   * Computes <code>C = op(A) * op(B)</code> for products of the (reduced) term-document matrix
+   * outside of the factorization, such as label or similarity scores. An {@link
+   * IterativeMatrixFactorizationFactory} lends its {@link
+   * IterativeMatrixFactorizationFactory#threads} setting and executor, other factorizations
+   * multiply on the calling thread. The result does not depend on the number of threads.
+   *
+   * @since 4.5.1
+   */
+  public DoubleMatrix2D multiply(
+      DoubleMatrix2D A,
+      DoubleMatrix2D B,
+      DoubleMatrix2D C,
+      boolean transposeA,
+      boolean transposeB) {
+    if (factorizationFactory instanceof IterativeMatrixFactorizationFactory) {
+      final IterativeMatrixFactorizationFactory factory =
+          (IterativeMatrixFactorizationFactory) factorizationFactory;
+      return MatrixUtils.multiply(
+          A, B, C, transposeA, transposeB, factory.getExecutor(), factory.threads.get());
+    }
+    return MatrixUtils.multiply(A, B, C, transposeA, transposeB, null, 1);
+  }
+
   private final DoubleMatrix2D trim(
       MatrixFactorizationFactory factorizationFactory, DoubleMatrix2D matrix, int dimensions) {
     if (!(factorizationFactory instanceof IterativeMatrixFactorizationFactory)
@@ -23,22 +23,7 @@ public class CharArrayComparators {
           return -1;
         }
 
-        final int l1 = a1.length;
-        final int l2 = a2.length;
-        final int n = l1 < l2 ? l1 : l2;
-
-        for (int i = 0, max = n; i < max; ) {
-          int chr1 = Character.codePointAt(a1, i);
-          int chr2 = Character.codePointAt(a2, i);
-          int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
-          if (cp != 0) {
-            return cp;
-          }
-
-          i += Character.charCount(chr1);
-        }
-
-        return l1 - l2;
+        return compareCaseInsensitive(a1, 0, a1.length, a2, 0, a2.length);
       };
 
   /** A case-sensitive lexicographic comparator. */
@@ -90,54 +75,80 @@ public class CharArrayComparators {
           return -1;
         }
 
-        final int l1 = a1.length;
-        final int l2 = a2.length;
-
-        // Not crucial, but speeds things up
-        if (l1 != l2) {
-          return l1 - l2;
-        }
+        return compareNormalizing(a1, 0, a1.length, a2, 0, a2.length);
+      };
 
-        /*
-         * The condition below is perfectly ok here. It is
-         * used to calculate word occurrence statistics, which is essentially a "count
-         * unique strings by sorting" problem. Therefore, the semantic meaning of the
-         * order produced by this comparator doesn't matter at all as long as it: a)
-         * groups equal (case sensitive) strings together, b) groups equal (case
-         * insensitive) strings into one block, c) null string is always greater than
-         * a non-null string. See tests for this comparator for examples.
-         *
-         * In comparison-based sorting algorithms crucial is the speed of comparisons,
-         * so declaring that e.g. shorter strings are always smaller (regardless of
-         * contents) saves us calls to Character.toLowerCase(), which are very costly.
-         * For CaseNormalizer it doesn't matter at all, and makes sorting way faster.
-         */
-
-        // Compare whole strings in case insensitive mode first
-        for (int i = 0, max = l1; i < max; ) {
-          int chr1 = Character.codePointAt(a1, i);
-          int chr2 = Character.codePointAt(a2, i);
-          int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
-          if (cp != 0) {
-            return cp;
-          }
+  /**
+   * Same as {@link #CASE_INSENSITIVE_CHAR_ARRAY_COMPARATOR}, but compares (non-<code>null</code>)
+   * ranges of character buffers.
+   */
+  public static int compareCaseInsensitive(char[] b1, int s1, int l1, char[] b2, int s2, int l2) {
+    final int n = l1 < l2 ? l1 : l2;
 
-          i += Character.charCount(chr1);
-        }
+    for (int i = 0, max = n; i < max; ) {
+      int chr1 = Character.codePointAt(b1, s1 + i, s1 + l1);
+      int chr2 = Character.codePointAt(b2, s2 + i, s2 + l2);
+      int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
+      if (cp != 0) {
+        return cp;
+      }
 
-        // Only if strings are case-insensitive equal, go case sensitive
-        for (int i = 0; i < l1; i++) {
-          char a1I = a1[i];
-          char a2I = a2[i];
+      i += Character.charCount(chr1);
+    }
 
-          if (a1I != a2I) {
-            // Put lower case first
-            return a2I - a1I;
-          }
-        }
+    return l1 - l2;
+  }
 
-        return 0;
-      };
+  /**
+   * Same as {@link #NORMALIZING_CHAR_ARRAY_COMPARATOR}, but compares (non-<code>null</code>) ranges
+   * of character buffers.
+   */
+  public static int compareNormalizing(char[] b1, int s1, int l1, char[] b2, int s2, int l2) {
+    // Not crucial, but speeds things up
+    if (l1 != l2) {
+      return l1 - l2;
+    }
+
+    /*
+     * The condition below is perfectly ok here. It is
+     * used to calculate word occurrence statistics, which is essentially a "count
+     * unique strings by sorting" problem. Therefore, the semantic meaning of the
+     * order produced by this comparator doesn't matter at all as long as it: a)
+     * groups equal (case sensitive) strings together, b) groups equal (case
+     * insensitive) strings into one block, c) null string is always greater than
+     * a non-null string. See tests for this comparator for examples.
+     *
+     * In comparison-based sorting algorithms crucial is the speed of comparisons,
+     * so declaring that e.g. shorter strings are always smaller (regardless of
+     * contents) saves us calls to Character.toLowerCase(), which are very costly.
+     * For CaseNormalizer it doesn't matter at all, and makes sorting way faster.
+     */
+
+    // Compare whole strings in case insensitive mode first
+    for (int i = 0, max = l1; i < max; ) {
+      int chr1 = Character.codePointAt(b1, s1 + i, s1 + l1);
+      int chr2 = Character.codePointAt(b2, s2 + i, s2 + l2);
+      int cp = Integer.compare(Character.toLowerCase(chr1), Character.toLowerCase(chr2));
+      if (cp != 0) {
+        return cp;
+      }
+
+      i += Character.charCount(chr1);
+    }
+
+    // Only if strings are case-insensitive equal, go case sensitive
+    for (int i = 0; i < l1; i++) {
+      char a1I = b1[s1 + i];
+      char a2I = b2[s2 + i];
+
+      if (a1I != a2I) {
+        // Put lower case first
+        return a2I - a1I;
+      }
+    }
+
+    return 0;
+  }
 
   /** No instantiation. */
   private CharArrayComparators() {}
@@ -16,7 +16,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 
 /** A number of utility methods for working with the {@link Executor}s framework. */
 public class ExecutorServiceUtils {
@@ -150,4 +153,96 @@ public class ExecutorServiceUtils {
         new AccountingThreadFactory(classLoader, baseName);
     return new AccountingExecutorService(maxConcurrentThreads, threadFactory);
   }
+
+  /**
+   * Runs <code>count</code> indexed tasks (from zero to <code>count - 1</code>) using at most
+   * <code>parallelism</code> threads: the calling thread and up to <code>parallelism - 1</code>
+   * helpers submitted to <code>executor</code>. Each thread repeatedly picks the next task index
+   * until none are left, so the calling thread completes all tasks on its own if the executor is
+   * busy. This method returns once all tasks have completed.
+   *
+   * <p>The executor is not shut down. If <code>executor</code> is <code>null</code>, the shared
+   * {@link ForkJoinPool#commonPool()} is used.
+   *
+   * <p>If any task throws an exception, the remaining tasks are skipped and the first exception is
+   * rethrown (checked exceptions wrapped in a {@link RuntimeException}).
+   *
+   * @since 4.5.1
+   */
+  public static void forEachIndex(
+      ExecutorService executor, int parallelism, int count, IntConsumer task) {
+    final int helpers = Math.min(parallelism, count) - 1;
+    if (helpers <= 0) {
+      for (int i = 0; i < count; i++) {
+        task.accept(i);
+      }
+      return;
+    }
+
+    final AtomicInteger next = new AtomicInteger();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final Runnable work =
+        () -> {
+          for (int i; (i = next.getAndIncrement()) < count; ) {
+            try {
+              task.accept(i);
+            } catch (Throwable t) {
+              failure.compareAndSet(null, t);
+              next.set(count);
+            }
+          }
+        };
+
+    // Each helper is either claimed by a pool thread (and counts down once done) or abandoned by
+    // the caller if it hasn't started by the time all tasks are taken.
+    final AtomicBoolean[] claimed = new AtomicBoolean[helpers];
+    final CountDownLatch done = new CountDownLatch(helpers);
+    final ExecutorService pool = executor != null ? executor : ForkJoinPool.commonPool();
+    for (int h = 0; h < helpers; h++) {
+      final AtomicBoolean helperClaimed = claimed[h] = new AtomicBoolean();
+      try {
+        pool.execute(
+            () -> {
+              if (helperClaimed.compareAndSet(false, true)) {
+                try {
+                  work.run();
+                } finally {
+                  done.countDown();
+                }
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        // The calling thread will do the work.
+      }
+    }
+    work.run();
+
+    for (AtomicBoolean helperClaimed : claimed) {
+      if (helperClaimed.compareAndSet(false, true)) {
+        done.countDown();
+      }
+    }
+
+    boolean interrupted = false;
+    while (true) {
+      try {
+        done.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    final Throwable t = failure.get();
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    } else if (t instanceof Error) {
+      throw (Error) t;
+    } else if (t != null) {
+      throw new RuntimeException(t);
+    }
+  }
 }
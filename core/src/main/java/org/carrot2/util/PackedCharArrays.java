@@ -0,0 +1,215 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.util;
+
+import java.util.Arrays;
+
+/**
+ * A compact, read-only list of character sequences stored in a single shared <code>char[]</code>
+ * buffer. Each distinct sequence (an <i>entry</i>) has one offset and one length; elements refer to
+ * entries by an integer identifier, so repeated sequences cost a single <code>int</code> per
+ * element and no heap object.
+ *
+ * <p>An element may be <code>null</code>, in which case its identifier is negative.
+ */
+public final class PackedCharArrays {
+  /** An empty list. */
+  public static final PackedCharArrays EMPTY =
+      new PackedCharArrays(CharArrayUtils.EMPTY_ARRAY, new int[0], new int[0], new int[0]);
+
+  private final char[] buffer;
+  private final int[] offsets;
+  private final int[] lengths;
+  private final int[] ids;
+
+  /**
+   * @param buffer The shared buffer with all characters.
+   * @param offsets Start of each entry in the buffer.
+   * @param lengths Length of each entry.
+   * @param ids The entry of each element, negative for <code>null</code> elements. The array is not
+   *     copied and must not be modified afterwards.
+   */
+  public PackedCharArrays(char[] buffer, int[] offsets, int[] lengths, int[] ids) {
+    if (offsets.length != lengths.length) {
+      throw new IllegalArgumentException("Offsets and lengths must be of the same size.");
+    }
+    this.buffer = buffer;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.ids = ids;
+  }
+
+  /** Packs the provided (possibly <code>null</code>) arrays into a new list. */
+  public static PackedCharArrays of(char[]... arrays) {
+    int total = 0;
+    for (char[] array : arrays) {
+      if (array != null) total += array.length;
+    }
+
+    final char[] buffer = new char[total];
+    final int[] offsets = new int[arrays.length];
+    final int[] lengths = new int[arrays.length];
+    final int[] ids = new int[arrays.length];
+    int offset = 0;
+    for (int i = 0; i < arrays.length; i++) {
+      final char[] array = arrays[i];
+      if (array == null) {
+        ids[i] = -1;
+      } else {
+        System.arraycopy(array, 0, buffer, offset, array.length);
+        offsets[i] = offset;
+        lengths[i] = array.length;
+        ids[i] = i;
+        offset += array.length;
+      }
+    }
+    return new PackedCharArrays(buffer, offsets, lengths, ids);
+  }
+
+  /**
+   * Returns a new list with elements at the provided indices of this list. The buffer and entries
+   * are shared (not copied).
+   */
+  public PackedCharArrays select(int[] indices) {
+    final int[] selectedIds = new int[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      selectedIds[i] = ids[indices[i]];
+    }
+    return new PackedCharArrays(buffer, offsets, lengths, selectedIds);
+  }
+
+  /**
+   * @return The number of elements.
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * @return The entry identifier of an element, negative for <code>null</code> elements. Elements
+   *     with equal identifiers are equal.
+   */
+  public int id(int index) {
+    return ids[index];
+  }
+
+  /**
+   * @return <code>true</code> if the element at the given index is <code>null</code>.
+   */
+  public boolean isNull(int index) {
+    return ids[index] < 0;
+  }
+
+  /**
+   * @return The length of an element (zero for <code>null</code> elements).
+   */
+  public int length(int index) {
+    final int id = ids[index];
+    return id < 0 ? 0 : lengths[id];
+  }
+
+  /**
+   * @return The start of an element in {@link #buffer()}.
+   */
+  public int offset(int index) {
+    final int id = ids[index];
+    return id < 0 ? -1 : offsets[id];
+  }
+
+  /**
+   * @return The shared buffer. Must not be modified.
+   */
+  public char[] buffer() {
+    return buffer;
+  }
+
+  /**
+   * @return The character at <code>position</code> of the element at <code>index</code>.
+   */
+  public char charAt(int index, int position) {
+    final int id = ids[index];
+    assert position >= 0 && position < lengths[id];
+    return buffer[offsets[id] + position];
+  }
+
+  /**
+   * @return A copy of an element or <code>null</code> for <code>null</code> elements.
+   */
+  public char[] get(int index) {
+    final int id = ids[index];
+    return id < 0 ? null : Arrays.copyOfRange(buffer, offsets[id], offsets[id] + lengths[id]);
+  }
+
+  /** Resets <code>target</code> to a view of an element (no copying) and returns it. */
+  public MutableCharArray view(int index, MutableCharArray target) {
+    final int id = ids[index];
+    assert id >= 0;
+    target.reset(buffer, offsets[id], lengths[id]);
+    return target;
+  }
+
+  /** Appends an element to a {@link StringBuilder} and returns it. */
+  public StringBuilder appendTo(StringBuilder sb, int index) {
+    final int id = ids[index];
+    return sb.append(buffer, offsets[id], lengths[id]);
+  }
+
+  /**
+   * @return An element as a {@link String} or <code>null</code> for <code>null</code> elements.
+   */
+  public String toString(int index) {
+    final int id = ids[index];
+    return id < 0 ? null : new String(buffer, offsets[id], lengths[id]);
+  }
+
+  /**
+   * @return <code>true</code> if elements at the given indices are equal.
+   */
+  public boolean equals(int index, int otherIndex) {
+    final int id = ids[index];
+    final int otherId = ids[otherIndex];
+    if (id == otherId || id < 0 || otherId < 0) {
+      return id == otherId || (id < 0 && otherId < 0);
+    }
+    final int offset = offsets[id];
+    final int otherOffset = offsets[otherId];
+    final int length = lengths[id];
+    if (length != lengths[otherId]) {
+      return false;
+    }
+    return offset == otherOffset
+        || Arrays.equals(
+            buffer, offset, offset + length, buffer, otherOffset, otherOffset + length);
+  }
+
+  /**
+   * @return <code>true</code> if the element at the given index is equal to an array.
+   */
+  public boolean contentEquals(int index, char[] array) {
+    final int id = ids[index];
+    if (id < 0 || array == null) {
+      return id < 0 && array == null;
+    }
+    final int offset = offsets[id];
+    return Arrays.equals(buffer, offset, offset + lengths[id], array, 0, array.length);
+  }
+
+  /**
+   * @return All elements as an array of character arrays (copies).
+   */
+  public char[][] toArrays() {
+    final char[][] arrays = new char[ids.length][];
+    for (int i = 0; i < arrays.length; i++) {
+      arrays[i] = get(i);
+    }
+    return arrays;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.mahout.matrix.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DoubleKernels} on the incubating Vector API. Element-wise kernels use separate multiply
+ * and add (no fused multiply-add), so they are exact like the scalar ones; {@link #dot} keeps one
+ * partial sum per lane.
+ *
+ * <p>Loaded reflectively by {@link DoubleKernels#forName(String)}; requires <code>
+ * --add-modules jdk.incubator.vector</code>.
+ */
+final class VectorDoubleKernels extends DoubleKernels {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  VectorDoubleKernels() {
+    super("vector");
+  }
+
+  @Override
+  public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+    DoubleVector sum = DoubleVector.zero(SPECIES);
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + k);
+      DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + k);
+      sum = sum.add(va.mul(vb));
+    }
+    double s = sum.reduceLanes(VectorOperators.ADD);
+    for (; k < length; k++) {
+      s += a[aOffset + k] * b[bOffset + k];
+    }
+    return s;
+  }
+
+  @Override
+  public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+      vy.add(vx.mul(alpha)).intoArray(y, yOffset + k);
+    }
+    for (; k < length; k++) {
+      y[yOffset + k] += alpha * x[xOffset + k];
+    }
+  }
+
+  @Override
+  public void multiply(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+      vy.mul(vx).intoArray(y, yOffset + k);
+    }
+    for (; k < length; k++) {
+      y[yOffset + k] *= x[xOffset + k];
+    }
+  }
+
+  @Override
+  public void divide(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+      vy.div(vx).intoArray(y, yOffset + k);
+    }
+    for (; k < length; k++) {
+      y[yOffset + k] /= x[xOffset + k];
+    }
+  }
+
+  @Override
+  public void scale(double alpha, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, y, yOffset + k).mul(alpha).intoArray(y, yOffset + k);
+    }
+    for (; k < length; k++) {
+      y[yOffset + k] *= alpha;
+    }
+  }
+
+  @Override
+  public void addSquares(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+      vy.add(vx.mul(vx)).intoArray(y, yOffset + k);
+    }
+    for (; k < length; k++) {
+      final double v = x[xOffset + k];
+      y[yOffset + k] += v * v;
+    }
+  }
+
+  @Override
+  public void divideNonZero(double[] x, int xOffset, double[] y, int yOffset, int length) {
+    final int bound = SPECIES.loopBound(length);
+    int k = 0;
+    for (; k < bound; k += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+      VectorMask<Double> nonZero = vx.compare(VectorOperators.NE, 0);
+      vy.div(vx, nonZero).intoArray(y, yOffset + k);
+    }
+    for (; k < length; k++) {
+      final double v = x[xOffset + k];
+      if (v != 0) {
+        y[yOffset + k] /= v;
+      }
+    }
+  }
+}
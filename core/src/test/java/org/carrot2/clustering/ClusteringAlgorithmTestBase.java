@@ -170,6 +170,32 @@ public abstract class ClusteringAlgorithmTestBase<E extends ClusteringAlgorithm
     }
   }
 
+  @Test
+  public void testStageListener() {
+    List<StageMeasurement> measurements = new ArrayList<>();
+    List<Cluster<Document>> clusters =
+        ClusteringInstrumentation.withListener(
+            measurements::add,
+            () ->
+                algorithm()
+                    .cluster(
+                        SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                        CachedLangComponents.loadCached("English")));
+
+    assertThat(clusters).isNotEmpty();
+    assertThat(measurements)
+        .extracting(StageMeasurement::getStage)
+        .contains("tokenize", "normalizeCase", "stem", "markStopWords");
+    for (StageMeasurement m : measurements) {
+      assertThat(m.getWallTimeNanos()).isGreaterThanOrEqualTo(0);
+    }
+    assertThat(measurements.get(0).getSizes())
+        .containsEntry("documents", (long) SampleDocumentData.DOCUMENTS_DATA_MINING.size());
+
+    // No listener outside of the scope.
+    assertThat(ClusteringInstrumentation.isEnabled()).isFalse();
+  }
+
   @Test
   public void testAttrGetAndSet() {
     AcceptingVisitor algorithm = algorithm();
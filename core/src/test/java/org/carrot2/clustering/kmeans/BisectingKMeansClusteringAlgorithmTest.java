@@ -19,6 +19,7 @@ import org.assertj.core.api.Assertions;
 import org.carrot2.AwaitsFix;
 import org.carrot2.clustering.*;
 import org.carrot2.language.TestsLanguageComponentsFactoryVariant1;
+import org.carrot2.math.matrix.IterativeMatrixFactorizationFactory;
 import org.junit.Test;
 
 public class BisectingKMeansClusteringAlgorithmTest
@@ -28,6 +29,24 @@ public class BisectingKMeansClusteringAlgorithmTest
     return new BisectingKMeansClusteringAlgorithm();
   }
 
+  @Test
+  public void testResultsIndependentOfFactorizationThreads() {
+    BisectingKMeansClusteringAlgorithm parallel = algorithm();
+    ((IterativeMatrixFactorizationFactory) parallel.matrixReducer.factorizationFactory)
+        .threads.set(randomIntBetween(2, 4));
+
+    List<Cluster<Document>> expected =
+        algorithm()
+            .cluster(
+                SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                CachedLangComponents.loadCached("English"));
+    Assertions.assertThat(
+            parallel.cluster(
+                SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                CachedLangComponents.loadCached("English")))
+        .containsExactlyElementsOf(expected);
+  }
+
   @Test
   public void smokeTest() {
     final List<TestDocument> documents =
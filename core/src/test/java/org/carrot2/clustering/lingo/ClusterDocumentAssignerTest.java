@@ -87,7 +87,7 @@ public class ClusterDocumentAssignerTest extends LingoProcessingComponentTestBas
     buildLingoModel(documents);
 
     final TfTermWeighting termWeighting = new TfTermWeighting();
-    clusterBuilder.buildLabels(lingoContext, termWeighting);
+    clusterBuilder.buildLabels(lingoContext, termWeighting, reducer);
     clusterBuilder.assignDocuments(lingoContext);
 
     for (int i = 0; i < expectedDocumentIndices.length; i++) {
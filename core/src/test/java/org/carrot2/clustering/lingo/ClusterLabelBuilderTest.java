@@ -140,7 +140,7 @@ public class ClusterLabelBuilderTest extends LingoProcessingComponentTestBase {
   }
 
   private void check(int[] expectedFeatureIndex) {
-    clusterBuilder.buildLabels(lingoContext, new TfTermWeighting());
+    clusterBuilder.buildLabels(lingoContext, new TfTermWeighting(), reducer);
     Assertions.assertThat(lingoContext.clusterLabelFeatureIndex)
         .as("clusterLabelFeatureIndex")
         .containsOnly(expectedFeatureIndex);
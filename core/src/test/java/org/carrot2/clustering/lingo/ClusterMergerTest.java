@@ -98,7 +98,7 @@ public class ClusterMergerTest extends LingoProcessingComponentTestBase {
     buildLingoModel(documents);
 
     final TfTermWeighting termWeighting = new TfTermWeighting();
-    clusterBuilder.buildLabels(lingoContext, termWeighting);
+    clusterBuilder.buildLabels(lingoContext, termWeighting, reducer);
     clusterBuilder.assignDocuments(lingoContext);
     clusterBuilder.merge(lingoContext);
 
@@ -25,6 +25,7 @@ import org.carrot2.clustering.SampleDocumentData;
 import org.carrot2.clustering.TestDocument;
 import org.carrot2.language.DefaultDictionaryImpl;
 import org.carrot2.language.TestsLanguageComponentsFactoryVariant1;
+import org.carrot2.math.matrix.IterativeMatrixFactorizationFactory;
 import org.carrot2.math.matrix.KMeansMatrixFactorizationFactory;
 import org.junit.Test;
 
@@ -35,6 +36,24 @@ public class LingoClusteringAlgorithmTest
     return new LingoClusteringAlgorithm();
   }
 
+  @Test
+  public void testResultsIndependentOfFactorizationThreads() {
+    LingoClusteringAlgorithm parallel = algorithm();
+    ((IterativeMatrixFactorizationFactory) parallel.matrixReducer.factorizationFactory)
+        .threads.set(randomIntBetween(2, 4));
+
+    List<Cluster<Document>> expected =
+        algorithm()
+            .cluster(
+                SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                CachedLangComponents.loadCached("English"));
+    Assertions.assertThat(
+            parallel.cluster(
+                SampleDocumentData.DOCUMENTS_DATA_MINING.stream(),
+                CachedLangComponents.loadCached("English")))
+        .containsExactlyElementsOf(expected);
+  }
+
   @Test
   public void testClusteringWithDfThreshold() {
     LingoClusteringAlgorithm algorithm = algorithm();
@@ -0,0 +1,73 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.util.MutableCharArray;
+import org.junit.Test;
+
+public class CharSequenceSetTest extends TestBase {
+  @Test
+  public void testContainsConsistentWithHashSet() {
+    List<String> values = new ArrayList<>();
+    for (int i = 0, max = randomIntBetween(0, 500); i < max; i++) {
+      values.add(randomAsciiLettersOfLengthBetween(0, 6));
+    }
+
+    Set<String> reference = new HashSet<>(values);
+    CharSequenceSet set = new CharSequenceSet(values, false);
+    Assertions.assertThat(set.size()).isEqualTo(reference.size());
+
+    MutableCharArray view = new MutableCharArray();
+    for (int i = 0; i < 1000; i++) {
+      String probe = randomAsciiLettersOfLengthBetween(0, 6);
+      char[] padded = ("__" + probe + "__").toCharArray();
+      view.reset(padded, 2, probe.length());
+
+      Assertions.assertThat(set.contains(probe)).isEqualTo(reference.contains(probe));
+      Assertions.assertThat(set.contains(view)).isEqualTo(reference.contains(probe));
+    }
+  }
+
+  @Test
+  public void testCaseFolding() {
+    CharSequenceSet folded = new CharSequenceSet(List.of("Foo", "BAR"), true);
+    Assertions.assertThat(folded.size()).isEqualTo(2);
+    Assertions.assertThat(folded.contains("foo")).isTrue();
+    Assertions.assertThat(folded.contains(new MutableCharArray("bAr"))).isTrue();
+    Assertions.assertThat(folded.contains("baz")).isFalse();
+
+    CharSequenceSet exact = new CharSequenceSet(List.of("Foo", "foo"), false);
+    Assertions.assertThat(exact.size()).isEqualTo(2);
+    Assertions.assertThat(exact.contains("FOO")).isFalse();
+    Assertions.assertThat(exact.contains("Foo".toLowerCase(Locale.ROOT))).isTrue();
+    Assertions.assertThat(new CharSequenceSet(List.of("Foo", "foo"), true).size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCompiledDictionaryMatchesCharSequences() {
+    DefaultDictionaryImpl dictionary = new DefaultDictionaryImpl();
+    dictionary.exact.set("the", "of");
+    dictionary.regexp.set("^[0-9]+$");
+
+    StopwordFilter filter = dictionary.compileStopwordFilter();
+    Assertions.assertThat(filter.test(new MutableCharArray("the"))).isFalse();
+    Assertions.assertThat(filter.test(new MutableCharArray("1234"))).isFalse();
+    Assertions.assertThat(filter.test(new MutableCharArray("then"))).isTrue();
+    Assertions.assertThat(filter.test("of")).isFalse();
+  }
+}
@@ -10,6 +10,11 @@
  */
 package org.carrot2.language;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import org.assertj.core.api.Assertions;
+import org.carrot2.util.MutableCharArray;
 import org.junit.Test;
 
 /** Test {@link ExtendedWhitespaceTokenizer}. */
@@ -180,4 +185,28 @@ public class ExtendedWhitespaceTokenizerTest extends TokenizerTestBase {
 
     assertEqualTokens(test, tokens);
   }
+
+  @Test
+  public void testLongInputAlternatingResets() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0, max = randomIntBetween(5000, 10000); i < max; i++) {
+      sb.append(randomFrom(new String[] {"foo", "bar.", "e-mail", "x@y.com", "12.5"})).append(' ');
+    }
+    String test = sb.toString();
+
+    Tokenizer tokenizer = createTokenStream();
+    tokenizer.reset(new StringReader(test));
+    ArrayList<TokenImage> expected = collectTokens(tokenizer);
+
+    char[] chars = test.toCharArray();
+    for (int round = 0; round < 3; round++) {
+      tokenizer.reset(new MutableCharArray(chars));
+      Assertions.assertThat(collectTokens(tokenizer)).isEqualTo(expected);
+      tokenizer.reset(new StringReader(test));
+      Assertions.assertThat(collectTokens(tokenizer)).isEqualTo(expected);
+    }
+
+    // The scanner must not write into the array it reads from.
+    Assertions.assertThat(new String(chars)).isEqualTo(test);
+  }
 }
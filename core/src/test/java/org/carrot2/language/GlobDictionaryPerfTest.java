@@ -105,6 +105,10 @@ public class GlobDictionaryPerfTest extends TestBase {
             .collect(Collectors.toList());
 
     dictionary = new GlobDictionary(patterns.stream());
+    System.out.println("Memory (hash index): " + dictionary.memoryReport());
+    System.out.println(
+        "Memory (trie index): "
+            + new GlobDictionary(patterns.stream(), GlobDictionary.IndexType.TRIE).memoryReport());
   }
 
   private static Set<String> addFrequentTokenRules(int howMany) {
@@ -12,11 +12,16 @@ package org.carrot2.language;
 
 import com.carrotsearch.randomizedtesting.annotations.TestCaseOrdering;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
@@ -445,19 +450,112 @@ public class GlobDictionaryTest extends TestBase {
     GlobDictionaryAssert.assertThat(dict).payloads("two").containsExactly("two");
   }
 
+  @Test
+  public void testTrieIndexConsistentWithHash() {
+    String[] tokens = {"a", "b", "c", "'B'", "?", "{x}"};
+    Map<String, Integer> types = Map.of("x", 0x01);
+
+    List<String> patterns = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int j = 0, max = randomIntBetween(1, 4); j < max; j++) {
+        sb.append(randomFrom(tokens)).append(' ');
+      }
+      if (sb.toString().replace("?", "").isBlank()) {
+        // Wildcard-only patterns are invalid.
+        sb.append("a ");
+      }
+      if (rarely()) {
+        sb.append("*");
+      }
+      patterns.add(sb.toString().trim());
+    }
+
+    var hash =
+        new GlobDictionary(
+            parse(types, patterns.toArray(String[]::new)), GlobDictionary.IndexType.HASH);
+    var trie =
+        new GlobDictionary(
+            parse(types, patterns.toArray(String[]::new)), GlobDictionary.IndexType.TRIE);
+
+    for (int i = 0; i < 1000; i++) {
+      String[] input = new String[randomIntBetween(0, 5)];
+      int[] inputTypes = new int[input.length];
+      for (int j = 0; j < input.length; j++) {
+        input[j] = randomFrom(new String[] {"a", "A", "b", "B", "c", "d"});
+        inputTypes[j] = randomIntBetween(0, 1);
+      }
+      String[] normalized = hash.normalize(input);
+
+      for (int[] t : new int[][] {null, inputTypes}) {
+        Set<GlobDictionary.WordPattern> expected = new HashSet<>();
+        Set<GlobDictionary.WordPattern> actual = new HashSet<>();
+        boolean expectedFound = hash.find(input, normalized, t, collectAll(expected));
+        boolean actualFound = trie.find(input, normalized, t, collectAll(actual));
+
+        Assertions.assertThat(actualFound).as(Arrays.toString(input)).isEqualTo(expectedFound);
+        Assertions.assertThat(actual).as(Arrays.toString(input)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testMemoryReport() {
+    String[] entries = {"foo bar", "foo baz", "'Foo' ?", "* bar", "foo *"};
+    var hash = new GlobDictionary(parse(entries), GlobDictionary.IndexType.HASH);
+    var trie = new GlobDictionary(parse(entries), GlobDictionary.IndexType.TRIE);
+
+    Map<String, Long> hashReport = hash.memoryReport();
+    Assertions.assertThat(hashReport)
+        .containsEntry("patterns", 5L)
+        .containsEntry("tokens", 10L)
+        .containsEntry("trieNodes", 0L);
+    Assertions.assertThat(hashReport.get("hashIndexBytes")).isPositive();
+
+    Map<String, Long> trieReport = trie.memoryReport();
+    Assertions.assertThat(trieReport)
+        .containsEntry("patterns", 5L)
+        .containsEntry("tokens", 10L)
+        .containsEntry("trieNodes", 6L)
+        .containsEntry("trieEdges", 5L);
+    Assertions.assertThat(trieReport.get("totalBytes"))
+        .isEqualTo(
+            trieReport.get("patternBytes")
+                + trieReport.get("hashIndexBytes")
+                + trieReport.get("trieBytes"));
+  }
+
   private GlobDictionaryAssert dictionaryOf(String... entries) {
-    return GlobDictionaryAssert.assertThat(new GlobDictionary(parse(entries)));
+    return GlobDictionaryAssert.assertThat(new GlobDictionary(parse(entries), randomIndexType()));
   }
 
   private GlobDictionaryAssert dictionaryOf(Map<String, Integer> tokenTypes, String... entries) {
-    return GlobDictionaryAssert.assertThat(new GlobDictionary(parse(tokenTypes, entries)))
+    return GlobDictionaryAssert.assertThat(
+            new GlobDictionary(parse(tokenTypes, entries), randomIndexType()))
         .withTypes(tokenTypes);
   }
 
   private GlobDictionaryAssert dictionaryOf(
       Function<String, String> normalization, String... entries) {
     return GlobDictionaryAssert.assertThat(
-        new GlobDictionary(parse(entries), normalization, GlobDictionary.defaultTermSplitter()));
+        new GlobDictionary(
+            parse(entries),
+            normalization,
+            GlobDictionary.defaultTermSplitter(),
+            randomIndexType()));
+  }
+
+  /** Collects all matching patterns (never aborts early). */
+  private static Predicate<GlobDictionary.WordPattern> collectAll(
+      Set<GlobDictionary.WordPattern> patterns) {
+    return p -> {
+      patterns.add(p);
+      return false;
+    };
+  }
+
+  private static GlobDictionary.IndexType randomIndexType() {
+    return randomFrom(GlobDictionary.IndexType.values());
   }
 
   private static Stream<GlobDictionary.WordPattern> parse(String... patterns) {
@@ -11,10 +11,13 @@
 package org.carrot2.language;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
@@ -23,6 +26,8 @@ import org.carrot2.attrs.AttrVisitor;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.Document;
+import org.carrot2.util.ClassRelativeResourceLookup;
+import org.carrot2.util.ResourceLookup;
 import org.junit.Test;
 
 public class LanguageComponentsLoaderTest extends TestBase {
@@ -133,4 +138,114 @@ public class LanguageComponentsLoaderTest extends TestBase {
       Assertions.assertThat(a2.supports(loaded.language("l2"))).isTrue();
     }
   }
+
+  @Test
+  public void testParallelLoadingConsistentWithSequential() throws IOException {
+    LoadedLanguages sequential = LanguageComponents.loader().load();
+    LoadedLanguages parallel =
+        LanguageComponents.loader().withThreads(randomIntBetween(2, 8)).load();
+
+    Assertions.assertThat(parallel.languages()).containsExactlyElementsOf(sequential.languages());
+    for (String language : sequential.languages()) {
+      Assertions.assertThat(parallel.language(language).components())
+          .containsExactlyInAnyOrderElementsOf(sequential.language(language).components());
+    }
+  }
+
+  @Test
+  public void testParallelLoadingPropagatesErrors() {
+    Map<String, List<LanguageComponentsProvider>> componentProviders =
+        Map.of(
+            "ok", List.of(new CountingProvider("ok", false)),
+            "broken", List.of(new CountingProvider("broken", true)));
+
+    Assertions.assertThatThrownBy(
+            () -> LanguageComponents.loader().withThreads(2).load(componentProviders))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("broken");
+  }
+
+  @Test
+  public void testLazyLoading() throws IOException {
+    var preloaded = new CountingProvider("preloaded", false);
+    var lazy = new CountingProvider("lazy", false);
+    var broken = new CountingProvider("broken", true);
+    Map<String, List<LanguageComponentsProvider>> componentProviders =
+        Map.of(
+            "preloaded", List.of(preloaded),
+            "lazy", List.of(lazy),
+            "broken", List.of(broken));
+
+    LoadedLanguages loaded =
+        LanguageComponents.loader()
+            .withThreads(randomIntBetween(1, 4))
+            .withLazyLoading("preloaded")
+            .load(componentProviders);
+
+    Assertions.assertThat(loaded.languages()).containsOnly("preloaded", "lazy", "broken");
+    Assertions.assertThat(preloaded.loads.get()).isEqualTo(1);
+    Assertions.assertThat(lazy.loads.get()).isZero();
+    Assertions.assertThat(broken.loads.get()).isZero();
+
+    // Declared components are known without loading the language.
+    LanguageComponents components = loaded.language("lazy");
+    Assertions.assertThat(components.components()).containsOnly(CharSequence.class);
+    Assertions.assertThat(lazy.loads.get()).isZero();
+
+    for (int i = randomIntBetween(1, 5); i > 0; i--) {
+      Assertions.assertThat(components.get(CharSequence.class)).hasToString("lazy");
+      Assertions.assertThat(loaded.language("lazy").get(CharSequence.class)).hasToString("lazy");
+    }
+    Assertions.assertThat(lazy.loads.get()).isEqualTo(1);
+    Assertions.assertThat(loaded.language("preloaded").get(CharSequence.class))
+        .hasToString("preloaded");
+    Assertions.assertThat(preloaded.loads.get()).isEqualTo(1);
+
+    // Errors are reported on first use.
+    Assertions.assertThatThrownBy(() -> loaded.language("broken").get(CharSequence.class))
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("broken");
+  }
+
+  private static class CountingProvider implements LanguageComponentsProvider {
+    final AtomicInteger loads = new AtomicInteger();
+    private final String language;
+    private final boolean fail;
+
+    CountingProvider(String language, boolean fail) {
+      this.language = language;
+      this.fail = fail;
+    }
+
+    @Override
+    public String name() {
+      return "counting provider: " + language;
+    }
+
+    @Override
+    public Set<String> languages() {
+      return Set.of(language);
+    }
+
+    @Override
+    public ResourceLookup defaultResourceLookup() {
+      return new ClassRelativeResourceLookup(getClass());
+    }
+
+    @Override
+    public Set<Class<?>> componentTypes() {
+      return Set.of(CharSequence.class);
+    }
+
+    @Override
+    public Map<Class<?>, Supplier<?>> load(
+        String language, ResourceLookup resourceLookup, Set<Class<?>> componentTypes)
+        throws IOException {
+      loads.incrementAndGet();
+      if (fail) {
+        throw new IOException("Resources missing: " + language);
+      }
+      return Map.of(CharSequence.class, () -> language);
+    }
+  }
 }
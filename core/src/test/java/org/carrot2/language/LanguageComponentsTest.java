@@ -11,9 +11,24 @@
 package org.carrot2.language;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.assertj.core.api.Assertions;
 import org.carrot2.TestBase;
 import org.carrot2.clustering.CachedLangComponents;
+import org.carrot2.util.MutableCharArray;
 import org.junit.Test;
 
 public class LanguageComponentsTest extends TestBase {
@@ -58,4 +73,91 @@ public class LanguageComponentsTest extends TestBase {
     Assertions.assertThat(english.components()).contains(Runnable.class);
     english.get(Runnable.class).run();
   }
+
+  @Test
+  public void testStemIntoBufferConsistent() throws IOException {
+    MutableCharArray result = new MutableCharArray();
+    for (String lang : LanguageComponents.loader().load().languages()) {
+      Stemmer stemmer = CachedLangComponents.loadCached(lang).get(Stemmer.class);
+      for (String word :
+          Arrays.asList("clustering", "clusters", "computers", "data", "abc", "x", "")) {
+        CharSequence expected = stemmer.stem(word);
+        int length = stemmer.stem(word, result);
+        if (expected == null) {
+          Assertions.assertThat(length).as(lang + ": " + word).isEqualTo(-1);
+        } else {
+          Assertions.assertThat(length).as(lang + ": " + word).isEqualTo(expected.length());
+          Assertions.assertThat(result.toString())
+              .as(lang + ": " + word)
+              .isEqualTo(expected.toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPooledComponents() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    Map<Class<?>, Supplier<?>> suppliers = new LinkedHashMap<>();
+    suppliers.put(Object.class, () -> new Object[] {created.incrementAndGet()});
+    suppliers.put(StringBuilder.class, StringBuilder::new);
+
+    LanguageComponents pooled =
+        new LanguageComponents("test", suppliers).pooled(Object.class, Tokenizer.class);
+    Assertions.assertThat(pooled.components()).containsOnly(Object.class, StringBuilder.class);
+
+    // The same instance is reused on each thread.
+    Object instance = pooled.get(Object.class);
+    for (int i = randomIntBetween(1, 10); i > 0; i--) {
+      Assertions.assertThat(pooled.get(Object.class)).isSameAs(instance);
+    }
+    Assertions.assertThat(created.get()).isEqualTo(1);
+
+    // Other threads get their own instances.
+    int threads = randomIntBetween(2, 4);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < threads * 10; i++) {
+        futures.add(executor.submit(() -> pooled.get(Object.class)));
+      }
+      Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (Future<Object> f : futures) {
+        instances.add(f.get());
+      }
+      Assertions.assertThat(instances).doesNotContain(instance).hasSizeBetween(1, threads);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Components not declared poolable are created on each call.
+    Assertions.assertThat(pooled.get(StringBuilder.class))
+        .isNotSameAs(pooled.get(StringBuilder.class));
+  }
+
+  @Test
+  public void testPooledTokenizerConsistent() throws IOException {
+    LanguageComponents english =
+        CachedLangComponents.loadCached("English").pooled(Tokenizer.class, Stemmer.class);
+    Assertions.assertThat(english.get(Tokenizer.class)).isSameAs(english.get(Tokenizer.class));
+    Assertions.assertThat(english.get(Stemmer.class)).isSameAs(english.get(Stemmer.class));
+
+    for (String input : Arrays.asList("Data clustering.", "Clustered data mining", "")) {
+      Tokenizer pooledTokenizer = english.get(Tokenizer.class);
+      pooledTokenizer.reset(input);
+      int tokens = 0;
+      while (pooledTokenizer.nextToken() >= 0) {
+        tokens++;
+      }
+
+      Tokenizer fresh = CachedLangComponents.loadCached("English").get(Tokenizer.class);
+      fresh.reset(input);
+      int expected = 0;
+      while (fresh.nextToken() >= 0) {
+        expected++;
+      }
+      Assertions.assertThat(tokens).as(input).isEqualTo(expected);
+    }
+  }
 }
@@ -0,0 +1,214 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.util.ChainedResourceLookup;
+import org.carrot2.util.ResourceLookup;
+import org.junit.Test;
+
+public class LexicalResourceSnapshotTest extends TestBase {
+  @Test
+  public void testRoundTrip() throws IOException {
+    DefaultDictionaryImpl dictionary = new DefaultDictionaryImpl();
+    dictionary.exact.set("foo", "Bar");
+    dictionary.glob.set("* information", "new *", "'Verbatim' ?");
+    dictionary.regexp.set("^ba[rz]+$", "(?i)copyright \\d+", "\\bclustering\\b");
+    assertSameMatches(dictionary);
+  }
+
+  @Test
+  public void testRoundTripDefaultResources() throws IOException {
+    for (String resource :
+        new String[] {"english.word-filters.json", "english.label-filters.json"}) {
+      byte[] json = resourceBytes(DefaultLexicalDataProvider.class, resource);
+      assertSameMatches(
+          LexicalResourceSnapshot.parseJson(DefaultDictionaryImpl.class, json, resource));
+    }
+  }
+
+  private void assertSameMatches(DefaultDictionaryImpl dictionary) throws IOException {
+    long sourceLength = randomIntBetween(0, 1000);
+    Predicate<CharSequence> restored =
+        LexicalResourceSnapshot.read(
+            ByteBuffer.wrap(toSnapshot(dictionary, sourceLength)),
+            randomBoolean() ? sourceLength : LexicalResourceSnapshot.ANY_SOURCE_LENGTH);
+    Assertions.assertThat(restored).isNotNull();
+
+    LabelFilter expected = dictionary.compileLabelFilter();
+    List<String> inputs =
+        List.of(
+            "foo",
+            "bar",
+            "Bar",
+            "baz",
+            "bazz baz",
+            "the information",
+            "new offers",
+            "Verbatim token",
+            "verbatim token",
+            "Copyright 2022",
+            "page 2",
+            "data clustering engine",
+            "a",
+            "about",
+            "data mining",
+            "line\nterminator 1");
+    for (String input : inputs) {
+      Assertions.assertThat(!restored.test(input)).as(input).isEqualTo(expected.test(input));
+    }
+  }
+
+  @Test
+  public void testStaleOrCorruptedSnapshotRejected() throws IOException {
+    DefaultDictionaryImpl dictionary = new DefaultDictionaryImpl();
+    dictionary.exact.set("foo", "bar");
+    dictionary.glob.set("foo *");
+    dictionary.regexp.set("ba[rz]");
+    byte[] snapshot = toSnapshot(dictionary, 42);
+
+    Assertions.assertThat(LexicalResourceSnapshot.read(ByteBuffer.wrap(snapshot), 43)).isNull();
+    Assertions.assertThat(LexicalResourceSnapshot.read(ByteBuffer.wrap(snapshot), 42)).isNotNull();
+
+    int truncated = randomIntBetween(0, snapshot.length - 1);
+    Assertions.assertThat(LexicalResourceSnapshot.read(ByteBuffer.wrap(snapshot, 0, truncated), 42))
+        .isNull();
+
+    // Magic and format version.
+    byte[] corrupted = snapshot.clone();
+    corrupted[randomIntBetween(0, 7)] ^= 0x1;
+    Assertions.assertThat(LexicalResourceSnapshot.read(ByteBuffer.wrap(corrupted), 42)).isNull();
+  }
+
+  @Test
+  public void testProviderPrefersConsistentSnapshot() throws IOException {
+    Path dir = newTempDir();
+    Path json = dir.resolve("english.word-filters.json");
+    Files.write(json, "{\"exact\": [\"foo\"]}".getBytes(StandardCharsets.UTF_8));
+    ResourceLookup lookup = new PathResourceLookup(dir);
+
+    // No snapshot: JSON is parsed.
+    StopwordFilter filter =
+        DefaultLexicalDataProvider.readDefaultWordFilters("english", lookup).get();
+    Assertions.assertThat(filter.test("foo")).isFalse();
+    Assertions.assertThat(filter.test("bar")).isTrue();
+
+    // Consistent snapshot: used instead of JSON (content differs on purpose).
+    DefaultDictionaryImpl dictionary = new DefaultDictionaryImpl();
+    dictionary.exact.set("bar");
+    Path snapshot = dir.resolve("english.word-filters.bin");
+    Files.write(snapshot, toSnapshot(dictionary, Files.size(json)));
+    filter = DefaultLexicalDataProvider.readDefaultWordFilters("english", lookup).get();
+    Assertions.assertThat(filter.test("foo")).isTrue();
+    Assertions.assertThat(filter.test("bar")).isFalse();
+
+    // A JSON resource from another location overrides the snapshot.
+    Path overrides = newTempDir();
+    Files.copy(json, overrides.resolve(json.getFileName()));
+    filter =
+        DefaultLexicalDataProvider.readDefaultWordFilters(
+                "english",
+                new ChainedResourceLookup(List.of(new PathResourceLookup(overrides), lookup)))
+            .get();
+    Assertions.assertThat(filter.test("foo")).isFalse();
+    Assertions.assertThat(filter.test("bar")).isTrue();
+
+    // JSON modified after the snapshot was created: JSON is parsed.
+    Files.write(json, "{\"exact\": [\"baz\"]}".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(
+        json, FileTime.fromMillis(Files.getLastModifiedTime(snapshot).toMillis() + 1000));
+    filter = DefaultLexicalDataProvider.readDefaultWordFilters("english", lookup).get();
+    Assertions.assertThat(filter.test("bar")).isTrue();
+    Assertions.assertThat(filter.test("baz")).isFalse();
+
+    // JSON of a different length: JSON is parsed.
+    Files.write(json, "{\"exact\": [\"bazz\"]}".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(json, Files.getLastModifiedTime(snapshot));
+    filter = DefaultLexicalDataProvider.readDefaultWordFilters("english", lookup).get();
+    Assertions.assertThat(filter.test("bar")).isTrue();
+    Assertions.assertThat(filter.test("bazz")).isFalse();
+
+    // Snapshot without JSON: snapshot is used.
+    Files.delete(json);
+    filter = DefaultLexicalDataProvider.readDefaultWordFilters("english", lookup).get();
+    Assertions.assertThat(filter.test("bar")).isFalse();
+  }
+
+  @Test
+  public void testCreateSnapshot() throws IOException {
+    Path dir = newTempDir();
+    Path json = dir.resolve("english.label-filters.json");
+    Files.write(
+        json, resourceBytes(DefaultLexicalDataProvider.class, "english.label-filters.json"));
+
+    Path snapshot = dir.resolve("english.label-filters.bin");
+    LexicalResourceSnapshot.createSnapshot(json, snapshot);
+    Files.setLastModifiedTime(json, Files.getLastModifiedTime(snapshot));
+
+    ResourceLookup lookup = new PathResourceLookup(dir);
+    Predicate<CharSequence> precompiled =
+        LexicalResourceSnapshot.load(lookup, "english.label-filters.json");
+    Assertions.assertThat(precompiled).isNotNull();
+
+    LabelFilter fromSnapshot =
+        DefaultLexicalDataProvider.readDefaultLabelFilters("english", lookup).get();
+    Files.delete(snapshot);
+    LabelFilter fromJson =
+        DefaultLexicalDataProvider.readDefaultLabelFilters("english", lookup).get();
+
+    for (String label :
+        new String[] {"information", "new offers", "clustering", "data mining", "page 12"}) {
+      Assertions.assertThat(fromSnapshot.test(label)).isEqualTo(fromJson.test(label));
+    }
+  }
+
+  private static byte[] toSnapshot(DefaultDictionaryImpl dictionary, long sourceLength)
+      throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    LexicalResourceSnapshot.write(dictionary, sourceLength, baos);
+    return baos.toByteArray();
+  }
+
+  private static class PathResourceLookup implements ResourceLookup {
+    private final Path dir;
+
+    PathResourceLookup(Path dir) {
+      this.dir = dir;
+    }
+
+    @Override
+    public InputStream open(String resource) throws IOException {
+      return Files.newInputStream(dir.resolve(resource));
+    }
+
+    @Override
+    public boolean exists(String resource) {
+      return Files.isRegularFile(dir.resolve(resource));
+    }
+
+    @Override
+    public String pathOf(String resource) {
+      return String.format(Locale.ROOT, "%s", dir.resolve(resource).toUri());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.util.MutableCharArray;
+import org.junit.Test;
+
+public class RegexpMatcherTest extends TestBase {
+  private static final String[] ATOMS = {
+    "a", "b", "c", ".", "[ab]", "[^a]", "[a-c]", "\\d", "\\W", "\\.", " ", "(?:a|bc)", "(a|)"
+  };
+
+  private static final String[] QUANTIFIERS = {"", "", "", "*", "+", "?", "*?", "{2}", "{1,3}"};
+
+  @Test
+  public void testSupportedSyntax() {
+    for (String p :
+        new String[] {
+          "foo",
+          "^foo$|bar",
+          "[a-z&]+\\d{2,}",
+          "(?:ab|c)*?x",
+          "\\x41\\u0042[\\t\\]-]",
+          "^$",
+          "a|",
+          "}]"
+        }) {
+      Assertions.assertThat(RegexpAutomaton.parse(p)).as(p).isNotNull();
+    }
+  }
+
+  @Test
+  public void testUnsupportedSyntax() {
+    for (String p :
+        new String[] {
+          "\\bfoo",
+          "(a)\\1",
+          "a*+",
+          "(?i)foo",
+          "(?=a)",
+          "[a-z&&[^e]]",
+          "a$b",
+          "(^a)",
+          "\\p{L}",
+          "a{2000}",
+          "(?:(?:(?:a{1,100}){1,100}){1,100})",
+          "\\Qa\\E"
+        }) {
+      Assertions.assertThat(RegexpAutomaton.parse(p)).as(p).isNull();
+    }
+  }
+
+  @Test
+  public void testMixedSupportedAndUnsupported() {
+    RegexpMatcher matcher = RegexpMatcher.compile(List.of("^foo\\b", "bar$"));
+    Assertions.assertThat(matcher.test("foo baz")).isTrue();
+    Assertions.assertThat(matcher.test("foobar")).isTrue();
+    Assertions.assertThat(matcher.test(new MutableCharArray("foobaz"))).isFalse();
+    Assertions.assertThat(matcher.test("bar baz")).isFalse();
+  }
+
+  @Test
+  public void testStateLimitAcrossPatterns() {
+    // Each pattern is supported on its own, together they exceed the automaton's state limit.
+    List<String> patterns = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      patterns.add("x{1000}" + i + "$");
+    }
+    RegexpMatcher matcher = RegexpMatcher.compile(patterns);
+    Assertions.assertThat(matcher.test("x".repeat(1000) + "0")).isTrue();
+    Assertions.assertThat(matcher.test("x".repeat(1000) + "99")).isTrue();
+    Assertions.assertThat(matcher.test("x".repeat(999) + "99")).isFalse();
+  }
+
+  @Test
+  public void testUndecidedInputs() {
+    RegexpMatcher matcher = RegexpMatcher.compile(List.of("a.b", "c$"));
+    Assertions.assertThat(matcher.test("a\nb")).isFalse();
+    Assertions.assertThat(matcher.test("a😀b")).isTrue();
+    Assertions.assertThat(matcher.test("abc\n")).isTrue();
+  }
+
+  @Test
+  public void testConsistentWithJavaRegexp() throws IOException {
+    for (int round = 0; round < 200; round++) {
+      List<String> patterns = new ArrayList<>();
+      for (int i = 0, max = randomIntBetween(1, 5); i < max; i++) {
+        patterns.add(randomPattern());
+      }
+
+      Pattern reference = Pattern.compile("(" + String.join(")|(", patterns) + ")");
+      RegexpMatcher matcher = RegexpMatcher.compile(patterns);
+      if (randomBoolean()) {
+        matcher = writeAndRead(matcher);
+      }
+      for (int i = 0; i < 50; i++) {
+        String input = randomInput();
+        Assertions.assertThat(matcher.test(input))
+            .as("Patterns: %s, input: '%s'", patterns, input)
+            .isEqualTo(reference.matcher(input).find());
+      }
+    }
+  }
+
+  private static RegexpMatcher writeAndRead(RegexpMatcher matcher) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(baos)) {
+      matcher.write(out);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    RegexpMatcher restored = RegexpMatcher.read(buffer);
+    Assertions.assertThat(buffer.hasRemaining()).isFalse();
+    return restored;
+  }
+
+  private String randomPattern() {
+    StringBuilder sb = new StringBuilder();
+    if (randomBoolean()) {
+      sb.append('^');
+    }
+    for (int i = 0, max = randomIntBetween(1, 4); i < max; i++) {
+      sb.append(randomFrom(ATOMS)).append(randomFrom(QUANTIFIERS));
+    }
+    if (randomBoolean()) {
+      sb.append('$');
+    }
+    return sb.toString();
+  }
+
+  private String randomInput() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0, max = randomIntBetween(0, 8); i < max; i++) {
+      sb.append(randomFrom(new String[] {"a", "b", "c", "1", " ", ".", "-", "\n", "é"}));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.clustering.CachedLangComponents;
+import org.carrot2.util.MutableCharArray;
+import org.junit.Test;
+
+/** Test cases for {@link StemCache}. */
+public class StemCacheTest extends TestBase {
+  @Test
+  public void testHitsAndMisses() {
+    AtomicInteger calls = new AtomicInteger();
+    Stemmer stemmer =
+        (word) -> {
+          calls.incrementAndGet();
+          return word.length() > 3 ? word.subSequence(0, 3) : null;
+        };
+
+    StemCache cache = new StemCache(100);
+    Stemmer cached = cache.wrap(stemmer);
+
+    Assertions.assertThat(cached.stem("abcd").toString()).isEqualTo("abc");
+    Assertions.assertThat(cached.stem(new MutableCharArray("abcd")).toString()).isEqualTo("abc");
+    Assertions.assertThat(cached.stem("ab")).isNull();
+    Assertions.assertThat(cached.stem("ab")).isNull();
+
+    Assertions.assertThat(calls.get()).isEqualTo(2);
+    Assertions.assertThat(cache.hits()).isEqualTo(2);
+    Assertions.assertThat(cache.misses()).isEqualTo(2);
+    Assertions.assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void testMutableKeysAreCopied() {
+    StemCache cache = new StemCache(100);
+    Stemmer cached = cache.wrap((word) -> word.toString().toUpperCase(Locale.ROOT));
+
+    char[] buffer = "abc".toCharArray();
+    MutableCharArray word = new MutableCharArray(buffer);
+    Assertions.assertThat(cached.stem(word).toString()).isEqualTo("ABC");
+    buffer[0] = 'x';
+    word.reset(buffer);
+    Assertions.assertThat(cached.stem(word).toString()).isEqualTo("XBC");
+    Assertions.assertThat(cached.stem("abc").toString()).isEqualTo("ABC");
+  }
+
+  @Test
+  public void testEviction() {
+    int maxSize = randomIntBetween(1, 100);
+    StemCache cache = new StemCache(maxSize);
+    Stemmer cached = cache.wrap((word) -> word);
+    for (int i = 0; i < maxSize * 10; i++) {
+      cached.stem("w" + i);
+    }
+
+    Assertions.assertThat(cache.size()).isBetween(1, maxSize);
+    Assertions.assertThat(cache.evictions()).isEqualTo(maxSize * 10 - cache.size());
+  }
+
+  @Test
+  public void testAttachedToLanguageComponents() throws Exception {
+    LanguageComponents english = CachedLangComponents.english();
+    StemCache cache = new StemCache(1000);
+    LanguageComponents cached = cache.attach(english);
+
+    Assertions.assertThat(cached.get(StemCache.class)).isSameAs(cache);
+
+    List<String> words = List.of("clustering", "clusters", "computers", "computing", "data");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  Stemmer reference = english.get(Stemmer.class);
+                  Stemmer stemmer = cached.get(Stemmer.class);
+                  for (int i = 0; i < 100; i++) {
+                    for (String word : words) {
+                      Assertions.assertThat(String.valueOf(stemmer.stem(word)))
+                          .isEqualTo(String.valueOf(reference.stem(word)));
+                    }
+                  }
+                }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+      Assertions.assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    Assertions.assertThat(cache.misses()).isBetween((long) words.size(), 4L * words.size());
+    Assertions.assertThat(cache.hits() + cache.misses()).isEqualTo(4L * 100 * words.size());
+  }
+}
@@ -52,26 +52,39 @@ abstract class TokenizerTestBase extends TestBase {
     }
   }
 
-  /** Compare expected and produced token sequences. */
+  /**
+   * Compare expected and produced token sequences. The same tokenizer is reset with a {@link
+   * java.io.Reader}, a {@link String} and a {@link MutableCharArray} view of the test string.
+   */
   protected void assertEqualTokens(String testString, TokenImage[] expectedTokens) {
     try {
       final Tokenizer tokenStream = createTokenStream();
+
       tokenStream.reset(new StringReader(testString));
+      Assertions.assertThat(collectTokens(tokenStream)).containsExactly(expectedTokens);
 
-      final ArrayList<TokenImage> tokens = new ArrayList<>();
-      short token;
-      MutableCharArray buffer = new MutableCharArray();
-      while ((token = tokenStream.nextToken()) >= 0) {
-        tokenStream.setTermBuffer(buffer);
-        tokens.add(new TokenImage(buffer.toString(), token));
-      }
+      tokenStream.reset(testString);
+      Assertions.assertThat(collectTokens(tokenStream)).containsExactly(expectedTokens);
 
-      Assertions.assertThat(tokens).containsExactly(expectedTokens);
+      final char[] padded = ("  " + testString + "  ").toCharArray();
+      tokenStream.reset(new MutableCharArray(padded, 2, testString.length()));
+      Assertions.assertThat(collectTokens(tokenStream)).containsExactly(expectedTokens);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
+  protected static ArrayList<TokenImage> collectTokens(Tokenizer tokenStream) throws IOException {
+    final ArrayList<TokenImage> tokens = new ArrayList<>();
+    short token;
+    MutableCharArray buffer = new MutableCharArray();
+    while ((token = tokenStream.nextToken()) >= 0) {
+      tokenStream.setTermBuffer(buffer);
+      tokens.add(new TokenImage(buffer.toString(), token));
+    }
+    return tokens;
+  }
+
   protected TokenImage term(String image) {
     return new TokenImage(image, Tokenizer.TT_TERM);
   }
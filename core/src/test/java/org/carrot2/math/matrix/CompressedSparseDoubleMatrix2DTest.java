@@ -0,0 +1,228 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.matrix.DoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.CompressedSparseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix1D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.junit.Test;
+
+/** Test cases for {@link CompressedSparseDoubleMatrix2D}. */
+public class CompressedSparseDoubleMatrix2DTest extends TestBase {
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testSetAndGetInRandomOrder() {
+    int rows = randomIntBetween(1, 20);
+    int columns = randomIntBetween(1, 20);
+    DoubleMatrix2D expected = new DenseDoubleMatrix2D(rows, columns);
+    DoubleMatrix2D actual = new CompressedSparseDoubleMatrix2D(rows, columns, randomBoolean());
+
+    for (int i = randomIntBetween(0, rows * columns * 2); --i >= 0; ) {
+      int row = randomIntBetween(0, rows - 1);
+      int column = randomIntBetween(0, columns - 1);
+      double value = randomBoolean() ? 0 : randomIntBetween(1, 100) / 10d;
+      expected.set(row, column, value);
+      actual.set(row, column, value);
+    }
+
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected);
+    assertThat(actual.cardinality()).isEqualTo(expected.cardinality());
+    assertThat(actual.zSum()).isEqualTo(expected.zSum(), offset(DELTA));
+    assertThat(actual.toArray()).isDeepEqualTo(expected.toArray());
+  }
+
+  @Test
+  public void testViews() {
+    DoubleMatrix2D expected = randomSparse(randomIntBetween(2, 15), randomIntBetween(2, 15));
+    DoubleMatrix2D actual = compressed(expected, randomBoolean());
+
+    MatrixAssertions.assertThat(actual.viewDice()).isEquivalentTo(expected.viewDice());
+    MatrixAssertions.assertThat(actual.viewPart(1, 1, expected.rows() - 1, expected.columns() - 1))
+        .isEquivalentTo(expected.viewPart(1, 1, expected.rows() - 1, expected.columns() - 1));
+    MatrixAssertions.assertThat(actual.viewSelection(null, new int[] {1, 0}))
+        .isEquivalentTo(expected.viewSelection(null, new int[] {1, 0}));
+    MatrixAssertions.assertThat(actual.viewRowFlip()).isEquivalentTo(expected.viewRowFlip());
+    MatrixAssertions.assertThat(actual.viewColumn(1)).isEquivalentTo(expected.viewColumn(1));
+    MatrixAssertions.assertThat(actual.viewRow(1)).isEquivalentTo(expected.viewRow(1));
+
+    // Views write through to the matrix.
+    actual.viewDice().set(1, 0, 42);
+    actual.viewPart(1, 1, 1, 1).set(0, 0, 43);
+    expected.set(0, 1, 42);
+    expected.set(1, 1, 43);
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected);
+  }
+
+  @Test
+  public void testMultiplyWithDense() {
+    int m = randomIntBetween(1, 15);
+    int n = randomIntBetween(1, 15);
+    int p = randomIntBetween(1, 5);
+    DoubleMatrix2D expectedA = randomSparse(m, n);
+    DoubleMatrix2D A = compressed(expectedA, randomBoolean());
+
+    for (boolean transposeA : new boolean[] {false, true}) {
+      for (boolean transposeB : new boolean[] {false, true}) {
+        int rows = transposeA ? n : m;
+        int inner = transposeA ? m : n;
+        DoubleMatrix2D B = transposeB ? randomDense(p, inner) : randomDense(inner, p);
+        DoubleMatrix2D C = randomDense(rows, p);
+        DoubleMatrix2D expectedC = C.copy();
+
+        expectedA.zMult(B, expectedC, 0.5, 2, transposeA, transposeB);
+        A.zMult(B, C, 0.5, 2, transposeA, transposeB);
+        MatrixAssertions.assertThat(C).isEquivalentTo(expectedC, DELTA);
+        MatrixAssertions.assertThat(A.zMult(B, null, 1, 0, transposeA, transposeB))
+            .isEquivalentTo(expectedA.zMult(B, null, 1, 0, transposeA, transposeB), DELTA);
+      }
+    }
+
+    // Dense times sparse.
+    DoubleMatrix2D D = randomDense(p, m);
+    DoubleMatrix2D expectedDA = D.zMult(expectedA, null, 1, 0, false, false);
+    MatrixAssertions.assertThat(D.zMult(A, null, 1, 0, false, false))
+        .isEquivalentTo(expectedDA, DELTA);
+    MatrixAssertions.assertThat(D.zMult(A.viewDice(), null, 1, 0, false, true))
+        .isEquivalentTo(expectedDA, DELTA);
+
+    // Matrix-vector products.
+    DoubleMatrix1D y = randomDense(n, 1).viewColumn(0);
+    DoubleMatrix1D z = new DenseDoubleMatrix1D(m);
+    z.assign(1);
+    MatrixAssertions.assertThat(A.zMult(y, z.copy(), 2, 0.5, false))
+        .isEquivalentTo(expectedA.zMult(y, z.copy(), 2, 0.5, false), DELTA);
+    DoubleMatrix1D x = randomDense(m, 1).viewColumn(0);
+    MatrixAssertions.assertThat(A.zMult(x, null, 1, 0, true))
+        .isEquivalentTo(expectedA.zMult(x, null, 1, 0, true), DELTA);
+  }
+
+  @Test
+  public void testParallelMultiplyMatchesSequential() throws Exception {
+    // Large enough for the product to be split into blocks.
+    int m = randomIntBetween(500, 700);
+    int n = randomIntBetween(500, 700);
+    int p = randomIntBetween(16, 24);
+    boolean transposeA = randomBoolean();
+    CompressedSparseDoubleMatrix2D A =
+        (CompressedSparseDoubleMatrix2D) compressed(randomSparse(m, n), randomBoolean());
+    DoubleMatrix2D B = randomDense(transposeA ? m : n, p);
+    DoubleMatrix2D C = randomDense(transposeA ? n : m, p);
+
+    DoubleMatrix2D sequential = C.copy();
+    A.zMult(B, sequential, 0.5, 2, transposeA, false);
+
+    DoubleMatrix2D parallel = C.copy();
+    ForkJoinPool pool = new ForkJoinPool(randomIntBetween(1, 4));
+    try {
+      A.zMult(
+          B,
+          parallel,
+          0.5,
+          2,
+          transposeA,
+          false,
+          randomBoolean() ? pool : null,
+          randomIntBetween(2, 8));
+    } finally {
+      pool.shutdown();
+      assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+    assertThat(parallel.toArray()).isDeepEqualTo(sequential.toArray());
+  }
+
+  @Test
+  public void testAssign() {
+    int rows = randomIntBetween(1, 10);
+    int columns = randomIntBetween(1, 10);
+    DoubleMatrix2D expected = randomSparse(rows, columns);
+    DoubleMatrix2D actual = compressed(expected, randomBoolean());
+
+    actual.assign(Functions.mult(3));
+    expected.assign(Functions.mult(3));
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected);
+
+    actual.assign(Functions.plus(1));
+    expected.assign(Functions.plus(1));
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected);
+
+    DoubleMatrix2D other = randomSparse(rows, columns);
+    actual.assign(compressed(other, randomBoolean()), Functions.MINUS);
+    expected.assign(other, Functions.MINUS);
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected, DELTA);
+
+    actual.assign(other, Functions.MULT);
+    expected.assign(other, Functions.MULT);
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected, DELTA);
+
+    // Copies between layouts and into dense matrices.
+    MatrixAssertions.assertThat(compressed(actual, true)).isEquivalentTo(expected, DELTA);
+    MatrixAssertions.assertThat(compressed(actual, false)).isEquivalentTo(expected, DELTA);
+    MatrixAssertions.assertThat(actual.copy()).isEquivalentTo(expected, DELTA);
+    MatrixAssertions.assertThat(new DenseDoubleMatrix2D(rows, columns).assign(actual))
+        .isEquivalentTo(expected, DELTA);
+
+    DoubleMatrix2D dense = randomDense(rows, columns);
+    MatrixAssertions.assertThat(dense.copy().assign(actual, Functions.PLUS))
+        .isEquivalentTo(dense.copy().assign(expected, Functions.PLUS), DELTA);
+    MatrixAssertions.assertThat(dense.copy().assign(actual, Functions.DIV))
+        .isEquivalentTo(dense.copy().assign(expected, Functions.DIV), DELTA);
+
+    actual.assign(0);
+    assertThat(actual.cardinality()).isZero();
+  }
+
+  @Test
+  public void testNormalizeColumnL2() {
+    DoubleMatrix2D expected = randomSparse(randomIntBetween(1, 15), randomIntBetween(1, 15));
+    DoubleMatrix2D actual = compressed(expected, randomBoolean());
+
+    MatrixUtils.normalizeColumnL2(expected, null);
+    MatrixUtils.normalizeColumnL2(actual, null);
+    MatrixAssertions.assertThat(actual).isEquivalentTo(expected);
+  }
+
+  private DoubleMatrix2D compressed(DoubleMatrix2D source, boolean rowCompressed) {
+    return new CompressedSparseDoubleMatrix2D(source.rows(), source.columns(), rowCompressed)
+        .assign(source);
+  }
+
+  private DoubleMatrix2D randomSparse(int rows, int columns) {
+    DoubleMatrix2D matrix = new DenseDoubleMatrix2D(rows, columns);
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        if (randomIntBetween(0, 3) == 0) {
+          matrix.setQuick(r, c, randomIntBetween(1, 100) / 10d);
+        }
+      }
+    }
+    return matrix;
+  }
+
+  private DoubleMatrix2D randomDense(int rows, int columns) {
+    DoubleMatrix2D matrix = new DenseDoubleMatrix2D(rows, columns);
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        matrix.setQuick(r, c, randomIntBetween(-100, 100) / 10d);
+      }
+    }
+    return matrix;
+  }
+}
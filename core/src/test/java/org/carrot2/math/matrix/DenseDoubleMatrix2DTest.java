@@ -0,0 +1,163 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.Functions;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.junit.Test;
+
+/** Test cases for {@link DenseDoubleMatrix2D}. */
+public class DenseDoubleMatrix2DTest extends TestBase {
+  @Test
+  public void testTiledMultiplicationMatchesSmallProducts() throws Exception {
+    int m = randomIntBetween(100, 200);
+    int n = randomIntBetween(100, 200);
+    int p = randomIntBetween(60, 100);
+    boolean transposeA = randomBoolean();
+    boolean transposeB = randomBoolean();
+
+    DoubleMatrix2D A = transposeA ? random(n, m) : random(m, n);
+    DoubleMatrix2D B = transposeB ? random(p, n) : random(n, p);
+    DoubleMatrix2D C = random(m, p);
+
+    DoubleMatrix2D sequential = C.copy();
+    A.zMult(B, sequential, 0.5, 2, transposeA, transposeB);
+
+    DoubleMatrix2D parallel = C.copy();
+    ForkJoinPool pool = new ForkJoinPool(randomIntBetween(1, 4));
+    try {
+      ((DenseDoubleMatrix2D) A)
+          .zMult(
+              B,
+              parallel,
+              0.5,
+              2,
+              transposeA,
+              transposeB,
+              randomBoolean() ? pool : null,
+              randomIntBetween(2, 8));
+    } finally {
+      pool.shutdown();
+      assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+    // Tiled and untiled products use the same kernels, whichever are selected.
+    assertThat(parallel.toArray()).isDeepEqualTo(sequential.toArray());
+
+    // Single cells (and single-threaded products) go through the untiled code.
+    DoubleMatrix2D opA = transposeA ? A.viewDice() : A;
+    DoubleMatrix2D opB = transposeB ? B.viewDice() : B;
+    for (int i = 0; i < 50; i++) {
+      int row = randomIntBetween(0, m - 1);
+      int column = randomIntBetween(0, p - 1);
+      DoubleMatrix2D cell = C.viewPart(row, column, 1, 1).copy();
+      opA.viewPart(row, 0, 1, n).zMult(opB.viewPart(0, column, n, 1), cell, 0.5, 2, false, false);
+      assertThat(cell.get(0, 0)).isEqualTo(sequential.get(row, column));
+    }
+  }
+
+  @Test
+  public void testColumnSumsAndDivision() {
+    int rows = randomIntBetween(0, 30);
+    int columns = randomIntBetween(1, 30);
+    DoubleMatrix2D matrix = random(rows, columns);
+    if (rows > 0) {
+      matrix.viewColumn(randomIntBetween(0, columns - 1)).assign(0);
+    }
+    // A transposed view has a non-unit column stride.
+    DenseDoubleMatrix2D A =
+        (DenseDoubleMatrix2D) (randomBoolean() ? matrix : matrix.viewDice().copy().viewDice());
+
+    for (boolean squares : new boolean[] {true, false}) {
+      double[] expected = new double[columns];
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < columns; c++) {
+          expected[c] += squares ? A.getQuick(r, c) * A.getQuick(r, c) : A.getQuick(r, c);
+        }
+      }
+      double[] sums = new double[columns];
+      A.addColumnSums(sums, squares);
+      assertThat(sums).containsExactly(expected);
+    }
+
+    double[] divisors = new double[columns];
+    A.addColumnSums(divisors, false);
+    double[][] expected = A.toArray();
+    for (double[] row : expected) {
+      for (int c = 0; c < columns; c++) {
+        if (divisors[c] != 0) {
+          row[c] /= divisors[c];
+        }
+      }
+    }
+    A.divideColumns(divisors);
+    assertThat(A.toArray()).isDeepEqualTo(expected);
+  }
+
+  @Test
+  public void testElementWiseKernelsOnRowBlockViews() {
+    int rows = randomIntBetween(2, 40);
+    int columns = randomIntBetween(1, 30);
+    int from = randomIntBetween(0, rows - 1);
+    int height = randomIntBetween(0, rows - from);
+
+    DenseDoubleMatrix2D x = (DenseDoubleMatrix2D) random(rows, columns);
+    DenseDoubleMatrix2D y = (DenseDoubleMatrix2D) random(rows, columns);
+    y.assign(v -> v == 0 ? 1 : v);
+
+    // Row blocks (as updated by the iterative factorizations) take the kernel path.
+    DenseDoubleMatrix2D xBlock = (DenseDoubleMatrix2D) x.viewPart(from, 0, height, columns);
+    DenseDoubleMatrix2D yBlock = (DenseDoubleMatrix2D) y.viewPart(from, 0, height, columns);
+    assertThat(x.isContiguous()).isTrue();
+    assertThat(xBlock.isContiguous()).isTrue();
+    assertThat(yBlock.isContiguous()).isTrue();
+    if (columns > 1) {
+      assertThat(((DenseDoubleMatrix2D) x.viewPart(0, 0, rows, columns - 1)).isContiguous())
+          .isFalse();
+      assertThat(((DenseDoubleMatrix2D) x.viewDice()).isContiguous()).isFalse();
+    }
+
+    double[][] expected = x.toArray();
+    for (int r = from; r < from + height; r++) {
+      for (int c = 0; c < columns; c++) {
+        expected[r][c] = (expected[r][c] * y.getQuick(r, c)) / y.getQuick(r, c);
+        expected[r][c] += 0.5 * y.getQuick(r, c);
+        expected[r][c] *= 3;
+      }
+    }
+    xBlock.assign(yBlock, Functions.MULT);
+    xBlock.assign(yBlock, Functions.DIV);
+    xBlock.assign(yBlock, Functions.plusMult(0.5));
+    xBlock.assign(Functions.mult(3));
+    assertThat(x.toArray()).isDeepEqualTo(expected);
+
+    xBlock.assign(yBlock);
+    for (int r = from; r < from + height; r++) {
+      expected[r] = y.viewRow(r).toArray();
+    }
+    assertThat(x.toArray()).isDeepEqualTo(expected);
+  }
+
+  private DoubleMatrix2D random(int rows, int columns) {
+    DoubleMatrix2D matrix = new DenseDoubleMatrix2D(rows, columns);
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        matrix.setQuick(r, c, randomIntBetween(-1000, 1000) / 100d);
+      }
+    }
+    return matrix;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.math.matrix;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.carrot2.TestBase;
+import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DoubleKernels;
+import org.junit.Test;
+
+/** Test cases for {@link DoubleKernels}. */
+public class DoubleKernelsTest extends TestBase {
+  @Test
+  public void testDenseProductUsesActiveDot() {
+    int n = randomIntBetween(0, 100);
+    double[] a = random(n);
+    double[] b = random(n);
+
+    DoubleMatrix2D row = new DenseDoubleMatrix2D(new double[][] {a});
+    DoubleMatrix2D column = new DenseDoubleMatrix2D(new double[][] {b}).viewDice();
+    double product = row.zMult(column, null, 1, 0, false, false).get(0, 0);
+
+    assertThat(product).isEqualTo(DoubleKernels.get().dot(a, 0, b, 0, n));
+    assertThat(DoubleKernels.SCALAR.dot(a, 0, b, 0, n)).isCloseTo(product, within(1e-9));
+    assertThat(DoubleKernels.UNROLLED.dot(a, 0, b, 0, n)).isCloseTo(product, within(1e-9));
+  }
+
+  @Test
+  public void testOffsets() {
+    int n = randomIntBetween(0, 50);
+    int offset = randomIntBetween(0, 5);
+    double[] x = random(n + offset);
+    double[] y = random(n + offset);
+
+    double expectedDot = 0;
+    for (int i = 0; i < n; i++) {
+      expectedDot += x[offset + i] * y[offset + i];
+    }
+    for (DoubleKernels kernels :
+        new DoubleKernels[] {DoubleKernels.SCALAR, DoubleKernels.UNROLLED}) {
+      assertThat(kernels.dot(x, offset, y, offset, n)).isCloseTo(expectedDot, within(1e-9));
+    }
+
+    double alpha = randomIntBetween(-10, 10) / 4d;
+    double[] expected = y.clone();
+    for (int i = 0; i < n; i++) {
+      expected[offset + i] = ((y[offset + i] + alpha * x[offset + i]) * x[offset + i]) * alpha;
+      expected[offset + i] /= x[offset + i];
+    }
+
+    DoubleKernels kernels = DoubleKernels.get();
+    kernels.axpy(alpha, x, offset, y, offset, n);
+    kernels.multiply(x, offset, y, offset, n);
+    kernels.scale(alpha, y, offset, n);
+    kernels.divide(x, offset, y, offset, n);
+    assertThat(y).containsExactly(expected);
+  }
+
+  @Test
+  public void testForName() {
+    assertThat(DoubleKernels.forName("scalar")).isSameAs(DoubleKernels.SCALAR);
+    assertThat(DoubleKernels.forName(" Unrolled ")).isSameAs(DoubleKernels.UNROLLED);
+    assertThatThrownBy(() -> DoubleKernels.forName("simd"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(DoubleKernels.PROPERTY);
+  }
+
+  @Test
+  public void testSelectFallsBackToScalar() {
+    assertThat(DoubleKernels.select("unrolled")).isSameAs(DoubleKernels.UNROLLED);
+    assertThat(DoubleKernels.select("simd")).isSameAs(DoubleKernels.SCALAR);
+  }
+
+  @Test
+  public void testElementWiseKernelsAreExact() {
+    int n = randomIntBetween(0, 100);
+    int offset = randomIntBetween(0, 5);
+    double[] x = random(n + offset);
+    double[] y = random(n + offset);
+    for (int i = 0; i < n; i += randomIntBetween(1, 5)) {
+      x[offset + i] = 0;
+    }
+
+    double alpha = randomIntBetween(-10, 10) / 4d;
+    double[] expected = y.clone();
+    for (int i = offset; i < offset + n; i++) {
+      expected[i] = ((expected[i] + alpha * x[i]) * x[i]) * alpha;
+      expected[i] += x[i] * x[i];
+      if (x[i] != 0) {
+        expected[i] /= x[i];
+      }
+    }
+
+    for (DoubleKernels kernels : available()) {
+      double[] actual = y.clone();
+      kernels.axpy(alpha, x, offset, actual, offset, n);
+      kernels.multiply(x, offset, actual, offset, n);
+      kernels.scale(alpha, actual, offset, n);
+      kernels.addSquares(x, offset, actual, offset, n);
+      kernels.divideNonZero(x, offset, actual, offset, n);
+      assertThat(actual).as(kernels.name()).containsExactly(expected);
+    }
+  }
+
+  @Test
+  public void testVectorKernels() {
+    DoubleKernels vector;
+    try {
+      vector = DoubleKernels.forName("vector");
+    } catch (IllegalArgumentException e) {
+      assumeTrue("Vector API not available: " + e.getMessage(), false);
+      return;
+    }
+
+    int n = randomIntBetween(0, 100);
+    double[] a = random(n);
+    double[] b = random(n);
+    assertThat(vector.name()).isEqualTo("vector");
+    assertThat(vector.dot(a, 0, b, 0, n))
+        .isCloseTo(DoubleKernels.SCALAR.dot(a, 0, b, 0, n), within(1e-9));
+
+    double[] expected = b.clone();
+    double[] actual = b.clone();
+    DoubleKernels.SCALAR.divide(a, 0, expected, 0, n);
+    vector.divide(a, 0, actual, 0, n);
+    assertThat(actual).containsExactly(expected);
+  }
+
+  private static List<DoubleKernels> available() {
+    List<DoubleKernels> kernels =
+        new ArrayList<>(Arrays.asList(DoubleKernels.SCALAR, DoubleKernels.UNROLLED));
+    try {
+      kernels.add(DoubleKernels.forName("vector"));
+    } catch (IllegalArgumentException e) {
+      // Not available in this JVM.
+    }
+    return kernels;
+  }
+
+  private double[] random(int length) {
+    double[] values = new double[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = randomIntBetween(-1000, 1000) / 100d;
+    }
+    return values;
+  }
+}
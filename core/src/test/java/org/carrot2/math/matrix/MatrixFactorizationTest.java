@@ -10,9 +10,18 @@
  */
 package org.carrot2.math.matrix;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.carrot2.TestBase;
+import org.carrot2.math.mahout.function.Functions;
 import org.carrot2.math.mahout.matrix.DoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.CompressedSparseDoubleMatrix2D;
 import org.carrot2.math.mahout.matrix.impl.DenseDoubleMatrix2D;
+import org.carrot2.math.mahout.matrix.impl.DoubleKernels;
 import org.junit.Test;
 
 /** Test cases for matrix factorizations. */
@@ -74,6 +83,131 @@ public class MatrixFactorizationTest extends TestBase {
     org.junit.Assert.assertArrayEquals(expectedS, factorization.getSingularValues(), DELTA);
   }
 
+  @Test
+  public void testRandomizedSVD() {
+    PartialSingularValueDecompositionFactory exactFactory =
+        new PartialSingularValueDecompositionFactory();
+    exactFactory.setK(K);
+    PartialSingularValueDecomposition exact =
+        (PartialSingularValueDecomposition) exactFactory.factorize(A);
+
+    RandomizedSingularValueDecompositionFactory factory =
+        new RandomizedSingularValueDecompositionFactory();
+    factory.setK(K);
+    RandomizedSingularValueDecomposition factorization =
+        (RandomizedSingularValueDecomposition) factory.factorize(A);
+
+    // With oversampling the sampled subspace covers the whole (small) range, so the result is
+    // exact.
+    org.junit.Assert.assertArrayEquals(
+        exact.getSingularValues(), factorization.getSingularValues(), DELTA);
+    checkUpToSign(exact, factorization);
+
+    checkUpToSign(
+        factorization, factory.factorize(new CompressedSparseDoubleMatrix2D(A.toArray())));
+  }
+
+  @Test
+  public void testRandomizedSVDOfLowRankMatrix() {
+    int rows = randomIntBetween(60, 120);
+    int columns = randomIntBetween(40, 80);
+    int rank = randomIntBetween(3, 8);
+
+    DoubleMatrix2D left = new DenseDoubleMatrix2D(rows, rank);
+    DoubleMatrix2D right = new DenseDoubleMatrix2D(rank, columns);
+    left.assign(v -> randomDouble());
+    right.assign(v -> randomDouble());
+    DoubleMatrix2D lowRank = left.zMult(right, null, 1, 0, false, false);
+
+    PartialSingularValueDecompositionFactory exactFactory =
+        new PartialSingularValueDecompositionFactory();
+    exactFactory.setK(rank);
+    PartialSingularValueDecomposition exact =
+        (PartialSingularValueDecomposition) exactFactory.factorize(lowRank);
+
+    RandomizedSingularValueDecompositionFactory factory =
+        new RandomizedSingularValueDecompositionFactory();
+    factory.setK(rank);
+    factory.oversampling.set(randomIntBetween(0, 5));
+    factory.powerIterations.set(randomIntBetween(0, 2));
+    RandomizedSingularValueDecomposition factorization =
+        (RandomizedSingularValueDecomposition) factory.factorize(lowRank);
+
+    org.junit.Assert.assertArrayEquals(
+        exact.getSingularValues(), factorization.getSingularValues(), 1e-8);
+    checkUpToSign(exact, factorization);
+  }
+
+  @Test
+  public void testLanczosSVD() {
+    PartialSingularValueDecompositionFactory exactFactory =
+        new PartialSingularValueDecompositionFactory();
+    exactFactory.setK(K);
+    PartialSingularValueDecomposition exact =
+        (PartialSingularValueDecomposition) exactFactory.factorize(A);
+
+    LanczosSingularValueDecompositionFactory factory =
+        new LanczosSingularValueDecompositionFactory();
+    factory.setK(K);
+    LanczosSingularValueDecomposition factorization =
+        (LanczosSingularValueDecomposition) factory.factorize(A);
+
+    org.junit.Assert.assertArrayEquals(
+        exact.getSingularValues(), factorization.getSingularValues(), DELTA);
+    checkUpToSign(exact, factorization);
+
+    checkUpToSign(
+        factorization, factory.factorize(new CompressedSparseDoubleMatrix2D(A.toArray())));
+  }
+
+  @Test
+  public void testLanczosSVDOfSparseMatrix() {
+    int rows = randomIntBetween(80, 150);
+    int columns = randomIntBetween(40, 100);
+    int k = randomIntBetween(1, 10);
+
+    // A sparse matrix with roughly 10% non-zero cells.
+    CompressedSparseDoubleMatrix2D sparse =
+        new CompressedSparseDoubleMatrix2D(rows, columns, randomBoolean());
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns; c++) {
+        if (randomIntBetween(0, 9) == 0) {
+          sparse.setQuick(r, c, randomDouble());
+        }
+      }
+    }
+
+    PartialSingularValueDecompositionFactory exactFactory =
+        new PartialSingularValueDecompositionFactory();
+    exactFactory.setK(k);
+    PartialSingularValueDecomposition exact =
+        (PartialSingularValueDecomposition) exactFactory.factorize(sparse);
+
+    LanczosSingularValueDecompositionFactory factory =
+        new LanczosSingularValueDecompositionFactory();
+    factory.setK(k);
+    LanczosSingularValueDecomposition factorization =
+        (LanczosSingularValueDecomposition) factory.factorize(sparse);
+
+    org.junit.Assert.assertArrayEquals(
+        exact.getSingularValues(), factorization.getSingularValues(), 1e-8);
+    checkUpToSign(exact, factorization);
+  }
+
+  /** Singular vectors are unique only up to the sign of each (U, V) column pair. */
+  private void checkUpToSign(MatrixFactorization expected, MatrixFactorization actual) {
+    DoubleMatrix2D u = actual.getU().copy();
+    DoubleMatrix2D v = actual.getV().copy();
+    for (int c = 0; c < u.columns(); c++) {
+      if (u.viewColumn(c).zDotProduct(expected.getU().viewColumn(c)) < 0) {
+        u.viewColumn(c).assign(x -> -x);
+        v.viewColumn(c).assign(x -> -x);
+      }
+    }
+    MatrixAssertions.assertThat(u).as("U").isEquivalentTo(expected.getU(), DELTA);
+    MatrixAssertions.assertThat(v).as("V").isEquivalentTo(expected.getV(), DELTA);
+  }
+
   @Test
   public void testUnorderedNMFED() {
     DoubleMatrix2D expectedU =
@@ -214,6 +348,193 @@ public class MatrixFactorizationTest extends TestBase {
     checkIterative(expectedU, expectedV, new LocalNonnegativeMatrixFactorizationFactory());
   }
 
+  @Test
+  public void testApproximationError() {
+    IterativeMatrixFactorizationFactory[] factories = {
+      new NonnegativeMatrixFactorizationEDFactory(),
+      new NonnegativeMatrixFactorizationKLFactory(),
+      new LocalNonnegativeMatrixFactorizationFactory()
+    };
+
+    for (IterativeMatrixFactorizationFactory factory : factories) {
+      factory.setK(K);
+      factory.setMaxIterations(MAX_ITERATIONS);
+      factory.setStopThreshold(STOP_THRESHOLD);
+      factory.setSeedingFactory(ConstantSeedingStrategyFactory.INSTANCE);
+
+      for (DoubleMatrix2D input :
+          new DoubleMatrix2D[] {A, new CompressedSparseDoubleMatrix2D(A.toArray())}) {
+        IterativeMatrixFactorizationBase factorization =
+            (IterativeMatrixFactorizationBase) factory.factorize(input);
+        double expected =
+            MatrixUtils.frobeniusNorm(
+                factorization
+                    .getU()
+                    .zMult(factorization.getV(), null, 1, 0, false, true)
+                    .assign(A, Functions.MINUS));
+        assertThat(factorization.getApproximationError())
+            .as(factorization.toString())
+            .isCloseTo(expected, within(1e-6));
+      }
+    }
+  }
+
+  @Test
+  public void testNNDSVDSeeding() {
+    for (boolean fillZeros : new boolean[] {false, true}) {
+      DoubleMatrix2D U = new DenseDoubleMatrix2D(A.rows(), K);
+      DoubleMatrix2D V = new DenseDoubleMatrix2D(A.columns(), K);
+      new NNDSVDSeedingStrategy(fillZeros).seed(A, U, V);
+
+      assertThat(U.aggregate(Functions.MIN, Functions.IDENTITY)).isGreaterThanOrEqualTo(0);
+      assertThat(V.aggregate(Functions.MIN, Functions.IDENTITY)).isGreaterThanOrEqualTo(0);
+      if (fillZeros) {
+        assertThat(U.cardinality()).isEqualTo(U.size());
+        assertThat(V.cardinality()).isEqualTo(V.size());
+      }
+
+      // The seed alone should already be a reasonable approximation of A.
+      double seedError =
+          MatrixUtils.frobeniusNorm(U.zMult(V, null, 1, 0, false, true).assign(A, Functions.MINUS));
+      assertThat(seedError).isLessThan(MatrixUtils.frobeniusNorm(A));
+    }
+  }
+
+  @Test
+  public void testSeedingAttribute() {
+    NonnegativeMatrixFactorizationEDFactory factory = new NonnegativeMatrixFactorizationEDFactory();
+    assertThat(factory.getSeedingFactory()).isInstanceOf(RandomSeedingStrategyFactory.class);
+
+    factory.seeding.set(SeedingMethod.NNDSVDA);
+    assertThat(factory.getSeedingFactory()).isInstanceOf(NNDSVDSeedingStrategyFactory.class);
+    factory.setK(K);
+    factory.setMaxIterations(5);
+    factory.setStopThreshold(STOP_THRESHOLD);
+    IterativeMatrixFactorizationBase nndsvd =
+        (IterativeMatrixFactorizationBase) factory.factorize(A);
+    assertThat(nndsvd.getSeedingStrategy()).isInstanceOf(NNDSVDSeedingStrategy.class);
+
+    factory.seeding.set(SeedingMethod.RANDOM);
+    IterativeMatrixFactorizationBase random =
+        (IterativeMatrixFactorizationBase) factory.factorize(A);
+    assertThat(nndsvd.getApproximationError()).isLessThan(random.getApproximationError());
+
+    // An explicitly set factory takes precedence.
+    factory.setSeedingFactory(ConstantSeedingStrategyFactory.INSTANCE);
+    assertThat(factory.getSeedingFactory()).isSameAs(ConstantSeedingStrategyFactory.INSTANCE);
+  }
+
+  @Test
+  public void testParallelUpdates() throws Exception {
+    int rows = randomIntBetween(20, 80);
+    int columns = randomIntBetween(20, 80);
+    DoubleMatrix2D dense = new DenseDoubleMatrix2D(rows, columns);
+    dense.assign(v -> randomIntBetween(0, 3) == 0 ? randomDouble() : 0);
+
+    IterativeMatrixFactorizationFactory[] factories = {
+      new NonnegativeMatrixFactorizationEDFactory(),
+      new NonnegativeMatrixFactorizationKLFactory(),
+      new LocalNonnegativeMatrixFactorizationFactory()
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (IterativeMatrixFactorizationFactory factory : factories) {
+        factory.setK(randomIntBetween(1, 8));
+        factory.setMaxIterations(10);
+        factory.setStopThreshold(STOP_THRESHOLD);
+
+        for (DoubleMatrix2D input :
+            new DoubleMatrix2D[] {dense, new CompressedSparseDoubleMatrix2D(dense.toArray())}) {
+          factory.threads.set(1);
+          MatrixFactorization sequential = factory.factorize(input);
+
+          // The factory's executor or, if none, the common pool.
+          factory.threads.set(randomIntBetween(2, 4));
+          factory.setExecutor(randomBoolean() ? executor : null);
+          MatrixFactorization parallel = factory.factorize(input);
+          assertIdentical(sequential, parallel);
+
+          IterativeMatrixFactorizationBase supplied =
+              (IterativeMatrixFactorizationBase)
+                  sequential.getClass().getConstructor(DoubleMatrix2D.class).newInstance(input);
+          supplied.setK(factory.getK());
+          supplied.setMaxIterations(factory.getMaxIterations());
+          supplied.setStopThreshold(factory.getStopThreshold());
+          supplied.setSeedingStrategy(factory.createSeedingStrategy());
+          supplied.setOrdered(factory.isOrdered());
+          supplied.setThreads(factory.threads.get());
+          supplied.setExecutor(executor);
+          supplied.compute();
+          assertIdentical(sequential, supplied);
+        }
+      }
+    } finally {
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+  }
+
+  /** Row block updates are bitwise identical to the sequential ones with the default kernels. */
+  private static void assertIdentical(MatrixFactorization expected, MatrixFactorization actual) {
+    double delta = DoubleKernels.get() == DoubleKernels.SCALAR ? 0 : 1e-9;
+    MatrixAssertions.assertThat(actual.getU()).as("U").isEquivalentTo(expected.getU(), delta);
+    MatrixAssertions.assertThat(actual.getV()).as("V").isEquivalentTo(expected.getV(), delta);
+  }
+
+  @Test
+  public void testAdaptiveIterations() {
+    NonnegativeMatrixFactorizationEDFactory factory = new NonnegativeMatrixFactorizationEDFactory();
+    factory.adaptive.set(true);
+    factory.convergenceThreshold.set(0.01);
+    factory.estimateIterationsNumber(K, A);
+    assertThat(factory.getMaxIterations()).isEqualTo(15);
+
+    IterativeMatrixFactorizationBase factorization =
+        (IterativeMatrixFactorizationBase) factory.factorize(A);
+    int iterations = factorization.getIterationsCompleted();
+    assertThat(iterations).isBetween(1, factory.maxAdaptiveIterations.get() - 1);
+    double[] errors = factorization.getApproximationErrors();
+    assertThat((errors[iterations - 1] - errors[iterations]) / errors[iterations - 1])
+        .isLessThan(0.01);
+
+    // The iteration limit caps adaptive factorization.
+    factory.convergenceThreshold.set(0d);
+    factory.maxAdaptiveIterations.set(3);
+    assertThat(((IterativeMatrixFactorization) factory.factorize(A)).getIterationsCompleted())
+        .isLessThanOrEqualTo(3);
+
+    // So does the time budget.
+    factory.maxAdaptiveIterations.set(10000);
+    factory.timeBudget.set(1);
+    DoubleMatrix2D large = new DenseDoubleMatrix2D(200, 200);
+    large.assign(v -> randomDouble());
+    assertThat(((IterativeMatrixFactorization) factory.factorize(large)).getIterationsCompleted())
+        .isLessThan(10000);
+  }
+
+  @Test
+  public void testSparseInput() {
+    IterativeMatrixFactorizationFactory[] factories = {
+      new NonnegativeMatrixFactorizationEDFactory(),
+      new NonnegativeMatrixFactorizationKLFactory(),
+      new LocalNonnegativeMatrixFactorizationFactory(),
+      new KMeansMatrixFactorizationFactory()
+    };
+
+    for (IterativeMatrixFactorizationFactory factory : factories) {
+      factory.setK(K);
+      factory.setMaxIterations(MAX_ITERATIONS);
+      factory.setStopThreshold(STOP_THRESHOLD);
+      factory.setSeedingFactory(ConstantSeedingStrategyFactory.INSTANCE);
+
+      MatrixFactorization expected = factory.factorize(A);
+      MatrixFactorization actual =
+          factory.factorize(new CompressedSparseDoubleMatrix2D(A.toArray()));
+      check(expected.getU(), expected.getV(), actual);
+    }
+  }
+
   private MatrixFactorization checkIterative(
       DoubleMatrix2D expectedU,
       DoubleMatrix2D expectedV,
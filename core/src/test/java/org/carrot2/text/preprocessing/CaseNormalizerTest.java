@@ -12,9 +12,13 @@ package org.carrot2.text.preprocessing;
 
 import static org.carrot2.text.preprocessing.PreprocessingContextAssert.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.assertj.core.api.Assertions;
 import org.carrot2.TestBase;
 import org.carrot2.clustering.CachedLangComponents;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.TestDocument;
 import org.carrot2.language.Tokenizer;
 import org.junit.Test;
 
@@ -81,7 +85,7 @@ public class CaseNormalizerTest extends TestBase {
     assertThat(ctx).containsWord("a").withTf(3).withFieldIndices(0, 1).withDocumentTf(0, 3);
     assertThat(ctx).containsWord("simple").withTf(1).withFieldIndices(0).withDocumentTf(0, 1);
     assertThat(ctx).containsWord("test").withTf(2).withFieldIndices(0, 1).withDocumentTf(0, 2);
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(3);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(3);
   }
 
   @Test
@@ -90,7 +94,7 @@ public class CaseNormalizerTest extends TestBase {
         contextBuilder.newDoc("abc abc ABC aBc").buildContext(new BasicPreprocessingPipeline());
 
     assertThat(ctx).containsWord("abc").withTf(4).withFieldIndices(0).withDocumentTf(0, 4);
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(1);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(1);
 
     Assertions.assertThat(tokens(ctx).stream().map(t -> t.getWordImage()))
         .containsExactly("abc", "abc", "abc", "abc", EOS);
@@ -106,7 +110,7 @@ public class CaseNormalizerTest extends TestBase {
     assertThat(ctx).containsWord("demo").withTf(4).withFieldIndices(0).withDocumentTf(0, 4);
     assertThat(ctx).containsWord("demos").withTf(4).withFieldIndices(0).withDocumentTf(0, 4);
 
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(2);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(2);
 
     Assertions.assertThat(tokens(ctx).stream().map(t -> t.getWordImage()))
         .containsExactly("demo", "demo", "demos", "demos", "demo", "demos", "demo", "demos", EOS);
@@ -158,7 +162,7 @@ public class CaseNormalizerTest extends TestBase {
         .withFieldIndices(0)
         .withExactDocumentTfs(new int[][] {{0, 1}, {1, 1}});
 
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(2);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(2);
 
     Assertions.assertThat(tokens(ctx).stream().map(t -> t.getWordImage()))
         .containsExactly("a", MW, "c", FS, MW, MW, MW, DS, "a", "c", FS, "a", EOS);
@@ -172,7 +176,7 @@ public class CaseNormalizerTest extends TestBase {
     assertThat(ctx).containsWord("a").withTf(2).withFieldIndices(0, 1).withDocumentTf(0, 2);
     assertThat(ctx).containsWord("b").withTf(2).withFieldIndices(0, 1).withDocumentTf(0, 2);
 
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(2);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(2);
 
     Assertions.assertThat(tokens(ctx).stream().map(t -> t.getWordImage()))
         .containsExactly("a", MW, "b", MW, FS, "a", MW, "b", MW, EOS);
@@ -184,7 +188,7 @@ public class CaseNormalizerTest extends TestBase {
         contextBuilder.newDoc("aba . , aba", ", .").buildContext(new BasicPreprocessingPipeline());
 
     assertThat(ctx).containsWord("aba").withTf(2).withFieldIndices(0).withDocumentTf(0, 2);
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(1);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(1);
 
     Assertions.assertThat(tokens(ctx).stream().map(t -> t.getWordImage()))
         .containsExactly("aba", MW, MW, "aba", FS, MW, MW, EOS);
@@ -211,7 +215,7 @@ public class CaseNormalizerTest extends TestBase {
         .withFieldIndices(0, 1)
         .withExactDocumentTfs(new int[][] {{1, 2}, {2, 1}});
     assertThat(ctx).containsWord("DEF").withTf(4).withFieldIndices(0, 1).withDocumentTf(3, 4);
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(3);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(3);
 
     Assertions.assertThat(tokens(ctx).stream().map(t -> t.getWordImage()))
         .containsExactly(
@@ -243,6 +247,50 @@ public class CaseNormalizerTest extends TestBase {
         .withTf(3)
         .withFieldIndices(1)
         .withExactDocumentTfs(new int[][] {{1, 1}, {2, 2}});
-    Assertions.assertThat(ctx.allWords.image.length).isEqualTo(3);
+    Assertions.assertThat(ctx.allWords.image.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void testHashAndSortGroupingEquivalent() {
+    final String[] vocabulary = {
+      "abc", "ABC", "aBc", "Abc", "def", "DEF", "x", "X", "\u00c9t\u00e9", "\u00e9T\u00c9", ".", ","
+    };
+
+    for (int round = 0; round < 50; round++) {
+      final List<Document> documents = new ArrayList<>();
+      for (int d = randomIntBetween(0, 20); d > 0; d--) {
+        final StringBuilder title = new StringBuilder();
+        final StringBuilder snippet = new StringBuilder();
+        for (int t = randomIntBetween(0, 10); t > 0; t--) {
+          title.append(randomFrom(vocabulary)).append(' ');
+        }
+        for (int t = randomIntBetween(0, 30); t > 0; t--) {
+          snippet.append(randomFrom(vocabulary)).append(' ');
+        }
+        documents.add(new TestDocument(title.toString(), snippet.toString()));
+      }
+
+      final int dfThreshold = randomIntBetween(1, 3);
+      final PreprocessingContext sorted =
+          normalize(documents, CaseNormalizer.Grouping.SORT, dfThreshold);
+      final PreprocessingContext hashed =
+          normalize(documents, CaseNormalizer.Grouping.HASH, dfThreshold);
+
+      Assertions.assertThat(hashed.allTokens.wordIndex).isEqualTo(sorted.allTokens.wordIndex);
+      Assertions.assertThat(hashed.allWords.image.toArrays())
+          .isEqualTo(sorted.allWords.image.toArrays());
+      Assertions.assertThat(hashed.allWords.type).isEqualTo(sorted.allWords.type);
+      Assertions.assertThat(hashed.allWords.tf).isEqualTo(sorted.allWords.tf);
+      Assertions.assertThat(hashed.allWords.tfByDocument).isEqualTo(sorted.allWords.tfByDocument);
+      Assertions.assertThat(hashed.allWords.fieldIndices).isEqualTo(sorted.allWords.fieldIndices);
+    }
+  }
+
+  private static PreprocessingContext normalize(
+      List<Document> documents, CaseNormalizer.Grouping grouping, int dfThreshold) {
+    PreprocessingContext context = new PreprocessingContext(CachedLangComponents.english());
+    new InputTokenizer().tokenize(context, documents.stream());
+    new CaseNormalizer(grouping).normalize(context, dfThreshold);
+    return context;
   }
 }
@@ -100,8 +100,8 @@ public class PreprocessingContextAssert {
         .isNotNull();
 
     List<String> result = new ArrayList<>();
-    for (int i = context.allWords.image.length; --i >= 0; ) {
-      result.add(new String(context.allWords.image[i]));
+    for (int i = context.allWords.image.size(); --i >= 0; ) {
+      result.add(context.allWords.image.toString(i));
     }
     Collections.shuffle(result);
     return result;
@@ -313,7 +313,7 @@ public class PreprocessingContextAssert {
 
     public WordAssert(int wordIndex) {
       this.wordIndex = wordIndex;
-      this.wordImage = new String(context.allWords.image[wordIndex]);
+      this.wordImage = context.allWords.image.toString(wordIndex);
     }
 
     public WordAssert withTf(int expectedTf) {
@@ -384,10 +384,9 @@ public class PreprocessingContextAssert {
         .describedAs("the context's allWords is not properly initialized.")
         .isNotNull();
 
-    Comparator<char[]> comp = CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR;
     int found = -1;
-    for (int i = 0; i < context.allWords.image.length; i++) {
-      if (comp.compare(context.allWords.image[i], wordImage.toCharArray()) == 0) {
+    for (int i = 0; i < context.allWords.image.size(); i++) {
+      if (context.allWords.image.contentEquals(i, wordImage.toCharArray())) {
         if (found >= 0)
           org.junit.Assert.fail(
               "Duplicate word with image '" + wordImage + "' in words:\n" + context.allWords);
@@ -410,12 +409,11 @@ public class PreprocessingContextAssert {
     }
 
     public String getTokenImage() {
-      if (context.allTokens.image[tokenIndex] == null) return null;
-      return new String(context.allTokens.image[tokenIndex]);
+      return context.allTokens.image.toString(tokenIndex);
     }
 
     public String getWordImage() {
-      if (context.allTokens.image[tokenIndex] == null) {
+      if (context.allTokens.image.isNull(tokenIndex)) {
         if (TokenTypeUtils.isDocumentSeparator(context.allTokens.type[tokenIndex])) return DS;
         if (TokenTypeUtils.isFieldSeparator(context.allTokens.type[tokenIndex])) return FS;
         if (TokenTypeUtils.isTerminator(context.allTokens.type[tokenIndex])) return EOS;
@@ -423,7 +421,7 @@ public class PreprocessingContextAssert {
       }
       int wordIndex = context.allTokens.wordIndex[tokenIndex];
       if (wordIndex < 0) return MW;
-      return new String(context.allWords.image[wordIndex]);
+      return context.allWords.image.toString(wordIndex);
     }
 
     public String getStemImage() {
@@ -443,7 +441,7 @@ public class PreprocessingContextAssert {
 
   public List<TokenEntry> tokens() {
     List<TokenEntry> result = new ArrayList<>();
-    for (int i = 0; i < context.allTokens.image.length; i++) result.add(new TokenEntry(i));
+    for (int i = 0; i < context.allTokens.image.size(); i++) result.add(new TokenEntry(i));
     return result;
   }
 
@@ -456,8 +454,8 @@ public class PreprocessingContextAssert {
       this.tokenImage =
           tokenIndex
               + ":"
-              + (context.allTokens.image[tokenIndex] != null
-                  ? new String(context.allTokens.image[tokenIndex])
+              + (!context.allTokens.image.isNull(tokenIndex)
+                  ? context.allTokens.image.toString(tokenIndex)
                   : "<null>");
     }
 
@@ -479,17 +477,14 @@ public class PreprocessingContextAssert {
 
     public TokenAssert hasImage(String image) {
       Assertions.assertThat(
-              CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(
-                      image != null ? image.toCharArray() : null,
-                      context.allTokens.image[tokenIndex])
-                  == 0)
+              context.allTokens.image.contentEquals(
+                  tokenIndex, image != null ? image.toCharArray() : null))
           .as(
               "token image equality: "
                   + image
                   + " vs. "
-                  + new String(
-                      ObjectUtils.firstNonNull(
-                          context.allTokens.image[tokenIndex], "<null>".toCharArray())))
+                  + ObjectUtils.firstNonNull(
+                      context.allTokens.image.toString(tokenIndex), "<null>"))
           .isTrue();
       return this;
     }
@@ -10,6 +10,7 @@
  */
 package org.carrot2.text.preprocessing;
 
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.carrot2.TestBase;
@@ -105,6 +106,50 @@ public class SuffixSorterTest extends TestBase {
         expectedLcpArray);
   }
 
+  @Test
+  public void testRandomRepetitiveSequences() {
+    for (int round = 0; round < 200; round++) {
+      final int upper = randomIntBetween(0, 5);
+      final int[] s = new int[randomIntBetween(1, 300)];
+      for (int i = 0; i < s.length; i++) {
+        s[i] = randomIntBetween(0, upper);
+      }
+
+      final int[] expectedSuffixOrder =
+          IntStream.range(0, s.length)
+              .boxed()
+              .sorted(
+                  (a, b) -> {
+                    int i = a, j = b;
+                    while (i < s.length && j < s.length && s[i] == s[j]) {
+                      i++;
+                      j++;
+                    }
+                    if (i == s.length || j == s.length) {
+                      return Integer.compare(s.length - i, s.length - j);
+                    }
+                    return Integer.compare(s[i], s[j]);
+                  })
+              .mapToInt(Integer::intValue)
+              .toArray();
+
+      final int[] expectedLcpArray = new int[s.length];
+      for (int k = 1; k < s.length; k++) {
+        int a = expectedSuffixOrder[k - 1], b = expectedSuffixOrder[k];
+        while (a < s.length && b < s.length && s[a] == s[b]) {
+          expectedLcpArray[k]++;
+          a++;
+          b++;
+        }
+      }
+
+      final int[] suffixOrder = SuffixSorter.suffixArray(s, upper);
+      Assertions.assertThat(suffixOrder).containsExactly(expectedSuffixOrder);
+      Assertions.assertThat(SuffixSorter.calculateLcp(s, suffixOrder))
+          .containsExactly(expectedLcpArray);
+    }
+  }
+
   private void checkAsserts(
       Stream<? extends Document> documents, int[] expectedSuffixOrder, int[] expectedLcpArray) {
     PreprocessingContext context =
@@ -0,0 +1,127 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.text.preprocessing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.carrot2.util.CharArrayComparators;
+import org.carrot2.util.MutableCharArray;
+import org.junit.Test;
+
+/** Test cases for {@link TokenInterner}. */
+public class TokenInternerTest extends TestBase {
+  @Test
+  public void testInterning() {
+    TokenInterner interner = new TokenInterner();
+    int a = interner.intern(new MutableCharArray("abc"));
+    int b = interner.intern(new MutableCharArray("xabcx".toCharArray(), 1, 3));
+    int c = interner.intern(new MutableCharArray("abd"));
+
+    Assertions.assertThat(a).isEqualTo(0).isEqualTo(b);
+    Assertions.assertThat(c).isEqualTo(1);
+    Assertions.assertThat(interner.size()).isEqualTo(2);
+    Assertions.assertThat(interner.image(a)).containsExactly('a', 'b', 'c');
+    Assertions.assertThat(interner.image(a)).isSameAs(interner.image(b));
+    Assertions.assertThat(interner.view(c, new MutableCharArray()).toString()).isEqualTo("abd");
+  }
+
+  @Test
+  public void testEmptyAndOversizedImages() {
+    TokenInterner interner = new TokenInterner(4);
+    int empty = interner.intern(new MutableCharArray(""));
+    int longer = interner.intern(new MutableCharArray("abcdefgh"));
+    Assertions.assertThat(interner.length(empty)).isEqualTo(0);
+    Assertions.assertThat(interner.intern(new MutableCharArray(""))).isEqualTo(empty);
+    Assertions.assertThat(interner.intern(new MutableCharArray("abcdefgh"))).isEqualTo(longer);
+    Assertions.assertThat(new String(interner.image(longer))).isEqualTo("abcdefgh");
+  }
+
+  @Test
+  public void testRandomImages() {
+    TokenInterner interner = new TokenInterner(randomIntBetween(1, 64));
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = randomIntBetween(0, 5000); --i >= 0; ) {
+      String image = randomAsciiLettersOfLengthBetween(0, 10);
+      int id = interner.intern(new MutableCharArray(image));
+      Integer previous = expected.putIfAbsent(image, id);
+      if (previous == null) {
+        Assertions.assertThat(id).isEqualTo(expected.size() - 1);
+      } else {
+        Assertions.assertThat(id).isEqualTo(previous);
+      }
+    }
+
+    Assertions.assertThat(interner.size()).isEqualTo(expected.size());
+    expected.forEach(
+        (image, id) -> {
+          Assertions.assertThat(interner.length(id)).isEqualTo(image.length());
+          Assertions.assertThat(new String(interner.image(id))).isEqualTo(image);
+        });
+  }
+
+  @Test
+  public void testCompare() {
+    TokenInterner interner = new TokenInterner(randomIntBetween(1, 64));
+    String[] images = new String[randomIntBetween(1, 100)];
+    int[] ids = new int[images.length];
+    for (int i = 0; i < images.length; i++) {
+      images[i] = randomAsciiLettersOfLengthBetween(0, 5);
+      ids[i] = interner.intern(new MutableCharArray(images[i]));
+    }
+
+    for (int i = 0; i < images.length; i++) {
+      for (int j = 0; j < images.length; j++) {
+        Assertions.assertThat(Integer.signum(interner.compare(ids[i], ids[j])))
+            .isEqualTo(
+                Integer.signum(
+                    CharArrayComparators.FAST_CHAR_ARRAY_COMPARATOR.compare(
+                        images[i].toCharArray(), images[j].toCharArray())));
+      }
+      Assertions.assertThat(interner.copy(ids[i]))
+          .isEqualTo(images[i].toCharArray())
+          .isNotSameAs(interner.copy(ids[i]));
+    }
+  }
+
+  @Test
+  public void testCompact() {
+    TokenInterner interner = new TokenInterner(randomIntBetween(1, 16));
+    List<String> images = new ArrayList<>();
+    for (int i = randomIntBetween(0, 200); --i >= 0; ) {
+      String image = randomAsciiLettersOfLengthBetween(0, 20);
+      if (interner.intern(new MutableCharArray(image)) == images.size()) {
+        images.add(image);
+      }
+    }
+
+    char[] buffer = interner.compact();
+    char[] snapshot = buffer.clone();
+    Assertions.assertThat(buffer).hasSize(images.stream().mapToInt(String::length).sum());
+    for (int id = 0; id < images.size(); id++) {
+      Assertions.assertThat(new String(buffer, interner.start(id), interner.length(id)))
+          .isEqualTo(images.get(id));
+    }
+
+    // Interning continues in new slabs; the compacted buffer is not modified.
+    for (String image : images) {
+      Assertions.assertThat(interner.intern(new MutableCharArray(image)))
+          .isEqualTo(images.indexOf(image));
+    }
+    int id = interner.intern(new MutableCharArray("new image"));
+    Assertions.assertThat(id).isEqualTo(images.size());
+    Assertions.assertThat(new String(interner.image(id))).isEqualTo("new image");
+    Assertions.assertThat(buffer).isEqualTo(snapshot);
+  }
+}
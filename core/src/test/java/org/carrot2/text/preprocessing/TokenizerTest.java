@@ -15,7 +15,12 @@ import static org.carrot2.text.preprocessing.PreprocessingContextAssert.assertTh
 import static org.carrot2.text.preprocessing.PreprocessingContextAssert.tokens;
 import static org.carrot2.text.preprocessing.PreprocessingContextBuilder.FieldValue.fv;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.carrot2.TestBase;
+import org.carrot2.clustering.CachedLangComponents;
+import org.carrot2.clustering.Document;
+import org.carrot2.clustering.TestDocument;
 import org.carrot2.language.Tokenizer;
 import org.junit.Test;
 
@@ -263,4 +268,45 @@ public class TokenizerTest extends TestBase {
         .containsExactly(
             new short[] {Tokenizer.TT_TERM, Tokenizer.TT_TERM, Tokenizer.TF_TERMINATOR});
   }
+
+  @Test
+  public void testParallelTokenizationIdentical() {
+    final String[] vocabulary = {
+      "abc", "ABC", "aBc", "def", "x", "\u00c9t\u00e9", ".", ",", "http://www.carrot2.org", "e-mail"
+    };
+
+    for (int round = 0; round < 20; round++) {
+      final List<Document> documents = new ArrayList<>();
+      for (int d = randomIntBetween(0, 300); d > 0; d--) {
+        final StringBuilder title = new StringBuilder();
+        final StringBuilder snippet = new StringBuilder();
+        for (int t = randomIntBetween(0, 5); t > 0; t--) {
+          title.append(randomFrom(vocabulary)).append(' ');
+        }
+        for (int t = randomIntBetween(0, 20); t > 0; t--) {
+          snippet.append(randomFrom(vocabulary)).append(' ');
+        }
+        documents.add(new TestDocument(title.toString(), snippet.toString()));
+      }
+
+      final PreprocessingContext sequential = tokenize(documents, 1);
+      final PreprocessingContext parallel = tokenize(documents, randomIntBetween(2, 4));
+
+      assertThat(parallel.documentCount).isEqualTo(sequential.documentCount);
+      assertThat(parallel.allFields.name).isEqualTo(sequential.allFields.name);
+      assertThat(parallel.allTokens.imageId).isEqualTo(sequential.allTokens.imageId);
+      assertThat(parallel.allTokens.image.toArrays())
+          .isEqualTo(sequential.allTokens.image.toArrays());
+      assertThat(parallel.allTokens.image.buffer()).isEqualTo(sequential.allTokens.image.buffer());
+      assertThat(parallel.allTokens.type).isEqualTo(sequential.allTokens.type);
+      assertThat(parallel.allTokens.documentIndex).isEqualTo(sequential.allTokens.documentIndex);
+      assertThat(parallel.allTokens.fieldIndex).isEqualTo(sequential.allTokens.fieldIndex);
+    }
+  }
+
+  private static PreprocessingContext tokenize(List<Document> documents, int threads) {
+    PreprocessingContext context = new PreprocessingContext(CachedLangComponents.english());
+    new InputTokenizer().tokenize(context, documents.stream(), threads);
+    return context;
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.junit.Test;
+
+/** Test cases for {@link ExecutorServiceUtils}. */
+public class ExecutorServiceUtilsTest extends TestBase {
+  @Test
+  public void testForEachIndexRunsAllTasksOnce() throws Exception {
+    final ExecutorService executor = randomBoolean() ? null : Executors.newFixedThreadPool(2);
+    try {
+      for (int round = 0; round < 20; round++) {
+        final AtomicIntegerArray counts = new AtomicIntegerArray(randomIntBetween(0, 100));
+        ExecutorServiceUtils.forEachIndex(
+            executor, randomIntBetween(1, 8), counts.length(), counts::incrementAndGet);
+        for (int i = 0; i < counts.length(); i++) {
+          Assertions.assertThat(counts.get(i)).isEqualTo(1);
+        }
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void testForEachIndexRethrowsFailures() {
+    final int failing = randomIntBetween(0, 19);
+    Assertions.assertThatThrownBy(
+            () ->
+                ExecutorServiceUtils.forEachIndex(
+                    null,
+                    randomIntBetween(1, 4),
+                    20,
+                    (i) -> {
+                      if (i == failing) {
+                        throw new IllegalStateException("Task " + i);
+                      }
+                    }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Task " + failing);
+  }
+}
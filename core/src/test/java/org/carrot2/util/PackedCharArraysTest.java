@@ -0,0 +1,71 @@
+/*
+ * Carrot2 project.
+ *
+ * Copyright (C) 2002-2022, Dawid Weiss, Stanisław Osiński.
+ * All rights reserved.
+ *
+ * Refer to the full license file "carrot2.LICENSE"
+ * in the root folder of the repository checkout or at:
+ * https://www.carrot2.org/carrot2.LICENSE
+ */
+package org.carrot2.util;
+
+import org.assertj.core.api.Assertions;
+import org.carrot2.TestBase;
+import org.junit.Test;
+
+/** Test cases for {@link PackedCharArrays}. */
+public class PackedCharArraysTest extends TestBase {
+  @Test
+  public void testPackedElements() {
+    PackedCharArrays packed =
+        PackedCharArrays.of("abc".toCharArray(), null, "".toCharArray(), "abc".toCharArray());
+
+    Assertions.assertThat(packed.size()).isEqualTo(4);
+    Assertions.assertThat(packed.isNull(1)).isTrue();
+    Assertions.assertThat(packed.get(1)).isNull();
+    Assertions.assertThat(packed.toString(0)).isEqualTo("abc");
+    Assertions.assertThat(packed.toString(2)).isEmpty();
+    Assertions.assertThat(packed.charAt(3, 2)).isEqualTo('c');
+    Assertions.assertThat(packed.view(0, new MutableCharArray()).toString()).isEqualTo("abc");
+    Assertions.assertThat(packed.appendTo(new StringBuilder(">"), 3).toString()).isEqualTo(">abc");
+
+    Assertions.assertThat(packed.equals(0, 3)).isTrue();
+    Assertions.assertThat(packed.equals(0, 2)).isFalse();
+    Assertions.assertThat(packed.equals(1, 2)).isFalse();
+    Assertions.assertThat(packed.contentEquals(0, "abc".toCharArray())).isTrue();
+    Assertions.assertThat(packed.contentEquals(1, null)).isTrue();
+    Assertions.assertThat(packed.contentEquals(2, "a".toCharArray())).isFalse();
+  }
+
+  @Test
+  public void testSelectSharesBuffer() {
+    PackedCharArrays packed = PackedCharArrays.of("foo".toCharArray(), "bar".toCharArray());
+    PackedCharArrays selected = packed.select(new int[] {1, 1, 0});
+
+    Assertions.assertThat(selected.buffer()).isSameAs(packed.buffer());
+    Assertions.assertThat(selected.toArrays())
+        .isEqualTo(new char[][] {"bar".toCharArray(), "bar".toCharArray(), "foo".toCharArray()});
+  }
+
+  @Test
+  public void testSharedEntries() {
+    char[] buffer = "foobar".toCharArray();
+    int[] ids = {1, -1, 0, 1};
+    PackedCharArrays packed = new PackedCharArrays(buffer, new int[] {0, 3}, new int[] {3, 3}, ids);
+
+    Assertions.assertThat(packed.size()).isEqualTo(4);
+    Assertions.assertThat(packed.toArrays())
+        .isEqualTo(
+            new char[][] {"bar".toCharArray(), null, "foo".toCharArray(), "bar".toCharArray()});
+    Assertions.assertThat(packed.id(3)).isEqualTo(1);
+    Assertions.assertThat(packed.offset(0)).isEqualTo(packed.offset(3));
+    Assertions.assertThat(packed.length(1)).isZero();
+    Assertions.assertThat(packed.equals(0, 3)).isTrue();
+    Assertions.assertThat(packed.equals(1, 2)).isFalse();
+
+    PackedCharArrays selected = packed.select(new int[] {2, 0});
+    Assertions.assertThat(selected.id(0)).isEqualTo(0);
+    Assertions.assertThat(selected.toString(1)).isEqualTo("bar");
+  }
+}
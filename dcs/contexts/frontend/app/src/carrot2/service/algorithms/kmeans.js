@@ -37,6 +37,7 @@ const languageModelSettings = [
   settingFrom("matrixBuilder.boostedFieldWeight"),
   advanced(settingFrom("matrixBuilder.maxWordDf")),
   advanced(settingFrom("preprocessing.wordDfThreshold")),
+  advanced(settingFrom("preprocessing.tokenizerThreads")),
   settingFrom("useDimensionalityReduction"),
   ...settingFromRecursive("matrixReducer.factorizationFactory", getterProvider),
   settingFrom("matrixBuilder.maximumMatrixSize")
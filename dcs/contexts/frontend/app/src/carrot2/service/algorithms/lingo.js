@@ -81,6 +81,7 @@ const languageModelSettings = [
   settingFrom("matrixBuilder.boostedFieldWeight"),
   advanced(settingFrom("preprocessing.phraseDfThreshold")),
   advanced(settingFrom("preprocessing.wordDfThreshold")),
+  advanced(settingFrom("preprocessing.tokenizerThreads")),
   advanced(settingFrom("matrixBuilder.maxWordDf")),
   ...settingFromRecursive("matrixReducer.factorizationFactory", getterProvider),
   settingFrom("matrixBuilder.maximumMatrixSize")
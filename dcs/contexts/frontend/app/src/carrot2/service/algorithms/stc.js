@@ -41,7 +41,8 @@ const languageModelSettings = [
       label: "Max relative word DF"
     })
   ),
-  advanced(settingFrom("preprocessing.wordDfThreshold"))
+  advanced(settingFrom("preprocessing.wordDfThreshold")),
+  advanced(settingFrom("preprocessing.tokenizerThreads"))
 ];
 
 const parameterStore = persistentStore(
@@ -13,7 +13,10 @@ package org.carrot2.dcs.servlets;
 import com.carrotsearch.hppc.cursors.IntCursor;
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -27,7 +30,9 @@ import org.carrot2.attrs.Attrs;
 import org.carrot2.clustering.Cluster;
 import org.carrot2.clustering.ClusteringAlgorithm;
 import org.carrot2.clustering.ClusteringAlgorithmProvider;
+import org.carrot2.clustering.ClusteringInstrumentation;
 import org.carrot2.clustering.Document;
+import org.carrot2.clustering.StageMeasurement;
 import org.carrot2.dcs.model.ClusterRequest;
 import org.carrot2.dcs.model.ClusterResponse;
 import org.carrot2.dcs.model.ClusterServletParameters;
@@ -85,15 +90,26 @@ public class ClusterServlet extends RestEndpoint {
       // Get language components for the designated language.
       LanguageComponents language = getLanguage(template, clusteringRequest);
 
-      // Run the clustering.
+      // Run the clustering, collecting per-stage measurements if service info is requested.
+      boolean serviceInfoEnabled = isEnabled(request, PARAM_SERVICE_INFO);
       Stopwatch swClustering = new Stopwatch();
-      List<Cluster<DocumentRef>> clusters = runClustering(clusteringRequest, algorithm, language);
+      List<Cluster<DocumentRef>> clusters;
+      if (serviceInfoEnabled) {
+        List<ServiceInfo.StageInfo> stages = new ArrayList<>();
+        clusters =
+            ClusteringInstrumentation.withListener(
+                (measurement) -> stages.add(toStageInfo(measurement)),
+                () -> runClustering(clusteringRequest, algorithm, language));
+        serviceInfo.stages = stages;
+      } else {
+        clusters = runClustering(clusteringRequest, algorithm, language);
+      }
       serviceInfo.clusteringTimeMillis = swClustering.elapsedMillis();
 
       ClusterResponse clusterResponse = new ClusterResponse(adapt(clusters));
       serviceInfo.requestHandlingTimeMillis = swRequest.elapsedMillis();
 
-      if (isEnabled(request, PARAM_SERVICE_INFO)) {
+      if (serviceInfoEnabled) {
         clusterResponse.serviceInfo = serviceInfo;
       }
 
@@ -103,6 +119,22 @@ public class ClusterServlet extends RestEndpoint {
     }
   }
 
+  private static ServiceInfo.StageInfo toStageInfo(StageMeasurement measurement) {
+    ServiceInfo.StageInfo info = new ServiceInfo.StageInfo();
+    info.stage = measurement.getStage();
+    info.wallTimeMicros = TimeUnit.NANOSECONDS.toMicros(measurement.getWallTimeNanos());
+    if (measurement.getCpuTimeNanos() >= 0) {
+      info.cpuTimeMicros = TimeUnit.NANOSECONDS.toMicros(measurement.getCpuTimeNanos());
+    }
+    if (measurement.getAllocatedBytes() >= 0) {
+      info.allocatedBytes = measurement.getAllocatedBytes();
+    }
+    if (!measurement.getSizes().isEmpty()) {
+      info.sizes = new LinkedHashMap<>(measurement.getSizes());
+    }
+    return info;
+  }
+
   private ClusteringAlgorithm parseAlgorithm(
       ClusterRequest template, ClusterRequest clusteringRequest) throws TerminateRequestException {
     String algorithmName = firstNotNull(clusteringRequest.algorithm, template.algorithm);
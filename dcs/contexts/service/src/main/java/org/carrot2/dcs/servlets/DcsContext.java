@@ -37,6 +37,9 @@ import org.carrot2.dcs.model.ClusterRequest;
 import org.carrot2.language.LanguageComponents;
 import org.carrot2.language.LanguageComponentsLoader;
 import org.carrot2.language.LoadedLanguages;
+import org.carrot2.language.StemCache;
+import org.carrot2.language.Stemmer;
+import org.carrot2.language.Tokenizer;
 import org.carrot2.util.ResourceLookup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +48,10 @@ class DcsContext {
   public static final String PARAM_RESOURCES = "resources";
   public static final String PARAM_TEMPLATES = "templates";
   public static final String PARAM_ALGORITHMS = "algorithms";
+  public static final String PARAM_STEM_CACHE_SIZE = "stemCacheSize";
+  public static final String PARAM_LANGUAGE_LOADING_THREADS = "languageLoadingThreads";
+  public static final String PARAM_LAZY_LANGUAGES = "lazyLanguages";
+  public static final String PARAM_PRELOAD_LANGUAGES = "preloadLanguages";
 
   private static String KEY = "_dcs_";
   private static Logger console = LoggerFactory.getLogger("console");
@@ -145,6 +152,23 @@ class DcsContext {
             .map(Supplier::get)
             .toArray(ClusteringAlgorithm[]::new));
 
+    int loadingThreads = intParam(servletContext, PARAM_LANGUAGE_LOADING_THREADS, 1);
+    if (loadingThreads > 1) {
+      loader.withThreads(loadingThreads);
+    }
+
+    String lazyLanguages = servletContext.getInitParameter(PARAM_LAZY_LANGUAGES);
+    if (lazyLanguages != null && Boolean.parseBoolean(lazyLanguages.trim())) {
+      String preloadList = servletContext.getInitParameter(PARAM_PRELOAD_LANGUAGES);
+      String[] preload =
+          preloadList == null || preloadList.isBlank()
+              ? new String[0]
+              : preloadList.trim().split("[\\s,]+");
+      loader.withLazyLoading(preload);
+      console.debug(
+          "Languages will be loaded on first use [preloaded: {}]", String.join(", ", preload));
+    }
+
     LoadedLanguages loadedLanguages;
     try {
       loadedLanguages = loader.load();
@@ -152,13 +176,38 @@ class DcsContext {
       throw new ServletException("Could not load or initialize language resources.", e);
     }
 
+    int stemCacheSize = intParam(servletContext, PARAM_STEM_CACHE_SIZE, 0);
+
     LinkedHashMap<String, LanguageComponents> languages = new LinkedHashMap<>();
     for (String lang : loadedLanguages.languages()) {
-      languages.put(lang, loadedLanguages.language(lang));
+      LanguageComponents components = loadedLanguages.language(lang);
+      if (stemCacheSize > 0) {
+        components = new StemCache(stemCacheSize).attach(components);
+      }
+      // Request processing never holds two tokenizers or stemmers on one thread,
+      // so reuse them across requests served by the same thread.
+      components = components.pooled(Tokenizer.class, Stemmer.class);
+      languages.put(lang, components);
+    }
+    if (stemCacheSize > 0) {
+      console.debug("Stem cache enabled [size: {} per language]", stemCacheSize);
     }
     return languages;
   }
 
+  private static int intParam(ServletContext servletContext, String param, int defaultValue)
+      throws ServletException {
+    String value = servletContext.getInitParameter(param);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new ServletException("Invalid value of parameter " + param + ": " + value, e);
+    }
+  }
+
   private static LinkedHashMap<String, List<String>> computeAlgorithmLanguagePairs(
       LinkedHashMap<String, ClusteringAlgorithmProvider> algorithmSuppliers,
       Collection<LanguageComponents> languageComponents) {
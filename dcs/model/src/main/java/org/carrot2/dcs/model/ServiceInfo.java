@@ -12,6 +12,9 @@ package org.carrot2.dcs.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.List;
+import java.util.Map;
 
 /** Request processing and service state information (for debugging and diagnostics). */
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -19,4 +22,25 @@ public class ServiceInfo {
   @JsonProperty public Long clusteringTimeMillis;
 
   @JsonProperty public Long requestHandlingTimeMillis;
+
+  /** Per-stage measurements of the clustering algorithm, in the order stages completed. */
+  @JsonProperty public List<StageInfo> stages;
+
+  /** Measurements of a single clustering stage. */
+  @JsonPropertyOrder({"stage", "wallTimeMicros", "cpuTimeMicros", "allocatedBytes", "sizes"})
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class StageInfo {
+    @JsonProperty public String stage;
+
+    @JsonProperty public Long wallTimeMicros;
+
+    /** Thread CPU time, {@code null} if not available. */
+    @JsonProperty public Long cpuTimeMicros;
+
+    /** Bytes allocated by the clustering thread, {@code null} if not available. */
+    @JsonProperty public Long allocatedBytes;
+
+    /** Input and output sizes (documents, tokens, words, matrix dimensions, etc.). */
+    @JsonProperty public Map<String, Long> sizes;
+  }
 }
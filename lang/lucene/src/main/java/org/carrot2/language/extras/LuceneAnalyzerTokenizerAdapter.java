@@ -58,7 +58,22 @@ public class LuceneAnalyzerTokenizerAdapter implements Tokenizer {
       ts.close();
     }
 
-    ts = analyzer.tokenStream("", reader);
+    consume(analyzer.tokenStream("", reader));
+  }
+
+  /** Tokenizes the input using the analyzer's reusable string reader. */
+  @Override
+  public void reset(CharSequence input) throws IOException {
+    if (ts != null) {
+      ts.end();
+      ts.close();
+    }
+
+    consume(analyzer.tokenStream("", input.toString()));
+  }
+
+  private void consume(TokenStream tokenStream) throws IOException {
+    ts = tokenStream;
     ts.reset();
 
     posIncrAttr = ts.getAttribute(PositionIncrementAttribute.class);
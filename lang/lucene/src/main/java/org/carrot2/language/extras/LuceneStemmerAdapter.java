@@ -34,6 +34,28 @@ final class LuceneStemmerAdapter implements Stemmer {
 
   @Override
   public CharSequence stem(CharSequence word) {
+    int newLen = stemToBuffer(word);
+    if (newLen >= 0) {
+      return new MutableCharArray(Arrays.copyOf(buffer, newLen));
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public int stem(CharSequence word, MutableCharArray result) {
+    int newLen = stemToBuffer(word);
+    if (newLen >= 0) {
+      result.reset(buffer, 0, newLen);
+    }
+    return newLen;
+  }
+
+  /**
+   * Stems the word into the buffer, returns the length of the stem or -1 if the word was not
+   * changed.
+   */
+  private int stemToBuffer(CharSequence word) {
     if (word.length() + extraBufferPadding > buffer.length) {
       buffer = new char[word.length() + extraBufferPadding];
     }
@@ -45,9 +67,9 @@ final class LuceneStemmerAdapter implements Stemmer {
     int newLen = stemmer.apply(buffer, word.length());
 
     if (newLen != word.length() || !equals(buffer, newLen, word)) {
-      return new MutableCharArray(Arrays.copyOf(buffer, newLen));
+      return newLen;
     } else {
-      return null;
+      return -1;
     }
   }
 
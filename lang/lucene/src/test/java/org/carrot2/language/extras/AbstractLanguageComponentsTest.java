@@ -46,9 +46,13 @@ public abstract class AbstractLanguageComponentsTest {
   @Test
   public void testStemming() {
     final Stemmer stemmer = components.get(Stemmer.class);
+    final MutableCharArray result = new MutableCharArray();
     for (String[] pair : stemmingPairs) {
       CharSequence stem = stemmer.stem(pair[0]);
       Assertions.assertThat(stem == null ? null : stem.toString()).isEqualTo(pair[1]);
+
+      int length = stemmer.stem(pair[0], result);
+      Assertions.assertThat(length < 0 ? null : result.toString()).isEqualTo(pair[1]);
     }
   }
 
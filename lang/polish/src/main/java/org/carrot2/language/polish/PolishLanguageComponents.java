@@ -19,6 +19,7 @@ import org.carrot2.language.Stemmer;
 import org.carrot2.language.Tokenizer;
 import org.carrot2.text.preprocessing.LabelFormatter;
 import org.carrot2.text.preprocessing.LabelFormatterImpl;
+import org.carrot2.util.MutableCharArray;
 
 /** */
 public class PolishLanguageComponents extends SingleLanguageComponentsProviderImpl {
@@ -33,14 +34,49 @@ public class PolishLanguageComponents extends SingleLanguageComponentsProviderIm
   }
 
   private Stemmer createStemmer() {
-    PolishStemmer stemmer = new PolishStemmer();
-    return (word) -> {
+    return new PolishStemmerAdapter(new PolishStemmer());
+  }
+
+  /** An adapter of morfologik's dictionary lookup to the {@link Stemmer} interface. */
+  private static final class PolishStemmerAdapter implements Stemmer {
+    private final PolishStemmer stemmer;
+    private char[] buffer = new char[128];
+
+    PolishStemmerAdapter(PolishStemmer stemmer) {
+      this.stemmer = stemmer;
+    }
+
+    @Override
+    public CharSequence stem(CharSequence word) {
+      final CharSequence stem = lookup(word);
+      return stem == null ? null : stem.toString();
+    }
+
+    @Override
+    public int stem(CharSequence word, MutableCharArray result) {
+      final CharSequence stem = lookup(word);
+      if (stem == null) {
+        return -1;
+      }
+
+      final int length = stem.length();
+      if (buffer.length < length) {
+        buffer = new char[length];
+      }
+      for (int i = 0; i < length; i++) {
+        buffer[i] = stem.charAt(i);
+      }
+      result.reset(buffer, 0, length);
+      return length;
+    }
+
+    private CharSequence lookup(CharSequence word) {
       final List<WordData> stems = stemmer.lookup(word);
       if (stems == null || stems.isEmpty()) {
         return null;
       } else {
-        return stems.get(0).getStem().toString();
+        return stems.get(0).getStem();
       }
-    };
+    }
   }
 }
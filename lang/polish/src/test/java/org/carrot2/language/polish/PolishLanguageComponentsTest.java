@@ -47,8 +47,11 @@ public class PolishLanguageComponentsTest {
   public void testStemming() throws Exception {
     final Stemmer stemmer = getComponents().get(Stemmer.class);
 
+    final MutableCharArray result = new MutableCharArray();
     for (String[] pair : getStemmingTestData()) {
       Assertions.assertThat(stemmer.stem(pair[0]).toString()).isEqualTo(pair[1]);
+      Assertions.assertThat(stemmer.stem(pair[0], result)).isEqualTo(pair[1].length());
+      Assertions.assertThat(result.toString()).isEqualTo(pair[1]);
     }
   }
 